@@ -0,0 +1,90 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultBase64Codec;
+
+/**
+ * <p>
+ * A Base64 encoder/decoder (RFC 4648) that reads straight out of a {@link Buffer} and writes into a
+ * {@link WritableBuffer}, starting at its writer index. Use it for e.g. Authorization headers, JWTs
+ * and EAP payloads without going through a {@link String} and a <code>byte[]</code> first.
+ * </p>
+ *
+ * <p>
+ * The decoder is strict: anything outside of the alphabet (including whitespace and line breaks) is
+ * rejected, as is misplaced or too much padding and any non-zero bits left over in the last character.
+ * Both padded and unpadded input is accepted though, regardless of whether the codec is configured to
+ * produce padding when encoding.
+ * </p>
+ */
+public interface Base64Codec {
+
+    /**
+     * The standard alphabet (RFC 4648 section 4) with padding.
+     */
+    static Base64Codec standard() {
+        return DefaultBase64Codec.STANDARD;
+    }
+
+    /**
+     * The URL and filename safe alphabet (RFC 4648 section 5) without padding, which is
+     * what is used by e.g. JWTs.
+     */
+    static Base64Codec url() {
+        return DefaultBase64Codec.URL;
+    }
+
+    /**
+     * Get a codec with the same alphabet that does (or doesn't) pad the encoded output.
+     */
+    Base64Codec withPadding(boolean padding);
+
+    /**
+     * The number of bytes it takes to encode the given number of bytes.
+     */
+    int encodedLength(int length);
+
+    /**
+     * Encode the bytes between offset (inclusive) and offset + length (exclusive) of the given buffer.
+     *
+     * @return the number of bytes written.
+     * @throws IllegalArgumentException in case the range isn't within the buffer.
+     * @throws IndexOutOfBoundsException in case there isn't enough room in the destination buffer, in
+     *                                   which case nothing is written.
+     */
+    int encode(Buffer src, int offset, int length, WritableBuffer dst) throws IllegalArgumentException, IndexOutOfBoundsException;
+
+    /**
+     * Encode the visible bytes of the given buffer, which are the readable ones in case of
+     * a {@link ReadableBuffer}.
+     */
+    int encode(Buffer src, WritableBuffer dst) throws IndexOutOfBoundsException;
+
+    default Buffer encode(final Buffer src) {
+        final WritableBuffer dst = WritableBuffer.of(Math.max(1, encodedLength(DefaultBase64Codec.visibleLength(src))));
+        encode(src, dst);
+        return dst.build();
+    }
+
+    /**
+     * Decode the bytes between offset (inclusive) and offset + length (exclusive) of the given buffer.
+     *
+     * @return the number of bytes written.
+     * @throws IllegalArgumentException in case the range isn't within the buffer or if it isn't
+     *                                  valid Base64, in which case nothing is written.
+     * @throws IndexOutOfBoundsException in case there isn't enough room in the destination buffer, in
+     *                                   which case nothing is written.
+     */
+    int decode(Buffer src, int offset, int length, WritableBuffer dst) throws IllegalArgumentException, IndexOutOfBoundsException;
+
+    /**
+     * Decode the visible bytes of the given buffer, which are the readable ones in case of
+     * a {@link ReadableBuffer}.
+     */
+    int decode(Buffer src, WritableBuffer dst) throws IllegalArgumentException, IndexOutOfBoundsException;
+
+    default Buffer decode(final Buffer src) throws IllegalArgumentException {
+        final WritableBuffer dst = WritableBuffer.of(DefaultBase64Codec.visibleLength(src) / 4 * 3 + 3);
+        decode(src, dst);
+        return dst.build();
+    }
+}
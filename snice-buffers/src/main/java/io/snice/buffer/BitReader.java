@@ -0,0 +1,91 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultBitReader;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * Reads bit fields of arbitrary width (1 - 64 bits) at arbitrary bit positions of a {@link Buffer}.
+ * This is for all those protocols that pack their fields tighter than a byte, such as the flags of
+ * a GTP header, ASN.1 PER or many of the 3GPP information elements.
+ * </p>
+ *
+ * <p>
+ * Bits are numbered from the most significant bit of the first byte, i.e., network bit order, and
+ * bit position <code>n</code> is bit <code>7 - (n % 8)</code> of byte <code>n / 8</code> as counted by
+ * {@link Buffer#getBit(int, int)}. The values are unsigned unless you ask for them to be signed. As with
+ * the other indexes, the bit positions are based on the underlying buffer and reading bits does
+ * not move the reader index of a {@link ReadableBuffer}.
+ * </p>
+ */
+public interface BitReader {
+
+    /**
+     * Read the bits of the entire buffer.
+     */
+    static BitReader of(final Buffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        return DefaultBitReader.of(buffer, 0, buffer.capacity());
+    }
+
+    /**
+     * Read the bits of the readable bytes of the buffer only.
+     */
+    static BitReader of(final ReadableBuffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        final int start = buffer.getReaderIndex();
+        return DefaultBitReader.of(buffer, start, start + buffer.getReadableBytes());
+    }
+
+    /**
+     * Read the given number of bits as an unsigned value and move the bit position forward.
+     *
+     * @param count the number of bits, 1 - 64 (inclusive)
+     * @throws IndexOutOfBoundsException in case there aren't that many bits left.
+     * @throws IllegalArgumentException in case the count isn't within 1 - 64.
+     */
+    long readBits(int count) throws IndexOutOfBoundsException, IllegalArgumentException;
+
+    /**
+     * Same as {@link #readBits(int)} but the value is treated as a two's complement number
+     * and will be sign extended.
+     */
+    default long readSignedBits(final int count) throws IndexOutOfBoundsException, IllegalArgumentException {
+        final long value = readBits(count);
+        return count == 64 ? value : value << (64 - count) >> (64 - count);
+    }
+
+    default boolean readBit() throws IndexOutOfBoundsException {
+        return readBits(1) == 1;
+    }
+
+    /**
+     * Read the given number of bits at the given bit position without moving
+     * the current bit position.
+     */
+    long getBits(long bitPosition, int count) throws IndexOutOfBoundsException, IllegalArgumentException;
+
+    /**
+     * Skip the given number of bits.
+     */
+    void skipBits(long count) throws IndexOutOfBoundsException;
+
+    /**
+     * Move forward to the next byte boundary, unless we already are on one.
+     */
+    void alignToByte();
+
+    long getBitPosition();
+
+    void setBitPosition(long bitPosition) throws IndexOutOfBoundsException;
+
+    long getReadableBits();
+
+    /**
+     * The index of the byte the current bit position is within.
+     */
+    default int getByteIndex() {
+        return (int) (getBitPosition() >>> 3);
+    }
+}
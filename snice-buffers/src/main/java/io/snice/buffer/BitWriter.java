@@ -0,0 +1,53 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultBitWriter;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * The writing counterpart of the {@link BitReader}, which writes bit fields of arbitrary width
+ * (1 - 64 bits) to a {@link WritableBuffer}, starting at the current writer index and using the same
+ * (network) bit order as the {@link BitReader}.
+ * </p>
+ *
+ * <p>
+ * A byte that has only been partially written is still written to the buffer right away, with the
+ * bits that are yet to be written set to zero, and the writer index of the buffer always points to the
+ * byte after it. As such, there is nothing to flush and you can build the buffer at any time. However,
+ * don't write to the buffer directly while you are in the middle of a byte.
+ * </p>
+ */
+public interface BitWriter {
+
+    static BitWriter of(final WritableBuffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        return DefaultBitWriter.of(buffer);
+    }
+
+    /**
+     * Write the lowest <code>count</code> bits of the given value.
+     *
+     * @param value the value, where any bits above the <code>count</code> lowest are ignored.
+     * @param count the number of bits, 1 - 64 (inclusive).
+     * @throws IndexOutOfBoundsException in case there is no room left in the buffer.
+     * @throws IllegalArgumentException in case the count isn't within 1 - 64.
+     */
+    void writeBits(long value, int count) throws IndexOutOfBoundsException, IllegalArgumentException;
+
+    default void writeBit(final boolean on) throws IndexOutOfBoundsException {
+        writeBits(on ? 1 : 0, 1);
+    }
+
+    /**
+     * Move forward to the next byte boundary, leaving the remaining bits of the current
+     * byte as zeros. Does nothing if we already are on a byte boundary.
+     */
+    void alignToByte();
+
+    /**
+     * The position of the next bit to be written, which is based on the underlying buffer, i.e., the writer
+     * index times eight, minus the bits that are still left of a partially written byte.
+     */
+    long getBitPosition();
+}
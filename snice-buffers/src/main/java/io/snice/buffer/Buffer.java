@@ -1,10 +1,21 @@
 package io.snice.buffer;
 
+import io.snice.buffer.impl.BufferHashing;
+import io.snice.buffer.impl.BufferSpliterator;
+import io.snice.buffer.impl.BufferStreams;
+import io.snice.buffer.impl.DefaultBufferComparator;
 import io.snice.buffer.impl.DefaultImmutableBuffer;
 import io.snice.net.IPv4;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.Checksum;
 
 import static io.snice.preconditions.PreConditions.assertArray;
 import static io.snice.preconditions.PreConditions.assertNotNull;
@@ -37,7 +48,7 @@ import static io.snice.preconditions.PreConditions.assertNotNull;
  * them into something a little more usable.
  * </p>
  */
-public interface Buffer {
+public interface Buffer extends Comparable<Buffer> {
 
     byte AT = '@';
     byte COLON = ':';
@@ -238,6 +249,59 @@ public interface Buffer {
      */
     Buffer toBuffer();
 
+    /**
+     * <p>
+     * Get a {@link Buffer} with the same content as {@link #toBuffer()} but which doesn't keep a
+     * (much) larger byte-array alive. A slice shares the byte-array of the buffer it was sliced out of,
+     * which is great while parsing but if you hang on to e.g. a 20 byte tag from a 64 KB packet, the
+     * entire 64 KB is kept around.
+     * </p>
+     *
+     * <p>
+     * This only copies the bytes if the underlying byte-array is more than
+     * {@link Buffers#DEFAULT_DETACH_RATIO} times larger than the content, otherwise you get
+     * back the same as {@link #toBuffer()}. See {@link Buffers#detach(Buffer, double)}.
+     * </p>
+     */
+    default Buffer compact() {
+        return Buffers.detach(this);
+    }
+
+    /**
+     * The number of bytes of the underlying byte-storage that is kept alive by this buffer. For a
+     * slice, this is the size of the entire byte-array it was sliced out of.
+     */
+    default int getRetainedBytes() {
+        return capacity();
+    }
+
+    /**
+     * Get a read-only {@link ByteBuffer} view of the visible bytes of this buffer, which shares the
+     * underlying byte-array rather than copying it. Its position is zero and its limit is the number
+     * of visible bytes. For a {@link ReadableBuffer}, the view starts at the reader index but
+     * reading from the view does not move the reader index.
+     */
+    default ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(getContent()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Get an {@link InputStream} over the visible bytes of this buffer, for handing it over to any
+     * API that wants a stream, without copying it. The stream supports mark/reset, where a reset without
+     * a mark goes back to the start of the stream, and, as with {@link #asByteBuffer()}, reading from it
+     * doesn't move the reader index of a {@link ReadableBuffer}.
+     */
+    default InputStream asInputStream() {
+        return BufferStreams.inputStream(asByteBuffer());
+    }
+
+    /**
+     * Same as {@link #asInputStream()} but as a {@link ReadableByteChannel}.
+     */
+    default ReadableByteChannel asReadableByteChannel() {
+        return BufferStreams.readableChannel(asByteBuffer());
+    }
+
     /**
      * Get the raw underlying byte-buffer of this {@link Buffer}.
      *
@@ -446,6 +510,169 @@ public interface Buffer {
      */
     int indexOf(byte b) throws ByteNotFoundException, IllegalArgumentException;
 
+    /**
+     * <p>
+     * Find the first occurrence of the given sequence of bytes, as opposed to {@link #indexOf(byte...)}, which
+     * finds the first byte that matches any of the given bytes.
+     * </p>
+     *
+     * <p>
+     * Note that the pattern is compiled on every call so if you are searching for the same pattern
+     * over and over again, compile it once using {@link BufferPattern#of(Buffer)} and use
+     * {@link #indexOf(BufferPattern)} instead.
+     * </p>
+     *
+     * <p>
+     * Just as with {@link #indexOf(byte)}, if this is a {@link ReadableBuffer} we will start searching
+     * from the reader index but the returned index is based on the underlying buffer.
+     * </p>
+     *
+     * @param pattern the bytes to search for.
+     * @return the index of the first byte of the first match or -1 (negative one) if not found.
+     * @throws IllegalArgumentException in case the pattern is null
+     */
+    default int indexOf(final Buffer pattern) throws IllegalArgumentException {
+        return indexOf(BufferPattern.of(pattern));
+    }
+
+    /**
+     * Same as {@link #indexOf(Buffer)} but start searching at the given index.
+     */
+    default int indexOf(final int startIndex, final Buffer pattern) throws IllegalArgumentException {
+        return indexOf(startIndex, BufferPattern.of(pattern));
+    }
+
+    /**
+     * Find the last occurrence of the given sequence of bytes.
+     *
+     * @return the index of the first byte of the last match or -1 (negative one) if not found.
+     */
+    default int lastIndexOf(final Buffer pattern) throws IllegalArgumentException {
+        return lastIndexOf(BufferPattern.of(pattern));
+    }
+
+    /**
+     * Check whether this buffer contains the given sequence of bytes.
+     */
+    default boolean contains(final Buffer pattern) throws IllegalArgumentException {
+        return indexOf(pattern) != -1;
+    }
+
+    /**
+     * Same as {@link #indexOf(Buffer)} but with a pre-compiled pattern.
+     */
+    default int indexOf(final BufferPattern pattern) throws IllegalArgumentException {
+        return indexOf(0, pattern);
+    }
+
+    /**
+     * Same as {@link #indexOf(int, Buffer)} but with a pre-compiled pattern.
+     */
+    default int indexOf(final int startIndex, final BufferPattern pattern) throws IllegalArgumentException {
+        assertNotNull(pattern, "The pattern cannot be null");
+        return pattern.indexOf(this, startIndex, capacity());
+    }
+
+    /**
+     * Same as {@link #lastIndexOf(Buffer)} but with a pre-compiled pattern.
+     */
+    default int lastIndexOf(final BufferPattern pattern) throws IllegalArgumentException {
+        assertNotNull(pattern, "The pattern cannot be null");
+        return pattern.lastIndexOf(this, 0, capacity());
+    }
+
+    /**
+     * Same as {@link #contains(Buffer)} but with a pre-compiled pattern.
+     */
+    default boolean contains(final BufferPattern pattern) throws IllegalArgumentException {
+        return indexOf(pattern) != -1;
+    }
+
+    /**
+     * <p>
+     * Split the buffer on the given delimiter where every token is a slice of this buffer, i.e.,
+     * no bytes are copied. Every delimiter separates two tokens so "a,,b," split on ',' gives
+     * you "a", "", "b" and "". An empty buffer has no tokens at all.
+     * </p>
+     *
+     * <p>
+     * The stream is sequential but it can be turned into a parallel one, in which case the buffer is
+     * split up between the threads on delimiter boundaries. If you rather iterate over the tokens,
+     * just grab the {@link Stream#iterator()}.
+     * </p>
+     *
+     * <p>
+     * If this is a {@link ReadableBuffer}, we will start from the reader index.
+     * </p>
+     */
+    default Stream<Buffer> split(final byte delimiter) {
+        return StreamSupport.stream(BufferSpliterator.split(this, 0, capacity(), delimiter), false);
+    }
+
+    /**
+     * Same as {@link #split(byte)} but splits the buffer into lines, where a line is terminated by
+     * either LF or CRLF. Just as with {@link String#lines()}, the line terminator is not part
+     * of the line and there is no empty line after a trailing terminator.
+     */
+    default Stream<Buffer> lines() {
+        return StreamSupport.stream(BufferSpliterator.lines(this, 0, capacity()), false);
+    }
+
+    /**
+     * Feed the visible bytes of this buffer to the given checksum (e.g. a {@link java.util.zip.CRC32C}),
+     * straight from the backing byte-array if there is one, i.e., without copying anything.
+     *
+     * @return the value of the checksum after it has been updated.
+     */
+    default long checksum(final Checksum checksum) {
+        BufferHashing.update(checksum, this);
+        return checksum.getValue();
+    }
+
+    /**
+     * Feed the bytes between offset (inclusive) and offset + length (exclusive) to the given checksum.
+     *
+     * @return the value of the checksum after it has been updated.
+     * @throws IllegalArgumentException in case the range isn't within the buffer.
+     */
+    default long checksum(final Checksum checksum, final int offset, final int length) throws IllegalArgumentException {
+        BufferHashing.update(checksum, this, offset, length);
+        return checksum.getValue();
+    }
+
+    /**
+     * Feed the visible bytes of this buffer to the given message digest and complete it.
+     *
+     * @return the resulting hash, as given by {@link MessageDigest#digest()}.
+     */
+    default byte[] digest(final MessageDigest digest) {
+        BufferHashing.update(digest, this);
+        return digest.digest();
+    }
+
+    /**
+     * Feed the bytes between offset (inclusive) and offset + length (exclusive) to the given message digest
+     * but without completing it, so that you can keep adding to it, e.g. when calculating the digest over
+     * several header values for SIP Digest authentication.
+     *
+     * @throws IllegalArgumentException in case the range isn't within the buffer.
+     */
+    default void update(final MessageDigest digest, final int offset, final int length) throws IllegalArgumentException {
+        BufferHashing.update(digest, this, offset, length);
+    }
+
+    /**
+     * A fast, non-cryptographic, 64-bit hash of the visible bytes of this buffer, for e.g. sharding. This is
+     * XXH64 with a seed of zero and as such, it gives you the same value as any other implementation of it.
+     */
+    default long hash64() {
+        return BufferHashing.xxHash64(this, 0L);
+    }
+
+    default long hash64(final long seed) {
+        return BufferHashing.xxHash64(this, seed);
+    }
+
     /**
      * Count the number of occurences of the given byte.
      *
@@ -862,6 +1089,24 @@ public interface Buffer {
 
     boolean equalsIgnoreCase(Object b);
 
+    /**
+     * Compare this buffer with another one lexicographically, treating every byte as an unsigned value
+     * and where a buffer that is a prefix of the other is considered smaller. As with {@link #equals(Object)},
+     * only the visible bytes are considered. See {@link BufferComparator}.
+     */
+    @Override
+    default int compareTo(final Buffer other) {
+        return BufferComparator.unsigned().compare(this, other);
+    }
+
+    /**
+     * Find the index of the first byte that differs between this and the other buffer, or -1 if
+     * they are equal. If one buffer is a prefix of the other, the index is the length of the shorter one.
+     */
+    default int mismatch(final Buffer other) {
+        return DefaultBufferComparator.mismatch(this, other);
+    }
+
     @Override
     int hashCode();
 
@@ -0,0 +1,33 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultBufferComparator;
+
+import java.util.Comparator;
+
+/**
+ * <p>
+ * Compares buffers lexicographically, byte by byte, where every byte is treated as an unsigned value
+ * (same as {@link java.util.Arrays#compareUnsigned(byte[], byte[])}) and where a buffer that is a prefix
+ * of another is considered to be smaller. This is the same order as you'd get by comparing ASCII strings
+ * but without having to decode anything and it works across all the different types of buffers, where
+ * only the readable bytes of a {@link ReadableBuffer} are compared.
+ * </p>
+ *
+ * <p>
+ * This is also the order used by {@link Buffer#compareTo(Buffer)} and the {@link SortedBufferSet}.
+ * </p>
+ */
+public interface BufferComparator extends Comparator<Buffer> {
+
+    static BufferComparator unsigned() {
+        return DefaultBufferComparator.UNSIGNED;
+    }
+
+    /**
+     * Compare the bytes between aOffset (inclusive) and aOffset + aLength (exclusive) of the first buffer
+     * with those of the given range of the second buffer, without having to slice them out first.
+     *
+     * @throws IllegalArgumentException in case any of the ranges isn't within its buffer.
+     */
+    int compare(Buffer a, int aOffset, int aLength, Buffer b, int bOffset, int bLength) throws IllegalArgumentException;
+}
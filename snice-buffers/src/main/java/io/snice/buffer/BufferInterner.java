@@ -0,0 +1,110 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultBufferInterner;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+
+/**
+ * <p>
+ * Header names, method names, realms, hosts etc show up over and over again in every message we
+ * process and if you keep them around (e.g. as part of some dialog or session state) every one of
+ * those slices will keep the entire message it came from alive. The interner maps a range of bytes
+ * to a single, canonical and compact {@link Buffer} (backed by an array that is exactly as large as the
+ * content), so that long-lived state shares one small copy and so that you can compare
+ * interned buffers by identity.
+ * </p>
+ *
+ * <p>
+ * The interner is thread safe and bounded. It is a cache, not a registry, so when the table is full
+ * an old entry is replaced by a new one and interning the old content again will give you a new
+ * instance. As such, identity comparisons are only safe for as long as the number of distinct
+ * values is well below the capacity, which is the case for the things you want to intern
+ * anyway.
+ * </p>
+ */
+public interface BufferInterner {
+
+    /**
+     * The default number of entries in the table.
+     */
+    int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * The default max length of the buffers that are interned.
+     */
+    int DEFAULT_MAX_LENGTH = 256;
+
+    static BufferInterner create() {
+        return withCapacity(DEFAULT_CAPACITY).build();
+    }
+
+    /**
+     * @param capacity the max number of entries, which will be rounded up to the closest power of two.
+     */
+    static Builder withCapacity(final int capacity) {
+        assertArgument(capacity >= 1 && capacity <= 1 << 24, "The capacity must be between 1 - 16777216");
+        return new Builder(capacity);
+    }
+
+    /**
+     * Get the canonical instance for the content of the given buffer, which is the readable
+     * bytes in case of a {@link ReadableBuffer}. The reader index is not moved.
+     */
+    Buffer intern(Buffer buffer);
+
+    /**
+     * Get the canonical instance for the bytes between the offset (inclusive) and
+     * offset + length (exclusive) of the given buffer, without first having to slice it out.
+     *
+     * If the range is longer than the max length of this interner, you will get a compact
+     * copy of the range, which is not stored in the table.
+     *
+     * @throws IllegalArgumentException in case the range isn't within the buffer.
+     */
+    Buffer intern(Buffer buffer, int offset, int length) throws IllegalArgumentException;
+
+    default Buffer intern(final String value) {
+        return intern(Buffers.wrap(value));
+    }
+
+    /**
+     * The max number of entries in the table.
+     */
+    int capacity();
+
+    void clear();
+
+    class Builder {
+
+        private final int capacity;
+        private boolean ignoreCase;
+        private int maxLength = DEFAULT_MAX_LENGTH;
+
+        private Builder(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * Ignore the case of 7-bit ASCII letters so that e.g. "Call-ID" and "call-id" are
+         * interned as the same instance, which is the one that was interned first.
+         */
+        public Builder withIgnoreCase(final boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+            return this;
+        }
+
+        /**
+         * Buffers longer than this are never stored in the table since they are unlikely
+         * to repeat and would just push out the ones that do.
+         */
+        public Builder withMaxLength(final int maxLength) {
+            assertArgument(maxLength >= 0, "The max length cannot be negative");
+            this.maxLength = maxLength;
+            return this;
+        }
+
+        public BufferInterner build() {
+            return DefaultBufferInterner.of(capacity, maxLength, ignoreCase);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultBufferLookup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * Resolves a token, such as a SIP method, a header name (including its compact form) or a
+ * Diameter command name, to a constant without first converting it to a {@link String}. The
+ * set of tokens is known up front and is compiled into a minimal perfect hash table, with exactly
+ * one slot per key, so that a lookup is a single hash over the bytes of the token followed by a single
+ * comparison against the only candidate, all without allocating anything.
+ * </p>
+ *
+ * <pre>
+ * final BufferLookup&lt;Method&gt; methods = BufferLookup.forEnum(Method.class).build();
+ * final Method method = methods.lookup(buffer, 0, 6);
+ * </pre>
+ */
+public interface BufferLookup<E> {
+
+    static <E> Builder<E> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * A builder that already has the name of every constant of the given enum as its key.
+     */
+    static <E extends Enum<E>> Builder<E> forEnum(final Class<E> type) {
+        assertNotNull(type, "The type cannot be null");
+        final Builder<E> builder = new Builder<>();
+        for (final E constant : type.getEnumConstants()) {
+            builder.withEntry(constant.name(), constant);
+        }
+        return builder;
+    }
+
+    /**
+     * Look up the content of the given buffer, which is the readable bytes in case of a
+     * {@link ReadableBuffer}.
+     *
+     * @return the matching value or null if there is none.
+     */
+    E lookup(Buffer buffer);
+
+    /**
+     * Look up the bytes between offset (inclusive) and offset + length (exclusive) of the
+     * given buffer.
+     *
+     * @return the matching value or null if there is none.
+     * @throws IllegalArgumentException in case the range isn't within the buffer.
+     */
+    E lookup(Buffer buffer, int offset, int length) throws IllegalArgumentException;
+
+    /**
+     * The number of keys.
+     */
+    int size();
+
+    class Builder<E> {
+
+        private final List<Buffer> keys = new ArrayList<>();
+        private final List<E> values = new ArrayList<>();
+        private boolean ignoreCase;
+
+        private Builder() {
+            // use the static factory methods
+        }
+
+        /**
+         * Map the given key to the given value. The same value may be used for several keys, such as
+         * for the long and compact form of a SIP header.
+         *
+         * @throws IllegalArgumentException in case the key is null or empty or the value is null.
+         */
+        public Builder<E> withEntry(final Buffer key, final E value) throws IllegalArgumentException {
+            Buffers.assertNotEmpty(key, "The key cannot be null or empty");
+            assertNotNull(value, "The value cannot be null");
+            keys.add(key.toBuffer());
+            values.add(value);
+            return this;
+        }
+
+        public Builder<E> withEntry(final String key, final E value) throws IllegalArgumentException {
+            assertNotNull(key, "The key cannot be null");
+            return withEntry(Buffers.wrap(key), value);
+        }
+
+        /**
+         * Ignore the case of 7-bit ASCII letters, both in the keys and when looking
+         * them up. Any other byte has to match exactly.
+         */
+        public Builder<E> withIgnoreCase(final boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException in case there are no keys or if the same key
+         *                                  (ignoring case if so configured) has been added twice.
+         */
+        public BufferLookup<E> build() throws IllegalArgumentException {
+            assertArgument(!keys.isEmpty(), "You must specify at least one entry");
+            return DefaultBufferLookup.of(keys, values, ignoreCase);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultBufferMap;
+import io.snice.buffer.impl.StripedBufferMap;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+
+/**
+ * <p>
+ * A map keyed by the content of a {@link Buffer}, for when you need to look up state by e.g. a Call-ID,
+ * a Session-Id or an IMSI. Unlike a <code>HashMap&lt;Buffer, V&gt;</code>, you can look up a key straight
+ * out of a larger buffer, such as the message you just received, using {@link #get(Buffer, int, int)}
+ * without first slicing it out.
+ * </p>
+ *
+ * <p>
+ * The keys are copied into the map (only the bytes of the key) so the map will never keep the buffer
+ * the key came from alive. The map is an open addressing hash table where the hash of every key is
+ * stored along side the key, which means that we only compare the bytes of the keys when the
+ * hashes match.
+ * </p>
+ *
+ * <p>
+ * If the key is a {@link ReadableBuffer}, only the readable bytes are used. Null values are not allowed
+ * since null is what you get back when there is no such key.
+ * </p>
+ *
+ * <p>
+ * The map returned by {@link #create()} is not thread safe. Use {@link #concurrent()} for one that is.
+ * </p>
+ */
+public interface BufferMap<V> {
+
+    static <V> BufferMap<V> create() {
+        return DefaultBufferMap.of(16);
+    }
+
+    /**
+     * Create a new map that can hold the expected number of entries without having to grow.
+     */
+    static <V> BufferMap<V> create(final int expectedSize) {
+        assertArgument(expectedSize >= 0, "The expected size cannot be negative");
+        return DefaultBufferMap.of(expectedSize);
+    }
+
+    /**
+     * A thread safe map, which is split into a number of stripes, each one protected by its own
+     * read/write lock, so that writers to different stripes don't block each other and readers
+     * only ever wait for a writer to the same stripe.
+     */
+    static <V> BufferMap<V> concurrent() {
+        return concurrent(16);
+    }
+
+    /**
+     * @param stripes the number of stripes, which will be rounded up to the closest power of two.
+     */
+    static <V> BufferMap<V> concurrent(final int stripes) {
+        assertArgument(stripes >= 1 && stripes <= 1 << 16, "The number of stripes must be between 1 - 65536");
+        return StripedBufferMap.of(stripes);
+    }
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    V get(Buffer key);
+
+    /**
+     * Look up the value of the key that is found within the given buffer, between
+     * the offset (inclusive) and offset + length (exclusive).
+     *
+     * @throws IllegalArgumentException in case the range isn't within the buffer.
+     */
+    V get(Buffer buffer, int offset, int length) throws IllegalArgumentException;
+
+    default boolean containsKey(final Buffer key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return the previous value for the key, or null if there was none.
+     */
+    V put(Buffer key, V value);
+
+    /**
+     * If there is no value for the given key, compute one and store it in the map. For
+     * the concurrent version, the function is called while holding the lock of the stripe so
+     * keep it short.
+     *
+     * @return the current (existing or computed) value for the key.
+     */
+    V computeIfAbsent(Buffer key, Function<Buffer, ? extends V> function);
+
+    /**
+     * @return the value that was removed, or null if there was none.
+     */
+    V remove(Buffer key);
+
+    void clear();
+
+    /**
+     * Note that the key given to the action is a new {@link Buffer} every time.
+     */
+    void forEach(BiConsumer<? super Buffer, ? super V> action);
+}
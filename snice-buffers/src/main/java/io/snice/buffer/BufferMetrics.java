@@ -0,0 +1,120 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultBufferMetrics;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Counts the byte-arrays that are allocated, and the bytes that are copied, behind your back. E.g.
+ * {@link Buffer#toBuffer()} and {@link Buffer#getContent()} on a {@link ReadWriteBuffer},
+ * {@link Buffers#wrap(Buffer...)}, {@link Buffer#toWritableBuffer()} and comparing an immutable buffer
+ * with a writable one all copy, which is easy to miss when looking at the code.
+ * </p>
+ *
+ * <p>
+ * The metrics are off by default and are turned on by starting the JVM with
+ * <code>-Dio.snice.buffer.metrics=true</code>. When off, the instrumented code paths check a
+ * <code>static final</code> flag, which the JIT will remove, so there is no cost to it. When on,
+ * every n:th copy (see {@link #SAMPLE_RATE_PROPERTY}) also walks the stack to find the code outside
+ * of this library that caused it, which is what {@link #getTopCopySources(int)} reports.
+ * </p>
+ */
+public interface BufferMetrics {
+
+    String ENABLED_PROPERTY = "io.snice.buffer.metrics";
+
+    /**
+     * Sample one out of this many copies for {@link #getTopCopySources(int)}. Defaults to 100, and
+     * anything below 1 is treated as 1, i.e. every copy is sampled.
+     */
+    String SAMPLE_RATE_PROPERTY = "io.snice.buffer.metrics.sampleRate";
+
+    /**
+     * The kind of operation that allocated or copied.
+     */
+    enum Category {
+        /**
+         * A new {@link WritableBuffer} or {@link ReadWriteBuffer} of a given capacity.
+         */
+        NEW_BUFFER,
+        TO_BUFFER,
+        TO_READABLE_BUFFER,
+        TO_WRITABLE_BUFFER,
+        GET_CONTENT,
+        CLONE,
+
+        /**
+         * Combining buffers through any of the {@link Buffers} wrap methods.
+         */
+        WRAP,
+
+        /**
+         * Comparing an immutable buffer with a writable one.
+         */
+        EQUALS
+    }
+
+    static boolean isEnabled() {
+        return DefaultBufferMetrics.ENABLED;
+    }
+
+    /**
+     * The metrics of this JVM, which will stay at zero unless {@link #isEnabled()}.
+     */
+    static BufferMetrics get() {
+        return DefaultBufferMetrics.INSTANCE;
+    }
+
+    long getAllocations(Category category);
+
+    long getAllocatedBytes(Category category);
+
+    long getCopies(Category category);
+
+    long getCopiedBytes(Category category);
+
+    /**
+     * The places in your code that most of the sampled copies originated from, most frequent first.
+     */
+    List<CopySource> getTopCopySources(int max);
+
+    /**
+     * The listener is called on the thread that allocated or copied, so keep it cheap.
+     */
+    void addListener(Listener listener);
+
+    void removeListener(Listener listener);
+
+    /**
+     * Zero all counters and forget about all sampled copy sources.
+     */
+    void reset();
+
+    interface Listener {
+
+        default void onAllocation(final Category category, final int bytes) {
+            // nothing by default
+        }
+
+        default void onCopy(final Category category, final int bytes) {
+            // nothing by default
+        }
+    }
+
+    interface CopySource {
+
+        Category getCategory();
+
+        /**
+         * The first frame of the stack that is outside of this library.
+         */
+        StackTraceElement getCallSite();
+
+        /**
+         * The number of sampled copies from this call site, which is roughly the number
+         * of copies divided by the sample rate.
+         */
+        long getSamples();
+    }
+}
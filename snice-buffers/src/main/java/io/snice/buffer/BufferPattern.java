@@ -0,0 +1,87 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultBufferPattern;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * A pre-compiled sequence of bytes to search for within a {@link Buffer}, such as a MIME boundary
+ * or e.g. <code>;branch=</code>.
+ * </p>
+ *
+ * <p>
+ * Searching for a multi-byte sequence through {@link Buffer#indexOf(Buffer)} is fine for the occasional
+ * search but since the search algorithm may need to pre-compute tables based on the pattern, you
+ * want to compile the pattern once and then re-use it across all your searches. A {@link BufferPattern}
+ * is immutable and as such, safe to share between threads.
+ * </p>
+ *
+ * <p>
+ * Depending on the length of the pattern, different search algorithms are used. Very short patterns
+ * are just scanned for naively, medium sized patterns use Boyer-Moore-Horspool and long patterns use the
+ * Two-Way algorithm, which guarantees linear time irrespective of the pattern.
+ * </p>
+ */
+public interface BufferPattern {
+
+    /**
+     * Compile the given {@link Buffer} into a {@link BufferPattern}.
+     *
+     * @param pattern the bytes to search for. Note that the content is copied so the {@link BufferPattern}
+     *                will not be affected if the passed in buffer is a {@link WritableBuffer} that is
+     *                later changed.
+     * @throws IllegalArgumentException in case the pattern is null
+     */
+    static BufferPattern of(final Buffer pattern) throws IllegalArgumentException {
+        assertNotNull(pattern, "The pattern cannot be null");
+        return DefaultBufferPattern.of(pattern.getContent());
+    }
+
+    /**
+     * Compile the given {@link String} (encoded as UTF-8) into a {@link BufferPattern}.
+     *
+     * @throws IllegalArgumentException in case the pattern is null
+     */
+    static BufferPattern of(final String pattern) throws IllegalArgumentException {
+        assertNotNull(pattern, "The pattern cannot be null");
+        return of(Buffers.wrap(pattern));
+    }
+
+    /**
+     * The bytes we are searching for.
+     */
+    Buffer getPattern();
+
+    /**
+     * The length of the pattern, i.e., the number of bytes we are searching for.
+     */
+    int length();
+
+    /**
+     * Find the first occurrence of this pattern within the given {@link Buffer}.
+     *
+     * @param buffer the buffer to search in
+     * @param fromIndex the index (inclusive) from where to start searching. If less than zero, zero
+     *                  is assumed.
+     * @param toIndex the index (exclusive) where to stop searching. The pattern must be fully contained
+     *                before this index in order to match. If greater than the capacity of the buffer,
+     *                the capacity is assumed.
+     * @return the index of the first byte of the first match or -1 (negative one) if not found. If
+     * the pattern is empty, the <code>fromIndex</code> is returned (same as {@link String#indexOf(String)})
+     */
+    int indexOf(Buffer buffer, int fromIndex, int toIndex);
+
+    /**
+     * Same as {@link #indexOf(Buffer, int, int)} but will search for the last occurrence.
+     */
+    int lastIndexOf(Buffer buffer, int fromIndex, int toIndex);
+
+    default int indexOf(final Buffer buffer) {
+        return indexOf(buffer, 0, buffer.capacity());
+    }
+
+    default int lastIndexOf(final Buffer buffer) {
+        return lastIndexOf(buffer, 0, buffer.capacity());
+    }
+}
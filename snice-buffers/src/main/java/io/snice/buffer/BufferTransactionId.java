@@ -0,0 +1,62 @@
+package io.snice.buffer;
+
+import io.snice.protocol.TransactionId;
+import io.snice.protocol.TransactionIdGenerator;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * A {@link TransactionId} backed by a {@link Buffer}, which is what you want when the id is read off
+ * of, or written to, the wire as is (e.g. the branch of a SIP Via header or a Diameter hop-by-hop id)
+ * so that you don't have to convert it back and forth.
+ */
+public final class BufferTransactionId implements TransactionId {
+
+    private final Buffer id;
+
+    /**
+     * Note that a {@link ReadableBuffer} is turned into an immutable {@link Buffer}, using
+     * {@link Buffer#toBuffer()}, and that a writable buffer is copied.
+     */
+    public static BufferTransactionId of(final Buffer id) {
+        assertNotNull(id, "The id cannot be null");
+        assertArgument(!id.isEmpty(), "The id cannot be empty");
+        return new BufferTransactionId(id.toBuffer());
+    }
+
+    /**
+     * Generates ids of the given number of secure random bytes, using the {@link SecureRandomGenerator#shared()}
+     * generator, so generating ids does not contend on a single {@link java.security.SecureRandom}.
+     */
+    public static TransactionIdGenerator generator(final int size) {
+        assertArgument(size > 0, "The size of the id must be greater than zero");
+        final SecureRandomGenerator random = SecureRandomGenerator.shared();
+        return () -> new BufferTransactionId(random.nextBuffer(size));
+    }
+
+    private BufferTransactionId(final Buffer id) {
+        this.id = id;
+    }
+
+    public Buffer getBuffer() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return id.toHexString(false);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return id.equals(((BufferTransactionId) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+}
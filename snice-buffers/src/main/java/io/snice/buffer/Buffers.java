@@ -1,6 +1,7 @@
 package io.snice.buffer;
 
 import com.google.polo.pairing.HexDump;
+import io.snice.buffer.impl.DefaultBufferMetrics;
 import io.snice.buffer.impl.DefaultImmutableBuffer;
 import io.snice.buffer.impl.EmptyBuffer;
 import io.snice.net.IPv4;
@@ -88,21 +89,7 @@ public final class Buffers {
      */
     public static Buffer secureRandom(final int size) {
         assertArgument(size > 0, "The size of the randomized buffer must be greater than zero");
-        final SecureRandom ng = Holder.numberGenerator;
-        final byte[] bytes = new byte[size];
-        ng.nextBytes(bytes);
-        return Buffers.wrap(bytes);
-    }
-
-    /*
-     * Copied from java.lang.UUID.
-     *
-     *
-     * The random number generator used by this class to create random
-     * based UUIDs. In a holder class to defer initialization until needed.
-     */
-    private static class Holder {
-        static final SecureRandom numberGenerator = new SecureRandom();
+        return SecureRandomGenerator.shared().nextBuffer(size);
     }
 
     /**
@@ -192,7 +179,7 @@ public final class Buffers {
             return Buffers.wrap(b);
         }
 
-        final var writable = WritableBuffer.of(buffer.capacity() + 1);
+        final var writable = allocate(buffer.capacity() + 1);
         writable.write(buffer);
         writable.write(b);
         return writable.build();
@@ -208,7 +195,7 @@ public final class Buffers {
         }
 
         final int totalSize = buffer.capacity() + bytes.length;
-        final var writable = WritableBuffer.of(totalSize);
+        final var writable = allocate(totalSize);
         writable.write(buffer);
         writable.write(bytes);
         return writable.build();
@@ -222,7 +209,7 @@ public final class Buffers {
 
         // TODO: of a proper composite buffer
         final int size = (int)buffers.stream().mapToInt(Buffer::capacity).sum();
-        final var writable = WritableBuffer.of(size);
+        final var writable = allocate(size);
         for (int i = 0; i < buffers.size(); ++i) {
             buffers.get(i).writeTo(writable);
         }
@@ -233,6 +220,46 @@ public final class Buffers {
         return buffer;
     }
 
+    /**
+     * All the wrap methods that combine buffers copy them into a new array, which we allocate here
+     * so that it is accounted for in the {@link BufferMetrics}.
+     */
+    private static WritableBuffer allocate(final int size) {
+        if (DefaultBufferMetrics.ENABLED) {
+            DefaultBufferMetrics.INSTANCE.copy(BufferMetrics.Category.WRAP, size);
+        }
+        return WritableBuffer.of(new byte[size]);
+    }
+
+    /**
+     * The default max ratio between the size of the byte-array kept alive by a buffer and the
+     * number of bytes that are actually visible through it, before {@link #detach(Buffer)} makes a copy.
+     */
+    public static final double DEFAULT_DETACH_RATIO = 2.0;
+
+    public static Buffer detach(final Buffer buffer) {
+        return detach(buffer, DEFAULT_DETACH_RATIO);
+    }
+
+    /**
+     * Get an immutable {@link Buffer} with the same content as the given buffer (the readable
+     * bytes in case of a {@link ReadableBuffer}) but only copy the bytes if the underlying byte-array
+     * is more than <code>maxRatio</code> times the size of the content. Use this before
+     * storing a slice in any long-lived structure.
+     *
+     * @param maxRatio the max ratio between the retained and visible bytes, which must be at least 1.
+     *                 A ratio of 1 means that we copy unless the buffer uses the entire byte-array.
+     */
+    public static Buffer detach(final Buffer buffer, final double maxRatio) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        assertArgument(maxRatio >= 1.0, "The ratio must be at least 1");
+        final Buffer immutable = buffer.toBuffer();
+        if (immutable.getRetainedBytes() <= immutable.capacity() * maxRatio) {
+            return immutable;
+        }
+        return Buffer.of(immutable.getContent());
+    }
+
     /**
      * Wrap the specified buffers in a single buffer.
      *
@@ -253,7 +280,7 @@ public final class Buffers {
             size += buffers[i].capacity();
         }
 
-        final var writable = WritableBuffer.of(size);
+        final var writable = allocate(size);
         for (int i = 0; i < buffers.length; ++i) {
             buffers[i].writeTo(writable);
         }
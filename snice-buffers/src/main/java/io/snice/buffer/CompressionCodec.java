@@ -0,0 +1,158 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultCompressionCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * Compresses and decompresses {@link Buffer}s without first copying them into a <code>byte[]</code>
+ * (when the buffer is backed by an array, the {@link Deflater} is fed straight from it) and without
+ * growing a single output array. The output is instead handed to you as a sequence of chunks, each
+ * one at most {@link #getChunkSize()} bytes, which you can write to the network or disk as they come.
+ * If you do want a single buffer, {@link Buffers#wrap(List)} will glue them together.
+ * </p>
+ *
+ * <p>
+ * For large inputs, use the streaming {@link Encoder} and {@link Decoder}, which only ever hold on to
+ * one chunk of output (and, for the {@link #lz()} codec, one block of input) no matter how much
+ * data you push through them.
+ * </p>
+ */
+public interface CompressionCodec {
+
+    int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    /**
+     * The zlib format (RFC 1950), which is what the "deflate" content coding of HTTP is.
+     */
+    static CompressionCodec deflate() {
+        return deflate(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param level the compression level, 0 - 9, or -1 for the default level. See {@link Deflater}.
+     */
+    static CompressionCodec deflate(final int level) {
+        return DefaultCompressionCodec.deflate(level, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * The gzip format (RFC 1952). A single member is produced and only a single member is accepted
+     * when decompressing.
+     */
+    static CompressionCodec gzip() {
+        return gzip(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    static CompressionCodec gzip(final int level) {
+        return DefaultCompressionCodec.gzip(level, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * A fast LZ77 codec, which trades compression ratio for speed. The input is split into blocks of
+     * {@link #getChunkSize()} bytes, each one compressed on its own using the LZ4 block format and
+     * framed by its decompressed and compressed length. Note that the framing is not the LZ4 frame
+     * format, so only this codec can read what it produced.
+     */
+    static CompressionCodec lz() {
+        return DefaultCompressionCodec.lz(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Get a codec of the same type that produces chunks of (at most) the given size.
+     */
+    CompressionCodec withChunkSize(int chunkSize);
+
+    int getChunkSize();
+
+    /**
+     * Start compressing a stream of buffers. Every chunk of output is handed to the sink as
+     * soon as it is full.
+     */
+    Encoder newEncoder(Consumer<Buffer> sink);
+
+    /**
+     * Start decompressing a stream of buffers. Every chunk of output is handed to the sink as
+     * soon as it is full.
+     */
+    Decoder newDecoder(Consumer<Buffer> sink);
+
+    /**
+     * Compress the visible bytes of the given buffer, which are the readable ones in case
+     * of a {@link ReadableBuffer}.
+     */
+    default List<Buffer> compress(final Buffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        final List<Buffer> chunks = new ArrayList<>();
+        try (final Encoder encoder = newEncoder(chunks::add)) {
+            encoder.write(buffer);
+            encoder.finish();
+        }
+        return chunks;
+    }
+
+    /**
+     * Decompress the visible bytes of the given buffer, which are the readable ones in case
+     * of a {@link ReadableBuffer}.
+     *
+     * @throws BufferException in case the data is corrupt or truncated.
+     */
+    default List<Buffer> decompress(final Buffer buffer) throws BufferException {
+        assertNotNull(buffer, "The buffer cannot be null");
+        final List<Buffer> chunks = new ArrayList<>();
+        try (final Decoder decoder = newDecoder(chunks::add)) {
+            decoder.write(buffer);
+            decoder.finish();
+        }
+        return chunks;
+    }
+
+    /**
+     * An encoder holds on to native resources (the {@link Deflater}) so make sure to always
+     * close it, whether or not it was finished.
+     */
+    interface Encoder extends AutoCloseable {
+
+        /**
+         * Compress the visible bytes of the given buffer. Nothing is kept from the buffer
+         * once this method returns.
+         */
+        void write(Buffer buffer);
+
+        void write(Buffer buffer, int offset, int length) throws IllegalArgumentException;
+
+        /**
+         * Flush out the remaining output to the sink. The encoder cannot be written to after this.
+         */
+        void finish();
+
+        @Override
+        void close();
+    }
+
+    interface Decoder extends AutoCloseable {
+
+        /**
+         * @throws BufferException in case the data is corrupt.
+         */
+        void write(Buffer buffer) throws BufferException;
+
+        void write(Buffer buffer, int offset, int length) throws IllegalArgumentException, BufferException;
+
+        /**
+         * Flush out the remaining output to the sink. The decoder cannot be written to after this.
+         *
+         * @throws BufferException in case the stream was truncated.
+         */
+        void finish() throws BufferException;
+
+        @Override
+        void close();
+    }
+}
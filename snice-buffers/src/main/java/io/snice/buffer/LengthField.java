@@ -0,0 +1,76 @@
+package io.snice.buffer;
+
+/**
+ * <p>
+ * A length field that has been reserved in a {@link WritableBuffer} but whose value isn't
+ * known yet. This is the typical situation when encoding e.g. a Diameter AVP or a GTP IE where the
+ * length is in the header but you won't know it until you have written the value, which in turn may
+ * contain other AVPs/IEs, each with their own length field.
+ * </p>
+ *
+ * <p>
+ * So, reserve the length field ({@link WritableBuffer#reserveLength(int)}), write the rest
+ * and then {@link #commit()}, at which point the length is written into the reserved space.
+ * Nested length fields must be committed before the ones enclosing them, i.e., inner-most first,
+ * or the outer length will not include the inner padding.
+ * </p>
+ *
+ * Example, encoding a Diameter AVP (code, flags, length, value, padding):
+ *
+ * <pre>
+ *     final int start = buffer.getWriterIndex();
+ *     buffer.write(code);
+ *     buffer.write(flags);
+ *     final LengthField length = buffer.reserveLength(3, start);
+ *     buffer.write(value);
+ *     length.commitAndPad();
+ * </pre>
+ */
+public interface LengthField {
+
+    /**
+     * The index of the length field itself within the {@link WritableBuffer}.
+     */
+    int getIndex();
+
+    /**
+     * The index from where the length is counted.
+     */
+    int getStartIndex();
+
+    /**
+     * The number of bytes of the length field, which is between 1 and 4 (inclusive).
+     */
+    int getWidth();
+
+    boolean isCommitted();
+
+    /**
+     * Write the length, which is the number of bytes from the {@link #getStartIndex()} up until
+     * the current writer index, into the reserved length field.
+     *
+     * @return the length that was written.
+     * @throws IllegalStateException in case the length has already been committed, in case the writer
+     * index has been moved to before the end of the length field or is before the start index, or if the
+     * length doesn't fit in the reserved number of bytes.
+     */
+    int commit() throws IllegalStateException;
+
+    /**
+     * Same as {@link #commit()} but will also write zeros after the value until the number of bytes
+     * from the {@link #getStartIndex()} is a multiple of the given alignment. Note that the padding
+     * is not included in the length.
+     *
+     * @param alignment e.g. 4 for Diameter.
+     * @return the length that was written, which doesn't include the padding.
+     * @throws IndexOutOfBoundsException in case there is no room for the padding.
+     */
+    int commit(int alignment) throws IllegalStateException, IndexOutOfBoundsException;
+
+    /**
+     * Same as {@link #commit(int)} with an alignment of 4 bytes, which is what e.g. Diameter uses.
+     */
+    default int commitAndPad() throws IllegalStateException, IndexOutOfBoundsException {
+        return commit(4);
+    }
+}
@@ -0,0 +1,144 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultMultiPatternMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * Searches for many patterns at once in a single pass over a {@link Buffer}. Think header names,
+ * their compact forms, black-listed user agents etc. Doing an {@link Buffer#indexOf(Buffer)} per
+ * pattern means scanning the buffer once per pattern while this matcher (an Aho-Corasick automaton)
+ * will look at every byte only once, no matter how many patterns there are.
+ * </p>
+ *
+ * <p>
+ * Every pattern gets an id, which is the order in which it was added to the {@link Builder}
+ * (zero based), and every match is reported, including overlapping ones, through the
+ * {@link MatchListener}. Scanning does not allocate any memory so if your listener doesn't either,
+ * neither will the scan.
+ * </p>
+ *
+ * <p>
+ * A {@link MultiPatternMatcher} is immutable and safe to share between threads.
+ * </p>
+ */
+public interface MultiPatternMatcher {
+
+    static Builder withPatterns(final String... patterns) {
+        final Builder builder = new Builder();
+        if (patterns != null) {
+            for (final String pattern : patterns) {
+                builder.withPattern(pattern);
+            }
+        }
+        return builder;
+    }
+
+    static Builder withPatterns(final Buffer... patterns) {
+        final Builder builder = new Builder();
+        if (patterns != null) {
+            for (final Buffer pattern : patterns) {
+                builder.withPattern(pattern);
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * The number of patterns this matcher is searching for.
+     */
+    int size();
+
+    /**
+     * Get the pattern with the given id.
+     *
+     * @throws IndexOutOfBoundsException in case there is no such pattern.
+     */
+    Buffer getPattern(int id) throws IndexOutOfBoundsException;
+
+    /**
+     * Scan the given range of the buffer and report all matches to the listener.
+     *
+     * Note that only matches that are fully contained within the range are reported and that
+     * the indexes are based on the given buffer. Also note that if you pass in a {@link ReadableBuffer},
+     * you probably want to start scanning from the reader index.
+     *
+     * @param buffer the buffer to scan
+     * @param fromIndex the index (inclusive) from where to start scanning.
+     * @param toIndex the index (exclusive) where to stop.
+     * @param listener will be called for every match.
+     * @return the number of matches reported to the listener.
+     */
+    int scan(Buffer buffer, int fromIndex, int toIndex, MatchListener listener);
+
+    default int scan(final Buffer buffer, final MatchListener listener) {
+        return scan(buffer, 0, buffer.capacity(), listener);
+    }
+
+    /**
+     * Check if any of the patterns is found in the buffer. Will stop at the first match.
+     */
+    default boolean matchesAny(final Buffer buffer) {
+        return scan(buffer, (id, start, end) -> false) > 0;
+    }
+
+    @FunctionalInterface
+    interface MatchListener {
+
+        /**
+         * Called for every match found.
+         *
+         * @param patternId the id of the pattern that matched.
+         * @param start the index (inclusive) of the first byte of the match.
+         * @param end the index (exclusive) of the end of the match.
+         * @return true if the scanning should continue, false to stop it.
+         */
+        boolean onMatch(int patternId, int start, int end);
+    }
+
+    class Builder {
+
+        private final List<Buffer> patterns = new ArrayList<>();
+        private boolean ignoreCase;
+
+        private Builder() {
+            // use the static factory methods
+        }
+
+        /**
+         * Add a pattern, which will get the next id (i.e., the first pattern added has id 0,
+         * the second has id 1 and so on).
+         *
+         * @throws IllegalArgumentException in case the pattern is null or empty.
+         */
+        public Builder withPattern(final Buffer pattern) throws IllegalArgumentException {
+            Buffers.assertNotEmpty(pattern, "The pattern cannot be null or empty");
+            patterns.add(pattern.toBuffer());
+            return this;
+        }
+
+        public Builder withPattern(final String pattern) throws IllegalArgumentException {
+            assertNotNull(pattern, "The pattern cannot be null");
+            return withPattern(Buffers.wrap(pattern));
+        }
+
+        /**
+         * Ignore the case of 7-bit ASCII letters, both in the patterns and in the
+         * buffers we scan. Any other byte has to match exactly.
+         */
+        public Builder withIgnoreCase(final boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+            return this;
+        }
+
+        public MultiPatternMatcher build() {
+            assertArgument(!patterns.isEmpty(), "You must specify at least one pattern");
+            return DefaultMultiPatternMatcher.of(patterns, ignoreCase);
+        }
+    }
+}
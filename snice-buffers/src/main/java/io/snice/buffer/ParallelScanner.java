@@ -0,0 +1,103 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultParallelScanner;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * Parallel versions of some of the scanning operations on a {@link Buffer}, for when the buffers
+ * are large. Think multi-megabyte log exports, pcap files and the like. The buffer is split into
+ * segments that are processed on a {@link ForkJoinPool}.
+ * </p>
+ *
+ * <p>
+ * Buffers smaller than the threshold (see {@link Builder#withThreshold(int)}) are processed on the
+ * calling thread since the overhead of going parallel isn't worth it. The same is true for buffers
+ * that aren't backed by a byte-array, which are scanned one byte at a time. If you have e.g. a
+ * {@link ReadableBuffer}, use {@link ReadableBuffer#toBuffer()}, which will give you the unread
+ * bytes as an immutable buffer without copying anything.
+ * </p>
+ *
+ * <p>
+ * Note that, unlike e.g. {@link Buffer#countOccurences(byte)}, all operations look at the entire
+ * buffer.
+ * </p>
+ */
+public interface ParallelScanner {
+
+    /**
+     * Buffers smaller than this, 1 MB, will be processed on the calling thread.
+     */
+    int DEFAULT_THRESHOLD = 1024 * 1024;
+
+    /**
+     * A {@link ParallelScanner} running on the {@link ForkJoinPool#commonPool()} using
+     * the {@link #DEFAULT_THRESHOLD}.
+     */
+    static ParallelScanner commonPool() {
+        return DefaultParallelScanner.COMMON;
+    }
+
+    static Builder withPool(final ForkJoinPool pool) {
+        assertNotNull(pool, "The ForkJoinPool cannot be null");
+        return new Builder(pool);
+    }
+
+    /**
+     * Count the number of occurrences of the given byte in the entire buffer.
+     */
+    int countOccurences(Buffer buffer, byte b);
+
+    /**
+     * Find the first occurrence of the given byte. Segments that start after a match has already
+     * been found by some other thread are skipped altogether.
+     *
+     * @return the index of the first occurrence of the byte or -1 (negative one) if not found.
+     */
+    int indexOf(Buffer buffer, byte b);
+
+    /**
+     * Count the number of lines in the same way as {@link Buffer#lines()} would, i.e., the number of LFs
+     * plus one if the last line isn't terminated.
+     */
+    int countLines(Buffer buffer);
+
+    /**
+     * Calculate the hash of the buffer, which is the same value as {@link Buffer#hashCode()} of an
+     * immutable buffer with the same content.
+     */
+    int hash(Buffer buffer);
+
+    /**
+     * Calculate the Adler-32 checksum of the buffer, which is the same value as you'd get from
+     * {@link java.util.zip.Adler32}. Each segment is calculated on its own and then combined.
+     */
+    long adler32(Buffer buffer);
+
+    class Builder {
+
+        private final ForkJoinPool pool;
+        private int threshold = DEFAULT_THRESHOLD;
+
+        private Builder(final ForkJoinPool pool) {
+            this.pool = pool;
+        }
+
+        /**
+         * Buffers smaller than this will be processed on the calling thread.
+         */
+        public Builder withThreshold(final int threshold) {
+            assertArgument(threshold > 0, "The threshold must be greater than zero");
+            this.threshold = threshold;
+            return this;
+        }
+
+        public ParallelScanner build() {
+            return new DefaultParallelScanner(pool, threshold);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultRadixTree;
+
+import java.util.function.BiConsumer;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * A compact (path compressed) radix tree for longest prefix matching, which is what you need
+ * when routing on E.164 numbers, IMSI ranges etc. The tree is keyed by the bytes of the prefixes
+ * so for digit strings, you add e.g. "4670" as a prefix. A TBCD encoded number (as found in e.g. a
+ * Diameter or GTP message) can be matched directly against those same prefixes through
+ * {@link #longestPrefixMatchTbcd(Buffer)}, without first converting it to a string.
+ * </p>
+ *
+ * <p>
+ * The tree is immutable and every modification returns a new tree that shares all but the modified
+ * path with the old one. As such, every tree is a snapshot and lookups never block, or are affected by,
+ * someone building a new version of the route table. Publish the new snapshot through a
+ * <code>volatile</code> field or an <code>AtomicReference</code> once it is complete.
+ * </p>
+ *
+ * <pre>
+ * RadixTree&lt;Route&gt; routes = RadixTree.&lt;Route&gt;empty()
+ *     .with("46", sweden)
+ *     .with("4670", swedishMobile);
+ * routes.longestPrefixMatch(Buffers.wrap("46701234567")); // swedishMobile
+ * </pre>
+ */
+public interface RadixTree<V> {
+
+    static <V> RadixTree<V> empty() {
+        return DefaultRadixTree.empty();
+    }
+
+    /**
+     * Get a new tree with the given prefix mapped to the given value. A {@link String} prefix is
+     * encoded as UTF-8, just like {@link Buffers#wrap(String)}. If the prefix is a
+     * {@link ReadableBuffer}, only the readable bytes are used. The empty prefix is allowed
+     * and acts as a default route.
+     */
+    RadixTree<V> with(Buffer prefix, V value);
+
+    default RadixTree<V> with(final String prefix, final V value) {
+        assertNotNull(prefix, "The prefix cannot be null");
+        return with(Buffers.wrap(prefix), value);
+    }
+
+    /**
+     * Get a new tree without the given prefix, or this tree if there was no such prefix.
+     */
+    RadixTree<V> without(Buffer prefix);
+
+    default RadixTree<V> without(final String prefix) {
+        assertNotNull(prefix, "The prefix cannot be null");
+        return without(Buffers.wrap(prefix));
+    }
+
+    /**
+     * Get the value of the exact prefix, or null if there is no such prefix.
+     */
+    V get(Buffer prefix);
+
+    /**
+     * Find the value of the longest prefix of the given key, which is the readable bytes
+     * in case of a {@link ReadableBuffer}.
+     *
+     * @return the value of the longest matching prefix or null if no prefix matches.
+     */
+    V longestPrefixMatch(Buffer key);
+
+    /**
+     * Find the value of the longest prefix of the key found between offset (inclusive)
+     * and offset + length (exclusive) of the given buffer.
+     *
+     * @throws IllegalArgumentException in case the range isn't within the buffer.
+     */
+    V longestPrefixMatch(Buffer buffer, int offset, int length) throws IllegalArgumentException;
+
+    /**
+     * Find the value of the longest prefix of the TBCD encoded number in the given buffer (the readable bytes
+     * in case of a {@link ReadableBuffer}). Every nibble is matched as the character it represents, i.e.,
+     * '0' - '9', '*', '#', 'a', 'b' and 'c', and a nibble of all ones marks the end of the number.
+     */
+    V longestPrefixMatchTbcd(Buffer tbcd);
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Visit all prefixes in order. Note that the prefix given to the action is a new
+     * {@link Buffer} every time.
+     */
+    void forEach(BiConsumer<? super Buffer, ? super V> action);
+}
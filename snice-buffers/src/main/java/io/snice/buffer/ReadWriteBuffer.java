@@ -19,4 +19,19 @@ public interface ReadWriteBuffer extends ReadableBuffer, WritableBuffer {
         return DefaultReadWriteBuffer.of(buffer, offset, length);
     }
 
+    /**
+     * <p>
+     * Hand over everything that has been written so far to an immutable {@link ReadableBuffer} that
+     * is backed by the very same byte-array, so nothing is copied. The new buffer starts out with the
+     * same reader index as this one, which is what makes this different from {@link #build()}, which only
+     * hands over the bytes that are still readable.
+     * </p>
+     *
+     * <p>
+     * Just like after {@link #build()}, this buffer can never be read from or written to again and
+     * any attempt to do so will blow up on an {@link IndexOutOfBoundsException}.
+     * </p>
+     */
+    ReadableBuffer freeze();
+
 }
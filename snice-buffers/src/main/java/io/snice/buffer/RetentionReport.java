@@ -0,0 +1,59 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultRetentionReport;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * A diagnostic for finding out how much memory is kept alive by the buffers you hang on to, compared
+ * to how much of it you can actually see through those buffers. Run it over e.g. all the buffers
+ * stored in your dialog or session table and if the retained bytes are way larger than the visible
+ * ones, you should probably {@link Buffer#compact()} them before storing them.
+ * </p>
+ *
+ * <p>
+ * Buffers sharing the same underlying byte-array only count that array once towards
+ * the retained bytes.
+ * </p>
+ */
+public interface RetentionReport {
+
+    static RetentionReport of(final Iterable<? extends Buffer> buffers) {
+        assertNotNull(buffers, "The buffers cannot be null");
+        return DefaultRetentionReport.of(buffers);
+    }
+
+    /**
+     * The number of buffers that were inspected.
+     */
+    int getBuffers();
+
+    /**
+     * The number of distinct underlying byte-arrays found.
+     */
+    int getArrays();
+
+    /**
+     * The total number of bytes visible through all the buffers, which for a {@link ReadableBuffer}
+     * only includes the bytes that are yet to be read.
+     */
+    long getVisibleBytes();
+
+    /**
+     * The total number of bytes of all the byte-arrays kept alive by the buffers.
+     */
+    long getRetainedBytes();
+
+    default long getWastedBytes() {
+        return Math.max(0, getRetainedBytes() - getVisibleBytes());
+    }
+
+    /**
+     * The retained bytes divided by the visible bytes, where 1 means no waste at all.
+     */
+    default double getRatio() {
+        final long visible = getVisibleBytes();
+        return visible == 0 ? (getRetainedBytes() == 0 ? 1.0 : Double.POSITIVE_INFINITY) : (double) getRetainedBytes() / visible;
+    }
+}
@@ -0,0 +1,104 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultSecureRandomGenerator;
+
+import java.security.SecureRandom;
+import java.util.function.Supplier;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * Generates secure random bytes without having every thread in the JVM contend on a single
+ * {@link SecureRandom}. Every thread gets its own {@link SecureRandom} along with a small reservoir of
+ * random bytes, which is filled in one go and out of which small requests (tags, branch ids, nonces etc)
+ * are carved. Bytes that have been handed out are zeroed in the reservoir so they never linger.
+ * </p>
+ *
+ * <p>
+ * The {@link SecureRandom} of a thread is replaced with a new instance, which seeds itself, every
+ * time it has produced a configurable number of bytes.
+ * </p>
+ */
+public interface SecureRandomGenerator {
+
+    int DEFAULT_RESERVOIR_SIZE = 1024;
+
+    long DEFAULT_RESEED_INTERVAL = 1024 * 1024;
+
+    /**
+     * The generator used by {@link Buffers#secureRandom(int)} and {@link Buffers#secureUuid()}.
+     */
+    static SecureRandomGenerator shared() {
+        return DefaultSecureRandomGenerator.SHARED;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Fill the given range of the array with random bytes.
+     */
+    void nextBytes(byte[] bytes, int offset, int length) throws IllegalArgumentException;
+
+    default void nextBytes(final byte[] bytes) {
+        assertNotNull(bytes, "The byte array cannot be null");
+        nextBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * @param size the size of the buffer, must be greater than zero.
+     */
+    default Buffer nextBuffer(final int size) {
+        assertArgument(size > 0, "The size of the randomized buffer must be greater than zero");
+        final byte[] bytes = new byte[size];
+        nextBytes(bytes, 0, size);
+        return Buffer.of(bytes);
+    }
+
+    class Builder {
+
+        private int reservoirSize = DEFAULT_RESERVOIR_SIZE;
+        private long reseedInterval = DEFAULT_RESEED_INTERVAL;
+        private Supplier<SecureRandom> supplier = SecureRandom::new;
+
+        private Builder() {
+            // use SecureRandomGenerator.builder()
+        }
+
+        /**
+         * The number of bytes every thread generates in one go. Requests for more than a quarter of
+         * the reservoir bypass it and go straight to the {@link SecureRandom} of the thread. A size
+         * of zero turns the reservoir off.
+         */
+        public Builder withReservoirSize(final int reservoirSize) {
+            assertArgument(reservoirSize >= 0, "The reservoir size cannot be negative");
+            this.reservoirSize = reservoirSize;
+            return this;
+        }
+
+        /**
+         * The number of bytes a {@link SecureRandom} may produce before it is replaced with a new one.
+         */
+        public Builder withReseedInterval(final long bytes) {
+            assertArgument(bytes > 0, "The reseed interval must be greater than zero");
+            this.reseedInterval = bytes;
+            return this;
+        }
+
+        /**
+         * Where to get the {@link SecureRandom} instances from, e.g. if you want a particular algorithm.
+         */
+        public Builder withSecureRandom(final Supplier<SecureRandom> supplier) {
+            assertNotNull(supplier, "The supplier cannot be null");
+            this.supplier = supplier;
+            return this;
+        }
+
+        public SecureRandomGenerator build() {
+            return DefaultSecureRandomGenerator.of(reservoirSize, reseedInterval, supplier);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultSortedBufferSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * An immutable, sorted set of buffers, ordered by the {@link BufferComparator}, for when you need to
+ * binary search, or do range queries over, e.g. session ids or keys for an ordered export without
+ * converting everything to strings first.
+ * </p>
+ *
+ * <p>
+ * The content of all buffers is copied into a single byte-array, so the set never keeps the original
+ * buffers alive and it takes very little memory over the actual bytes. Every buffer is identified by its
+ * index in the set and a range query gives you back a view of the same set, so if you need to associate
+ * values with the buffers, keep them in an array indexed the same way.
+ * </p>
+ */
+public interface SortedBufferSet extends Iterable<Buffer> {
+
+    /**
+     * Create a new set of the given buffers, where any duplicates are only kept once. If a buffer is a
+     * {@link ReadableBuffer}, only its readable bytes are used.
+     */
+    static SortedBufferSet of(final Collection<? extends Buffer> buffers) {
+        assertNotNull(buffers, "The buffers cannot be null");
+        return DefaultSortedBufferSet.of(buffers);
+    }
+
+    static SortedBufferSet of(final Buffer... buffers) {
+        assertNotNull(buffers, "The buffers cannot be null");
+        return of(Arrays.asList(buffers));
+    }
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Get the buffer at the given index, which is a view of the set's own byte-array.
+     *
+     * @throws IndexOutOfBoundsException in case the index is not within the set.
+     */
+    Buffer get(int index) throws IndexOutOfBoundsException;
+
+    /**
+     * Binary search for the given buffer.
+     *
+     * @return the index of the buffer if found, otherwise <code>(-(insertion point) - 1)</code>, same as
+     * {@link Arrays#binarySearch(Object[], Object)}.
+     */
+    int indexOf(Buffer key);
+
+    /**
+     * Binary search for the bytes between offset (inclusive) and offset + length (exclusive)
+     * of the given buffer.
+     *
+     * @throws IllegalArgumentException in case the range isn't within the buffer.
+     */
+    int indexOf(Buffer buffer, int offset, int length) throws IllegalArgumentException;
+
+    default boolean contains(final Buffer key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * The index of the first buffer that is greater than or equal to the given key, which is
+     * {@link #size()} if there is no such buffer.
+     */
+    default int ceilingIndex(final Buffer key) {
+        final int index = indexOf(key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * The index of the last buffer that is less than or equal to the given key, which is
+     * -1 if there is no such buffer.
+     */
+    default int floorIndex(final Buffer key) {
+        final int index = indexOf(key);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Get a view of the buffers between the two given indexes.
+     *
+     * @param fromIndex the index of the first buffer (inclusive)
+     * @param toIndex   the index of the last buffer (exclusive)
+     * @throws IndexOutOfBoundsException in case the indexes are not within the set.
+     */
+    SortedBufferSet subSet(int fromIndex, int toIndex) throws IndexOutOfBoundsException;
+
+    /**
+     * Get a view of all buffers in the range [from, to).
+     *
+     * @param from the lower bound (inclusive) or null for no lower bound.
+     * @param to   the upper bound (exclusive) or null for no upper bound.
+     */
+    default SortedBufferSet range(final Buffer from, final Buffer to) {
+        final int fromIndex = from == null ? 0 : ceilingIndex(from);
+        final int toIndex = to == null ? size() : ceilingIndex(to);
+        return subSet(fromIndex, Math.max(fromIndex, toIndex));
+    }
+
+    /**
+     * Get a view of all buffers that start with the given prefix.
+     */
+    SortedBufferSet withPrefix(Buffer prefix);
+
+    Stream<Buffer> stream();
+}
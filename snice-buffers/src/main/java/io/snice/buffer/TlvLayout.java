@@ -0,0 +1,230 @@
+package io.snice.buffer;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * Describes the header of the elements of a Type-Length-Value encoded protocol, such as Diameter AVPs,
+ * GTPv2 IEs or BER, which is what the {@link TlvReader} needs in order to walk over the elements.
+ * </p>
+ *
+ * <p>
+ * The header always starts with the type, optionally followed by flags, then the length, optionally
+ * followed by more flags and then, if the flags say so, an optional field (such as the vendor-id of a
+ * Diameter AVP). All numbers are unsigned and in network byte order.
+ * </p>
+ *
+ * <pre>
+ *     TlvLayout.withTypeWidth(4)
+ *              .withFlags(1)
+ *              .withLengthWidth(3)
+ *              .withOptionalField(4, 0x80)
+ *              .withLengthSemantics(LengthSemantics.ELEMENT)
+ *              .withAlignment(4)
+ *              .build();
+ * </pre>
+ *
+ * is how you describe a Diameter AVP, which is also available as {@link #diameter()}.
+ */
+public final class TlvLayout {
+
+    public enum LengthSemantics {
+        /**
+         * The length is the length of the value only.
+         */
+        VALUE,
+
+        /**
+         * The length is the length of the entire element, header and value, but not the padding.
+         */
+        ELEMENT
+    }
+
+    private static final TlvLayout DIAMETER = withTypeWidth(4)
+            .withFlags(1)
+            .withLengthWidth(3)
+            .withOptionalField(4, 0x80)
+            .withLengthSemantics(LengthSemantics.ELEMENT)
+            .withAlignment(4)
+            .build();
+
+    private static final TlvLayout GTPV2 = withTypeWidth(1)
+            .withLengthWidth(2)
+            .withFlagsAfterLength(1)
+            .build();
+
+    private static final TlvLayout BER = new Builder(0).withBerLength().build();
+
+    private final int typeWidth;
+    private final int flagsWidth;
+    private final boolean flagsAfterLength;
+    private final int lengthWidth;
+    private final int optionalWidth;
+    private final long optionalMask;
+    private final LengthSemantics semantics;
+    private final int alignment;
+
+    /**
+     * The Diameter AVP as described by RFC 6733, where the flags are the AVP flags and the
+     * optional field is the vendor-id, which is present if the V-bit is set.
+     */
+    public static TlvLayout diameter() {
+        return DIAMETER;
+    }
+
+    /**
+     * The GTPv2 Information Element as described by 3GPP TS 29.274, where the flags are the
+     * spare bits and the instance.
+     */
+    public static TlvLayout gtpv2() {
+        return GTPV2;
+    }
+
+    /**
+     * BER (ITU-T X.690) with definite lengths only. The type is the raw bytes of the
+     * identifier octets, which therefore can be at most 4 bytes.
+     */
+    public static TlvLayout ber() {
+        return BER;
+    }
+
+    /**
+     * @param width the number of bytes of the type, which must be between 1 - 4 (inclusive).
+     */
+    public static Builder withTypeWidth(final int width) {
+        assertArgument(width >= 1 && width <= 4, "The width of the type must be between 1 - 4 bytes");
+        return new Builder(width);
+    }
+
+    private TlvLayout(final Builder builder) {
+        typeWidth = builder.typeWidth;
+        flagsWidth = builder.flagsWidth;
+        flagsAfterLength = builder.flagsAfterLength;
+        lengthWidth = builder.lengthWidth;
+        optionalWidth = builder.optionalWidth;
+        optionalMask = builder.optionalMask;
+        semantics = builder.semantics;
+        alignment = builder.alignment;
+    }
+
+    /**
+     * The width, in bytes, of the type or zero if the type is a BER identifier.
+     */
+    public int getTypeWidth() {
+        return typeWidth;
+    }
+
+    public int getFlagsWidth() {
+        return flagsWidth;
+    }
+
+    public boolean isFlagsAfterLength() {
+        return flagsAfterLength;
+    }
+
+    /**
+     * The width, in bytes, of the length or zero if the length is BER encoded.
+     */
+    public int getLengthWidth() {
+        return lengthWidth;
+    }
+
+    public boolean isBer() {
+        return lengthWidth == 0;
+    }
+
+    public int getOptionalWidth() {
+        return optionalWidth;
+    }
+
+    public long getOptionalMask() {
+        return optionalMask;
+    }
+
+    public LengthSemantics getLengthSemantics() {
+        return semantics;
+    }
+
+    public int getAlignment() {
+        return alignment;
+    }
+
+    public static class Builder {
+
+        private final int typeWidth;
+        private int flagsWidth;
+        private boolean flagsAfterLength;
+        private int lengthWidth = -1;
+        private int optionalWidth;
+        private long optionalMask;
+        private LengthSemantics semantics = LengthSemantics.VALUE;
+        private int alignment = 1;
+
+        private Builder(final int typeWidth) {
+            this.typeWidth = typeWidth;
+        }
+
+        /**
+         * Flags that come between the type and the length.
+         */
+        public Builder withFlags(final int width) {
+            assertArgument(width >= 1 && width <= 4, "The width of the flags must be between 1 - 4 bytes");
+            flagsWidth = width;
+            flagsAfterLength = false;
+            return this;
+        }
+
+        /**
+         * Flags that come between the length and the value.
+         */
+        public Builder withFlagsAfterLength(final int width) {
+            withFlags(width);
+            flagsAfterLength = true;
+            return this;
+        }
+
+        public Builder withLengthWidth(final int width) {
+            assertArgument(width >= 1 && width <= 4, "The width of the length must be between 1 - 4 bytes");
+            lengthWidth = width;
+            return this;
+        }
+
+        /**
+         * A field that is only present if any of the bits of the mask are set in the flags.
+         */
+        public Builder withOptionalField(final int width, final long mask) {
+            assertArgument(width >= 1 && width <= 8, "The width of the optional field must be between 1 - 8 bytes");
+            assertArgument(mask != 0, "The mask cannot be zero");
+            optionalWidth = width;
+            optionalMask = mask;
+            return this;
+        }
+
+        public Builder withLengthSemantics(final LengthSemantics semantics) {
+            this.semantics = assertNotNull(semantics, "The length semantics cannot be null");
+            return this;
+        }
+
+        /**
+         * Every element is padded so that the next element starts on this alignment, relative
+         * to the start of the first element.
+         */
+        public Builder withAlignment(final int alignment) {
+            assertArgument(alignment >= 1, "The alignment must be at least 1");
+            this.alignment = alignment;
+            return this;
+        }
+
+        private Builder withBerLength() {
+            lengthWidth = 0;
+            return this;
+        }
+
+        public TlvLayout build() {
+            assertArgument(lengthWidth != -1, "You must specify the width of the length");
+            assertArgument(optionalWidth == 0 || flagsWidth > 0, "An optional field requires flags");
+            return new TlvLayout(this);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultTlvReader;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * Walks over the Type-Length-Value encoded elements of a {@link Buffer}, as described by
+ * a {@link TlvLayout}, without copying or allocating anything.
+ * </p>
+ *
+ * <p>
+ * The reader is a flyweight, i.e., after every successful call to {@link #next()} the reader itself
+ * represents the current element. Only if you ask for the value as a {@link Buffer} ({@link #getValue()})
+ * will we allocate anything and even then, it is just a slice of the original buffer. Elements you are
+ * not interested in are skipped by just looking at the type.
+ * </p>
+ *
+ * <pre>
+ *     final TlvReader reader = TlvReader.of(TlvLayout.diameter(), avps);
+ *     while (reader.next()) {
+ *         if (reader.getType() == 263) {
+ *             sessionId = reader.getValue();
+ *         }
+ *     }
+ * </pre>
+ *
+ * <p>
+ * All indexes are based on the buffer that was given to the reader. Note that reading the elements
+ * does not affect the reader index of a {@link ReadableBuffer}.
+ * </p>
+ */
+public interface TlvReader {
+
+    /**
+     * Read the elements of the entire buffer.
+     */
+    static TlvReader of(final TlvLayout layout, final Buffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        return DefaultTlvReader.of(layout, buffer, 0, buffer.capacity());
+    }
+
+    /**
+     * Read the elements of the readable bytes of the buffer.
+     */
+    static TlvReader of(final TlvLayout layout, final ReadableBuffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        final int start = buffer.getReaderIndex();
+        return DefaultTlvReader.of(layout, buffer, start, start + buffer.getReadableBytes());
+    }
+
+    /**
+     * Same as {@link #of(TlvLayout, Buffer)} but reads the elements within the given range only,
+     * which is what you want for e.g. the value of a grouped AVP.
+     */
+    static TlvReader of(final TlvLayout layout, final Buffer buffer, final int start, final int end) {
+        return DefaultTlvReader.of(layout, buffer, start, end);
+    }
+
+    /**
+     * Move to the next element.
+     *
+     * @return true if there was another element, false if we have reached the end.
+     * @throws BufferOutOfBoundsException in case the element doesn't fit within the buffer,
+     * i.e., it is truncated or the length is simply wrong.
+     */
+    boolean next() throws BufferOutOfBoundsException;
+
+    /**
+     * Move forward to the next element of the given type.
+     *
+     * @return true if found, false if we reached the end.
+     */
+    default boolean next(final long type) throws BufferOutOfBoundsException {
+        while (next()) {
+            if (getType() == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Start over from the first element.
+     */
+    void reset();
+
+    long getType();
+
+    /**
+     * The flags of the current element, or zero if the layout has no flags.
+     */
+    long getFlags();
+
+    boolean hasOptionalField();
+
+    /**
+     * The value of the optional field, e.g. the vendor-id of a Diameter AVP, or zero
+     * if the current element doesn't have one.
+     */
+    long getOptionalField();
+
+    /**
+     * The index of the first byte of the current element, i.e., the start of the header.
+     */
+    int getElementIndex();
+
+    /**
+     * The index of the first byte of the value of the current element.
+     */
+    int getValueIndex();
+
+    int getValueLength();
+
+    /**
+     * The value of the current element, which is a slice of the original buffer.
+     */
+    Buffer getValue();
+
+    /**
+     * Read the elements contained within the value of the current element, such as
+     * the AVPs of a grouped AVP, using the same layout.
+     */
+    TlvReader nested();
+}
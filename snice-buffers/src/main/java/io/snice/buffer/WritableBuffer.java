@@ -1,8 +1,13 @@
 package io.snice.buffer;
 
+import io.snice.buffer.impl.BufferStreams;
+import io.snice.buffer.impl.DefaultLengthField;
 import io.snice.buffer.impl.DefaultWritableBuffer;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.WritableByteChannel;
 
 public interface WritableBuffer {
 
@@ -242,6 +247,53 @@ public interface WritableBuffer {
     void write(final String s, String charset) throws IndexOutOfBoundsException ,
             UnsupportedEncodingException;
 
+    /**
+     * Get an {@link OutputStream} that writes to this buffer at the writer index, for handing the buffer
+     * over to any API that wants to write to a stream. An {@link IOException} is thrown if a write doesn't
+     * fit, in which case nothing of that write is written.
+     */
+    default OutputStream asOutputStream() {
+        return BufferStreams.outputStream(this);
+    }
+
+    /**
+     * Get a {@link WritableByteChannel} that writes to this buffer at the writer index. A write will
+     * write as much as there is room for and an {@link IOException} is thrown if there is no room at all.
+     */
+    default WritableByteChannel asWritableByteChannel() {
+        return BufferStreams.writableChannel(this);
+    }
+
+    /**
+     * Reserve a length field of the given width (1 - 4 bytes) at the current writer index. The length
+     * will be the number of bytes written after the length field and it is written into the
+     * reserved space once you {@link LengthField#commit()}.
+     *
+     * @param width the number of bytes of the length field.
+     * @throws IndexOutOfBoundsException in case there is no room for the length field.
+     * @throws IllegalArgumentException in case the width isn't between 1 - 4 (inclusive).
+     */
+    default LengthField reserveLength(final int width) throws IndexOutOfBoundsException, IllegalArgumentException {
+        return reserveLength(width, getWriterIndex() + width);
+    }
+
+    /**
+     * Same as {@link #reserveLength(int)} but the length is counted from the given start index instead.
+     * This is for those protocols where the length includes (part of) the header, e.g., the
+     * length of a Diameter AVP includes the AVP code and flags that come before the length field,
+     * or excludes part of it, e.g., the length of a GTPv2 IE doesn't include the spare/instance octet
+     * that follows the length field and the length of a GTPv1 header doesn't include the TEID.
+     *
+     * @param startIndex the index from where the length is counted, which may be before or after the
+     *                   length field. If it is after, the writer index must have reached it by the
+     *                   time the length is committed.
+     * @throws IllegalArgumentException in case the start index is negative.
+     */
+    default LengthField reserveLength(final int width, final int startIndex) throws IndexOutOfBoundsException,
+            IllegalArgumentException {
+        return DefaultLengthField.reserve(this, width, startIndex);
+    }
+
     /**
      * Operation to zero out the underlying byte-array. The entire byte-array, irrespective of where the
      * current reader and writer index are, will be cleared out. However, lower and upper boundary will be
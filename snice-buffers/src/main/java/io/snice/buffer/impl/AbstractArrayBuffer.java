@@ -0,0 +1,537 @@
+package io.snice.buffer.impl;
+
+import com.google.polo.pairing.HexDump;
+import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferMetrics;
+import io.snice.buffer.ByteNotFoundException;
+import io.snice.buffer.WritableBuffer;
+import io.snice.net.IPv4;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertArray;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * Base class for all buffers that are backed by a plain byte-array with a fixed "window"
+ * into that array.
+ * </p>
+ *
+ * <p>
+ * The {@link Buffer} interface has a lot of logic in its <code>default</code> methods and all of
+ * those end up calling {@link #getByte(int)}, {@link #capacity()} etc through the interface. With
+ * several implementations of {@link Buffer} in play, those call sites quickly become megamorphic
+ * and the JIT gives up on inlining them. By having all array-backed buffers share this base class,
+ * with final fields and final methods, those default methods are overridden here with versions
+ * that operate directly on the array, which the JIT can inline.
+ * </p>
+ */
+public abstract class AbstractArrayBuffer implements Buffer {
+
+    /**
+     * The actual buffer
+     */
+    protected final byte[] buffer;
+
+    /**
+     * Used when slicing out portions of the buffer.
+     * The lower boundary is inclusive.
+     */
+    protected final int lowerBoundary;
+
+    /**
+     * The upper boundary of the "window" of data this buffer is allowed to "see".
+     */
+    protected final int upperBoundary;
+
+    protected AbstractArrayBuffer(final byte[] buffer, final int lowerBoundary, final int upperBoundary) {
+        this.buffer = buffer;
+        this.lowerBoundary = lowerBoundary;
+        this.upperBoundary = upperBoundary;
+    }
+
+    @Override
+    public abstract Buffer clone();
+
+    @Override
+    public final int capacity() {
+        return upperBoundary - lowerBoundary;
+    }
+
+    @Override
+    public final int getRetainedBytes() {
+        return buffer.length;
+    }
+
+    @Override
+    public final ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(buffer, lowerBoundary, capacity()).slice().asReadOnlyBuffer();
+    }
+
+    @Override
+    public final boolean isEmpty() {
+        return upperBoundary == lowerBoundary;
+    }
+
+    @Override
+    public final int countWhiteSpace(final int startIndex) {
+        checkIndex(lowerBoundary + startIndex);
+        int count = 0;
+        for (int i = lowerBoundary + startIndex; i < upperBoundary; ++i) {
+            if (buffer[i] != SP && buffer[i] != HTAB) {
+                break;
+            }
+            ++count;
+        }
+
+        return count;
+    }
+
+    @Override
+    public final int countWhiteSpace() {
+        return countWhiteSpace(0);
+    }
+
+    @Override
+    public final int indexOfWhiteSpace(final int startIndex) {
+        return indexOf(startIndex, 4096, SP, HTAB);
+    }
+
+    @Override
+    public final int indexOfWhiteSpace() {
+        return indexOfWhiteSpace(0);
+    }
+
+    @Override
+    public final byte[] getContent() {
+        final int capacity = capacity();
+        if (DefaultBufferMetrics.ENABLED) {
+            DefaultBufferMetrics.INSTANCE.copy(BufferMetrics.Category.GET_CONTENT, capacity);
+        }
+        final var content = new byte[capacity];
+        System.arraycopy(buffer, lowerBoundary, content, 0, capacity);
+        return content;
+    }
+
+    @Override
+    public final boolean startsWith(final Buffer other) throws IllegalArgumentException {
+        assertNotNull(other, "The other buffer cannot be null");
+        if (!(other instanceof AbstractArrayBuffer)) {
+            return Buffer.super.startsWith(other);
+        }
+
+        final AbstractArrayBuffer that = (AbstractArrayBuffer) other;
+        final int length = that.capacity();
+        if (length > capacity()) {
+            return false;
+        }
+
+        for (int i = 0; i < length; ++i) {
+            if (buffer[lowerBoundary + i] != that.buffer[that.lowerBoundary + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public final boolean startsWithIgnoreCase(final Buffer other) {
+        assertNotNull(other, "The other buffer cannot be null");
+        if (!(other instanceof AbstractArrayBuffer)) {
+            return Buffer.super.startsWithIgnoreCase(other);
+        }
+
+        final AbstractArrayBuffer that = (AbstractArrayBuffer) other;
+        final int length = that.capacity();
+        if (length > capacity()) {
+            return false;
+        }
+
+        return regionEquals(true, that, length);
+    }
+
+    @Override
+    public final int indexOf(final int startIndex, final int maxBytes, final byte... bytes) throws IllegalArgumentException {
+        checkIndex(lowerBoundary + startIndex);
+        assertArgument(maxBytes > 0, "The max bytes must be at least 1");
+        assertArgument(bytes.length > 0, "No bytes specified. Not sure what you want me to look for");
+
+        // note that, for historical reasons, the max bytes is counted from
+        // the start of the buffer and not from the start index.
+        final int capacity = capacity();
+        final int stop = Math.min(capacity, maxBytes);
+        int index = startIndex;
+
+        if (bytes.length == 1) {
+            final byte b = bytes[0];
+            while (index < stop) {
+                if (buffer[lowerBoundary + index] == b) {
+                    return index;
+                }
+                ++index;
+            }
+        } else {
+            while (index < stop) {
+                if (isByteInArray(buffer[lowerBoundary + index], bytes)) {
+                    return index;
+                }
+                ++index;
+            }
+        }
+
+        if (index - startIndex >= maxBytes) {
+            throw new ByteNotFoundException(capacity, bytes);
+        }
+
+        return -1;
+    }
+
+    @Override
+    public final int countOccurences(final int startIndex, final int maxBytes, final byte b) throws IllegalArgumentException {
+        checkIndex(lowerBoundary + startIndex);
+        final int stop = Math.min(lowerBoundary + startIndex + maxBytes, upperBoundary);
+        int count = 0;
+
+        for (int i = lowerBoundary + startIndex; i < stop; ++i) {
+            if (buffer[i] == b) {
+                ++count;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public final int countOccurences(final byte b) throws IndexOutOfBoundsException {
+        return countOccurences(0, 1024, b);
+    }
+
+    @Override
+    public final int countOccurences(final char c) throws IndexOutOfBoundsException {
+        return countOccurences(0, 1024, (byte) c);
+    }
+
+    @Override
+    public final void writeTo(final OutputStream out) throws IOException {
+        out.write(buffer, lowerBoundary, capacity());
+    }
+
+    @Override
+    public final void writeTo(final WritableBuffer out) {
+        out.write(buffer, lowerBoundary, capacity());
+    }
+
+    @Override
+    public final boolean getBit(final int byteIndex, final int bitNo) throws IllegalArgumentException {
+        if (bitNo < 0 || bitNo > 7) {
+            throw new IllegalArgumentException("The bit number has to be between 0 - 7 (inclusive)");
+        }
+        return (getByte(byteIndex) & (1 << bitNo)) != 0;
+    }
+
+    @Override
+    public final boolean getBit0(final int index) {
+        return (getByte(index) & 0b00000001) != 0;
+    }
+
+    @Override
+    public final boolean getBit1(final int index) {
+        return (getByte(index) & 0b00000010) != 0;
+    }
+
+    @Override
+    public final boolean getBit2(final int index) {
+        return (getByte(index) & 0b00000100) != 0;
+    }
+
+    @Override
+    public final boolean getBit3(final int index) {
+        return (getByte(index) & 0b00001000) != 0;
+    }
+
+    @Override
+    public final boolean getBit4(final int index) {
+        return (getByte(index) & 0b00010000) != 0;
+    }
+
+    @Override
+    public final boolean getBit5(final int index) {
+        return (getByte(index) & 0b00100000) != 0;
+    }
+
+    @Override
+    public final boolean getBit6(final int index) {
+        return (getByte(index) & 0b01000000) != 0;
+    }
+
+    @Override
+    public final boolean getBit7(final int index) {
+        return (getByte(index) & 0b10000000) != 0;
+    }
+
+    @Override
+    public final byte getByte(final int index) throws IndexOutOfBoundsException {
+        checkIndex(lowerBoundary + index);
+        return buffer[lowerBoundary + index];
+    }
+
+    @Override
+    public final int getInt(final int index) throws IndexOutOfBoundsException {
+        final int i = lowerBoundary + index;
+        checkIndex(i);
+        checkIndex(i + 3);
+        return Buffer.signedInt(buffer[i], buffer[i + 1], buffer[i + 2], buffer[i + 3]);
+    }
+
+    @Override
+    public final String toIPv4String(final int index) {
+        final int i = lowerBoundary + index;
+        checkIndex(i);
+        checkIndex(i + 3);
+        return IPv4.convertToStringIP(buffer[i], buffer[i + 1], buffer[i + 2], buffer[i + 3]);
+    }
+
+    @Override
+    public final long getLong(final int index) throws IndexOutOfBoundsException {
+        final int i = lowerBoundary + index;
+        checkIndex(i);
+        checkIndex(i + 7);
+        return Buffer.signedLong(buffer[i], buffer[i + 1], buffer[i + 2], buffer[i + 3], buffer[i + 4], buffer[i + 5], buffer[i + 6], buffer[i + 7]);
+    }
+
+    @Override
+    public final long getLongFromFiveOctets(final int index) throws IndexOutOfBoundsException {
+        final int i = lowerBoundary + index;
+        checkIndex(i);
+        checkIndex(i + 4);
+        return Buffer.signedLong(buffer[i], buffer[i + 1], buffer[i + 2], buffer[i + 3], buffer[i + 4]);
+    }
+
+    @Override
+    public final int getIntFromThreeOctets(final int index) throws IndexOutOfBoundsException {
+        final int i = lowerBoundary + index;
+        checkIndex(i);
+        checkIndex(i + 2);
+        return Buffer.signedInt(buffer[i], buffer[i + 1], buffer[i + 2]);
+    }
+
+    @Override
+    public final long getUnsignedInt(final int index) throws IndexOutOfBoundsException {
+        final int i = lowerBoundary + index;
+        checkIndex(i);
+        checkIndex(i + 3);
+        return Buffer.unsignedInt(buffer[i], buffer[i + 1], buffer[i + 2], buffer[i + 3]);
+    }
+
+    @Override
+    public final short getShort(final int index) throws IndexOutOfBoundsException {
+        final int i = lowerBoundary + index;
+        checkIndex(i);
+        checkIndex(i + 1);
+
+        // big endian
+        return (short) (buffer[i] << 8 | buffer[i + 1] & 0xFF);
+    }
+
+    @Override
+    public final int getUnsignedShort(final int index) throws IndexOutOfBoundsException {
+        return getShort(index) & 0xFFFF;
+    }
+
+    @Override
+    public final short getUnsignedByte(final int index) throws IndexOutOfBoundsException {
+        return (short) (getByte(index) & 0xFF);
+    }
+
+    @Override
+    public final boolean endsWith(final byte[] content) throws IllegalArgumentException {
+        assertArray(content);
+        assertArgument(content.length > 0, "The byte-array cannot be empty");
+        if (content.length > capacity()) {
+            return false;
+        }
+
+        final int length = content.length;
+        for (int i = 0; i < length; ++i) {
+            if (content[i] != buffer[upperBoundary - length + i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public final boolean endsWith(final byte b) throws IllegalArgumentException {
+        return buffer[upperBoundary - 1] == b;
+    }
+
+    @Override
+    public final boolean endsWith(final byte b1, final byte b2) throws IllegalArgumentException {
+        if (capacity() < 2) {
+            return false;
+        }
+
+        return buffer[upperBoundary - 2] == b1
+                && buffer[upperBoundary - 1] == b2;
+    }
+
+    @Override
+    public final boolean endsWith(final byte b1, final byte b2, final byte b3) throws IllegalArgumentException {
+        if (capacity() < 3) {
+            return false;
+        }
+
+        return buffer[upperBoundary - 3] == b1
+                && buffer[upperBoundary - 2] == b2
+                && buffer[upperBoundary - 1] == b3;
+    }
+
+    @Override
+    public final boolean endsWith(final byte b1, final byte b2, final byte b3, final byte b4) throws IllegalArgumentException {
+        if (capacity() < 4) {
+            return false;
+        }
+
+        return buffer[upperBoundary - 4] == b1
+                && buffer[upperBoundary - 3] == b2
+                && buffer[upperBoundary - 2] == b3
+                && buffer[upperBoundary - 1] == b4;
+    }
+
+    @Override
+    public final boolean endsWithCRLF() {
+        return endsWith(CR, LF);
+    }
+
+    @Override
+    public final boolean endsWithDoubleCRLF() {
+        return endsWith(CR, LF, CR, LF);
+    }
+
+    @Override
+    public final Buffer stripEOL() {
+        final int capacity = capacity();
+        if (capacity >= 2 && buffer[upperBoundary - 2] == CR && buffer[upperBoundary - 1] == LF) {
+            return slice(capacity - 2);
+        }
+
+        if (capacity >= 1 && (buffer[upperBoundary - 1] == LF || buffer[upperBoundary - 1] == CR)) {
+            return slice(capacity - 1);
+        }
+
+        return this;
+    }
+
+    @Override
+    public final String toTBCD() {
+        // note: not 100% correct at this point in time.
+        // haven't taken care of *#abcd just yet
+        final StringBuilder sb = new StringBuilder(capacity() * 2);
+        for (int i = lowerBoundary; i < upperBoundary; ++i) {
+            final byte b = buffer[i];
+            final int i1 = (b & 0xF0) >> 4;
+            final int i2 = b & 0x0F;
+            sb.append(i2);
+
+            // all 1111 indicates an un-even number of digits
+            // so we should skip this one
+            if (i1 != 15) {
+                sb.append(i1);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public final String dumpAsHex() {
+        return HexDump.dumpHexString(buffer, lowerBoundary, upperBoundary - lowerBoundary);
+    }
+
+    @Override
+    public final String toHexString(final boolean prefix) {
+        return HexDump.toHexString(prefix, buffer, lowerBoundary, upperBoundary - lowerBoundary);
+    }
+
+    @Override
+    public final String toUTF8String() {
+        return new String(buffer, lowerBoundary, capacity(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public final int hashCode() {
+        int result = 1;
+        for (int i = lowerBoundary; i < upperBoundary; ++i) {
+            result = 31 * result + buffer[i];
+        }
+        return result;
+    }
+
+    /**
+     * Compare the first <code>length</code> bytes of this buffer with the first <code>length</code>
+     * bytes of the other buffer. It is up to the caller to ensure that both buffers have at least
+     * <code>length</code> bytes.
+     *
+     * @param ignoreCase whether or not to ignore the case of 7-bit ASCII letters.
+     */
+    protected final boolean regionEquals(final boolean ignoreCase, final AbstractArrayBuffer other, final int length) {
+        for (int i = 0; i < length; ++i) {
+            final byte a1 = buffer[lowerBoundary + i];
+            final byte b1 = other.buffer[other.lowerBoundary + i];
+            // Do a UTF-8-aware, possibly case-insensitive character match. Only considers
+            // case of 7-bit ASCII characters 'a'-'z'. In UTF-8, all bytes of multi-byte
+            // characters have thier most signifcant bit set, so they won't be erroneously
+            // considered by this algorithm since they won't fall in the range 0x41-0x5a/
+            // 0x61-0x7a.
+
+            // This algorithm won't work with UTF-16, and could misfire on malformed UTF-8,
+            // e.g. the first byte of a UTF-8 sequence marks the beginning of a multi-byte
+            // sequence but the second byte does not have the two high-order bits set to 10.
+
+            // For 7-bit ascii leters, upper and lower-case only differ by one bit,
+            // i.e. 'A' is 0x41, and 'a' is 0x61. We need only compare the 5 least
+            // signifcant bits.
+
+            if (a1 != b1) {
+                if (ignoreCase &&
+                        ((a1 >= 'A' && a1 <= 'Z') || (a1 >= 'a' && a1 <= 'z')) &&
+                        ((b1 >= 'A' && b1 <= 'Z') || (b1 >= 'a' && b1 <= 'z')) &&
+                        (a1 & 0x1f) == (b1 & 0x1f)) {
+                    continue;
+                }
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    protected static boolean isByteInArray(final byte b, final byte[] bytes) {
+        for (final byte x : bytes) {
+            if (x == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Convenience method for checking if we can read at the index
+     *
+     * @param index
+     * @throws IndexOutOfBoundsException
+     */
+    protected final void checkIndex(final int index) throws IndexOutOfBoundsException {
+        if (index >= upperBoundary) {
+            throw new IndexOutOfBoundsException("Trying to access index " + index + " in a buffer whose upper bound is (exclusive) " + upperBoundary);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Common base for the encoders and decoders of the {@link DefaultCompressionCodec}. Takes care of
+ * getting at the bytes of the incoming buffers, straight from the backing array when there is one
+ * and through a small scratch array when there isn't, and of packing the output into chunks that are
+ * handed to the sink as soon as they are full.
+ */
+abstract class AbstractCompressionStage {
+
+    private static final int SCRATCH_SIZE = 4096;
+
+    private final Consumer<Buffer> sink;
+    private final int chunkSize;
+
+    /**
+     * The current chunk of output, which is allocated lazily so that we don't allocate a chunk
+     * that is never used when the output happens to end on a chunk boundary.
+     */
+    private byte[] out;
+    private int pos;
+
+    private byte[] scratch;
+    private boolean finished;
+    private boolean released;
+
+    AbstractCompressionStage(final int chunkSize, final Consumer<Buffer> sink) {
+        this.chunkSize = chunkSize;
+        this.sink = sink;
+    }
+
+    public void write(final Buffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        write(buffer, DefaultBufferMap.keyOffset(buffer), DefaultBufferMap.keyLength(buffer));
+    }
+
+    public void write(final Buffer buffer, final int offset, final int length) throws IllegalArgumentException {
+        DefaultBufferMap.checkRange(buffer, offset, length);
+        ensureNotFinished();
+        if (length == 0) {
+            return;
+        }
+
+        final Buffer view = BufferHashing.arrayBacked(buffer);
+        if (view instanceof AbstractArrayBuffer) {
+            final int start = ((AbstractArrayBuffer) view).lowerBoundary + offset - BufferHashing.viewOffset(buffer, view);
+            process(((AbstractArrayBuffer) view).buffer, start, length);
+            return;
+        }
+
+        if (scratch == null) {
+            scratch = new byte[Math.min(SCRATCH_SIZE, length)];
+        }
+        for (int done = 0; done < length; ) {
+            final int count = BufferHashing.fill(scratch, buffer, offset + done, length - done);
+            process(scratch, 0, count);
+            done += count;
+        }
+    }
+
+    public void finish() {
+        ensureNotFinished();
+        finished = true;
+        try {
+            complete();
+            if (pos > 0) {
+                // the last chunk is most likely not full so don't have it hang on to the entire array
+                sink.accept(Buffer.of(pos == out.length ? out : Arrays.copyOf(out, pos)));
+                out = null;
+                pos = 0;
+            }
+        } finally {
+            close();
+        }
+    }
+
+    public void close() {
+        finished = true;
+        if (!released) {
+            released = true;
+            release();
+        }
+    }
+
+    private void ensureNotFinished() {
+        if (finished) {
+            throw new IllegalStateException("The stream has already been finished or closed");
+        }
+    }
+
+    /**
+     * Process the given range of bytes. The array must not be kept around once this method returns.
+     */
+    protected abstract void process(byte[] array, int offset, int length);
+
+    /**
+     * All input has been processed so write out whatever is left.
+     */
+    protected abstract void complete();
+
+    /**
+     * Release any native resources. Called exactly once.
+     */
+    protected void release() {
+        // nothing by default
+    }
+
+    /**
+     * Make sure there is a current chunk with at least one byte of room in it.
+     */
+    protected final void ensureRoom() {
+        if (out == null) {
+            out = new byte[chunkSize];
+            pos = 0;
+        }
+    }
+
+    protected final byte[] chunk() {
+        return out;
+    }
+
+    protected final int position() {
+        return pos;
+    }
+
+    /**
+     * Move the position forward after having written straight into the current chunk,
+     * which is handed to the sink if full.
+     */
+    protected final void advance(final int count) {
+        pos += count;
+        if (pos == out.length) {
+            sink.accept(Buffer.of(out));
+            out = null;
+            pos = 0;
+        }
+    }
+
+    protected final void output(final byte b) {
+        ensureRoom();
+        out[pos] = b;
+        advance(1);
+    }
+
+    protected final void output(final byte[] src, final int offset, final int length) {
+        for (int done = 0; done < length; ) {
+            ensureRoom();
+            final int count = Math.min(length - done, out.length - pos);
+            System.arraycopy(src, offset + done, out, pos, count);
+            done += count;
+            advance(count);
+        }
+    }
+
+    protected final void outputIntLE(final long value) {
+        output((byte) value);
+        output((byte) (value >>> 8));
+        output((byte) (value >>> 16));
+        output((byte) (value >>> 24));
+    }
+}
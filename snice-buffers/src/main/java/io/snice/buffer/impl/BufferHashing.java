@@ -0,0 +1,190 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.util.zip.Checksum;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Feeds the bytes of a {@link Buffer} to a {@link Checksum} or {@link MessageDigest} straight from the
+ * backing array when there is one. For any other buffer, the bytes are copied through a small
+ * scratch array, a chunk at a time, so we never copy the whole buffer.
+ *
+ * Also home of the XXH64 hash, which follows the reference implementation of xxHash
+ * (https://github.com/Cyan4973/xxHash) and produces the same values.
+ */
+public final class BufferHashing {
+
+    private static final int CHUNK_SIZE = 512;
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private BufferHashing() {
+        // left empty intentionally
+    }
+
+    public static void update(final Checksum checksum, final Buffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        update(checksum, buffer, DefaultBufferMap.keyOffset(buffer), DefaultBufferMap.keyLength(buffer));
+    }
+
+    public static void update(final Checksum checksum, final Buffer buffer, final int offset, final int length) {
+        assertNotNull(checksum, "The checksum cannot be null");
+        DefaultBufferMap.checkRange(buffer, offset, length);
+        final Buffer view = arrayBacked(buffer);
+        if (view instanceof AbstractArrayBuffer) {
+            final int start = ((AbstractArrayBuffer) view).lowerBoundary + offset - viewOffset(buffer, view);
+            checksum.update(((AbstractArrayBuffer) view).buffer, start, length);
+            return;
+        }
+
+        final byte[] chunk = new byte[Math.min(CHUNK_SIZE, length)];
+        for (int done = 0; done < length; ) {
+            final int count = fill(chunk, buffer, offset + done, length - done);
+            checksum.update(chunk, 0, count);
+            done += count;
+        }
+    }
+
+    public static void update(final MessageDigest digest, final Buffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        update(digest, buffer, DefaultBufferMap.keyOffset(buffer), DefaultBufferMap.keyLength(buffer));
+    }
+
+    public static void update(final MessageDigest digest, final Buffer buffer, final int offset, final int length) {
+        assertNotNull(digest, "The digest cannot be null");
+        DefaultBufferMap.checkRange(buffer, offset, length);
+        final Buffer view = arrayBacked(buffer);
+        if (view instanceof AbstractArrayBuffer) {
+            final int start = ((AbstractArrayBuffer) view).lowerBoundary + offset - viewOffset(buffer, view);
+            digest.update(((AbstractArrayBuffer) view).buffer, start, length);
+            return;
+        }
+
+        final byte[] chunk = new byte[Math.min(CHUNK_SIZE, length)];
+        for (int done = 0; done < length; ) {
+            final int count = fill(chunk, buffer, offset + done, length - done);
+            digest.update(chunk, 0, count);
+            done += count;
+        }
+    }
+
+    public static long xxHash64(final Buffer buffer, final long seed) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        return xxHash64(buffer, DefaultBufferMap.keyOffset(buffer), DefaultBufferMap.keyLength(buffer), seed);
+    }
+
+    public static long xxHash64(final Buffer buffer, final int offset, final int length, final long seed) {
+        DefaultBufferMap.checkRange(buffer, offset, length);
+        final Buffer view = arrayBacked(buffer);
+        if (view instanceof AbstractArrayBuffer) {
+            final int start = ((AbstractArrayBuffer) view).lowerBoundary + offset - viewOffset(buffer, view);
+            return xxHash64(((AbstractArrayBuffer) view).buffer, start, length, seed);
+        }
+
+        // not worth streaming the hash for the odd buffer that isn't backed by an array
+        return xxHash64(DefaultBufferMap.copy(buffer, offset, length), 0, length, seed);
+    }
+
+    /**
+     * A readable buffer is a view of an immutable buffer, which we can get to through {@link Buffer#toBuffer()}
+     * without copying anything. Note that the view starts at the reader index.
+     */
+    static Buffer arrayBacked(final Buffer buffer) {
+        if (buffer instanceof DefaultReadableBuffer) {
+            return buffer.toBuffer();
+        }
+        return buffer;
+    }
+
+    static int viewOffset(final Buffer buffer, final Buffer view) {
+        return buffer == view ? 0 : ((DefaultReadableBuffer) buffer).getReaderIndex();
+    }
+
+    static int fill(final byte[] chunk, final Buffer buffer, final int index, final int remaining) {
+        final int count = Math.min(chunk.length, remaining);
+        for (int i = 0; i < count; ++i) {
+            chunk[i] = buffer.getByte(index + i);
+        }
+        return count;
+    }
+
+    static long xxHash64(final byte[] array, final int offset, final int length, final long seed) {
+        final int end = offset + length;
+        int index = offset;
+        long hash;
+
+        if (length >= 32) {
+            long v1 = seed + PRIME64_1 + PRIME64_2;
+            long v2 = seed + PRIME64_2;
+            long v3 = seed;
+            long v4 = seed - PRIME64_1;
+            final int limit = end - 32;
+            do {
+                v1 = round(v1, (long) LONG.get(array, index));
+                v2 = round(v2, (long) LONG.get(array, index + 8));
+                v3 = round(v3, (long) LONG.get(array, index + 16));
+                v4 = round(v4, (long) LONG.get(array, index + 24));
+                index += 32;
+            } while (index <= limit);
+
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + PRIME64_5;
+        }
+
+        hash += length;
+
+        while (index + 8 <= end) {
+            hash ^= round(0, (long) LONG.get(array, index));
+            hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+            index += 8;
+        }
+
+        if (index + 4 <= end) {
+            hash ^= ((int) INT.get(array, index) & 0xFFFFFFFFL) * PRIME64_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+            index += 4;
+        }
+
+        while (index < end) {
+            hash ^= (array[index] & 0xFF) * PRIME64_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+            ++index;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME64_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME64_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private static long round(long acc, final long input) {
+        acc += input * PRIME64_2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME64_1;
+    }
+
+    private static long mergeRound(long acc, final long value) {
+        acc ^= round(0, value);
+        return acc * PRIME64_1 + PRIME64_4;
+    }
+}
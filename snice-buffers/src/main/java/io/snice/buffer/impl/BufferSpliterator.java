@@ -0,0 +1,184 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * A {@link Spliterator} that splits a {@link Buffer} on a delimiter and hands out every token
+ * as a slice of the original buffer, i.e., no bytes are copied.
+ *
+ * When asked to split, e.g. because it is backing a parallel stream, we pick the middle of
+ * the remaining bytes and move forward to the next delimiter. Everything up to, and including,
+ * that delimiter goes to the new spliterator and we keep the rest. As such, a token is never
+ * split in two, no matter where the middle happens to be.
+ */
+public final class BufferSpliterator implements Spliterator<Buffer> {
+
+    /**
+     * Not worth splitting anything smaller than this.
+     */
+    private static final int MIN_SPLIT_SIZE = 8 * 1024;
+
+    private final Buffer buffer;
+
+    /**
+     * If the buffer is backed by an array we'll scan that array directly.
+     */
+    private final byte[] array;
+    private final int offset;
+
+    private final byte delimiter;
+
+    /**
+     * If we are splitting into lines, we'll strip off the CR of a CRLF.
+     */
+    private final boolean lines;
+
+    private int position;
+    private final int end;
+
+    /**
+     * Whether or not we still have to emit an empty token at the very end, which
+     * is the case when the buffer ends with the delimiter (and we are not splitting lines).
+     */
+    private boolean emptyTail;
+
+    /**
+     * Split the buffer, between <code>from</code> (inclusive) and <code>to</code> (exclusive),
+     * on the given delimiter. Every delimiter separates two tokens so there will always be one more
+     * token than there are delimiters, which also means that empty tokens are included. The only
+     * exception is an empty range, which has no tokens at all.
+     */
+    public static Spliterator<Buffer> split(final Buffer buffer, final int from, final int to, final byte delimiter) {
+        return create(buffer, from, to, delimiter, false);
+    }
+
+    /**
+     * Split the buffer, between <code>from</code> (inclusive) and <code>to</code> (exclusive),
+     * into lines. A line is terminated by either LF or CRLF, and the terminator is not part of the line.
+     * Just as {@link String#lines()}, there is no empty line after a trailing terminator.
+     */
+    public static Spliterator<Buffer> lines(final Buffer buffer, final int from, final int to) {
+        return create(buffer, from, to, Buffer.LF, true);
+    }
+
+    private static Spliterator<Buffer> create(final Buffer buffer, final int from, final int to,
+                                              final byte delimiter, final boolean lines) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        assertArgument(from >= 0 && from <= to && to <= buffer.capacity(),
+                "The range [" + from + ", " + to + ") is not within the buffer");
+        return new BufferSpliterator(buffer, delimiter, lines, from, to, !lines && from < to);
+    }
+
+    private BufferSpliterator(final Buffer buffer, final byte delimiter, final boolean lines,
+                              final int position, final int end, final boolean emptyTail) {
+        this.buffer = buffer;
+        if (buffer instanceof AbstractArrayBuffer) {
+            array = ((AbstractArrayBuffer) buffer).buffer;
+            offset = ((AbstractArrayBuffer) buffer).lowerBoundary;
+        } else {
+            array = null;
+            offset = 0;
+        }
+        this.delimiter = delimiter;
+        this.lines = lines;
+        this.position = position;
+        this.end = end;
+        this.emptyTail = emptyTail;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Buffer> action) {
+        assertNotNull(action);
+        if (position < end) {
+            final int index = indexOfDelimiter(position, end);
+            if (index == -1) {
+                // the last token isn't terminated so there is no empty one after it
+                final Buffer token = token(position, end);
+                position = end;
+                emptyTail = false;
+                action.accept(token);
+            } else {
+                final Buffer token = token(position, index);
+                position = index + 1;
+                action.accept(token);
+            }
+            return true;
+        }
+
+        if (emptyTail) {
+            emptyTail = false;
+            action.accept(buffer.slice(end, end));
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public Spliterator<Buffer> trySplit() {
+        if (end - position < MIN_SPLIT_SIZE) {
+            return null;
+        }
+
+        final int index = indexOfDelimiter(position + (end - position) / 2, end);
+        if (index == -1) {
+            return null;
+        }
+
+        // all tokens in the prefix are terminated by a delimiter so it never
+        // has an empty tail, that belongs to us.
+        final BufferSpliterator prefix = new BufferSpliterator(buffer, delimiter, lines, position, index + 1, false);
+        position = index + 1;
+        return prefix;
+    }
+
+    /**
+     * We don't know how many tokens there are without scanning the buffer
+     * so the number of bytes left is the best we can do.
+     */
+    @Override
+    public long estimateSize() {
+        return end - position;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+
+    private Buffer token(final int start, final int stop) {
+        if (lines && stop > start && getByte(stop - 1) == Buffer.CR) {
+            return buffer.slice(start, stop - 1);
+        }
+        return buffer.slice(start, stop);
+    }
+
+    private byte getByte(final int index) {
+        return array != null ? array[offset + index] : buffer.getByte(index);
+    }
+
+    private int indexOfDelimiter(final int from, final int to) {
+        if (array != null) {
+            final int stop = offset + to;
+            for (int i = offset + from; i < stop; ++i) {
+                if (array[i] == delimiter) {
+                    return i - offset;
+                }
+            }
+            return -1;
+        }
+
+        for (int i = from; i < to; ++i) {
+            if (buffer.getByte(i) == delimiter) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
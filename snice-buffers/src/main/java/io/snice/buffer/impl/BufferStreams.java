@@ -0,0 +1,207 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.WritableBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Adapters between buffers and the streams and channels of the JDK. All the reading adapters work off of
+ * a read-only {@link ByteBuffer} view of the buffer (see {@link io.snice.buffer.Buffer#asByteBuffer()}),
+ * which never copies the underlying byte-array, and the writing adapters simply write to the
+ * {@link WritableBuffer} at its writer index.
+ */
+public final class BufferStreams {
+
+    private BufferStreams() {
+        // left empty intentionally
+    }
+
+    public static InputStream inputStream(final ByteBuffer view) {
+        return new ByteBufferInputStream(view);
+    }
+
+    public static ReadableByteChannel readableChannel(final ByteBuffer view) {
+        return new ByteBufferChannel(view);
+    }
+
+    public static OutputStream outputStream(final WritableBuffer buffer) {
+        return new WritableBufferOutputStream(buffer);
+    }
+
+    public static WritableByteChannel writableChannel(final WritableBuffer buffer) {
+        return new WritableBufferChannel(buffer);
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer view;
+
+        private ByteBufferInputStream(final ByteBuffer view) {
+            this.view = view;
+            // just like ByteArrayInputStream, a reset without a mark goes back to the start
+            view.mark();
+        }
+
+        @Override
+        public int read() {
+            return view.hasRemaining() ? view.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!view.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(len, view.remaining());
+            view.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int count = (int) Math.max(0, Math.min(n, view.remaining()));
+            view.position(view.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return view.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark(final int readlimit) {
+            view.mark();
+        }
+
+        @Override
+        public synchronized void reset() {
+            view.reset();
+        }
+    }
+
+    private static final class ByteBufferChannel implements ReadableByteChannel {
+
+        private final ByteBuffer view;
+        private boolean open = true;
+
+        private ByteBufferChannel(final ByteBuffer view) {
+            this.view = view;
+        }
+
+        @Override
+        public int read(final ByteBuffer dst) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            if (!view.hasRemaining()) {
+                return -1;
+            }
+
+            final int count = Math.min(dst.remaining(), view.remaining());
+            final ByteBuffer chunk = view.slice();
+            chunk.limit(count);
+            dst.put(chunk);
+            view.position(view.position() + count);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    private static final class WritableBufferOutputStream extends OutputStream {
+
+        private final WritableBuffer buffer;
+
+        private WritableBufferOutputStream(final WritableBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            ensureRoom(buffer, 1);
+            buffer.write((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            ensureRoom(buffer, len);
+            buffer.write(b, off, len);
+        }
+    }
+
+    private static final class WritableBufferChannel implements WritableByteChannel {
+
+        private final WritableBuffer buffer;
+        private boolean open = true;
+
+        private WritableBufferChannel(final WritableBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Writes as much as there is room for. If there is no room at all, we throw an exception
+         * since whoever is writing would otherwise keep trying forever.
+         */
+        @Override
+        public int write(final ByteBuffer src) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            if (!src.hasRemaining()) {
+                return 0;
+            }
+
+            ensureRoom(buffer, 1);
+            final int count = Math.min(src.remaining(), buffer.getWritableBytes());
+            if (src.hasArray()) {
+                buffer.write(src.array(), src.arrayOffset() + src.position(), count);
+                src.position(src.position() + count);
+            } else {
+                final byte[] chunk = new byte[count];
+                src.get(chunk);
+                buffer.write(chunk);
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    private static void ensureRoom(final WritableBuffer buffer, final int needed) throws IOException {
+        if (buffer.getWritableBytes() < needed) {
+            throw new IOException("Not enough room in the buffer, need " + needed + " bytes but only "
+                    + buffer.getWritableBytes() + " are writable");
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Base64Codec;
+import io.snice.buffer.Buffer;
+import io.snice.buffer.WritableBuffer;
+
+import java.util.Arrays;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Encodes and decodes through a small scratch array that is flushed to the destination in one go
+ * every time it fills up. When the source is backed by an array, we read straight out of it,
+ * otherwise the source range is copied first.
+ */
+public final class DefaultBase64Codec implements Base64Codec {
+
+    private static final byte[] STANDARD_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes();
+
+    private static final byte[] URL_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes();
+
+    public static final Base64Codec STANDARD = new DefaultBase64Codec(STANDARD_ALPHABET, true);
+
+    public static final Base64Codec URL = new DefaultBase64Codec(URL_ALPHABET, false);
+
+    /**
+     * Must be a multiple of both 3 and 4.
+     */
+    private static final int CHUNK_SIZE = 3072;
+
+    private static final byte PAD = '=';
+
+    private final byte[] alphabet;
+    private final int[] decodeTable;
+    private final boolean padding;
+
+    private DefaultBase64Codec(final byte[] alphabet, final boolean padding) {
+        this.alphabet = alphabet;
+        this.padding = padding;
+        decodeTable = new int[256];
+        Arrays.fill(decodeTable, -1);
+        for (int i = 0; i < alphabet.length; ++i) {
+            decodeTable[alphabet[i]] = i;
+        }
+    }
+
+    @Override
+    public Base64Codec withPadding(final boolean padding) {
+        if (padding == this.padding) {
+            return this;
+        }
+        return new DefaultBase64Codec(alphabet, padding);
+    }
+
+    @Override
+    public int encodedLength(final int length) {
+        return padding ? (length + 2) / 3 * 4 : (length * 4 + 2) / 3;
+    }
+
+    @Override
+    public int encode(final Buffer src, final WritableBuffer dst) throws IndexOutOfBoundsException {
+        assertNotNull(src, "The source buffer cannot be null");
+        return encode(src, DefaultBufferMap.keyOffset(src), DefaultBufferMap.keyLength(src), dst);
+    }
+
+    @Override
+    public int encode(final Buffer src, final int offset, final int length, final WritableBuffer dst)
+            throws IllegalArgumentException, IndexOutOfBoundsException {
+        DefaultBufferMap.checkRange(src, offset, length);
+        assertNotNull(dst, "The destination buffer cannot be null");
+        final int encodedLength = encodedLength(length);
+        ensureRoom(dst, encodedLength);
+
+        final byte[] in;
+        int index;
+        if (src instanceof AbstractArrayBuffer) {
+            in = ((AbstractArrayBuffer) src).buffer;
+            index = ((AbstractArrayBuffer) src).lowerBoundary + offset;
+        } else {
+            in = DefaultBufferMap.copy(src, offset, length);
+            index = 0;
+        }
+
+        final int end = index + length;
+        final int fullEnd = index + length / 3 * 3;
+        final byte[] out = new byte[Math.min(CHUNK_SIZE, encodedLength + 4)];
+        int pos = 0;
+        while (index < fullEnd) {
+            final int bits = (in[index] & 0xFF) << 16 | (in[index + 1] & 0xFF) << 8 | (in[index + 2] & 0xFF);
+            out[pos] = alphabet[bits >>> 18];
+            out[pos + 1] = alphabet[(bits >>> 12) & 0x3F];
+            out[pos + 2] = alphabet[(bits >>> 6) & 0x3F];
+            out[pos + 3] = alphabet[bits & 0x3F];
+            pos += 4;
+            index += 3;
+            if (pos == out.length) {
+                dst.write(out, 0, pos);
+                pos = 0;
+            }
+        }
+
+        final int remaining = end - index;
+        if (remaining > 0) {
+            final int bits = (in[index] & 0xFF) << 16 | (remaining == 2 ? (in[index + 1] & 0xFF) << 8 : 0);
+            out[pos++] = alphabet[bits >>> 18];
+            out[pos++] = alphabet[(bits >>> 12) & 0x3F];
+            if (remaining == 2) {
+                out[pos++] = alphabet[(bits >>> 6) & 0x3F];
+            } else if (padding) {
+                out[pos++] = PAD;
+            }
+            if (padding) {
+                out[pos++] = PAD;
+            }
+        }
+
+        if (pos > 0) {
+            dst.write(out, 0, pos);
+        }
+        return encodedLength;
+    }
+
+    @Override
+    public int decode(final Buffer src, final WritableBuffer dst) throws IllegalArgumentException, IndexOutOfBoundsException {
+        assertNotNull(src, "The source buffer cannot be null");
+        return decode(src, DefaultBufferMap.keyOffset(src), DefaultBufferMap.keyLength(src), dst);
+    }
+
+    @Override
+    public int decode(final Buffer src, final int offset, final int length, final WritableBuffer dst)
+            throws IllegalArgumentException, IndexOutOfBoundsException {
+        DefaultBufferMap.checkRange(src, offset, length);
+        assertNotNull(dst, "The destination buffer cannot be null");
+
+        final byte[] in;
+        final int start;
+        if (src instanceof AbstractArrayBuffer) {
+            in = ((AbstractArrayBuffer) src).buffer;
+            start = ((AbstractArrayBuffer) src).lowerBoundary + offset;
+        } else {
+            in = DefaultBufferMap.copy(src, offset, length);
+            start = 0;
+        }
+
+        // strip and validate the padding, if any
+        int end = start + length;
+        if (length > 0 && in[end - 1] == PAD) {
+            if (length % 4 != 0) {
+                throw new IllegalArgumentException("Padded Base64 must be a multiple of four characters");
+            }
+            --end;
+            if (in[end - 1] == PAD) {
+                --end;
+            }
+        }
+
+        final int chars = end - start;
+        final int remainder = chars % 4;
+        if (remainder == 1) {
+            throw new IllegalArgumentException("Invalid length of Base64 input");
+        }
+
+        // any padding left at this point is too much padding and is caught by the validation
+        final int decodedLength = chars / 4 * 3 + (remainder == 0 ? 0 : remainder - 1);
+        validate(in, start, end);
+        ensureRoom(dst, decodedLength);
+
+        final int fullEnd = start + chars / 4 * 4;
+        final byte[] out = new byte[Math.min(CHUNK_SIZE, decodedLength + 3)];
+        int pos = 0;
+        int index = start;
+        while (index < fullEnd) {
+            final int bits = decodeTable[in[index] & 0xFF] << 18
+                    | decodeTable[in[index + 1] & 0xFF] << 12
+                    | decodeTable[in[index + 2] & 0xFF] << 6
+                    | decodeTable[in[index + 3] & 0xFF];
+            out[pos] = (byte) (bits >>> 16);
+            out[pos + 1] = (byte) (bits >>> 8);
+            out[pos + 2] = (byte) bits;
+            pos += 3;
+            index += 4;
+            if (pos == out.length) {
+                dst.write(out, 0, pos);
+                pos = 0;
+            }
+        }
+
+        if (remainder > 0) {
+            final int bits = decodeTable[in[index] & 0xFF] << 18
+                    | decodeTable[in[index + 1] & 0xFF] << 12
+                    | (remainder == 3 ? decodeTable[in[index + 2] & 0xFF] << 6 : 0);
+            out[pos++] = (byte) (bits >>> 16);
+            if (remainder == 3) {
+                out[pos++] = (byte) (bits >>> 8);
+            }
+        }
+
+        if (pos > 0) {
+            dst.write(out, 0, pos);
+        }
+        return decodedLength;
+    }
+
+    /**
+     * Make sure every character is part of the alphabet and that the bits of the last character
+     * that don't make it into the output are all zero. We do this up front so that we never
+     * write anything if the input is invalid.
+     */
+    private void validate(final byte[] in, final int start, final int end) {
+        int invalid = 0;
+        for (int i = start; i < end; ++i) {
+            invalid |= decodeTable[in[i] & 0xFF];
+        }
+
+        if (invalid < 0) {
+            for (int i = start; i < end; ++i) {
+                if (decodeTable[in[i] & 0xFF] < 0) {
+                    throw new IllegalArgumentException("Illegal Base64 character 0x"
+                            + Integer.toHexString(in[i] & 0xFF) + " at position " + (i - start));
+                }
+            }
+        }
+
+        final int remainder = (end - start) % 4;
+        if (remainder != 0) {
+            final int last = decodeTable[in[end - 1] & 0xFF];
+            final int unused = remainder == 2 ? 0x0F : 0x03;
+            if ((last & unused) != 0) {
+                throw new IllegalArgumentException("The last Base64 character has non-zero trailing bits");
+            }
+        }
+    }
+
+    /**
+     * The number of visible bytes of the given buffer, which is what {@link #encode(Buffer, WritableBuffer)}
+     * and {@link #decode(Buffer, WritableBuffer)} work on, without materializing them into a new buffer.
+     */
+    public static int visibleLength(final Buffer src) {
+        assertNotNull(src, "The source buffer cannot be null");
+        return DefaultBufferMap.keyLength(src);
+    }
+
+    private static void ensureRoom(final WritableBuffer dst, final int needed) {
+        if (dst.getWritableBytes() < needed) {
+            throw new IndexOutOfBoundsException("Need " + needed + " bytes but only "
+                    + dst.getWritableBytes() + " are writable");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Base64Codec[" + (alphabet == URL_ALPHABET ? "url" : "standard") + ", padding=" + padding + "]";
+    }
+}
@@ -0,0 +1,136 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.BitReader;
+import io.snice.buffer.Buffer;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+
+/**
+ * Every read loads (at most) one 64-bit word, plus one more byte when the field straddles the
+ * word, and then shifts the bits into place. When the buffer is backed by an array, which is
+ * the normal case, the word is loaded straight out of that array as a single big endian long.
+ */
+public final class DefaultBitReader implements BitReader {
+
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Buffer buffer;
+    private final byte[] array;
+    private final int offset;
+
+    /**
+     * The first and last (exclusive) bit we are allowed to read.
+     */
+    private final long start;
+    private final long end;
+
+    private long position;
+
+    public static BitReader of(final Buffer buffer, final int startIndex, final int endIndex) {
+        assertArgument(startIndex >= 0 && startIndex <= endIndex && endIndex <= buffer.capacity(),
+                "The range [" + startIndex + ", " + endIndex + ") is not within the buffer");
+        return new DefaultBitReader(buffer, startIndex, endIndex);
+    }
+
+    private DefaultBitReader(final Buffer buffer, final int startIndex, final int endIndex) {
+        this.buffer = buffer;
+        if (buffer instanceof AbstractArrayBuffer) {
+            array = ((AbstractArrayBuffer) buffer).buffer;
+            offset = ((AbstractArrayBuffer) buffer).lowerBoundary;
+        } else {
+            array = null;
+            offset = 0;
+        }
+        start = (long) startIndex << 3;
+        end = (long) endIndex << 3;
+        position = start;
+    }
+
+    @Override
+    public long readBits(final int count) throws IndexOutOfBoundsException, IllegalArgumentException {
+        final long value = getBits(position, count);
+        position += count;
+        return value;
+    }
+
+    @Override
+    public long getBits(final long bitPosition, final int count) throws IndexOutOfBoundsException, IllegalArgumentException {
+        assertArgument(count >= 1 && count <= 64, "You can only read 1 - 64 bits at a time");
+        if (bitPosition < start || bitPosition + count > end) {
+            throw new IndexOutOfBoundsException("Cannot read " + count + " bits at bit position " + bitPosition);
+        }
+
+        final int index = (int) (bitPosition >>> 3);
+        final int shift = (int) (bitPosition & 7);
+        final long word = loadWord(index);
+        final long value = (word << shift) >>> (64 - count);
+        final int extra = shift + count - 64;
+        if (extra <= 0) {
+            return value;
+        }
+
+        // the field straddles the 64-bit word so the last few bits are in the next byte
+        return value | ((loadByte(index + 8) & 0xFF) >>> (8 - extra));
+    }
+
+    @Override
+    public void skipBits(final long count) throws IndexOutOfBoundsException {
+        setBitPosition(position + count);
+    }
+
+    @Override
+    public void alignToByte() {
+        position = Math.min((position + 7) & ~7L, end);
+    }
+
+    @Override
+    public long getBitPosition() {
+        return position;
+    }
+
+    @Override
+    public void setBitPosition(final long bitPosition) throws IndexOutOfBoundsException {
+        if (bitPosition < start || bitPosition > end) {
+            throw new IndexOutOfBoundsException("The bit position " + bitPosition + " is out of bounds");
+        }
+        position = bitPosition;
+    }
+
+    @Override
+    public long getReadableBits() {
+        return end - position;
+    }
+
+    /**
+     * Load the 8 bytes starting at the given index as a big endian long where any bytes
+     * past the end are treated as zero.
+     */
+    private long loadWord(final int index) {
+        final int endIndex = (int) (end >>> 3);
+        if (array != null && index + 8 <= endIndex) {
+            return (long) LONG.get(array, offset + index);
+        }
+
+        long word = 0;
+        for (int i = 0; i < 8; ++i) {
+            word = (word << 8) | (loadByte(index + i) & 0xFF);
+        }
+        return word;
+    }
+
+    private byte loadByte(final int index) {
+        if (index >= (int) (end >>> 3)) {
+            return 0;
+        }
+        return array != null ? array[offset + index] : buffer.getByte(index);
+    }
+
+    @Override
+    public String toString() {
+        return "BitReader[position=" + position + ", readable=" + getReadableBits() + "]";
+    }
+}
@@ -0,0 +1,98 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.BitWriter;
+import io.snice.buffer.WritableBuffer;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+
+/**
+ * Keeps the partially written byte around so that we never have to read anything back from the
+ * {@link WritableBuffer} (which we can't). Once we are on a byte boundary, the rest of the bits are
+ * written as whole ints and bytes.
+ */
+public final class DefaultBitWriter implements BitWriter {
+
+    private final WritableBuffer buffer;
+
+    private long position;
+
+    /**
+     * The bits written so far to the current byte, if we are not on a byte boundary.
+     */
+    private int partial;
+
+    public static BitWriter of(final WritableBuffer buffer) {
+        return new DefaultBitWriter(buffer);
+    }
+
+    private DefaultBitWriter(final WritableBuffer buffer) {
+        this.buffer = buffer;
+        position = (long) buffer.getWriterIndex() << 3;
+    }
+
+    @Override
+    public void writeBits(final long value, final int count) throws IndexOutOfBoundsException, IllegalArgumentException {
+        assertArgument(count >= 1 && count <= 64, "You can only write 1 - 64 bits at a time");
+        final int used = (int) (position & 7);
+        final int needed = (count - (used == 0 ? 0 : 8 - used) + 7) >> 3;
+        if (buffer.getWritableBytes() < needed) {
+            throw new IndexOutOfBoundsException("Not enough room to write " + count + " bits");
+        }
+
+        long bits = count == 64 ? value : value & ((1L << count) - 1);
+        int remaining = count;
+
+        if (used != 0) {
+            final int free = 8 - used;
+            final int n = Math.min(free, remaining);
+            partial |= (int) (bits >>> (remaining - n)) << (free - n);
+            buffer.setByte((int) (position >>> 3), (byte) partial);
+            position += n;
+            remaining -= n;
+            if (remaining == 0) {
+                return;
+            }
+            bits &= (1L << remaining) - 1;
+        }
+
+        if (remaining == 64) {
+            buffer.write(bits);
+            position += 64;
+            return;
+        }
+
+        while (remaining >= 32) {
+            buffer.write((int) (bits >>> (remaining - 32)));
+            remaining -= 32;
+            position += 32;
+        }
+
+        while (remaining >= 8) {
+            buffer.write((byte) (bits >>> (remaining - 8)));
+            remaining -= 8;
+            position += 8;
+        }
+
+        if (remaining > 0) {
+            partial = (int) (bits & ((1 << remaining) - 1)) << (8 - remaining);
+            buffer.write((byte) partial);
+            position += remaining;
+        }
+    }
+
+    @Override
+    public void alignToByte() {
+        position = (position + 7) & ~7L;
+        partial = 0;
+    }
+
+    @Override
+    public long getBitPosition() {
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return "BitWriter[position=" + position + "]";
+    }
+}
@@ -0,0 +1,113 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferComparator;
+
+import java.util.Arrays;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * When both buffers are backed by arrays, which is the normal case, we hand them straight to
+ * {@link Arrays#compareUnsigned(byte[], int, int, byte[], int, int)}, which is an intrinsic that
+ * compares several bytes at a time.
+ */
+public final class DefaultBufferComparator implements BufferComparator {
+
+    public static final BufferComparator UNSIGNED = new DefaultBufferComparator();
+
+    private DefaultBufferComparator() {
+        // use the shared instance
+    }
+
+    @Override
+    public int compare(final Buffer a, final Buffer b) {
+        assertNotNull(a, "The buffer cannot be null");
+        assertNotNull(b, "The buffer cannot be null");
+        return compareUnchecked(a, DefaultBufferMap.keyOffset(a), DefaultBufferMap.keyLength(a),
+                b, DefaultBufferMap.keyOffset(b), DefaultBufferMap.keyLength(b));
+    }
+
+    @Override
+    public int compare(final Buffer a, final int aOffset, final int aLength,
+                       final Buffer b, final int bOffset, final int bLength) throws IllegalArgumentException {
+        DefaultBufferMap.checkRange(a, aOffset, aLength);
+        DefaultBufferMap.checkRange(b, bOffset, bLength);
+        return compareUnchecked(a, aOffset, aLength, b, bOffset, bLength);
+    }
+
+    static int compareUnchecked(final Buffer a, final int aOffset, final int aLength,
+                                final Buffer b, final int bOffset, final int bLength) {
+        if (a instanceof AbstractArrayBuffer) {
+            final int start = ((AbstractArrayBuffer) a).lowerBoundary + aOffset;
+            return compare(((AbstractArrayBuffer) a).buffer, start, start + aLength, b, bOffset, bLength);
+        }
+
+        if (b instanceof AbstractArrayBuffer) {
+            final int start = ((AbstractArrayBuffer) b).lowerBoundary + bOffset;
+            return -compare(((AbstractArrayBuffer) b).buffer, start, start + bLength, a, aOffset, aLength);
+        }
+
+        final int length = Math.min(aLength, bLength);
+        for (int i = 0; i < length; ++i) {
+            final int diff = (a.getByte(aOffset + i) & 0xFF) - (b.getByte(bOffset + i) & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return aLength - bLength;
+    }
+
+    /**
+     * Compare the given range of an array with the given range of a buffer.
+     */
+    static int compare(final byte[] array, final int from, final int to, final Buffer b, final int bOffset, final int bLength) {
+        if (b instanceof AbstractArrayBuffer) {
+            final int start = ((AbstractArrayBuffer) b).lowerBoundary + bOffset;
+            return Arrays.compareUnsigned(array, from, to, ((AbstractArrayBuffer) b).buffer, start, start + bLength);
+        }
+
+        final int aLength = to - from;
+        final int length = Math.min(aLength, bLength);
+        for (int i = 0; i < length; ++i) {
+            final int diff = (array[from + i] & 0xFF) - (b.getByte(bOffset + i) & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return aLength - bLength;
+    }
+
+    /**
+     * Find the index of the first byte that differs between the two buffers, same as
+     * {@link Arrays#mismatch(byte[], byte[])}.
+     */
+    public static int mismatch(final Buffer a, final Buffer b) {
+        assertNotNull(a, "The buffer cannot be null");
+        assertNotNull(b, "The buffer cannot be null");
+        final int aOffset = DefaultBufferMap.keyOffset(a);
+        final int aLength = DefaultBufferMap.keyLength(a);
+        final int bOffset = DefaultBufferMap.keyOffset(b);
+        final int bLength = DefaultBufferMap.keyLength(b);
+
+        if (a instanceof AbstractArrayBuffer && b instanceof AbstractArrayBuffer) {
+            final int aStart = ((AbstractArrayBuffer) a).lowerBoundary + aOffset;
+            final int bStart = ((AbstractArrayBuffer) b).lowerBoundary + bOffset;
+            return Arrays.mismatch(((AbstractArrayBuffer) a).buffer, aStart, aStart + aLength,
+                    ((AbstractArrayBuffer) b).buffer, bStart, bStart + bLength);
+        }
+
+        final int length = Math.min(aLength, bLength);
+        for (int i = 0; i < length; ++i) {
+            if (a.getByte(aOffset + i) != b.getByte(bOffset + i)) {
+                return i;
+            }
+        }
+        return aLength == bLength ? -1 : length;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferComparator[unsigned]";
+    }
+}
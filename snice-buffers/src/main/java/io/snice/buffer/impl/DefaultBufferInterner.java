@@ -0,0 +1,151 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferInterner;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * A lock free, set associative table where every bucket has {@link #WAYS} slots. A lookup only ever
+ * looks at the slots of a single bucket and if the content isn't found, a new entry is put in an empty
+ * slot or, if there is none, it replaces one of the existing entries. Two threads interning the same
+ * content at the same time may end up with different instances, but only one of them will stay in
+ * the table.
+ */
+public final class DefaultBufferInterner implements BufferInterner {
+
+    private static final int WAYS = 4;
+
+    private final AtomicReferenceArray<Entry> table;
+    private final int bucketMask;
+    private final int maxLength;
+    private final boolean ignoreCase;
+
+    public static BufferInterner of(final int capacity, final int maxLength, final boolean ignoreCase) {
+        final int size = Math.max(WAYS, capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+        return new DefaultBufferInterner(size, maxLength, ignoreCase);
+    }
+
+    private DefaultBufferInterner(final int size, final int maxLength, final boolean ignoreCase) {
+        table = new AtomicReferenceArray<>(size);
+        bucketMask = size / WAYS - 1;
+        this.maxLength = maxLength;
+        this.ignoreCase = ignoreCase;
+    }
+
+    @Override
+    public Buffer intern(final Buffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        return intern(buffer, DefaultBufferMap.keyOffset(buffer), DefaultBufferMap.keyLength(buffer));
+    }
+
+    @Override
+    public Buffer intern(final Buffer buffer, final int offset, final int length) throws IllegalArgumentException {
+        DefaultBufferMap.checkRange(buffer, offset, length);
+        if (length > maxLength) {
+            return Buffer.of(DefaultBufferMap.copy(buffer, offset, length));
+        }
+
+        final int hash = hash(buffer, offset, length);
+        final int bucket = (hash & bucketMask) * WAYS;
+        for (int i = 0; i < WAYS; ++i) {
+            final Entry entry = table.get(bucket + i);
+            if (entry == null) {
+                break;
+            }
+            if (entry.hash == hash && matches(entry.bytes, buffer, offset, length)) {
+                return entry.buffer;
+            }
+        }
+
+        final Entry entry = new Entry(hash, DefaultBufferMap.copy(buffer, offset, length));
+        for (int i = 0; i < WAYS; ++i) {
+            Entry other;
+            do {
+                if (table.compareAndSet(bucket + i, null, entry)) {
+                    return entry.buffer;
+                }
+
+                // a concurrent clear() may have emptied the slot again, in which case we just try again
+                other = table.get(bucket + i);
+            } while (other == null);
+
+            // someone else may just have interned the very same content
+            if (other.hash == hash && matches(other.bytes, buffer, offset, length)) {
+                return other.buffer;
+            }
+        }
+
+        // the bucket is full so replace one of the entries, which one is picked by some
+        // of the hash bits that are not used for the bucket index.
+        table.set(bucket + ((hash >>> 30) & (WAYS - 1)), entry);
+        return entry.buffer;
+    }
+
+    @Override
+    public int capacity() {
+        return table.length();
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < table.length(); ++i) {
+            table.set(i, null);
+        }
+    }
+
+    private int hash(final Buffer buffer, final int offset, final int length) {
+        if (!ignoreCase) {
+            return DefaultBufferMap.hash(buffer, offset, length);
+        }
+
+        int h = 1;
+        for (int i = offset; i < offset + length; ++i) {
+            h = 31 * h + fold(buffer.getByte(i));
+        }
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    private boolean matches(final byte[] bytes, final Buffer buffer, final int offset, final int length) {
+        if (!ignoreCase) {
+            return DefaultBufferMap.matches(bytes, buffer, offset, length);
+        }
+
+        if (bytes.length != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; ++i) {
+            if (fold(bytes[i]) != fold(buffer.getByte(offset + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int fold(final byte b) {
+        return b >= 'A' && b <= 'Z' ? b | 0x20 : b;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferInterner[capacity=" + table.length() + ", ignoreCase=" + ignoreCase + "]";
+    }
+
+    private static final class Entry {
+        private final int hash;
+        private final byte[] bytes;
+        private final Buffer buffer;
+
+        private Entry(final int hash, final byte[] bytes) {
+            this.hash = hash;
+            this.bytes = bytes;
+            this.buffer = Buffer.of(bytes);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferLookup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * A minimal perfect hash built with "hash and displace" (CHD, Belazzougui, Botelho and Dietzfelbinger),
+ * i.e. the table has exactly one slot per key. Every key is hashed once into a 64-bit value where
+ * the high bits pick one of roughly {@code n / }{@link #KEYS_PER_BUCKET} buckets and each bucket has a
+ * displacement, which is mixed into the hash to get the slot. At build time, the buckets are placed
+ * largest first and for every bucket we search for a displacement under which all its keys land in
+ * slots that are still free. The only extra memory is one int per bucket.
+ * </p>
+ *
+ * <p>
+ * Any given token can then only ever match the key in the slot it hashes to. Case folding is done
+ * through a lookup table, which is the identity if we are case sensitive, so that there is only one
+ * version of the loops and the keys are stored already folded.
+ * </p>
+ */
+public final class DefaultBufferLookup<E> implements BufferLookup<E> {
+
+    private static final int KEYS_PER_BUCKET = 4;
+
+    /**
+     * If a bucket can't be placed with this many displacements (or two keys have the same 64-bit hash)
+     * we start over with a new seed, which in practice never happens more than a handful of times.
+     */
+    private static final int MAX_SEEDS = 64;
+
+    private static final byte[] IDENTITY = new byte[256];
+
+    private static final byte[] LOWER_CASE = new byte[256];
+
+    static {
+        for (int i = 0; i < 256; ++i) {
+            IDENTITY[i] = (byte) i;
+            LOWER_CASE[i] = (byte) (i >= 'A' && i <= 'Z' ? i | 0x20 : i);
+        }
+    }
+
+    private final byte[] fold;
+    private final long basis;
+    private final int[] displacements;
+    private final byte[][] keys;
+    private final Object[] values;
+    private final int minLength;
+    private final int maxLength;
+
+    public static <E> BufferLookup<E> of(final List<Buffer> keys, final List<E> values, final boolean ignoreCase) {
+        final byte[] fold = ignoreCase ? LOWER_CASE : IDENTITY;
+        final byte[][] folded = new byte[keys.size()][];
+        final Set<ByteBuffer> unique = new HashSet<>();
+        int minLength = Integer.MAX_VALUE;
+        int maxLength = 0;
+        for (int i = 0; i < folded.length; ++i) {
+            final Buffer key = keys.get(i);
+            folded[i] = new byte[key.capacity()];
+            for (int j = 0; j < folded[i].length; ++j) {
+                folded[i][j] = fold[key.getByte(j) & 0xFF];
+            }
+            if (!unique.add(ByteBuffer.wrap(folded[i]))) {
+                throw new IllegalArgumentException("The key \"" + key + "\" has been added more than once");
+            }
+            minLength = Math.min(minLength, folded[i].length);
+            maxLength = Math.max(maxLength, folded[i].length);
+        }
+
+        final int n = folded.length;
+        final int[] displacements = new int[(n + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET];
+        final long[] hashes = new long[n];
+        final int[] slots = new int[n];
+        for (int seed = 1; seed <= MAX_SEEDS; ++seed) {
+            final long basis = seed * 0x9E3779B97F4A7C15L;
+            for (int i = 0; i < n; ++i) {
+                hashes[i] = hash(basis, folded[i], 0, folded[i].length, IDENTITY);
+            }
+            if (place(hashes, displacements, slots)) {
+                final byte[][] table = new byte[n][];
+                final Object[] tableValues = new Object[n];
+                for (int i = 0; i < n; ++i) {
+                    table[slots[i]] = folded[i];
+                    tableValues[slots[i]] = values.get(i);
+                }
+                return new DefaultBufferLookup<>(fold, basis, displacements, table, tableValues, minLength, maxLength);
+            }
+        }
+
+        throw new IllegalArgumentException("Unable to find a perfect hash for the given keys");
+    }
+
+    /**
+     * Find a displacement for every bucket so that every key gets a slot of its own.
+     *
+     * @param slots the slot of every key, filled in by this method.
+     * @return false if some bucket could not be placed, in which case we need a new seed.
+     */
+    private static boolean place(final long[] hashes, final int[] displacements, final int[] slots) {
+        final int n = hashes.length;
+        final int buckets = displacements.length;
+
+        // counting sort of the keys by bucket, with the largest buckets first
+        final int[] bucketOf = new int[n];
+        final int[] bucketSize = new int[buckets];
+        int largest = 0;
+        for (int i = 0; i < n; ++i) {
+            bucketOf[i] = bucket(hashes[i], buckets);
+            largest = Math.max(largest, ++bucketSize[bucketOf[i]]);
+        }
+        final int[] sizeStart = new int[largest + 2];
+        for (int b = 0; b < buckets; ++b) {
+            ++sizeStart[largest - bucketSize[b] + 1];
+        }
+        for (int i = 1; i < sizeStart.length; ++i) {
+            sizeStart[i] += sizeStart[i - 1];
+        }
+        final int[] order = new int[buckets];
+        for (int b = 0; b < buckets; ++b) {
+            order[sizeStart[largest - bucketSize[b]]++] = b;
+        }
+
+        final int[] keyStart = new int[buckets + 1];
+        for (int b = 0; b < buckets; ++b) {
+            keyStart[b + 1] = keyStart[b] + bucketSize[b];
+        }
+        final int[] keysByBucket = new int[n];
+        final int[] fill = Arrays.copyOf(keyStart, buckets);
+        for (int i = 0; i < n; ++i) {
+            keysByBucket[fill[bucketOf[i]]++] = i;
+        }
+
+        final boolean[] taken = new boolean[n];
+        // once all but the last few slots are taken, a single key may need on the order of n tries
+        final long maxDisplacement = Math.min(Integer.MAX_VALUE, 64L * n + 1024);
+        for (final int b : order) {
+            final int from = keyStart[b];
+            final int to = keyStart[b + 1];
+            if (from == to) {
+                continue;
+            }
+
+            boolean placed = false;
+            for (int d = 0; d < maxDisplacement && !placed; ++d) {
+                placed = true;
+                for (int k = from; k < to; ++k) {
+                    final int slot = slot(hashes[keysByBucket[k]], d, n);
+                    if (taken[slot]) {
+                        placed = false;
+                    } else {
+                        taken[slot] = true;
+                        slots[keysByBucket[k]] = slot;
+                        continue;
+                    }
+
+                    // undo what we took for this displacement
+                    for (int u = from; u < k; ++u) {
+                        taken[slots[keysByBucket[u]]] = false;
+                    }
+                    break;
+                }
+                if (placed) {
+                    displacements[b] = d;
+                }
+            }
+
+            if (!placed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int bucket(final long hash, final int buckets) {
+        return (int) (((hash >>> 32) * buckets) >>> 32);
+    }
+
+    private static int slot(final long hash, final int displacement, final int n) {
+        long h = hash ^ (displacement * 0xC2B2AE3D27D4EB4FL);
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 32;
+        return (int) (((h & 0xFFFFFFFFL) * n) >>> 32);
+    }
+
+    /**
+     * FNV-1a (64 bit) with an offset basis derived from the seed, followed by the finalizer of MurmurHash3
+     * so that both halves of the hash are usable.
+     */
+    private static long hash(final long basis, final byte[] array, final int start, final int stop, final byte[] fold) {
+        long h = basis;
+        for (int i = start; i < stop; ++i) {
+            h = (h ^ fold[array[i] & 0xFF]) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    private DefaultBufferLookup(final byte[] fold, final long basis, final int[] displacements, final byte[][] keys,
+                                final Object[] values, final int minLength, final int maxLength) {
+        this.fold = fold;
+        this.basis = basis;
+        this.displacements = displacements;
+        this.keys = keys;
+        this.values = values;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    private int slotOf(final long hash) {
+        return slot(hash, displacements[bucket(hash, displacements.length)], keys.length);
+    }
+
+    /**
+     * The number of slots in the table, which is always the same as the number of keys.
+     */
+    public int slots() {
+        return keys.length;
+    }
+
+    /**
+     * The number of buckets, i.e. the number of displacements we keep on top of the keys themselves.
+     */
+    public int buckets() {
+        return displacements.length;
+    }
+
+    @Override
+    public E lookup(final Buffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        return lookup(buffer, DefaultBufferMap.keyOffset(buffer), DefaultBufferMap.keyLength(buffer));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E lookup(final Buffer buffer, final int offset, final int length) throws IllegalArgumentException {
+        DefaultBufferMap.checkRange(buffer, offset, length);
+        if (length < minLength || length > maxLength) {
+            return null;
+        }
+
+        if (buffer instanceof AbstractArrayBuffer) {
+            final byte[] array = ((AbstractArrayBuffer) buffer).buffer;
+            final int start = ((AbstractArrayBuffer) buffer).lowerBoundary + offset;
+            final int index = slotOf(hash(basis, array, start, start + length, fold));
+            final byte[] key = keys[index];
+            if (key.length != length) {
+                return null;
+            }
+            for (int i = 0; i < length; ++i) {
+                if (key[i] != fold[array[start + i] & 0xFF]) {
+                    return null;
+                }
+            }
+            return (E) values[index];
+        }
+
+        long h = basis;
+        for (int i = offset; i < offset + length; ++i) {
+            h = (h ^ fold[buffer.getByte(i) & 0xFF]) * 0x100000001B3L;
+        }
+        final int index = slotOf(mix(h));
+        final byte[] key = keys[index];
+        if (key.length != length) {
+            return null;
+        }
+        for (int i = 0; i < length; ++i) {
+            if (key[i] != fold[buffer.getByte(offset + i) & 0xFF]) {
+                return null;
+            }
+        }
+        return (E) values[index];
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferLookup[size=" + keys.length + ", buckets=" + displacements.length + "]";
+    }
+}
@@ -0,0 +1,298 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferMap;
+import io.snice.buffer.ReadableBuffer;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * An open addressing hash table with linear probing where the hashes, keys and values are kept in
+ * three parallel arrays. An empty slot is one without a key and on removal, we shift the following
+ * entries back rather than leaving tombstones behind.
+ *
+ * The methods that take a hash are there so that the {@link StripedBufferMap} doesn't have to
+ * calculate it twice.
+ */
+public final class DefaultBufferMap<V> implements BufferMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] hashes;
+    private byte[][] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    public static <V> DefaultBufferMap<V> of(final int expectedSize) {
+        return new DefaultBufferMap<>(expectedSize);
+    }
+
+    private DefaultBufferMap(final int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * We keep the load factor at or below 2/3.
+     */
+    private static int capacityFor(final int expectedSize) {
+        final long needed = Math.max(MIN_CAPACITY, (expectedSize * 3L + 1) / 2);
+        return (int) Math.min(1 << 30, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    private void allocate(final int capacity) {
+        hashes = new int[capacity];
+        keys = new byte[capacity][];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * The index where the key of the given buffer starts, which is the reader index
+     * for a {@link ReadableBuffer}.
+     */
+    static int keyOffset(final Buffer key) {
+        return key instanceof ReadableBuffer ? ((ReadableBuffer) key).getReaderIndex() : 0;
+    }
+
+    static int keyLength(final Buffer key) {
+        return key instanceof ReadableBuffer ? ((ReadableBuffer) key).getReadableBytes() : key.capacity();
+    }
+
+    static void checkRange(final Buffer buffer, final int offset, final int length) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        assertArgument(offset >= 0 && length >= 0 && offset + length <= buffer.capacity(),
+                "The range is not within the buffer");
+    }
+
+    static int hash(final Buffer buffer, final int offset, final int length) {
+        int h = 1;
+        if (buffer instanceof AbstractArrayBuffer) {
+            final byte[] array = ((AbstractArrayBuffer) buffer).buffer;
+            final int start = ((AbstractArrayBuffer) buffer).lowerBoundary + offset;
+            final int stop = start + length;
+            for (int i = start; i < stop; ++i) {
+                h = 31 * h + array[i];
+            }
+        } else {
+            for (int i = offset; i < offset + length; ++i) {
+                h = 31 * h + buffer.getByte(i);
+            }
+        }
+
+        // the polynomial hash is weak in the low bits, which is what we use for the index
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    static byte[] copy(final Buffer buffer, final int offset, final int length) {
+        if (buffer instanceof AbstractArrayBuffer) {
+            final int start = ((AbstractArrayBuffer) buffer).lowerBoundary + offset;
+            return Arrays.copyOfRange(((AbstractArrayBuffer) buffer).buffer, start, start + length);
+        }
+
+        final byte[] copy = new byte[length];
+        for (int i = 0; i < length; ++i) {
+            copy[i] = buffer.getByte(offset + i);
+        }
+        return copy;
+    }
+
+    static boolean matches(final byte[] key, final Buffer buffer, final int offset, final int length) {
+        if (key.length != length) {
+            return false;
+        }
+
+        if (buffer instanceof AbstractArrayBuffer) {
+            final int start = ((AbstractArrayBuffer) buffer).lowerBoundary + offset;
+            return Arrays.equals(key, 0, length, ((AbstractArrayBuffer) buffer).buffer, start, start + length);
+        }
+
+        for (int i = 0; i < length; ++i) {
+            if (key[i] != buffer.getByte(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public V get(final Buffer key) {
+        assertNotNull(key, "The key cannot be null");
+        return get(key, keyOffset(key), keyLength(key));
+    }
+
+    @Override
+    public V get(final Buffer buffer, final int offset, final int length) throws IllegalArgumentException {
+        checkRange(buffer, offset, length);
+        return get(hash(buffer, offset, length), buffer, offset, length);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(final int hash, final Buffer buffer, final int offset, final int length) {
+        final int index = indexOf(hash, buffer, offset, length);
+        return index == -1 ? null : (V) values[index];
+    }
+
+    @Override
+    public V put(final Buffer key, final V value) {
+        assertNotNull(key, "The key cannot be null");
+        final int offset = keyOffset(key);
+        final int length = keyLength(key);
+        return put(hash(key, offset, length), key, offset, length, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(final int hash, final Buffer buffer, final int offset, final int length, final V value) {
+        assertNotNull(value, "The value cannot be null");
+        int index = hash & mask;
+        while (keys[index] != null) {
+            if (hashes[index] == hash && matches(keys[index], buffer, offset, length)) {
+                final V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        hashes[index] = hash;
+        keys[index] = copy(buffer, offset, length);
+        values[index] = value;
+        if (++size * 3 > keys.length * 2) {
+            grow();
+        }
+        return null;
+    }
+
+    @Override
+    public V computeIfAbsent(final Buffer key, final Function<Buffer, ? extends V> function) {
+        assertNotNull(key, "The key cannot be null");
+        final int offset = keyOffset(key);
+        final int length = keyLength(key);
+        return computeIfAbsent(hash(key, offset, length), key, offset, length, function);
+    }
+
+    V computeIfAbsent(final int hash, final Buffer key, final int offset, final int length,
+                      final Function<Buffer, ? extends V> function) {
+        assertNotNull(function, "The function cannot be null");
+        final V existing = get(hash, key, offset, length);
+        if (existing != null) {
+            return existing;
+        }
+
+        final V value = function.apply(key);
+        if (value != null) {
+            put(hash, key, offset, length, value);
+        }
+        return value;
+    }
+
+    @Override
+    public V remove(final Buffer key) {
+        assertNotNull(key, "The key cannot be null");
+        final int offset = keyOffset(key);
+        final int length = keyLength(key);
+        return remove(hash(key, offset, length), key, offset, length);
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(final int hash, final Buffer buffer, final int offset, final int length) {
+        int index = indexOf(hash, buffer, offset, length);
+        if (index == -1) {
+            return null;
+        }
+
+        final V removed = (V) values[index];
+        --size;
+
+        // shift back any entry that wouldn't be found anymore now that there is a hole
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            if (keys[next] == null) {
+                break;
+            }
+
+            final int ideal = hashes[next] & mask;
+            final boolean reachable = index <= next
+                    ? index < ideal && ideal <= next
+                    : index < ideal || ideal <= next;
+            if (!reachable) {
+                hashes[index] = hashes[next];
+                keys[index] = keys[next];
+                values[index] = values[next];
+                index = next;
+            }
+        }
+
+        keys[index] = null;
+        values[index] = null;
+        hashes[index] = 0;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(hashes, 0);
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final BiConsumer<? super Buffer, ? super V> action) {
+        assertNotNull(action, "The action cannot be null");
+        for (int i = 0; i < keys.length; ++i) {
+            if (keys[i] != null) {
+                action.accept(Buffer.of(keys[i]), (V) values[i]);
+            }
+        }
+    }
+
+    private int indexOf(final int hash, final Buffer buffer, final int offset, final int length) {
+        int index = hash & mask;
+        while (keys[index] != null) {
+            if (hashes[index] == hash && matches(keys[index], buffer, offset, length)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void grow() {
+        final int[] oldHashes = hashes;
+        final byte[][] oldKeys = keys;
+        final Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != null) {
+                int index = oldHashes[i] & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                hashes[index] = oldHashes[i];
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BufferMap[size=" + size + "]";
+    }
+}
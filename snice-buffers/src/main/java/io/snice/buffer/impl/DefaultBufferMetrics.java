@@ -0,0 +1,267 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.BufferMetrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * All instrumented code paths must check {@link #ENABLED} before calling into the metrics, i.e.
+ *
+ * <pre>
+ *     if (DefaultBufferMetrics.ENABLED) {
+ *         DefaultBufferMetrics.INSTANCE.copy(Category.GET_CONTENT, length);
+ *     }
+ * </pre>
+ *
+ * so that the JIT can remove the entire block when the metrics are off.
+ */
+public final class DefaultBufferMetrics implements BufferMetrics {
+
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    public static final DefaultBufferMetrics INSTANCE = fromSystemProperties();
+
+    private static final int DEFAULT_SAMPLE_RATE = 100;
+
+    /**
+     * We only keep track of this many distinct copy sources so that a lot of generated code
+     * can't have the table grow without bounds.
+     */
+    private static final int MAX_SOURCES = 1024;
+
+    /**
+     * The classes of this library that are part of the public API and that do contain code (static or
+     * default methods), which we skip, along with the entire impl package, when looking for the call site.
+     */
+    private static final Set<String> API_CLASSES = Set.of(
+            "io.snice.buffer.Buffer",
+            "io.snice.buffer.Buffers",
+            "io.snice.buffer.ReadableBuffer",
+            "io.snice.buffer.WritableBuffer",
+            "io.snice.buffer.ReadWriteBuffer");
+
+    private static final String IMPL_PACKAGE = DefaultBufferMetrics.class.getPackageName() + ".";
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private final int sampleRate;
+    private final LongAdder[] allocations = counters();
+    private final LongAdder[] allocatedBytes = counters();
+    private final LongAdder[] copies = counters();
+    private final LongAdder[] copiedBytes = counters();
+    private final Map<Source, LongAdder> sources = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public static DefaultBufferMetrics of(final int sampleRate) {
+        assertArgument(sampleRate >= 1, "The sample rate must be at least 1");
+        return new DefaultBufferMetrics(sampleRate);
+    }
+
+    /**
+     * Create the metrics with the sample rate of the {@link #SAMPLE_RATE_PROPERTY}. This runs as part of
+     * initializing this class, which every instrumented code path does whether the metrics are on or not,
+     * so a bad value must not blow up: anything below 1 is treated as 1 and anything that isn't a number
+     * as the default.
+     */
+    public static DefaultBufferMetrics fromSystemProperties() {
+        return new DefaultBufferMetrics(Math.max(1, Integer.getInteger(SAMPLE_RATE_PROPERTY, DEFAULT_SAMPLE_RATE)));
+    }
+
+    private DefaultBufferMetrics(final int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    private static LongAdder[] counters() {
+        final LongAdder[] counters = new LongAdder[Category.values().length];
+        for (int i = 0; i < counters.length; ++i) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * A new byte-array was allocated.
+     */
+    public void allocate(final Category category, final int bytes) {
+        allocations[category.ordinal()].increment();
+        allocatedBytes[category.ordinal()].add(bytes);
+        for (final Listener listener : listeners) {
+            listener.onAllocation(category, bytes);
+        }
+    }
+
+    /**
+     * A new byte-array was allocated and the given number of bytes were copied into it.
+     */
+    public void copy(final Category category, final int bytes) {
+        allocate(category, bytes);
+        copies[category.ordinal()].increment();
+        copiedBytes[category.ordinal()].add(bytes);
+        for (final Listener listener : listeners) {
+            listener.onCopy(category, bytes);
+        }
+
+        if (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            sample(category);
+        }
+    }
+
+    private void sample(final Category category) {
+        final StackTraceElement callSite = WALKER.walk(frames -> frames
+                .filter(frame -> !isLibraryFrame(frame.getClassName()))
+                .findFirst()
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .orElse(null));
+        if (callSite == null) {
+            return;
+        }
+
+        final Source source = new Source(category, callSite);
+        final LongAdder samples = sources.size() < MAX_SOURCES
+                ? sources.computeIfAbsent(source, s -> new LongAdder())
+                : sources.get(source);
+        if (samples != null) {
+            samples.increment();
+        }
+    }
+
+    private static boolean isLibraryFrame(final String className) {
+        return className.startsWith(IMPL_PACKAGE) || API_CLASSES.contains(className);
+    }
+
+    @Override
+    public long getAllocations(final Category category) {
+        return allocations[category.ordinal()].sum();
+    }
+
+    @Override
+    public long getAllocatedBytes(final Category category) {
+        return allocatedBytes[category.ordinal()].sum();
+    }
+
+    @Override
+    public long getCopies(final Category category) {
+        return copies[category.ordinal()].sum();
+    }
+
+    @Override
+    public long getCopiedBytes(final Category category) {
+        return copiedBytes[category.ordinal()].sum();
+    }
+
+    @Override
+    public List<CopySource> getTopCopySources(final int max) {
+        assertArgument(max >= 0, "The max number of copy sources cannot be negative");
+        final List<CopySource> result = new ArrayList<>();
+        sources.forEach((source, samples) -> result.add(new Snapshot(source, samples.sum())));
+        result.sort(Comparator.comparingLong(CopySource::getSamples).reversed());
+        return result.size() <= max ? result : new ArrayList<>(result.subList(0, max));
+    }
+
+    @Override
+    public void addListener(final Listener listener) {
+        assertNotNull(listener, "The listener cannot be null");
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(final Listener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < allocations.length; ++i) {
+            allocations[i].reset();
+            allocatedBytes[i].reset();
+            copies[i].reset();
+            copiedBytes[i].reset();
+        }
+        sources.clear();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BufferMetrics[");
+        for (final Category category : Category.values()) {
+            if (category.ordinal() > 0) {
+                sb.append(", ");
+            }
+            sb.append(category).append("=").append(getCopies(category)).append("/").append(getCopiedBytes(category));
+        }
+        return sb.append("]").toString();
+    }
+
+    private static final class Source {
+        private final Category category;
+        private final StackTraceElement callSite;
+
+        private Source(final Category category, final StackTraceElement callSite) {
+            this.category = category;
+            this.callSite = callSite;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Source other = (Source) o;
+            return category == other.category && callSite.equals(other.callSite);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, callSite);
+        }
+    }
+
+    private static final class Snapshot implements CopySource {
+        private final Source source;
+        private final long samples;
+
+        private Snapshot(final Source source, final long samples) {
+            this.source = source;
+            this.samples = samples;
+        }
+
+        @Override
+        public Category getCategory() {
+            return source.category;
+        }
+
+        @Override
+        public StackTraceElement getCallSite() {
+            return source.callSite;
+        }
+
+        @Override
+        public long getSamples() {
+            return samples;
+        }
+
+        @Override
+        public String toString() {
+            return source.category + " " + source.callSite + " (" + samples + " samples)";
+        }
+    }
+}
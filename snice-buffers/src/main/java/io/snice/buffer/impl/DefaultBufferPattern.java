@@ -0,0 +1,407 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferPattern;
+
+import java.util.Arrays;
+
+import static io.snice.preconditions.PreConditions.assertArray;
+
+/**
+ * The default implementation of the {@link BufferPattern}, which will pick the search algorithm
+ * based on the length of the pattern:
+ *
+ * <ul>
+ *     <li>up to {@link #NAIVE_MAX_LENGTH} bytes - a naive scan for the first byte followed by
+ *     a comparison of the rest. For short patterns, the cost of setting up any skip tables is
+ *     not worth it.</li>
+ *     <li>up to {@link #HORSPOOL_MAX_LENGTH} bytes - Boyer-Moore-Horspool, which on average will skip
+ *     ahead close to the length of the pattern on every mismatch.</li>
+ *     <li>anything longer - Two-Way (Crochemore-Perrin), which is linear in the worst case and uses
+ *     constant extra space. Horspool's worst case is O(n * m), which starts to matter as the pattern grows.</li>
+ * </ul>
+ *
+ * When the {@link Buffer} we search in is backed by a byte-array (which is the case for all but
+ * the empty buffer) we search the backing array directly.
+ */
+public abstract class DefaultBufferPattern implements BufferPattern {
+
+    static final int NAIVE_MAX_LENGTH = 4;
+    static final int HORSPOOL_MAX_LENGTH = 256;
+
+    protected final byte[] pattern;
+
+    public static BufferPattern of(final byte[] pattern) {
+        assertArray(pattern);
+        if (pattern.length <= NAIVE_MAX_LENGTH) {
+            return new Naive(pattern);
+        }
+
+        if (pattern.length <= HORSPOOL_MAX_LENGTH) {
+            return new Horspool(pattern);
+        }
+
+        return new TwoWay(pattern);
+    }
+
+    private DefaultBufferPattern(final byte[] pattern) {
+        this.pattern = pattern;
+    }
+
+    @Override
+    public final Buffer getPattern() {
+        return Buffer.of(pattern);
+    }
+
+    @Override
+    public final int length() {
+        return pattern.length;
+    }
+
+    @Override
+    public final int indexOf(final Buffer buffer, final int fromIndex, final int toIndex) {
+        final int from = Math.max(0, fromIndex);
+        final int to = Math.min(toIndex, buffer.capacity());
+        if (to - from < pattern.length) {
+            return -1;
+        }
+
+        if (pattern.length == 0) {
+            return from;
+        }
+
+        if (buffer instanceof AbstractArrayBuffer) {
+            final AbstractArrayBuffer array = (AbstractArrayBuffer) buffer;
+            final int offset = array.lowerBoundary;
+            final int index = search(array.buffer, offset + from, offset + to);
+            return index == -1 ? -1 : index - offset;
+        }
+
+        for (int i = from; i <= to - pattern.length; ++i) {
+            if (matchesAt(buffer, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public final int lastIndexOf(final Buffer buffer, final int fromIndex, final int toIndex) {
+        final int from = Math.max(0, fromIndex);
+        final int to = Math.min(toIndex, buffer.capacity());
+        if (to - from < pattern.length) {
+            return -1;
+        }
+
+        if (pattern.length == 0) {
+            return to;
+        }
+
+        if (buffer instanceof AbstractArrayBuffer) {
+            final AbstractArrayBuffer array = (AbstractArrayBuffer) buffer;
+            final int offset = array.lowerBoundary;
+            final int index = searchBackwards(array.buffer, offset + from, offset + to);
+            return index == -1 ? -1 : index - offset;
+        }
+
+        for (int i = to - pattern.length; i >= from; --i) {
+            if (matchesAt(buffer, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return getPattern().toString();
+    }
+
+    /**
+     * Search for the first occurrence of the pattern within the array between
+     * <code>from</code> (inclusive) and <code>to</code> (exclusive). The caller guarantees
+     * that there are at least as many bytes in that range as there are in the pattern.
+     *
+     * @return the index into the array where the match starts, or -1 if not found.
+     */
+    protected abstract int search(byte[] array, int from, int to);
+
+    /**
+     * Same as {@link #search(byte[], int, int)} but for the last occurrence.
+     */
+    protected abstract int searchBackwards(byte[] array, int from, int to);
+
+    private boolean matchesAt(final Buffer buffer, final int index) {
+        for (int j = 0; j < pattern.length; ++j) {
+            if (buffer.getByte(index + j) != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if the pattern, starting at <code>start</code> (inclusive) and ending at <code>stop</code> (exclusive),
+     * matches the array at the given index.
+     */
+    protected final boolean regionMatches(final byte[] array, final int index, final int start, final int stop) {
+        for (int j = start; j < stop; ++j) {
+            if (array[index + j] != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The skip table for a reversed Horspool, i.e., for the byte found at the start of the current window,
+     * how far can we move the window to the left.
+     */
+    protected static int[] reverseSkipTable(final byte[] pattern) {
+        final int m = pattern.length;
+        final int[] skip = new int[256];
+        Arrays.fill(skip, m);
+        for (int k = m - 1; k > 0; --k) {
+            skip[pattern[k] & 0xFF] = k;
+        }
+        return skip;
+    }
+
+    protected final int reverseHorspool(final int[] skip, final byte[] array, final int from, final int to) {
+        final int m = pattern.length;
+        final byte first = pattern[0];
+        int i = to - m;
+        while (i >= from) {
+            final byte b = array[i];
+            if (b == first && regionMatches(array, i, 1, m)) {
+                return i;
+            }
+            i -= skip[b & 0xFF];
+        }
+        return -1;
+    }
+
+    private static final class Naive extends DefaultBufferPattern {
+
+        private Naive(final byte[] pattern) {
+            super(pattern);
+        }
+
+        @Override
+        protected int search(final byte[] array, final int from, final int to) {
+            final int m = pattern.length;
+            final byte first = pattern[0];
+            final int last = to - m;
+            for (int i = from; i <= last; ++i) {
+                if (array[i] == first && regionMatches(array, i, 1, m)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        protected int searchBackwards(final byte[] array, final int from, final int to) {
+            final int m = pattern.length;
+            final byte first = pattern[0];
+            for (int i = to - m; i >= from; --i) {
+                if (array[i] == first && regionMatches(array, i, 1, m)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class Horspool extends DefaultBufferPattern {
+
+        private final int[] skip;
+        private final int[] reverseSkip;
+
+        private Horspool(final byte[] pattern) {
+            super(pattern);
+            final int m = pattern.length;
+            skip = new int[256];
+            Arrays.fill(skip, m);
+            for (int k = 0; k < m - 1; ++k) {
+                skip[pattern[k] & 0xFF] = m - 1 - k;
+            }
+            reverseSkip = reverseSkipTable(pattern);
+        }
+
+        @Override
+        protected int search(final byte[] array, final int from, final int to) {
+            final int m = pattern.length;
+            final byte last = pattern[m - 1];
+            final int stop = to - m;
+            int i = from;
+            while (i <= stop) {
+                final byte b = array[i + m - 1];
+                if (b == last && regionMatches(array, i, 0, m - 1)) {
+                    return i;
+                }
+                i += skip[b & 0xFF];
+            }
+            return -1;
+        }
+
+        @Override
+        protected int searchBackwards(final byte[] array, final int from, final int to) {
+            return reverseHorspool(reverseSkip, array, from, to);
+        }
+    }
+
+    /**
+     * The Two-Way algorithm as described by Crochemore and Perrin (1991). The pattern is split at a
+     * critical factorization <code>pattern = u.v</code> where we first match <code>v</code> left to right
+     * and then <code>u</code> right to left. If the pattern is periodic, we remember how much of it we
+     * have already matched, which is what makes it linear.
+     */
+    private static final class TwoWay extends DefaultBufferPattern {
+
+        /**
+         * The index of the last byte of the left part, <code>u</code>, of the critical factorization.
+         * Note that it can be -1, in which case <code>u</code> is empty.
+         */
+        private final int ell;
+
+        /**
+         * The period of the pattern if it is periodic, otherwise the shift to use on a full mismatch.
+         */
+        private final int period;
+
+        private final boolean periodic;
+
+        private final int[] reverseSkip;
+
+        private TwoWay(final byte[] pattern) {
+            super(pattern);
+            final int[] p = new int[1];
+            final int[] q = new int[1];
+            final int i = maxSuffix(pattern, p, false);
+            final int j = maxSuffix(pattern, q, true);
+            final int ell;
+            final int per;
+            if (i > j) {
+                ell = i;
+                per = p[0];
+            } else {
+                ell = j;
+                per = q[0];
+            }
+
+            this.ell = ell;
+            final int m = pattern.length;
+            if (ell + 1 + per <= m && prefixMatches(pattern, per, ell + 1)) {
+                periodic = true;
+                period = per;
+            } else {
+                periodic = false;
+                period = Math.max(ell + 1, m - ell - 1) + 1;
+            }
+            reverseSkip = reverseSkipTable(pattern);
+        }
+
+        private static boolean prefixMatches(final byte[] pattern, final int offset, final int length) {
+            for (int k = 0; k < length; ++k) {
+                if (pattern[k] != pattern[offset + k]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Compute the maximal suffix of the pattern, using either the natural (unsigned) ordering
+         * of the bytes or the reversed one.
+         *
+         * @param period will be set to the period of the maximal suffix
+         * @return the index right before the start of the maximal suffix
+         */
+        private static int maxSuffix(final byte[] pattern, final int[] period, final boolean reversed) {
+            final int m = pattern.length;
+            int ms = -1;
+            int j = 0;
+            int k = 1;
+            int p = 1;
+            while (j + k < m) {
+                final int a = pattern[j + k] & 0xFF;
+                final int b = pattern[ms + k] & 0xFF;
+                if (reversed ? a > b : a < b) {
+                    j += k;
+                    k = 1;
+                    p = j - ms;
+                } else if (a == b) {
+                    if (k != p) {
+                        ++k;
+                    } else {
+                        j += p;
+                        k = 1;
+                    }
+                } else {
+                    ms = j;
+                    j = ms + 1;
+                    k = 1;
+                    p = 1;
+                }
+            }
+            period[0] = p;
+            return ms;
+        }
+
+        @Override
+        protected int search(final byte[] array, final int from, final int to) {
+            final int m = pattern.length;
+            final int stop = to - m;
+            int j = from;
+            if (periodic) {
+                int memory = -1;
+                while (j <= stop) {
+                    int i = Math.max(ell, memory) + 1;
+                    while (i < m && pattern[i] == array[i + j]) {
+                        ++i;
+                    }
+                    if (i >= m) {
+                        i = ell;
+                        while (i > memory && pattern[i] == array[i + j]) {
+                            --i;
+                        }
+                        if (i <= memory) {
+                            return j;
+                        }
+                        j += period;
+                        memory = m - period - 1;
+                    } else {
+                        j += i - ell;
+                        memory = -1;
+                    }
+                }
+            } else {
+                while (j <= stop) {
+                    int i = ell + 1;
+                    while (i < m && pattern[i] == array[i + j]) {
+                        ++i;
+                    }
+                    if (i >= m) {
+                        i = ell;
+                        while (i >= 0 && pattern[i] == array[i + j]) {
+                            --i;
+                        }
+                        if (i < 0) {
+                            return j;
+                        }
+                        j += period;
+                    } else {
+                        j += i - ell;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        protected int searchBackwards(final byte[] array, final int from, final int to) {
+            return reverseHorspool(reverseSkip, array, from, to);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.CompressionCodec;
+
+import java.util.function.Consumer;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+public final class DefaultCompressionCodec implements CompressionCodec {
+
+    /**
+     * The smallest chunk size we allow.
+     */
+    static final int MIN_CHUNK_SIZE = 64;
+
+    /**
+     * The largest chunk size we allow, which is also the largest block the lz decoder will accept
+     * so that a corrupt (or malicious) block header can't have us allocate a huge array.
+     */
+    static final int MAX_CHUNK_SIZE = 1 << 22;
+
+    private enum Type {
+        DEFLATE, GZIP, LZ
+    }
+
+    private final Type type;
+    private final int level;
+    private final int chunkSize;
+
+    public static CompressionCodec deflate(final int level, final int chunkSize) {
+        assertLevel(level);
+        return new DefaultCompressionCodec(Type.DEFLATE, level, chunkSize);
+    }
+
+    public static CompressionCodec gzip(final int level, final int chunkSize) {
+        assertLevel(level);
+        return new DefaultCompressionCodec(Type.GZIP, level, chunkSize);
+    }
+
+    public static CompressionCodec lz(final int chunkSize) {
+        return new DefaultCompressionCodec(Type.LZ, 0, chunkSize);
+    }
+
+    private static void assertLevel(final int level) {
+        assertArgument(level >= -1 && level <= 9, "The compression level must be between -1 - 9");
+    }
+
+    private DefaultCompressionCodec(final Type type, final int level, final int chunkSize) {
+        assertArgument(chunkSize >= MIN_CHUNK_SIZE && chunkSize <= MAX_CHUNK_SIZE,
+                "The chunk size must be between " + MIN_CHUNK_SIZE + " - " + MAX_CHUNK_SIZE);
+        this.type = type;
+        this.level = level;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public CompressionCodec withChunkSize(final int chunkSize) {
+        if (chunkSize == this.chunkSize) {
+            return this;
+        }
+        return new DefaultCompressionCodec(type, level, chunkSize);
+    }
+
+    @Override
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    @Override
+    public Encoder newEncoder(final Consumer<Buffer> sink) {
+        assertNotNull(sink, "The sink cannot be null");
+        switch (type) {
+            case DEFLATE:
+                return new ZipCompression.Encoder(level, false, chunkSize, sink);
+            case GZIP:
+                return new ZipCompression.Encoder(level, true, chunkSize, sink);
+            default:
+                return new LzCompression.Encoder(chunkSize, sink);
+        }
+    }
+
+    @Override
+    public Decoder newDecoder(final Consumer<Buffer> sink) {
+        assertNotNull(sink, "The sink cannot be null");
+        switch (type) {
+            case DEFLATE:
+                return new ZipCompression.Decoder(false, chunkSize, sink);
+            case GZIP:
+                return new ZipCompression.Decoder(true, chunkSize, sink);
+            default:
+                return new LzCompression.Decoder(chunkSize, sink);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionCodec[" + type.name().toLowerCase() + ", chunkSize=" + chunkSize + "]";
+    }
+}
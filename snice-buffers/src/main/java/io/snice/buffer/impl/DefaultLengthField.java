@@ -0,0 +1,126 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.LengthField;
+import io.snice.buffer.WritableBuffer;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+public final class DefaultLengthField implements LengthField {
+
+    private final WritableBuffer buffer;
+    private final int index;
+    private final int startIndex;
+    private final int width;
+    private boolean committed;
+
+    /**
+     * Reserve a length field of the given width at the current writer index of the buffer, which
+     * will be moved forward past the length field.
+     *
+     * @throws IndexOutOfBoundsException in case there is no room for the length field.
+     */
+    public static LengthField reserve(final WritableBuffer buffer, final int width, final int startIndex)
+            throws IndexOutOfBoundsException, IllegalArgumentException {
+        assertNotNull(buffer, "The buffer cannot be null");
+        assertArgument(width >= 1 && width <= 4, "The width of the length field must be between 1 - 4 bytes");
+        final int index = buffer.getWriterIndex();
+        assertArgument(startIndex >= 0, "The start index cannot be negative");
+
+        if (buffer.getWritableBytes() < width) {
+            throw new IndexOutOfBoundsException("Not enough room for a length field of " + width + " bytes");
+        }
+
+        for (int i = 0; i < width; ++i) {
+            buffer.write((byte) 0);
+        }
+
+        return new DefaultLengthField(buffer, index, startIndex, width);
+    }
+
+    private DefaultLengthField(final WritableBuffer buffer, final int index, final int startIndex, final int width) {
+        this.buffer = buffer;
+        this.index = index;
+        this.startIndex = startIndex;
+        this.width = width;
+    }
+
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public int getStartIndex() {
+        return startIndex;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public int commit() throws IllegalStateException {
+        return commit(1);
+    }
+
+    @Override
+    public int commit(final int alignment) throws IllegalStateException, IndexOutOfBoundsException {
+        assertArgument(alignment > 0, "The alignment must be greater than zero");
+        if (committed) {
+            throw new IllegalStateException("The length field has already been committed");
+        }
+
+        final int writerIndex = buffer.getWriterIndex();
+        if (writerIndex < index + width) {
+            throw new IllegalStateException("The writer index has been moved to before the end of the length field");
+        }
+
+        if (writerIndex < startIndex) {
+            throw new IllegalStateException("The writer index " + writerIndex
+                    + " is before the start index " + startIndex + " of the length");
+        }
+
+        final int length = writerIndex - startIndex;
+        if (width < 4 && length >= 1 << (8 * width)) {
+            throw new IllegalStateException("The length " + length + " does not fit in " + width + " byte(s)");
+        }
+
+        final int padding = (alignment - length % alignment) % alignment;
+        if (buffer.getWritableBytes() < padding) {
+            throw new IndexOutOfBoundsException("Not enough room for " + padding + " bytes of padding");
+        }
+
+        switch (width) {
+            case 1:
+                buffer.setUnsignedByte(index, (short) length);
+                break;
+            case 2:
+                buffer.setUnsignedShort(index, length);
+                break;
+            case 3:
+                buffer.setThreeOctetInt(index, length);
+                break;
+            default:
+                buffer.setUnsignedInt(index, length);
+        }
+
+        for (int i = 0; i < padding; ++i) {
+            buffer.write((byte) 0);
+        }
+
+        committed = true;
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return "LengthField[index=" + index + ", start=" + startIndex + ", width=" + width + "]";
+    }
+}
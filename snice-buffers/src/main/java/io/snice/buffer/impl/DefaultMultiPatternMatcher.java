@@ -0,0 +1,253 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.MultiPatternMatcher;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * An Aho-Corasick automaton where the trie, including all the failure transitions, has been
+ * compiled into a single deterministic transition table. As such, matching is one table lookup per
+ * byte, there is never any back tracking.
+ *
+ * To keep the table small, we map every byte to a "class" first. All bytes that are not part of any
+ * pattern end up in class zero (they all behave the same, they'll bring us back to the root) so the
+ * size of the table is <code>states * (distinct bytes in the patterns + 1)</code> rather
+ * than <code>states * 256</code>. This is also how we deal with case-insensitive matching. Upper and
+ * lower case of the same ASCII letter simply map to the same class so there is no extra cost
+ * while scanning.
+ */
+public final class DefaultMultiPatternMatcher implements MultiPatternMatcher {
+
+    private static final int ROOT = 0;
+
+    private final Buffer[] patterns;
+
+    /**
+     * The length of each pattern, which is what we need to figure out where a match starts.
+     */
+    private final int[] lengths;
+
+    /**
+     * Maps a byte (as an unsigned int) to its class.
+     */
+    private final int[] classes;
+
+    private final int noOfClasses;
+
+    /**
+     * The transition table, indexed by <code>state * noOfClasses + class</code>.
+     */
+    private final int[] transitions;
+
+    /**
+     * All the patterns that end in a given state, including the ones we get by following
+     * the failure links, are found in {@link #outputs} between
+     * <code>outputOffsets[state]</code> (inclusive) and <code>outputOffsets[state + 1]</code> (exclusive).
+     */
+    private final int[] outputOffsets;
+    private final int[] outputs;
+
+    public static MultiPatternMatcher of(final List<Buffer> patterns, final boolean ignoreCase) {
+        assertNotNull(patterns);
+        final int count = patterns.size();
+        final Buffer[] original = patterns.toArray(new Buffer[count]);
+        final byte[][] bytes = new byte[count][];
+        final int[] lengths = new int[count];
+        int total = 0;
+        for (int i = 0; i < count; ++i) {
+            bytes[i] = original[i].getContent();
+            lengths[i] = bytes[i].length;
+            total += lengths[i];
+        }
+
+        final int[] classes = new int[256];
+        int noOfClasses = 1;
+        for (final byte[] pattern : bytes) {
+            for (final byte b : pattern) {
+                final int c = fold(b & 0xFF, ignoreCase);
+                if (classes[c] == 0) {
+                    classes[c] = noOfClasses++;
+                }
+            }
+        }
+
+        if (ignoreCase) {
+            for (int c = 'A'; c <= 'Z'; ++c) {
+                classes[c] = classes[c + ('a' - 'A')];
+            }
+        }
+
+        // build the plain trie where 0 means "no such child". Since the root is never
+        // the child of anything, that is also the correct transition for the root itself.
+        final int maxStates = total + 1;
+        final int[] trie = new int[maxStates * noOfClasses];
+        final int[] own = new int[maxStates];
+        final int[] ownNext = new int[count];
+        Arrays.fill(own, -1);
+        int states = 1;
+        for (int i = 0; i < count; ++i) {
+            int state = ROOT;
+            for (final byte b : bytes[i]) {
+                final int index = state * noOfClasses + classes[b & 0xFF];
+                if (trie[index] == 0) {
+                    trie[index] = states++;
+                }
+                state = trie[index];
+            }
+
+            // the same pattern may have been added more than once so keep
+            // a linked list of all patterns ending in this state.
+            ownNext[i] = own[state];
+            own[state] = i;
+        }
+
+        // breadth first, computing the failure links and turning the trie into
+        // a full transition table as we go.
+        final int[] transitions = new int[states * noOfClasses];
+        final int[] fail = new int[states];
+        final int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = ROOT;
+        while (head < tail) {
+            final int state = queue[head++];
+            final int base = state * noOfClasses;
+            final int failBase = fail[state] * noOfClasses;
+            for (int c = 0; c < noOfClasses; ++c) {
+                final int child = trie[base + c];
+                if (child != 0) {
+                    fail[child] = state == ROOT ? ROOT : transitions[failBase + c];
+                    transitions[base + c] = child;
+                    queue[tail++] = child;
+                } else {
+                    transitions[base + c] = state == ROOT ? ROOT : transitions[failBase + c];
+                }
+            }
+        }
+
+        // every state outputs its own patterns plus everything its failure state outputs.
+        // The failure state is always shallower so it has been dealt with already when
+        // we walk the states in breadth first order.
+        final int[] counts = new int[states];
+        for (int k = 1; k < states; ++k) {
+            final int state = queue[k];
+            int n = counts[fail[state]];
+            for (int p = own[state]; p != -1; p = ownNext[p]) {
+                ++n;
+            }
+            counts[state] = n;
+        }
+
+        final int[] outputOffsets = new int[states + 1];
+        for (int state = 0; state < states; ++state) {
+            outputOffsets[state + 1] = outputOffsets[state] + counts[state];
+        }
+
+        final int[] outputs = new int[outputOffsets[states]];
+        for (int k = 1; k < states; ++k) {
+            final int state = queue[k];
+            int index = outputOffsets[state];
+            for (int p = own[state]; p != -1; p = ownNext[p]) {
+                outputs[index++] = p;
+            }
+            final int failState = fail[state];
+            for (int o = outputOffsets[failState]; o < outputOffsets[failState + 1]; ++o) {
+                outputs[index++] = outputs[o];
+            }
+        }
+
+        return new DefaultMultiPatternMatcher(original, lengths, classes, noOfClasses, transitions, outputOffsets, outputs);
+    }
+
+    private static int fold(final int b, final boolean ignoreCase) {
+        if (ignoreCase && b >= 'A' && b <= 'Z') {
+            return b + ('a' - 'A');
+        }
+        return b;
+    }
+
+    private DefaultMultiPatternMatcher(final Buffer[] patterns,
+                                       final int[] lengths,
+                                       final int[] classes,
+                                       final int noOfClasses,
+                                       final int[] transitions,
+                                       final int[] outputOffsets,
+                                       final int[] outputs) {
+        this.patterns = patterns;
+        this.lengths = lengths;
+        this.classes = classes;
+        this.noOfClasses = noOfClasses;
+        this.transitions = transitions;
+        this.outputOffsets = outputOffsets;
+        this.outputs = outputs;
+    }
+
+    @Override
+    public int size() {
+        return patterns.length;
+    }
+
+    @Override
+    public Buffer getPattern(final int id) throws IndexOutOfBoundsException {
+        if (id < 0 || id >= patterns.length) {
+            throw new IndexOutOfBoundsException("No pattern with id " + id);
+        }
+        return patterns[id];
+    }
+
+    @Override
+    public int scan(final Buffer buffer, final int fromIndex, final int toIndex, final MatchListener listener) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        assertNotNull(listener, "The listener cannot be null");
+        final int from = Math.max(0, fromIndex);
+        final int to = Math.min(toIndex, buffer.capacity());
+
+        if (buffer instanceof AbstractArrayBuffer) {
+            final AbstractArrayBuffer array = (AbstractArrayBuffer) buffer;
+            return scan(array.buffer, array.lowerBoundary, from, to, listener);
+        }
+
+        int matches = 0;
+        int state = ROOT;
+        for (int i = from; i < to; ++i) {
+            state = transitions[state * noOfClasses + classes[buffer.getByte(i) & 0xFF]];
+            final int stop = outputOffsets[state + 1];
+            for (int o = outputOffsets[state]; o < stop; ++o) {
+                final int id = outputs[o];
+                ++matches;
+                if (!listener.onMatch(id, i + 1 - lengths[id], i + 1)) {
+                    return matches;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private int scan(final byte[] array, final int offset, final int from, final int to, final MatchListener listener) {
+        int matches = 0;
+        int state = ROOT;
+        final int stop = offset + to;
+        for (int i = offset + from; i < stop; ++i) {
+            state = transitions[state * noOfClasses + classes[array[i] & 0xFF]];
+            final int end = outputOffsets[state + 1];
+            for (int o = outputOffsets[state]; o < end; ++o) {
+                final int id = outputs[o];
+                ++matches;
+                final int index = i + 1 - offset;
+                if (!listener.onMatch(id, index - lengths[id], index)) {
+                    return matches;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Override
+    public String toString() {
+        return "MultiPatternMatcher" + Arrays.toString(patterns);
+    }
+}
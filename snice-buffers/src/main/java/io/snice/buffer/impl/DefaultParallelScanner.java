@@ -0,0 +1,348 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.ParallelScanner;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Adler32;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+public final class DefaultParallelScanner implements ParallelScanner {
+
+    public static final ParallelScanner COMMON = new DefaultParallelScanner(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+
+    /**
+     * We will never hand a segment smaller than this to the pool.
+     */
+    private static final int MIN_SEGMENT_SIZE = 16 * 1024;
+
+    /**
+     * The modulus used by Adler-32.
+     */
+    private static final int ADLER_BASE = 65521;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public DefaultParallelScanner(final ForkJoinPool pool, final int threshold) {
+        this.pool = assertNotNull(pool);
+        this.threshold = threshold;
+    }
+
+    @Override
+    public int countOccurences(final Buffer buffer, final byte b) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        if (!(buffer instanceof AbstractArrayBuffer)) {
+            int count = 0;
+            for (int i = 0; i < buffer.capacity(); ++i) {
+                if (buffer.getByte(i) == b) {
+                    ++count;
+                }
+            }
+            return count;
+        }
+
+        final AbstractArrayBuffer array = (AbstractArrayBuffer) buffer;
+        return run(new CountTask(array.buffer, array.lowerBoundary, array.upperBoundary, segmentSize(array), b));
+    }
+
+    @Override
+    public int indexOf(final Buffer buffer, final byte b) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        if (!(buffer instanceof AbstractArrayBuffer)) {
+            for (int i = 0; i < buffer.capacity(); ++i) {
+                if (buffer.getByte(i) == b) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        final AbstractArrayBuffer array = (AbstractArrayBuffer) buffer;
+        final AtomicInteger found = new AtomicInteger(Integer.MAX_VALUE);
+        run(new IndexOfTask(array.buffer, array.lowerBoundary, array.upperBoundary, segmentSize(array), b, found));
+        final int index = found.get();
+        return index == Integer.MAX_VALUE ? -1 : index - array.lowerBoundary;
+    }
+
+    @Override
+    public int countLines(final Buffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        final int capacity = buffer.capacity();
+        if (capacity == 0) {
+            return 0;
+        }
+
+        final int count = countOccurences(buffer, Buffer.LF);
+        return buffer.getByte(capacity - 1) == Buffer.LF ? count : count + 1;
+    }
+
+    @Override
+    public int hash(final Buffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        final int capacity = buffer.capacity();
+        final int hash;
+        if (buffer instanceof AbstractArrayBuffer) {
+            final AbstractArrayBuffer array = (AbstractArrayBuffer) buffer;
+            hash = run(new HashTask(array.buffer, array.lowerBoundary, array.upperBoundary, segmentSize(array)));
+        } else {
+            int h = 0;
+            for (int i = 0; i < capacity; ++i) {
+                h = 31 * h + buffer.getByte(i);
+            }
+            hash = h;
+        }
+
+        // the hash code starts off with 1, which after all bytes have
+        // been processed has been multiplied by 31 once per byte.
+        return pow31(capacity) + hash;
+    }
+
+    @Override
+    public long adler32(final Buffer buffer) {
+        assertNotNull(buffer, "The buffer cannot be null");
+        if (!(buffer instanceof AbstractArrayBuffer)) {
+            final Adler32 adler = new Adler32();
+            for (int i = 0; i < buffer.capacity(); ++i) {
+                adler.update(buffer.getByte(i));
+            }
+            return adler.getValue();
+        }
+
+        final AbstractArrayBuffer array = (AbstractArrayBuffer) buffer;
+        return run(new Adler32Task(array.buffer, array.lowerBoundary, array.upperBoundary, segmentSize(array)));
+    }
+
+    /**
+     * If the buffer is below the threshold, we'll just process it on the calling thread as one segment.
+     */
+    private int segmentSize(final AbstractArrayBuffer buffer) {
+        final int capacity = buffer.capacity();
+        if (capacity < threshold) {
+            return capacity;
+        }
+
+        // a few segments per thread so that a thread that is done early
+        // can steal work from the others.
+        return Math.max(MIN_SEGMENT_SIZE, capacity / (pool.getParallelism() * 4));
+    }
+
+    private <R> R run(final SegmentTask<R> task) {
+        if (task.to - task.from <= task.segmentSize) {
+            return task.segment(task.from, task.to);
+        }
+        return pool.invoke(task);
+    }
+
+    private static int pow31(final int exponent) {
+        int result = 1;
+        int base = 31;
+        int e = exponent;
+        while (e > 0) {
+            if ((e & 1) == 1) {
+                result *= base;
+            }
+            base *= base;
+            e >>= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Combine the Adler-32 checksum of two consecutive segments, as done by
+     * <code>adler32_combine</code> in zlib.
+     */
+    private static long combineAdler32(final long adler1, final long adler2, final int length2) {
+        final long rem = length2 % ADLER_BASE;
+        long sum1 = adler1 & 0xFFFF;
+        long sum2 = (rem * sum1) % ADLER_BASE;
+        sum1 += (adler2 & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += ((adler1 >> 16) & 0xFFFF) + ((adler2 >> 16) & 0xFFFF) + ADLER_BASE - rem;
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum1 >= ADLER_BASE) {
+            sum1 -= ADLER_BASE;
+        }
+        if (sum2 >= ((long) ADLER_BASE << 1)) {
+            sum2 -= ((long) ADLER_BASE << 1);
+        }
+        if (sum2 >= ADLER_BASE) {
+            sum2 -= ADLER_BASE;
+        }
+        return sum1 | (sum2 << 16);
+    }
+
+    /**
+     * Splits the range in two until it is no larger than the segment size, at which point the segment
+     * is processed on the current thread. The indexes are into the backing array.
+     */
+    private abstract static class SegmentTask<R> extends RecursiveTask<R> {
+
+        protected final byte[] array;
+        protected final int from;
+        protected final int to;
+        protected final int segmentSize;
+
+        private SegmentTask(final byte[] array, final int from, final int to, final int segmentSize) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+            this.segmentSize = segmentSize;
+        }
+
+        @Override
+        protected final R compute() {
+            if (to - from <= segmentSize) {
+                return segment(from, to);
+            }
+
+            final int middle = from + (to - from) / 2;
+            final SegmentTask<R> left = create(from, middle);
+            final SegmentTask<R> right = create(middle, to);
+            left.fork();
+            final R rightResult = right.compute();
+            return combine(left.join(), rightResult, to - middle);
+        }
+
+        protected abstract SegmentTask<R> create(int from, int to);
+
+        protected abstract R segment(int from, int to);
+
+        protected abstract R combine(R left, R right, int rightLength);
+    }
+
+    private static final class CountTask extends SegmentTask<Integer> {
+
+        private final byte b;
+
+        private CountTask(final byte[] array, final int from, final int to, final int segmentSize, final byte b) {
+            super(array, from, to, segmentSize);
+            this.b = b;
+        }
+
+        @Override
+        protected SegmentTask<Integer> create(final int from, final int to) {
+            return new CountTask(array, from, to, segmentSize, b);
+        }
+
+        @Override
+        protected Integer segment(final int from, final int to) {
+            int count = 0;
+            for (int i = from; i < to; ++i) {
+                if (array[i] == b) {
+                    ++count;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        protected Integer combine(final Integer left, final Integer right, final int rightLength) {
+            return left + right;
+        }
+    }
+
+    /**
+     * The lowest index found so far is shared between all segments so that a segment that
+     * starts after it doesn't even have to look.
+     */
+    private static final class IndexOfTask extends SegmentTask<Integer> {
+
+        /**
+         * How often, in bytes, we check whether someone else found a better match.
+         */
+        private static final int CHECK_INTERVAL = 4096;
+
+        private final byte b;
+        private final AtomicInteger found;
+
+        private IndexOfTask(final byte[] array, final int from, final int to, final int segmentSize,
+                            final byte b, final AtomicInteger found) {
+            super(array, from, to, segmentSize);
+            this.b = b;
+            this.found = found;
+        }
+
+        @Override
+        protected SegmentTask<Integer> create(final int from, final int to) {
+            return new IndexOfTask(array, from, to, segmentSize, b, found);
+        }
+
+        @Override
+        protected Integer segment(final int from, final int to) {
+            for (int start = from; start < to && start < found.get(); start += CHECK_INTERVAL) {
+                final int stop = Math.min(start + CHECK_INTERVAL, to);
+                for (int i = start; i < stop; ++i) {
+                    if (array[i] == b) {
+                        found.accumulateAndGet(i, Math::min);
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        protected Integer combine(final Integer left, final Integer right, final int rightLength) {
+            return left != -1 ? left : right;
+        }
+    }
+
+    /**
+     * Every segment calculates the hash starting from zero and is then shifted
+     * into place, by multiplying with 31 once per byte that follows it.
+     */
+    private static final class HashTask extends SegmentTask<Integer> {
+
+        private HashTask(final byte[] array, final int from, final int to, final int segmentSize) {
+            super(array, from, to, segmentSize);
+        }
+
+        @Override
+        protected SegmentTask<Integer> create(final int from, final int to) {
+            return new HashTask(array, from, to, segmentSize);
+        }
+
+        @Override
+        protected Integer segment(final int from, final int to) {
+            int hash = 0;
+            for (int i = from; i < to; ++i) {
+                hash = 31 * hash + array[i];
+            }
+            return hash;
+        }
+
+        @Override
+        protected Integer combine(final Integer left, final Integer right, final int rightLength) {
+            return left * pow31(rightLength) + right;
+        }
+    }
+
+    private static final class Adler32Task extends SegmentTask<Long> {
+
+        private Adler32Task(final byte[] array, final int from, final int to, final int segmentSize) {
+            super(array, from, to, segmentSize);
+        }
+
+        @Override
+        protected SegmentTask<Long> create(final int from, final int to) {
+            return new Adler32Task(array, from, to, segmentSize);
+        }
+
+        @Override
+        protected Long segment(final int from, final int to) {
+            final Adler32 adler = new Adler32();
+            adler.update(array, from, to - from);
+            return adler.getValue();
+        }
+
+        @Override
+        protected Long combine(final Long left, final Long right, final int rightLength) {
+            return combineAdler32(left, right, rightLength);
+        }
+    }
+}
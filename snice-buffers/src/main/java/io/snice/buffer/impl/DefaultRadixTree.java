@@ -0,0 +1,359 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.RadixTree;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Every node is immutable and holds the label of the edge leading to it, an optional value and its
+ * children, ordered by the (unsigned) first byte of their labels which is also kept in a separate array
+ * so that finding the next child is a binary search over a small byte-array. Modifications copy the path
+ * from the root down to the modified node and share everything else.
+ */
+public final class DefaultRadixTree<V> implements RadixTree<V> {
+
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final DefaultRadixTree<?> EMPTY = new DefaultRadixTree<>(new Node(NO_BYTES, null, NO_BYTES, NO_CHILDREN), 0);
+
+    /**
+     * The character each TBCD nibble represents, where the filler (all ones) is never looked up.
+     */
+    private static final byte[] TBCD = "0123456789*#abc".getBytes();
+
+    private final Node root;
+    private final int size;
+
+    @SuppressWarnings("unchecked")
+    public static <V> RadixTree<V> empty() {
+        return (RadixTree<V>) EMPTY;
+    }
+
+    private DefaultRadixTree(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @Override
+    public RadixTree<V> with(final Buffer prefix, final V value) {
+        assertNotNull(prefix, "The prefix cannot be null");
+        assertNotNull(value, "The value cannot be null");
+        final byte[] key = DefaultBufferMap.copy(prefix, DefaultBufferMap.keyOffset(prefix), DefaultBufferMap.keyLength(prefix));
+        final boolean exists = find(key) != null;
+        return new DefaultRadixTree<>(insert(root, key, 0, value), exists ? size : size + 1);
+    }
+
+    @Override
+    public RadixTree<V> without(final Buffer prefix) {
+        assertNotNull(prefix, "The prefix cannot be null");
+        final byte[] key = DefaultBufferMap.copy(prefix, DefaultBufferMap.keyOffset(prefix), DefaultBufferMap.keyLength(prefix));
+        if (find(key) == null) {
+            return this;
+        }
+
+        return new DefaultRadixTree<>(remove(root, key, 0), size - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final Buffer prefix) {
+        assertNotNull(prefix, "The prefix cannot be null");
+        final int offset = DefaultBufferMap.keyOffset(prefix);
+        final int length = DefaultBufferMap.keyLength(prefix);
+        Node node = root;
+        int pos = offset;
+        while (pos < offset + length) {
+            final Node child = node.child(prefix.getByte(pos));
+            if (child == null || !matches(child.label, prefix, pos, offset + length)) {
+                return null;
+            }
+            pos += child.label.length;
+            node = child;
+        }
+        return (V) node.value;
+    }
+
+    @Override
+    public V longestPrefixMatch(final Buffer key) {
+        assertNotNull(key, "The key cannot be null");
+        return longestPrefixMatch(key, DefaultBufferMap.keyOffset(key), DefaultBufferMap.keyLength(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V longestPrefixMatch(final Buffer buffer, final int offset, final int length) throws IllegalArgumentException {
+        DefaultBufferMap.checkRange(buffer, offset, length);
+        final int end = offset + length;
+        Node node = root;
+        Object best = root.value;
+        int pos = offset;
+        while (pos < end) {
+            final Node child = node.child(buffer.getByte(pos));
+            if (child == null || !matches(child.label, buffer, pos, end)) {
+                break;
+            }
+            pos += child.label.length;
+            node = child;
+            if (node.value != null) {
+                best = node.value;
+            }
+        }
+        return (V) best;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V longestPrefixMatchTbcd(final Buffer tbcd) {
+        assertNotNull(tbcd, "The buffer cannot be null");
+        final int offset = DefaultBufferMap.keyOffset(tbcd);
+        final int digits = tbcdDigits(tbcd, offset, DefaultBufferMap.keyLength(tbcd));
+        Node node = root;
+        Object best = root.value;
+        int pos = 0;
+        while (pos < digits) {
+            final Node child = node.child(tbcdDigit(tbcd, offset, pos));
+            if (child == null || child.label.length > digits - pos) {
+                break;
+            }
+
+            boolean match = true;
+            for (int i = 1; i < child.label.length; ++i) {
+                if (child.label[i] != tbcdDigit(tbcd, offset, pos + i)) {
+                    match = false;
+                    break;
+                }
+            }
+            if (!match) {
+                break;
+            }
+
+            pos += child.label.length;
+            node = child;
+            if (node.value != null) {
+                best = node.value;
+            }
+        }
+        return (V) best;
+    }
+
+    /**
+     * The number of digits is two per byte up until the first filler nibble.
+     */
+    private static int tbcdDigits(final Buffer buffer, final int offset, final int length) {
+        for (int i = 0; i < length; ++i) {
+            final int b = buffer.getByte(offset + i);
+            if ((b & 0x0F) == 0x0F) {
+                return i * 2;
+            }
+            if ((b & 0xF0) == 0xF0) {
+                return i * 2 + 1;
+            }
+        }
+        return length * 2;
+    }
+
+    private static byte tbcdDigit(final Buffer buffer, final int offset, final int digit) {
+        final int b = buffer.getByte(offset + (digit >> 1));
+        return TBCD[(digit & 1) == 0 ? b & 0x0F : (b >> 4) & 0x0F];
+    }
+
+    /**
+     * Check if the entire label is found at the given position of the buffer. The first byte
+     * has already been checked when the child was picked.
+     */
+    private static boolean matches(final byte[] label, final Buffer buffer, final int pos, final int end) {
+        if (label.length > end - pos) {
+            return false;
+        }
+
+        if (buffer instanceof AbstractArrayBuffer) {
+            final int start = ((AbstractArrayBuffer) buffer).lowerBoundary + pos;
+            return Arrays.equals(label, 1, label.length, ((AbstractArrayBuffer) buffer).buffer, start + 1, start + label.length);
+        }
+
+        for (int i = 1; i < label.length; ++i) {
+            if (label[i] != buffer.getByte(pos + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super Buffer, ? super V> action) {
+        assertNotNull(action, "The action cannot be null");
+        visit(root, NO_BYTES, action);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void visit(final Node node, final byte[] prefix, final BiConsumer<? super Buffer, ? super V> action) {
+        if (node.value != null) {
+            action.accept(Buffer.of(prefix), (V) node.value);
+        }
+
+        for (final Node child : node.children) {
+            final byte[] childPrefix = Arrays.copyOf(prefix, prefix.length + child.label.length);
+            System.arraycopy(child.label, 0, childPrefix, prefix.length, child.label.length);
+            visit(child, childPrefix, action);
+        }
+    }
+
+    private Object find(final byte[] key) {
+        return get(Buffer.of(key));
+    }
+
+    private static Node insert(final Node node, final byte[] key, final int pos, final Object value) {
+        if (pos == key.length) {
+            return new Node(node.label, value, node.firsts, node.children);
+        }
+
+        final int index = node.indexOf(key[pos]);
+        if (index < 0) {
+            final Node leaf = new Node(Arrays.copyOfRange(key, pos, key.length), value, NO_BYTES, NO_CHILDREN);
+            return node.withChild(-index - 1, leaf);
+        }
+
+        final Node child = node.children[index];
+        final int common = commonPrefix(child.label, key, pos);
+        if (common == child.label.length) {
+            return node.replaceChild(index, insert(child, key, pos + common, value));
+        }
+
+        // split the child, the first part becomes a new node without a value
+        final Node tail = new Node(Arrays.copyOfRange(child.label, common, child.label.length), child.value, child.firsts, child.children);
+        final Node split = new Node(Arrays.copyOf(child.label, common), null, new byte[]{tail.label[0]}, new Node[]{tail});
+        return node.replaceChild(index, insert(split, key, pos + common, value));
+    }
+
+    /**
+     * @return the new node or null if the node should be removed altogether.
+     */
+    private static Node remove(final Node node, final byte[] key, final int pos) {
+        if (pos == key.length) {
+            return compress(new Node(node.label, null, node.firsts, node.children));
+        }
+
+        final int index = node.indexOf(key[pos]);
+        final Node child = node.children[index];
+        final Node newChild = remove(child, key, pos + child.label.length);
+        return compress(newChild == null ? node.withoutChild(index) : node.replaceChild(index, newChild));
+    }
+
+    /**
+     * A node without a value is only needed if it has at least two children. With only one,
+     * it is merged with that child. The root, which is the only node with an empty label, always stays.
+     */
+    private static Node compress(final Node node) {
+        if (node.label.length == 0 || node.value != null || node.children.length > 1) {
+            return node;
+        }
+
+        if (node.children.length == 0) {
+            return null;
+        }
+
+        final Node child = node.children[0];
+        final byte[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+        System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+        return new Node(label, child.value, child.firsts, child.children);
+    }
+
+    private static int commonPrefix(final byte[] label, final byte[] key, final int pos) {
+        final int max = Math.min(label.length, key.length - pos);
+        int i = 0;
+        while (i < max && label[i] == key[pos + i]) {
+            ++i;
+        }
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        return "RadixTree[size=" + size + "]";
+    }
+
+    private static final class Node {
+        private final byte[] label;
+        private final Object value;
+        private final byte[] firsts;
+        private final Node[] children;
+
+        private Node(final byte[] label, final Object value, final byte[] firsts, final Node[] children) {
+            this.label = label;
+            this.value = value;
+            this.firsts = firsts;
+            this.children = children;
+        }
+
+        private Node child(final byte b) {
+            final int index = indexOf(b);
+            return index < 0 ? null : children[index];
+        }
+
+        /**
+         * Binary search over the (unsigned) first bytes of the children.
+         *
+         * @return the index of the child or, if not found, (-(insertion point) - 1).
+         */
+        private int indexOf(final byte b) {
+            final int key = b & 0xFF;
+            int low = 0;
+            int high = firsts.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int value = firsts[mid] & 0xFF;
+                if (value < key) {
+                    low = mid + 1;
+                } else if (value > key) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private Node withChild(final int index, final Node child) {
+            final byte[] newFirsts = new byte[firsts.length + 1];
+            final Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newFirsts[index] = child.label[0];
+            newChildren[index] = child;
+            System.arraycopy(firsts, index, newFirsts, index + 1, firsts.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            return new Node(label, value, newFirsts, newChildren);
+        }
+
+        private Node replaceChild(final int index, final Node child) {
+            final Node[] newChildren = children.clone();
+            newChildren[index] = child;
+            return new Node(label, value, firsts, newChildren);
+        }
+
+        private Node withoutChild(final int index) {
+            if (children.length == 1) {
+                return new Node(label, value, NO_BYTES, NO_CHILDREN);
+            }
+
+            final byte[] newFirsts = new byte[firsts.length - 1];
+            final Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(firsts, index + 1, newFirsts, index, firsts.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            return new Node(label, value, newFirsts, newChildren);
+        }
+    }
+}
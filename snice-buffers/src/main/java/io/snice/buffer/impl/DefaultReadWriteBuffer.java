@@ -1,6 +1,8 @@
 package io.snice.buffer.impl;
 
 import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferMetrics;
+import io.snice.buffer.BufferPattern;
 import io.snice.buffer.Buffers;
 import io.snice.buffer.ByteNotFoundException;
 import io.snice.buffer.ReadWriteBuffer;
@@ -10,7 +12,11 @@ import io.snice.buffer.WritableBuffer;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.snice.preconditions.PreConditions.assertArgument;
 import static io.snice.preconditions.PreConditions.assertArray;
@@ -72,6 +78,9 @@ public final class DefaultReadWriteBuffer implements ReadWriteBuffer {
 
     public static ReadWriteBuffer of(final int capacity) {
         assertArgument(capacity > 0, "The capacity must be greater than zero");
+        if (DefaultBufferMetrics.ENABLED) {
+            DefaultBufferMetrics.INSTANCE.allocate(BufferMetrics.Category.NEW_BUFFER, capacity);
+        }
         return new DefaultReadWriteBuffer(capacity);
     }
 
@@ -126,8 +135,8 @@ public final class DefaultReadWriteBuffer implements ReadWriteBuffer {
 
     @Override
     public void setUnsignedInt(final int index, final long value) throws IndexOutOfBoundsException {
-        checkIndex(index);
-        checkIndex(index + 3);
+        checkIndex(lowerBoundary + index);
+        checkIndex(lowerBoundary + index + 3);
         buffer[lowerBoundary + index + 3] = (byte) value;
         buffer[lowerBoundary + index + 2] = (byte) (value >>> 8);
         buffer[lowerBoundary + index + 1] = (byte) (value >>> 16);
@@ -136,8 +145,8 @@ public final class DefaultReadWriteBuffer implements ReadWriteBuffer {
 
     @Override
     public void setInt(final int index, final int value) throws IndexOutOfBoundsException {
-        checkIndex(index);
-        checkIndex(index + 3);
+        checkIndex(lowerBoundary + index);
+        checkIndex(lowerBoundary + index + 3);
         buffer[lowerBoundary + index + 0] = (byte) (value >>> 24);
         buffer[lowerBoundary + index + 1] = (byte) (value >>> 16);
         buffer[lowerBoundary + index + 2] = (byte) (value >>> 8);
@@ -146,10 +155,10 @@ public final class DefaultReadWriteBuffer implements ReadWriteBuffer {
 
     @Override
     public void setThreeOctetInt(final int index, final int value) throws IndexOutOfBoundsException {
-        checkIndex(index);
-        checkIndex(index + 2);
-        assertArgument(value >= 0);
         final int i = lowerBoundary + index;
+        checkIndex(i);
+        checkIndex(i + 2);
+        assertArgument(value >= 0);
         buffer[i + 0] = (byte) (value >>> 16);
         buffer[i + 1] = (byte) (value >>> 8);
         buffer[i + 2] = (byte) value;
@@ -375,22 +384,39 @@ public final class DefaultReadWriteBuffer implements ReadWriteBuffer {
 
     @Override
     public Buffer toBuffer() {
-        return Buffers.wrap(copyArray());
+        return copy(BufferMetrics.Category.TO_BUFFER);
+    }
+
+    Buffer copy(final BufferMetrics.Category category) {
+        return Buffers.wrap(copyArray(category));
+    }
+
+    @Override
+    public ByteBuffer asByteBuffer() {
+        return wrap.slice(getReaderIndex(), writerIndex).asByteBuffer();
+    }
+
+    @Override
+    public int getRetainedBytes() {
+        return buffer.length;
     }
 
     @Override
     public byte[] getContent() {
-        return copyArray();
+        return copyArray(BufferMetrics.Category.GET_CONTENT);
     }
 
     @Override
     public ReadableBuffer toReadableBuffer() {
-        return Buffers.wrap(copyArray()).toReadableBuffer();
+        return Buffers.wrap(copyArray(BufferMetrics.Category.TO_READABLE_BUFFER)).toReadableBuffer();
     }
 
+    /**
+     * Same as {@link #clone()}.
+     */
     @Override
     public WritableBuffer toWritableBuffer() {
-        throw new RuntimeException("havent done this yet");
+        return clone();
     }
 
     @Override
@@ -438,6 +464,36 @@ public final class DefaultReadWriteBuffer implements ReadWriteBuffer {
         return wrap.countOccurences(startIndex, maxbytes, b);
     }
 
+    /**
+     * Only the bytes that have been written are searched, i.e., the search will stop at the writer index.
+     */
+    @Override
+    public int indexOf(final BufferPattern pattern) throws IllegalArgumentException {
+        return indexOf(getReaderIndex(), pattern);
+    }
+
+    @Override
+    public int indexOf(final int startIndex, final BufferPattern pattern) throws IllegalArgumentException {
+        assertNotNull(pattern, "The pattern cannot be null");
+        return pattern.indexOf(wrap.slice(0, writerIndex), startIndex, writerIndex);
+    }
+
+    @Override
+    public int lastIndexOf(final BufferPattern pattern) throws IllegalArgumentException {
+        assertNotNull(pattern, "The pattern cannot be null");
+        return pattern.lastIndexOf(wrap.slice(0, writerIndex), getReaderIndex(), writerIndex);
+    }
+
+    @Override
+    public Stream<Buffer> split(final byte delimiter) {
+        return StreamSupport.stream(BufferSpliterator.split(wrap.slice(0, writerIndex), getReaderIndex(), writerIndex, delimiter), false);
+    }
+
+    @Override
+    public Stream<Buffer> lines() {
+        return StreamSupport.stream(BufferSpliterator.lines(wrap.slice(0, writerIndex), getReaderIndex(), writerIndex), false);
+    }
+
     @Override
     public void writeTo(final OutputStream out) throws IOException {
         wrap.writeTo(out);
@@ -468,6 +524,71 @@ public final class DefaultReadWriteBuffer implements ReadWriteBuffer {
         return wrap.getByte(index);
     }
 
+    // The following are default methods on the Buffer interface but since
+    // they have the exact same semantics for this buffer as for the one we
+    // wrap, we just forward them so they end up on the array-backed versions
+    // instead of going through getByte et al one byte at a time.
+
+    @Override
+    public int indexOfWhiteSpace(final int startIndex) throws ByteNotFoundException, IllegalArgumentException {
+        return wrap.indexOfWhiteSpace(startIndex);
+    }
+
+    @Override
+    public int countOccurences(final byte b) throws IndexOutOfBoundsException {
+        return wrap.countOccurences(b);
+    }
+
+    @Override
+    public int countOccurences(final char c) throws IndexOutOfBoundsException {
+        return wrap.countOccurences(c);
+    }
+
+    @Override
+    public boolean getBit(final int byteIndex, final int bitNo) throws IllegalArgumentException {
+        return wrap.getBit(byteIndex, bitNo);
+    }
+
+    @Override
+    public boolean getBit0(final int index) {
+        return wrap.getBit0(index);
+    }
+
+    @Override
+    public boolean getBit1(final int index) {
+        return wrap.getBit1(index);
+    }
+
+    @Override
+    public boolean getBit2(final int index) {
+        return wrap.getBit2(index);
+    }
+
+    @Override
+    public boolean getBit3(final int index) {
+        return wrap.getBit3(index);
+    }
+
+    @Override
+    public boolean getBit4(final int index) {
+        return wrap.getBit4(index);
+    }
+
+    @Override
+    public boolean getBit5(final int index) {
+        return wrap.getBit5(index);
+    }
+
+    @Override
+    public boolean getBit6(final int index) {
+        return wrap.getBit6(index);
+    }
+
+    @Override
+    public boolean getBit7(final int index) {
+        return wrap.getBit7(index);
+    }
+
     @Override
     public int getInt(final int index) throws IndexOutOfBoundsException {
         return wrap.getInt(index);
@@ -553,9 +674,22 @@ public final class DefaultReadWriteBuffer implements ReadWriteBuffer {
         return wrap.toHexString(prefix);
     }
 
+    /**
+     * Copies the entire view of the underlying byte-array, in a single array copy, and keeps the
+     * reader and writer index, so the clone can be read from and written to just like this one.
+     */
     @Override
     public ReadWriteBuffer clone() {
-        throw new RuntimeException("Haven't implemented this just yet");
+        if (DefaultBufferMetrics.ENABLED) {
+            DefaultBufferMetrics.INSTANCE.copy(BufferMetrics.Category.CLONE, capacity());
+        }
+        final byte[] copy = Arrays.copyOfRange(buffer, lowerBoundary, upperBoundary);
+        final DefaultReadWriteBuffer clone = new DefaultReadWriteBuffer(copy);
+        clone.writerIndex = writerIndex;
+        if (wrap.getReaderIndex() > 0) {
+            clone.wrap.setReaderIndex(wrap.getReaderIndex());
+        }
+        return clone;
     }
 
 
@@ -732,16 +866,35 @@ public final class DefaultReadWriteBuffer implements ReadWriteBuffer {
         // System.arraycopy(buffer, lowerBoundary + wrap.getReaderIndex(), array, 0, length);
 
         final Buffer b = Buffer.of(buffer, lowerBoundary + wrap.getReaderIndex(), length);
+        exhaust();
+        return b;
+    }
+
+    @Override
+    public ReadableBuffer freeze() {
+        final int readerIndex = wrap.getReaderIndex();
+        final ReadableBuffer frozen = Buffer.of(buffer, lowerBoundary, writerIndex).toReadableBuffer();
+        if (readerIndex > 0) {
+            frozen.setReaderIndex(readerIndex);
+        }
+        exhaust();
+        return frozen;
+    }
+
+    /**
+     * Once the underlying byte-array has been handed over to an immutable buffer we must never
+     * touch it again, which we ensure by moving all indexes and boundaries to the upper boundary
+     * so that every read and write is out of bounds.
+     */
+    private void exhaust() {
         wrap.setReaderIndex(upperBoundary);
         writerIndex = upperBoundary;
         lowerBoundary = upperBoundary;
-
-        return b;
     }
 
 
     private void checkIndex(final int index) throws IndexOutOfBoundsException {
-        if (index >= lowerBoundary + capacity()) {
+        if (index < lowerBoundary || index >= lowerBoundary + capacity()) {
             throw new IndexOutOfBoundsException();
         }
     }
@@ -761,8 +914,11 @@ public final class DefaultReadWriteBuffer implements ReadWriteBuffer {
      * depicted by the reader/writer positions since we cannot share the underlying
      * byte-array outside of this {@link WritableBuffer}.
      */
-    private byte[] copyArray() {
+    private byte[] copyArray(final BufferMetrics.Category category) {
         final int length = getReadableBytes();
+        if (DefaultBufferMetrics.ENABLED) {
+            DefaultBufferMetrics.INSTANCE.copy(category, length);
+        }
         final byte[] array = new byte[length];
         System.arraycopy(buffer, lowerBoundary + wrap.getReaderIndex(), array, 0, length);
         return array;
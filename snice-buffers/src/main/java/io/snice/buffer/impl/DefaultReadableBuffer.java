@@ -2,15 +2,20 @@ package io.snice.buffer.impl;
 
 import com.google.polo.pairing.HexDump;
 import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferPattern;
 import io.snice.buffer.ByteNotFoundException;
 import io.snice.buffer.ReadableBuffer;
 import io.snice.buffer.WritableBuffer;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
 
 public class DefaultReadableBuffer implements ReadableBuffer  {
 
@@ -313,6 +318,16 @@ public class DefaultReadableBuffer implements ReadableBuffer  {
         }
     }
 
+    @Override
+    public ByteBuffer asByteBuffer() {
+        return sliceToSize().asByteBuffer();
+    }
+
+    @Override
+    public int getRetainedBytes() {
+        return buffer.getRetainedBytes();
+    }
+
     @Override
     public byte[] getContent() {
         return buffer.slice(readerIndex, buffer.capacity()).getContent();
@@ -399,6 +414,33 @@ public class DefaultReadableBuffer implements ReadableBuffer  {
         return buffer.countOccurences(startIndex, maxbytes, b);
     }
 
+    @Override
+    public int indexOf(final BufferPattern pattern) throws IllegalArgumentException {
+        return indexOf(readerIndex, pattern);
+    }
+
+    @Override
+    public int indexOf(final int startIndex, final BufferPattern pattern) throws IllegalArgumentException {
+        assertNotNull(pattern, "The pattern cannot be null");
+        return pattern.indexOf(buffer, startIndex, buffer.capacity());
+    }
+
+    @Override
+    public int lastIndexOf(final BufferPattern pattern) throws IllegalArgumentException {
+        assertNotNull(pattern, "The pattern cannot be null");
+        return pattern.lastIndexOf(buffer, readerIndex, buffer.capacity());
+    }
+
+    @Override
+    public Stream<Buffer> split(final byte delimiter) {
+        return StreamSupport.stream(BufferSpliterator.split(buffer, readerIndex, buffer.capacity(), delimiter), false);
+    }
+
+    @Override
+    public Stream<Buffer> lines() {
+        return StreamSupport.stream(BufferSpliterator.lines(buffer, readerIndex, buffer.capacity()), false);
+    }
+
     @Override
     public void writeTo(final OutputStream out) throws IOException {
         sliceToSize().writeTo(out);
@@ -429,6 +471,76 @@ public class DefaultReadableBuffer implements ReadableBuffer  {
         return buffer.getByte(index);
     }
 
+    // The following are default methods on the Buffer interface but since
+    // they have the exact same semantics for this buffer as for the one we
+    // wrap, we just forward them so they end up on the array-backed versions
+    // instead of going through getByte et al one byte at a time.
+
+    @Override
+    public int indexOfWhiteSpace(final int startIndex) throws ByteNotFoundException, IllegalArgumentException {
+        return buffer.indexOfWhiteSpace(startIndex);
+    }
+
+    @Override
+    public int countOccurences(final byte b) throws IndexOutOfBoundsException {
+        return buffer.countOccurences(b);
+    }
+
+    @Override
+    public int countOccurences(final char c) throws IndexOutOfBoundsException {
+        return buffer.countOccurences(c);
+    }
+
+    @Override
+    public boolean getBit(final int byteIndex, final int bitNo) throws IllegalArgumentException {
+        return buffer.getBit(byteIndex, bitNo);
+    }
+
+    @Override
+    public boolean getBit0(final int index) {
+        return buffer.getBit0(index);
+    }
+
+    @Override
+    public boolean getBit1(final int index) {
+        return buffer.getBit1(index);
+    }
+
+    @Override
+    public boolean getBit2(final int index) {
+        return buffer.getBit2(index);
+    }
+
+    @Override
+    public boolean getBit3(final int index) {
+        return buffer.getBit3(index);
+    }
+
+    @Override
+    public boolean getBit4(final int index) {
+        return buffer.getBit4(index);
+    }
+
+    @Override
+    public boolean getBit5(final int index) {
+        return buffer.getBit5(index);
+    }
+
+    @Override
+    public boolean getBit6(final int index) {
+        return buffer.getBit6(index);
+    }
+
+    @Override
+    public boolean getBit7(final int index) {
+        return buffer.getBit7(index);
+    }
+
+    @Override
+    public String toTBCD() {
+        return buffer.toTBCD();
+    }
+
     @Override
     public int getInt(final int index) throws IndexOutOfBoundsException {
         return buffer.getInt(index);
@@ -0,0 +1,100 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.ReadableBuffer;
+import io.snice.buffer.RetentionReport;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Tracks the underlying byte-arrays by identity so that slices of the same array are only
+ * counted once. For buffers where we can't get to the array, we have to trust
+ * {@link Buffer#getRetainedBytes()} and count each one of them separately.
+ */
+public final class DefaultRetentionReport implements RetentionReport {
+
+    private final int buffers;
+    private final int arrays;
+    private final long visibleBytes;
+    private final long retainedBytes;
+
+    public static RetentionReport of(final Iterable<? extends Buffer> buffers) {
+        final Set<byte[]> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        int count = 0;
+        int arrays = 0;
+        long visible = 0;
+        long retained = 0;
+        for (final Buffer buffer : buffers) {
+            if (buffer == null) {
+                continue;
+            }
+
+            ++count;
+            visible += buffer instanceof ReadableBuffer
+                    ? ((ReadableBuffer) buffer).getReadableBytes()
+                    : buffer.capacity();
+
+            final byte[] array = arrayOf(buffer);
+            if (array == null) {
+                ++arrays;
+                retained += buffer.getRetainedBytes();
+            } else if (seen.add(array)) {
+                ++arrays;
+                retained += array.length;
+            }
+        }
+
+        return new DefaultRetentionReport(count, arrays, visible, retained);
+    }
+
+    private static byte[] arrayOf(final Buffer buffer) {
+        if (buffer instanceof AbstractArrayBuffer) {
+            return ((AbstractArrayBuffer) buffer).buffer;
+        }
+
+        // the readable buffer is only a view of an immutable one so this is cheap
+        if (buffer instanceof DefaultReadableBuffer) {
+            final Buffer view = buffer.toBuffer();
+            if (view instanceof AbstractArrayBuffer) {
+                return ((AbstractArrayBuffer) view).buffer;
+            }
+        }
+
+        return null;
+    }
+
+    private DefaultRetentionReport(final int buffers, final int arrays, final long visibleBytes, final long retainedBytes) {
+        this.buffers = buffers;
+        this.arrays = arrays;
+        this.visibleBytes = visibleBytes;
+        this.retainedBytes = retainedBytes;
+    }
+
+    @Override
+    public int getBuffers() {
+        return buffers;
+    }
+
+    @Override
+    public int getArrays() {
+        return arrays;
+    }
+
+    @Override
+    public long getVisibleBytes() {
+        return visibleBytes;
+    }
+
+    @Override
+    public long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "RetentionReport[buffers=" + buffers + ", arrays=" + arrays + ", visible=" + visibleBytes
+                + ", retained=" + retainedBytes + "]";
+    }
+}
@@ -0,0 +1,117 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.SecureRandomGenerator;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static io.snice.preconditions.PreConditions.assertArray;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Keeps all state in a {@link ThreadLocal} so there is nothing shared between threads, other than
+ * the supplier of new {@link SecureRandom}s, which is only called when a thread first uses the generator
+ * and then once every reseed interval.
+ *
+ * The state doesn't reference the generator, or the entry in every thread that has used the generator
+ * would keep the generator, and with it the key of that very entry, reachable for as long as the thread
+ * lives, so dropping a generator would leak its reservoir and {@link SecureRandom} in all of them.
+ */
+public final class DefaultSecureRandomGenerator implements SecureRandomGenerator {
+
+    public static final SecureRandomGenerator SHARED = SecureRandomGenerator.builder().build();
+
+    private final int reservoirSize;
+    private final long reseedInterval;
+    private final Supplier<SecureRandom> supplier;
+    private final ThreadLocal<State> state;
+
+    public static SecureRandomGenerator of(final int reservoirSize, final long reseedInterval,
+                                           final Supplier<SecureRandom> supplier) {
+        assertNotNull(supplier, "The supplier cannot be null");
+        return new DefaultSecureRandomGenerator(reservoirSize, reseedInterval, supplier);
+    }
+
+    private DefaultSecureRandomGenerator(final int reservoirSize, final long reseedInterval,
+                                         final Supplier<SecureRandom> supplier) {
+        this.reservoirSize = reservoirSize;
+        this.reseedInterval = reseedInterval;
+        this.supplier = supplier;
+        state = ThreadLocal.withInitial(() -> new State(reservoirSize));
+    }
+
+    @Override
+    public void nextBytes(final byte[] bytes, final int offset, final int length) throws IllegalArgumentException {
+        assertArray(bytes, offset, length);
+        final State state = this.state.get();
+        if (length > reservoirSize / 4) {
+            fill(state.random(length, supplier, reseedInterval), bytes, offset, length);
+            return;
+        }
+
+        for (int done = 0; done < length; ) {
+            if (state.position == reservoirSize) {
+                state.random(reservoirSize, supplier, reseedInterval).nextBytes(state.reservoir);
+                state.position = 0;
+            }
+            final int count = Math.min(length - done, reservoirSize - state.position);
+            System.arraycopy(state.reservoir, state.position, bytes, offset + done, count);
+            Arrays.fill(state.reservoir, state.position, state.position + count, (byte) 0);
+            state.position += count;
+            done += count;
+        }
+    }
+
+    /**
+     * {@link SecureRandom#nextBytes(byte[])} only takes an entire array so unless that is what we
+     * are asked to fill, we have to go through a temporary one.
+     */
+    private static void fill(final SecureRandom random, final byte[] bytes, final int offset, final int length) {
+        if (offset == 0 && length == bytes.length) {
+            random.nextBytes(bytes);
+            return;
+        }
+
+        final byte[] tmp = new byte[length];
+        random.nextBytes(tmp);
+        System.arraycopy(tmp, 0, bytes, offset, length);
+        Arrays.fill(tmp, (byte) 0);
+    }
+
+    @Override
+    public String toString() {
+        return "SecureRandomGenerator[reservoirSize=" + reservoirSize + ", reseedInterval=" + reseedInterval + "]";
+    }
+
+    private static final class State {
+        private final byte[] reservoir;
+
+        /**
+         * The reservoir starts out empty.
+         */
+        private int position;
+
+        private SecureRandom random;
+        private long generated;
+
+        private State(final int reservoirSize) {
+            reservoir = new byte[reservoirSize];
+            position = reservoirSize;
+        }
+
+        /**
+         * Get the {@link SecureRandom} to use for generating the given number of bytes, which is
+         * replaced with a new one once it has generated more than the reseed interval.
+         */
+        private SecureRandom random(final int bytes, final Supplier<SecureRandom> supplier,
+                                    final long reseedInterval) {
+            if (random == null || generated >= reseedInterval) {
+                random = supplier.get();
+                generated = 0;
+            }
+            generated += bytes;
+            return random;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.SortedBufferSet;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * All the buffers are packed back to back into a single byte-array where buffer <code>i</code>
+ * is found between <code>offsets[i]</code> and <code>offsets[i + 1]</code>. A sub set shares the same
+ * arrays and simply has a different window into the offsets.
+ */
+public final class DefaultSortedBufferSet implements SortedBufferSet {
+
+    private final byte[] data;
+    private final int[] offsets;
+    private final int from;
+    private final int to;
+
+    public static SortedBufferSet of(final Collection<? extends Buffer> buffers) {
+        final byte[][] keys = new byte[buffers.size()][];
+        int count = 0;
+        for (final Buffer buffer : buffers) {
+            assertNotNull(buffer, "The buffers cannot contain null");
+            keys[count++] = DefaultBufferMap.copy(buffer, DefaultBufferMap.keyOffset(buffer), DefaultBufferMap.keyLength(buffer));
+        }
+        Arrays.sort(keys, Arrays::compareUnsigned);
+
+        int unique = 0;
+        int total = 0;
+        for (int i = 0; i < keys.length; ++i) {
+            if (unique == 0 || !Arrays.equals(keys[unique - 1], keys[i])) {
+                keys[unique++] = keys[i];
+                total += keys[i].length;
+            }
+        }
+
+        final byte[] data = new byte[total];
+        final int[] offsets = new int[unique + 1];
+        for (int i = 0; i < unique; ++i) {
+            System.arraycopy(keys[i], 0, data, offsets[i], keys[i].length);
+            offsets[i + 1] = offsets[i] + keys[i].length;
+        }
+        return new DefaultSortedBufferSet(data, offsets, 0, unique);
+    }
+
+    private DefaultSortedBufferSet(final byte[] data, final int[] offsets, final int from, final int to) {
+        this.data = data;
+        this.offsets = offsets;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public Buffer get(final int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size());
+        }
+        final int start = offsets[from + index];
+        final int length = offsets[from + index + 1] - start;
+        return length == 0 ? EmptyBuffer.EMPTY : Buffer.of(data, start, length);
+    }
+
+    @Override
+    public int indexOf(final Buffer key) {
+        assertNotNull(key, "The key cannot be null");
+        return search(key, DefaultBufferMap.keyOffset(key), DefaultBufferMap.keyLength(key));
+    }
+
+    @Override
+    public int indexOf(final Buffer buffer, final int offset, final int length) throws IllegalArgumentException {
+        DefaultBufferMap.checkRange(buffer, offset, length);
+        return search(buffer, offset, length);
+    }
+
+    private int search(final Buffer key, final int offset, final int length) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int cmp = DefaultBufferComparator.compare(data, offsets[mid], offsets[mid + 1], key, offset, length);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid - from;
+            }
+        }
+        return -(low - from + 1);
+    }
+
+    @Override
+    public SortedBufferSet subSet(final int fromIndex, final int toIndex) throws IndexOutOfBoundsException {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("The range [" + fromIndex + ", " + toIndex + ") is out of bounds for size " + size());
+        }
+        return new DefaultSortedBufferSet(data, offsets, from + fromIndex, from + toIndex);
+    }
+
+    @Override
+    public SortedBufferSet withPrefix(final Buffer prefix) {
+        assertNotNull(prefix, "The prefix cannot be null");
+        final int offset = DefaultBufferMap.keyOffset(prefix);
+        final int length = DefaultBufferMap.keyLength(prefix);
+        final int index = search(prefix, offset, length);
+        final int start = index >= 0 ? index : -index - 1;
+
+        // everything starting with the prefix sorts right after it, so find the first one that doesn't
+        int low = from + start;
+        int high = to;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (startsWith(mid, prefix, offset, length)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        final int end = low - from;
+        return subSet(start, end);
+    }
+
+    private boolean startsWith(final int index, final Buffer prefix, final int offset, final int length) {
+        final int keyStart = offsets[index];
+        return offsets[index + 1] - keyStart >= length
+                && DefaultBufferComparator.compare(data, keyStart, keyStart + length, prefix, offset, length) == 0;
+    }
+
+    @Override
+    public Iterator<Buffer> iterator() {
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public Buffer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+
+    @Override
+    public Stream<Buffer> stream() {
+        return IntStream.range(0, size()).mapToObj(this::get);
+    }
+
+    @Override
+    public String toString() {
+        return "SortedBufferSet[size=" + size() + "]";
+    }
+}
@@ -0,0 +1,268 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferOutOfBoundsException;
+import io.snice.buffer.TlvLayout;
+import io.snice.buffer.TlvReader;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+public final class DefaultTlvReader implements TlvReader {
+
+    private final TlvLayout layout;
+    private final Buffer buffer;
+    private final int start;
+    private final int end;
+
+    /**
+     * Where the next element starts.
+     */
+    private int position;
+
+    /**
+     * Whether or not we are positioned on an element.
+     */
+    private boolean current;
+
+    private int elementIndex;
+    private long type;
+    private long flags;
+    private boolean hasOptional;
+    private long optional;
+    private int valueIndex;
+    private int valueLength;
+
+    public static TlvReader of(final TlvLayout layout, final Buffer buffer, final int start, final int end) {
+        assertNotNull(layout, "The layout cannot be null");
+        assertNotNull(buffer, "The buffer cannot be null");
+        assertArgument(start >= 0 && start <= end && end <= buffer.capacity(),
+                "The range [" + start + ", " + end + ") is not within the buffer");
+        return new DefaultTlvReader(layout, buffer, start, end);
+    }
+
+    private DefaultTlvReader(final TlvLayout layout, final Buffer buffer, final int start, final int end) {
+        this.layout = layout;
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        position = start;
+    }
+
+    @Override
+    public boolean next() throws BufferOutOfBoundsException {
+        current = false;
+        if (position >= end) {
+            return false;
+        }
+
+        elementIndex = position;
+        int index = position;
+        final int length;
+        if (layout.isBer()) {
+            index = readBerIdentifier(index);
+            flags = 0;
+            length = readBerLength(index);
+            index = valueIndex;
+        } else {
+            type = readNumber(index, layout.getTypeWidth());
+            index += layout.getTypeWidth();
+
+            flags = 0;
+            final int flagsWidth = layout.getFlagsWidth();
+            if (flagsWidth > 0 && !layout.isFlagsAfterLength()) {
+                flags = readNumber(index, flagsWidth);
+                index += flagsWidth;
+            }
+
+            length = toLength(readNumber(index, layout.getLengthWidth()));
+            index += layout.getLengthWidth();
+
+            if (flagsWidth > 0 && layout.isFlagsAfterLength()) {
+                flags = readNumber(index, flagsWidth);
+                index += flagsWidth;
+            }
+        }
+
+        hasOptional = layout.getOptionalWidth() > 0 && (flags & layout.getOptionalMask()) != 0;
+        optional = 0;
+        if (hasOptional) {
+            optional = readNumber(index, layout.getOptionalWidth());
+            index += layout.getOptionalWidth();
+        }
+
+        valueIndex = index;
+        valueLength = layout.getLengthSemantics() == TlvLayout.LengthSemantics.VALUE
+                ? length
+                : length - (index - elementIndex);
+
+        if (valueLength < 0 || valueLength > end - valueIndex) {
+            throw new BufferOutOfBoundsException(elementIndex, "The length " + length
+                    + " of the element does not fit within the buffer");
+        }
+
+        // the last element may not have been padded so don't complain if we run out of bytes.
+        final int alignment = layout.getAlignment();
+        final int elementEnd = valueIndex + valueLength - start;
+        final int padded = (elementEnd + alignment - 1) / alignment * alignment;
+        position = start + Math.min(padded, end - start);
+        current = true;
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        position = start;
+        current = false;
+    }
+
+    @Override
+    public long getType() {
+        ensureCurrent();
+        return type;
+    }
+
+    @Override
+    public long getFlags() {
+        ensureCurrent();
+        return flags;
+    }
+
+    @Override
+    public boolean hasOptionalField() {
+        ensureCurrent();
+        return hasOptional;
+    }
+
+    @Override
+    public long getOptionalField() {
+        ensureCurrent();
+        return optional;
+    }
+
+    @Override
+    public int getElementIndex() {
+        ensureCurrent();
+        return elementIndex;
+    }
+
+    @Override
+    public int getValueIndex() {
+        ensureCurrent();
+        return valueIndex;
+    }
+
+    @Override
+    public int getValueLength() {
+        ensureCurrent();
+        return valueLength;
+    }
+
+    @Override
+    public Buffer getValue() {
+        ensureCurrent();
+        return buffer.slice(valueIndex, valueIndex + valueLength);
+    }
+
+    @Override
+    public TlvReader nested() {
+        ensureCurrent();
+        return new DefaultTlvReader(layout, buffer, valueIndex, valueIndex + valueLength);
+    }
+
+    private void ensureCurrent() {
+        if (!current) {
+            throw new IllegalStateException("Not positioned on an element, you must call next() first");
+        }
+    }
+
+    private long readNumber(final int index, final int width) {
+        ensureAvailable(index, width);
+        switch (width) {
+            case 1:
+                return buffer.getUnsignedByte(index);
+            case 2:
+                return buffer.getUnsignedShort(index);
+            case 3:
+                return buffer.getIntFromThreeOctets(index);
+            case 4:
+                return buffer.getUnsignedInt(index);
+            default:
+                long value = 0;
+                for (int i = 0; i < width; ++i) {
+                    value = (value << 8) | buffer.getUnsignedByte(index + i);
+                }
+                return value;
+        }
+    }
+
+    private void ensureAvailable(final int index, final int width) {
+        if (index + width > end) {
+            throw new BufferOutOfBoundsException(elementIndex, "The header of the element is truncated");
+        }
+    }
+
+    private int toLength(final long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw new BufferOutOfBoundsException(elementIndex, "The length " + length + " is too large");
+        }
+        return (int) length;
+    }
+
+    /**
+     * A BER identifier is a single byte unless the tag number is 31 or above, in which case the
+     * low five bits are all set and the tag number follows, 7 bits per byte, where the high bit
+     * says if there are more bytes to come. The type is the raw bytes of the identifier.
+     *
+     * @return the index right after the identifier.
+     */
+    private int readBerIdentifier(final int index) {
+        ensureAvailable(index, 1);
+        int i = index;
+        final short first = buffer.getUnsignedByte(i++);
+        long tag = first;
+        if ((first & 0x1F) == 0x1F) {
+            short b;
+            do {
+                ensureAvailable(i, 1);
+                if (i - index >= 4) {
+                    throw new BufferOutOfBoundsException(elementIndex, "BER identifiers longer than 4 bytes are not supported");
+                }
+                b = buffer.getUnsignedByte(i++);
+                tag = (tag << 8) | b;
+            } while ((b & 0x80) != 0);
+        }
+        type = tag;
+        return i;
+    }
+
+    /**
+     * Read the BER length, short or long form. The indefinite form is not supported.
+     * Will also set the value index.
+     */
+    private int readBerLength(final int index) {
+        ensureAvailable(index, 1);
+        final short first = buffer.getUnsignedByte(index);
+        if (first < 0x80) {
+            valueIndex = index + 1;
+            return first;
+        }
+
+        final int count = first & 0x7F;
+        if (count == 0 || count > 4) {
+            throw new BufferOutOfBoundsException(elementIndex, "Unsupported BER length, indefinite or longer than 4 bytes");
+        }
+
+        final int length = toLength(readNumber(index + 1, count));
+        valueIndex = index + 1 + count;
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        if (!current) {
+            return "TlvReader[position=" + position + "]";
+        }
+        return "TlvReader[type=" + type + ", flags=" + flags + ", value=" + valueIndex + "-" + (valueIndex + valueLength) + "]";
+    }
+}
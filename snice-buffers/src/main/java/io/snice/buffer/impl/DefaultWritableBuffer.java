@@ -1,6 +1,7 @@
 package io.snice.buffer.impl;
 
 import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferMetrics;
 import io.snice.buffer.Buffers;
 import io.snice.buffer.WritableBuffer;
 
@@ -61,6 +62,9 @@ public final class DefaultWritableBuffer implements WritableBuffer {
      */
     public static WritableBuffer of(final int capacity) {
         assertArgument(capacity > 0, "The capacity must be greater than zero");
+        if (DefaultBufferMetrics.ENABLED) {
+            DefaultBufferMetrics.INSTANCE.allocate(BufferMetrics.Category.NEW_BUFFER, capacity);
+        }
         return WritableBuffer.of(new byte[capacity]);
     }
 
@@ -362,6 +366,9 @@ public final class DefaultWritableBuffer implements WritableBuffer {
 
     @Override
     public WritableBuffer clone() {
+        if (DefaultBufferMetrics.ENABLED) {
+            DefaultBufferMetrics.INSTANCE.copy(BufferMetrics.Category.CLONE, capacity());
+        }
         final byte[] bufferCopy = new byte[capacity()];
         System.arraycopy(buffer, lowerBoundary, bufferCopy, 0, capacity());
         final DefaultWritableBuffer copy = new DefaultWritableBuffer(bufferCopy, 0, capacity());
@@ -0,0 +1,431 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferException;
+import io.snice.buffer.CompressionCodec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * A simple and fast LZ77 codec that produces the LZ4 block format
+ * (https://github.com/lz4/lz4/blob/dev/doc/lz4_Block_format.md), i.e. a sequence of literals followed by
+ * a match (a 2 byte offset back into the already decoded data and a length) where the last sequence
+ * only has literals. Matches are found through a single hash table of 4 byte sequences, there is no
+ * chaining, which is what makes it fast (and the ratio a lot worse than deflate).
+ * </p>
+ *
+ * <p>
+ * The input is split into blocks that are compressed independently and every block is framed by
+ * a 12 byte header: the decompressed length, the compressed length and the lower 32 bits of the XXH64
+ * hash of the decompressed block, all as big endian ints. If the block didn't compress, it is stored
+ * as is and the top bit of the compressed length is set.
+ * </p>
+ */
+final class LzCompression {
+
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xFFFF;
+
+    /**
+     * The last 5 bytes of a block are always literals.
+     */
+    private static final int LAST_LITERALS = 5;
+
+    /**
+     * The last match must start at least 12 bytes before the end of the block.
+     */
+    private static final int MF_LIMIT = 12;
+
+    private static final int HASH_BITS = 12;
+
+    /**
+     * After every 64 misses in a row we start skipping ahead faster, so that we
+     * don't waste too much time on data that doesn't compress.
+     */
+    private static final int SKIP_TRIGGER = 6;
+
+    private static final int HEADER_LENGTH = 12;
+    private static final int STORED = 0x80000000;
+
+    private LzCompression() {
+        // left empty intentionally
+    }
+
+    static int maxCompressedLength(final int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compress the given range into the destination, which must have room for at least
+     * {@link #maxCompressedLength(int)} bytes.
+     *
+     * @param table a scratch table of 1 << {@link #HASH_BITS} entries.
+     * @return the number of bytes written.
+     */
+    static int compress(final byte[] src, final int offset, final int length,
+                        final byte[] dst, final int dstOffset, final int[] table) {
+        final int end = offset + length;
+        int anchor = offset;
+        int dp = dstOffset;
+
+        if (length > MF_LIMIT) {
+            Arrays.fill(table, -1);
+            final int limit = end - MF_LIMIT;
+            final int matchLimit = end - LAST_LITERALS;
+            int ip = offset;
+            while (ip <= limit) {
+                final int sequence = readInt(src, ip);
+                final int h = hash(sequence);
+                final int ref = table[h];
+                table[h] = ip;
+                if (ref < 0 || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                    ip += 1 + ((ip - anchor) >>> SKIP_TRIGGER);
+                    continue;
+                }
+
+                int start = ip;
+                int back = ref;
+                while (start > anchor && back > offset && src[start - 1] == src[back - 1]) {
+                    --start;
+                    --back;
+                }
+
+                int matchEnd = ip + MIN_MATCH;
+                int refEnd = ref + MIN_MATCH;
+                while (matchEnd < matchLimit && src[matchEnd] == src[refEnd]) {
+                    ++matchEnd;
+                    ++refEnd;
+                }
+
+                dp = writeSequence(src, anchor, start - anchor, start - back, matchEnd - start, dst, dp);
+                ip = matchEnd;
+                anchor = ip;
+                if (ip - 2 <= limit) {
+                    table[hash(readInt(src, ip - 2))] = ip - 2;
+                }
+            }
+        }
+
+        // the last sequence is only literals
+        final int literals = end - anchor;
+        final int token = dp++;
+        dp = writeLength(literals, dst, dp);
+        dst[token] = (byte) (Math.min(literals, 15) << 4);
+        System.arraycopy(src, anchor, dst, dp, literals);
+        return dp + literals - dstOffset;
+    }
+
+    private static int writeSequence(final byte[] src, final int anchor, final int literals, final int matchOffset,
+                                     final int matchLength, final byte[] dst, final int dstIndex) {
+        final int token = dstIndex;
+        int dp = writeLength(literals, dst, dstIndex + 1);
+        System.arraycopy(src, anchor, dst, dp, literals);
+        dp += literals;
+
+        dst[dp++] = (byte) matchOffset;
+        dst[dp++] = (byte) (matchOffset >>> 8);
+
+        final int length = matchLength - MIN_MATCH;
+        dp = writeLength(length, dst, dp);
+        dst[token] = (byte) (Math.min(literals, 15) << 4 | Math.min(length, 15));
+        return dp;
+    }
+
+    /**
+     * Write the part of the length that doesn't fit in the 4 bits of the token.
+     */
+    private static int writeLength(final int length, final byte[] dst, final int dstIndex) {
+        if (length < 15) {
+            return dstIndex;
+        }
+
+        int dp = dstIndex;
+        int remaining = length - 15;
+        while (remaining >= 255) {
+            dst[dp++] = (byte) 0xFF;
+            remaining -= 255;
+        }
+        dst[dp++] = (byte) remaining;
+        return dp;
+    }
+
+    /**
+     * Decompress the given range, which must decompress into exactly the given number of bytes.
+     *
+     * @throws BufferException in case the block is corrupt.
+     */
+    static void decompress(final byte[] src, final int offset, final int length,
+                           final byte[] dst, final int dstOffset, final int dstLength) throws BufferException {
+        final int end = offset + length;
+        final int dstEnd = dstOffset + dstLength;
+        int ip = offset;
+        int op = dstOffset;
+
+        while (true) {
+            if (ip >= end) {
+                throw corrupt();
+            }
+
+            final int token = src[ip++] & 0xFF;
+            int literals = token >>> 4;
+            if (literals == 15) {
+                int b;
+                do {
+                    if (ip >= end) {
+                        throw corrupt();
+                    }
+                    b = src[ip++] & 0xFF;
+                    literals += b;
+                } while (b == 255);
+            }
+
+            if (literals > end - ip || literals > dstEnd - op) {
+                throw corrupt();
+            }
+            System.arraycopy(src, ip, dst, op, literals);
+            ip += literals;
+            op += literals;
+
+            if (ip == end) {
+                break;
+            }
+
+            if (end - ip < 2) {
+                throw corrupt();
+            }
+            final int matchOffset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+            ip += 2;
+            if (matchOffset == 0 || matchOffset > op - dstOffset) {
+                throw corrupt();
+            }
+
+            int matchLength = token & 0x0F;
+            if (matchLength == 15) {
+                int b;
+                do {
+                    if (ip >= end) {
+                        throw corrupt();
+                    }
+                    b = src[ip++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+
+            if (matchLength > dstEnd - op) {
+                throw corrupt();
+            }
+
+            final int ref = op - matchOffset;
+            if (matchOffset >= matchLength) {
+                System.arraycopy(dst, ref, dst, op, matchLength);
+            } else {
+                // overlapping, which is how runs are encoded, so we must go byte by byte
+                for (int i = 0; i < matchLength; ++i) {
+                    dst[op + i] = dst[ref + i];
+                }
+            }
+            op += matchLength;
+        }
+
+        if (op != dstEnd) {
+            throw corrupt();
+        }
+    }
+
+    private static BufferException corrupt() {
+        return new BufferException("The compressed block is corrupt");
+    }
+
+    private static int readInt(final byte[] array, final int index) {
+        return (int) INT.get(array, index);
+    }
+
+    private static int hash(final int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_BITS);
+    }
+
+    private static void writeIntBE(final byte[] array, final int index, final int value) {
+        array[index] = (byte) (value >>> 24);
+        array[index + 1] = (byte) (value >>> 16);
+        array[index + 2] = (byte) (value >>> 8);
+        array[index + 3] = (byte) value;
+    }
+
+    private static int readIntBE(final byte[] array, final int index) {
+        return (array[index] & 0xFF) << 24
+                | (array[index + 1] & 0xFF) << 16
+                | (array[index + 2] & 0xFF) << 8
+                | (array[index + 3] & 0xFF);
+    }
+
+    /**
+     * Gathers the input into blocks of chunk size bytes, unless the input is large enough for us to
+     * compress straight out of it, in which case no copy is made.
+     */
+    static final class Encoder extends AbstractCompressionStage implements CompressionCodec.Encoder {
+
+        private final byte[] block;
+        private int blockLength;
+        private final byte[] compressed;
+        private final int[] table = new int[1 << HASH_BITS];
+
+        Encoder(final int chunkSize, final Consumer<Buffer> sink) {
+            super(chunkSize, sink);
+            block = new byte[chunkSize];
+            compressed = new byte[HEADER_LENGTH + maxCompressedLength(chunkSize)];
+        }
+
+        @Override
+        protected void process(final byte[] array, final int offset, final int length) {
+            int index = offset;
+            final int end = offset + length;
+            while (index < end) {
+                if (blockLength == 0 && end - index >= block.length) {
+                    compressBlock(array, index, block.length);
+                    index += block.length;
+                    continue;
+                }
+
+                final int count = Math.min(block.length - blockLength, end - index);
+                System.arraycopy(array, index, block, blockLength, count);
+                blockLength += count;
+                index += count;
+                if (blockLength == block.length) {
+                    compressBlock(block, 0, blockLength);
+                    blockLength = 0;
+                }
+            }
+        }
+
+        @Override
+        protected void complete() {
+            if (blockLength > 0) {
+                compressBlock(block, 0, blockLength);
+                blockLength = 0;
+            }
+        }
+
+        private void compressBlock(final byte[] src, final int offset, final int length) {
+            final int compressedLength = compress(src, offset, length, compressed, HEADER_LENGTH, table);
+            writeIntBE(compressed, 0, length);
+            writeIntBE(compressed, 8, (int) BufferHashing.xxHash64(src, offset, length, 0));
+            if (compressedLength < length) {
+                writeIntBE(compressed, 4, compressedLength);
+                output(compressed, 0, HEADER_LENGTH + compressedLength);
+            } else {
+                writeIntBE(compressed, 4, length | STORED);
+                output(compressed, 0, HEADER_LENGTH);
+                output(src, offset, length);
+            }
+        }
+    }
+
+    /**
+     * Reads the header of a block and then gathers the block, unless all of it is available
+     * in the incoming array, in which case it is decompressed straight out of it.
+     */
+    static final class Decoder extends AbstractCompressionStage implements CompressionCodec.Decoder {
+
+        private final byte[] header = new byte[HEADER_LENGTH];
+        private int headerLength;
+
+        private byte[] block;
+        private int blockLength;
+
+        private byte[] decompressed;
+
+        Decoder(final int chunkSize, final Consumer<Buffer> sink) {
+            super(chunkSize, sink);
+        }
+
+        @Override
+        protected void process(final byte[] array, final int offset, final int length) {
+            int index = offset;
+            final int end = offset + length;
+            while (index < end) {
+                if (headerLength < HEADER_LENGTH) {
+                    final int count = Math.min(HEADER_LENGTH - headerLength, end - index);
+                    System.arraycopy(array, index, header, headerLength, count);
+                    headerLength += count;
+                    index += count;
+                    continue;
+                }
+
+                final int expected = compressedLength();
+                if (blockLength == 0 && end - index >= expected) {
+                    decompressBlock(array, index);
+                    index += expected;
+                    continue;
+                }
+
+                if (block == null || block.length < expected) {
+                    block = new byte[expected];
+                }
+                final int count = Math.min(expected - blockLength, end - index);
+                System.arraycopy(array, index, block, blockLength, count);
+                blockLength += count;
+                index += count;
+                if (blockLength == expected) {
+                    decompressBlock(block, 0);
+                    blockLength = 0;
+                }
+            }
+        }
+
+        @Override
+        protected void complete() {
+            if (headerLength != 0) {
+                throw new BufferException("The compressed stream is truncated");
+            }
+        }
+
+        private int decompressedLength() {
+            final int length = readIntBE(header, 0);
+            if (length <= 0 || length > DefaultCompressionCodec.MAX_CHUNK_SIZE) {
+                throw new BufferException("Invalid block length " + length);
+            }
+            return length;
+        }
+
+        private int compressedLength() {
+            final int value = readIntBE(header, 4);
+            final int length = value & ~STORED;
+            if ((value & STORED) != 0 ? length != decompressedLength() : length > maxCompressedLength(decompressedLength())) {
+                throw new BufferException("Invalid compressed block length " + length);
+            }
+            return length;
+        }
+
+        private void decompressBlock(final byte[] src, final int offset) {
+            final int length = decompressedLength();
+            final int value = readIntBE(header, 4);
+            headerLength = 0;
+            if ((value & STORED) != 0) {
+                verify(src, offset, length);
+                output(src, offset, length);
+                return;
+            }
+
+            if (decompressed == null || decompressed.length < length) {
+                decompressed = new byte[length];
+            }
+            decompress(src, offset, value, decompressed, 0, length);
+            verify(decompressed, 0, length);
+            output(decompressed, 0, length);
+        }
+
+        private void verify(final byte[] array, final int offset, final int length) {
+            if ((int) BufferHashing.xxHash64(array, offset, length, 0) != readIntBE(header, 8)) {
+                throw new BufferException("The checksum of the block does not match");
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferMap;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * A thread safe {@link BufferMap} made up of a number of {@link DefaultBufferMap}s, each one guarded
+ * by its own {@link ReentrantReadWriteLock}. The stripe is picked by the top bits of the hash, and since
+ * the stripes are using the lowest bits for their index, the two don't interfere with each other.
+ */
+public final class StripedBufferMap<V> implements BufferMap<V> {
+
+    private final DefaultBufferMap<V>[] stripes;
+    private final ReentrantReadWriteLock[] locks;
+    private final int shift;
+
+    @SuppressWarnings("unchecked")
+    public static <V> StripedBufferMap<V> of(final int noOfStripes) {
+        final int count = noOfStripes <= 1 ? 1 : Integer.highestOneBit(noOfStripes - 1) << 1;
+        final DefaultBufferMap<V>[] stripes = new DefaultBufferMap[count];
+        final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[count];
+        for (int i = 0; i < count; ++i) {
+            stripes[i] = DefaultBufferMap.of(16);
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        return new StripedBufferMap<>(stripes, locks);
+    }
+
+    private StripedBufferMap(final DefaultBufferMap<V>[] stripes, final ReentrantReadWriteLock[] locks) {
+        this.stripes = stripes;
+        this.locks = locks;
+        this.shift = 32 - Integer.numberOfTrailingZeros(stripes.length);
+    }
+
+    private int stripe(final int hash) {
+        // shifting an int by 32 is a no-op in java so we have to special case a single stripe
+        return stripes.length == 1 ? 0 : hash >>> shift;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < stripes.length; ++i) {
+            final ReentrantReadWriteLock.ReadLock lock = locks[i].readLock();
+            lock.lock();
+            try {
+                size += stripes[i].size();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public V get(final Buffer key) {
+        assertNotNull(key, "The key cannot be null");
+        return get(key, DefaultBufferMap.keyOffset(key), DefaultBufferMap.keyLength(key));
+    }
+
+    @Override
+    public V get(final Buffer buffer, final int offset, final int length) throws IllegalArgumentException {
+        DefaultBufferMap.checkRange(buffer, offset, length);
+        final int hash = DefaultBufferMap.hash(buffer, offset, length);
+        final int stripe = stripe(hash);
+        final ReentrantReadWriteLock.ReadLock lock = locks[stripe].readLock();
+        lock.lock();
+        try {
+            return stripes[stripe].get(hash, buffer, offset, length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V put(final Buffer key, final V value) {
+        assertNotNull(key, "The key cannot be null");
+        assertNotNull(value, "The value cannot be null");
+        final int offset = DefaultBufferMap.keyOffset(key);
+        final int length = DefaultBufferMap.keyLength(key);
+        final int hash = DefaultBufferMap.hash(key, offset, length);
+        final int stripe = stripe(hash);
+        final ReentrantReadWriteLock.WriteLock lock = locks[stripe].writeLock();
+        lock.lock();
+        try {
+            return stripes[stripe].put(hash, key, offset, length, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(final Buffer key, final Function<Buffer, ? extends V> function) {
+        assertNotNull(key, "The key cannot be null");
+        assertNotNull(function, "The function cannot be null");
+        final int offset = DefaultBufferMap.keyOffset(key);
+        final int length = DefaultBufferMap.keyLength(key);
+        final int hash = DefaultBufferMap.hash(key, offset, length);
+        final int stripe = stripe(hash);
+
+        // most of the time the value is already there so try with the read lock first
+        final ReentrantReadWriteLock.ReadLock readLock = locks[stripe].readLock();
+        readLock.lock();
+        try {
+            final V existing = stripes[stripe].get(hash, key, offset, length);
+            if (existing != null) {
+                return existing;
+            }
+        } finally {
+            readLock.unlock();
+        }
+
+        final ReentrantReadWriteLock.WriteLock writeLock = locks[stripe].writeLock();
+        writeLock.lock();
+        try {
+            return stripes[stripe].computeIfAbsent(hash, key, offset, length, function);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public V remove(final Buffer key) {
+        assertNotNull(key, "The key cannot be null");
+        final int offset = DefaultBufferMap.keyOffset(key);
+        final int length = DefaultBufferMap.keyLength(key);
+        final int hash = DefaultBufferMap.hash(key, offset, length);
+        final int stripe = stripe(hash);
+        final ReentrantReadWriteLock.WriteLock lock = locks[stripe].writeLock();
+        lock.lock();
+        try {
+            return stripes[stripe].remove(hash, key, offset, length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < stripes.length; ++i) {
+            final ReentrantReadWriteLock.WriteLock lock = locks[i].writeLock();
+            lock.lock();
+            try {
+                stripes[i].clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Visits one stripe at a time while holding its read lock, so this is not a snapshot of
+     * the entire map.
+     */
+    @Override
+    public void forEach(final BiConsumer<? super Buffer, ? super V> action) {
+        assertNotNull(action, "The action cannot be null");
+        for (int i = 0; i < stripes.length; ++i) {
+            final ReentrantReadWriteLock.ReadLock lock = locks[i].readLock();
+            lock.lock();
+            try {
+                stripes[i].forEach(action);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BufferMap[stripes=" + stripes.length + ", size=" + size() + "]";
+    }
+}
@@ -0,0 +1,308 @@
+package io.snice.buffer.impl;
+
+import io.snice.buffer.Buffer;
+import io.snice.buffer.BufferException;
+import io.snice.buffer.CompressionCodec;
+
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The deflate (zlib) and gzip encoders and decoders. For gzip, the {@link Deflater} and {@link Inflater}
+ * are used in their raw mode and we take care of the header and trailer ourselves (which is what
+ * {@link java.util.zip.GZIPOutputStream} does too).
+ */
+final class ZipCompression {
+
+    private static final int GZIP_MAGIC_1 = 0x1F;
+    private static final int GZIP_MAGIC_2 = 0x8B;
+    private static final int GZIP_DEFLATE = 8;
+
+    private static final int FHCRC = 0x02;
+    private static final int FEXTRA = 0x04;
+    private static final int FNAME = 0x08;
+    private static final int FCOMMENT = 0x10;
+    private static final int RESERVED = 0xE0;
+
+    /**
+     * magic, deflate, no flags, no modification time, no extra flags and unknown OS.
+     */
+    private static final byte[] GZIP_HEADER = {
+            (byte) GZIP_MAGIC_1, (byte) GZIP_MAGIC_2, GZIP_DEFLATE, 0, 0, 0, 0, 0, 0, (byte) 0xFF
+    };
+
+    private static final int GZIP_TRAILER_LENGTH = 8;
+
+    /**
+     * Names and comments in the gzip header are unbounded, we are not.
+     */
+    private static final int MAX_HEADER_LENGTH = 64 * 1024;
+
+    /**
+     * How much of the input we add to the header buffer at a time while looking for the end of it.
+     */
+    private static final int HEADER_STEP = 512;
+
+    private ZipCompression() {
+        // left empty intentionally
+    }
+
+    static final class Encoder extends AbstractCompressionStage implements CompressionCodec.Encoder {
+
+        private final Deflater deflater;
+
+        /**
+         * Only for gzip.
+         */
+        private final CRC32 crc;
+
+        Encoder(final int level, final boolean gzip, final int chunkSize, final Consumer<Buffer> sink) {
+            super(chunkSize, sink);
+            deflater = new Deflater(level, gzip);
+            crc = gzip ? new CRC32() : null;
+            if (gzip) {
+                output(GZIP_HEADER, 0, GZIP_HEADER.length);
+            }
+        }
+
+        @Override
+        protected void process(final byte[] array, final int offset, final int length) {
+            if (crc != null) {
+                crc.update(array, offset, length);
+            }
+            deflater.setInput(array, offset, length);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+        }
+
+        @Override
+        protected void complete() {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflate();
+            }
+
+            if (crc != null) {
+                outputIntLE(crc.getValue());
+                outputIntLE(deflater.getBytesRead());
+            }
+        }
+
+        private void deflate() {
+            ensureRoom();
+            final byte[] chunk = chunk();
+            advance(deflater.deflate(chunk, position(), chunk.length - position()));
+        }
+
+        @Override
+        protected void release() {
+            deflater.end();
+        }
+    }
+
+    static final class Decoder extends AbstractCompressionStage implements CompressionCodec.Decoder {
+
+        private enum State {
+            HEADER, BODY, TRAILER, DONE
+        }
+
+        private final Inflater inflater;
+        private final CRC32 crc;
+        private State state;
+
+        /**
+         * The gzip header or trailer, as far as we have gotten.
+         */
+        private byte[] pending;
+        private int pendingLength;
+
+        Decoder(final boolean gzip, final int chunkSize, final Consumer<Buffer> sink) {
+            super(chunkSize, sink);
+            inflater = new Inflater(gzip);
+            crc = gzip ? new CRC32() : null;
+            state = gzip ? State.HEADER : State.BODY;
+        }
+
+        @Override
+        protected void process(final byte[] array, final int offset, final int length) {
+            final int end = offset + length;
+            int index = offset;
+            while (index < end) {
+                switch (state) {
+                    case HEADER:
+                        index = readHeader(array, index, end);
+                        break;
+                    case BODY:
+                        index = inflate(array, index, end);
+                        break;
+                    case TRAILER:
+                        index = readTrailer(array, index, end);
+                        break;
+                    default:
+                        throw new BufferException("Unexpected data after the end of the compressed stream");
+                }
+            }
+        }
+
+        @Override
+        protected void complete() {
+            if (state != State.DONE) {
+                throw new BufferException("The compressed stream is truncated");
+            }
+        }
+
+        /**
+         * @return the index of the first byte that is not part of the header.
+         */
+        private int readHeader(final byte[] array, final int index, final int end) {
+            final int count = Math.min(HEADER_STEP, end - index);
+            append(array, index, count);
+            final int headerLength = headerLength(pending, pendingLength);
+            if (headerLength < 0) {
+                if (pendingLength > MAX_HEADER_LENGTH) {
+                    throw new BufferException("The gzip header is too large");
+                }
+                return index + count;
+            }
+
+            // whatever we took beyond the header belongs to the body
+            final int extra = pendingLength - headerLength;
+            pendingLength = 0;
+            state = State.BODY;
+            return index + count - extra;
+        }
+
+        private int inflate(final byte[] array, final int index, final int end) {
+            inflater.setInput(array, index, end - index);
+            while (true) {
+                ensureRoom();
+                final byte[] chunk = chunk();
+                final int start = position();
+                final int count;
+                try {
+                    count = inflater.inflate(chunk, start, chunk.length - start);
+                } catch (final DataFormatException e) {
+                    throw new BufferException("The compressed stream is corrupt", e);
+                }
+
+                if (crc != null) {
+                    crc.update(chunk, start, count);
+                }
+                advance(count);
+
+                if (inflater.finished()) {
+                    state = crc != null ? State.TRAILER : State.DONE;
+                    return end - inflater.getRemaining();
+                }
+
+                if (inflater.needsDictionary()) {
+                    throw new BufferException("The compressed stream requires a preset dictionary");
+                }
+
+                if (count == 0 && inflater.needsInput()) {
+                    return end;
+                }
+            }
+        }
+
+        private int readTrailer(final byte[] array, final int index, final int end) {
+            final int count = Math.min(GZIP_TRAILER_LENGTH - pendingLength, end - index);
+            append(array, index, count);
+            if (pendingLength == GZIP_TRAILER_LENGTH) {
+                if (readIntLE(pending, 0) != crc.getValue()) {
+                    throw new BufferException("The CRC of the gzip stream does not match");
+                }
+                if (readIntLE(pending, 4) != (inflater.getBytesWritten() & 0xFFFFFFFFL)) {
+                    throw new BufferException("The size of the gzip stream does not match");
+                }
+                state = State.DONE;
+            }
+            return index + count;
+        }
+
+        private void append(final byte[] array, final int index, final int count) {
+            if (pending == null) {
+                pending = new byte[Math.max(HEADER_STEP, GZIP_TRAILER_LENGTH)];
+            } else if (pendingLength + count > pending.length) {
+                final byte[] larger = new byte[Math.max(pending.length * 2, pendingLength + count)];
+                System.arraycopy(pending, 0, larger, 0, pendingLength);
+                pending = larger;
+            }
+            System.arraycopy(array, index, pending, pendingLength, count);
+            pendingLength += count;
+        }
+
+        @Override
+        protected void release() {
+            inflater.end();
+        }
+    }
+
+    /**
+     * @return the length of the gzip header or -1 if we need more bytes to tell.
+     * @throws BufferException in case this isn't a gzip header we support.
+     */
+    static int headerLength(final byte[] header, final int length) {
+        if (length < GZIP_HEADER.length) {
+            return -1;
+        }
+
+        if ((header[0] & 0xFF) != GZIP_MAGIC_1 || (header[1] & 0xFF) != GZIP_MAGIC_2) {
+            throw new BufferException("Not a gzip stream");
+        }
+
+        if (header[2] != GZIP_DEFLATE) {
+            throw new BufferException("Unsupported gzip compression method " + header[2]);
+        }
+
+        final int flags = header[3] & 0xFF;
+        if ((flags & RESERVED) != 0) {
+            throw new BufferException("Reserved gzip flags are set");
+        }
+
+        int index = GZIP_HEADER.length;
+        if ((flags & FEXTRA) != 0) {
+            if (index + 2 > length) {
+                return -1;
+            }
+            index += 2 + ((header[index] & 0xFF) | (header[index + 1] & 0xFF) << 8);
+        }
+
+        if ((flags & FNAME) != 0) {
+            index = skipZeroTerminated(header, index, length);
+        }
+
+        if ((flags & FCOMMENT) != 0) {
+            index = skipZeroTerminated(header, index, length);
+        }
+
+        if ((flags & FHCRC) != 0 && index >= 0) {
+            index += 2;
+        }
+
+        return index >= 0 && index <= length ? index : -1;
+    }
+
+    private static int skipZeroTerminated(final byte[] header, final int index, final int length) {
+        if (index < 0) {
+            return -1;
+        }
+        for (int i = index; i < length; ++i) {
+            if (header[i] == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static long readIntLE(final byte[] array, final int index) {
+        return (array[index] & 0xFFL)
+                | (array[index + 1] & 0xFFL) << 8
+                | (array[index + 2] & 0xFFL) << 16
+                | (array[index + 3] & 0xFFL) << 24;
+    }
+}
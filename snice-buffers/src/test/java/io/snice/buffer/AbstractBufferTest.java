@@ -5,10 +5,17 @@ import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
@@ -311,6 +318,198 @@ public abstract class AbstractBufferTest {
         assertThat(buffer.toString(), is("hello world ena goa grejor"));
     }
 
+    @Test
+    public void testIndexOfBuffer() throws Exception {
+        final Buffer buffer = createBuffer("SIP/2.0/UDP 10.0.0.1;branch=z9hG4bK-123;rport;branch=abc");
+        assertThat(buffer.indexOf(Buffers.wrap(";branch=")), is(20));
+        assertThat(buffer.indexOf(21, Buffers.wrap(";branch=")), is(45));
+        assertThat(buffer.lastIndexOf(Buffers.wrap(";branch=")), is(45));
+        assertThat(buffer.indexOf(Buffers.wrap("SIP")), is(0));
+        assertThat(buffer.lastIndexOf(Buffers.wrap("abc")), is(buffer.capacity() - 3));
+        assertThat(buffer.indexOf(Buffers.wrap(";maddr=")), is(-1));
+        assertThat(buffer.lastIndexOf(Buffers.wrap(";maddr=")), is(-1));
+
+        assertThat(buffer.contains(Buffers.wrap("rport")), is(true));
+        assertThat(buffer.contains(Buffers.wrap("RPORT")), is(false));
+
+        // the empty pattern is always found, just like String.indexOf("")
+        assertThat(buffer.indexOf(Buffers.wrap("")), is(0));
+
+        // pattern longer than the buffer itself
+        assertThat(createBuffer("abc").indexOf(Buffers.wrap("abcd")), is(-1));
+
+        // and with a pre-compiled pattern
+        final BufferPattern pattern = BufferPattern.of(";branch=");
+        assertThat(buffer.indexOf(pattern), is(20));
+        assertThat(buffer.lastIndexOf(pattern), is(45));
+        assertThat(buffer.contains(pattern), is(true));
+    }
+
+    @Test
+    public void testIndexOfBufferOnSlices() throws Exception {
+        final Buffer buffer = createBuffer("--boundary\r\nhello\r\n--boundary\r\nworld\r\n--boundary--");
+        final Buffer slice = buffer.slice(3, buffer.capacity() - 3);
+        final Buffer boundary = Buffers.wrap("\r\n--boundary");
+
+        // the first boundary is outside of the slice and the last one is cut
+        // off but the one in the middle should be found.
+        assertThat(slice.indexOf(boundary), is(14));
+        assertThat(slice.lastIndexOf(boundary), is(14));
+        assertThat(slice.slice(0, 20).indexOf(boundary), is(-1));
+    }
+
+    @Test
+    public void testSplit() throws Exception {
+        ensureSplit("a,,b,", ',', "a", "", "b", "");
+        ensureSplit("a", ',', "a");
+        ensureSplit(",", ',', "", "");
+        ensureSplit("hello world", ' ', "hello", "world");
+        assertThat(createBuffer("a,b,c").slice(2, 5).split((byte) ',').count(), is(2L));
+    }
+
+    @Test
+    public void testAsByteBuffer() throws Exception {
+        final Buffer buffer = createBuffer("hello world").slice(6, 11);
+        final ByteBuffer view = buffer.asByteBuffer();
+        assertThat(view.isReadOnly(), is(true));
+        assertThat(view.position(), is(0));
+        assertThat(view.remaining(), is(5));
+        assertThat(view.get(0), is((byte) 'w'));
+        assertThat(view.get(4), is((byte) 'd'));
+    }
+
+    @Test
+    public void testAsInputStream() throws Exception {
+        final Buffer buffer = createBuffer("hello world");
+        final InputStream in = buffer.asInputStream();
+        assertThat(in.available(), is(11));
+        assertThat(in.read(), is((int) 'h'));
+        in.mark(100);
+
+        final byte[] bytes = new byte[20];
+        assertThat(in.read(bytes, 0, 4), is(4));
+        assertThat(new String(bytes, 0, 4), is("ello"));
+        in.reset();
+        assertThat(in.skip(5), is(5L));
+        assertThat(in.read(bytes), is(5));
+        assertThat(new String(bytes, 0, 5), is("world"));
+        assertThat(in.read(), is(-1));
+        assertThat(in.read(bytes), is(-1));
+
+        // a reset without a mark goes back to the start
+        final InputStream fresh = buffer.asInputStream();
+        assertThat(fresh.skip(6), is(6L));
+        fresh.reset();
+        assertThat(fresh.read(), is((int) 'h'));
+
+        final ReadableByteChannel channel = buffer.asReadableByteChannel();
+        final ByteBuffer dst = ByteBuffer.allocate(6);
+        assertThat(channel.read(dst), is(6));
+        assertThat(channel.read(ByteBuffer.allocate(100)), is(5));
+        assertThat(channel.read(dst), is(-1));
+        assertThat(new String(dst.array()), is("hello "));
+    }
+
+    @Test
+    public void testChecksumAndDigest() throws Exception {
+        final byte[] content = "REGISTER sip:example.com SIP/2.0".getBytes();
+        final Buffer buffer = createBuffer(content);
+
+        final CRC32C expected = new CRC32C();
+        expected.update(content);
+        assertThat(buffer.checksum(new CRC32C()), is(expected.getValue()));
+
+        final CRC32 expectedRange = new CRC32();
+        expectedRange.update(content, 9, 15);
+        assertThat(buffer.checksum(new CRC32(), 9, 15), is(expectedRange.getValue()));
+        assertThat(buffer.slice(9, 24).checksum(new CRC32()), is(expectedRange.getValue()));
+
+        final byte[] md5 = MessageDigest.getInstance("MD5").digest(content);
+        assertThat(Arrays.equals(buffer.digest(MessageDigest.getInstance("MD5")), md5), is(true));
+
+        final MessageDigest sha = MessageDigest.getInstance("SHA-256");
+        buffer.update(sha, 0, 8);
+        buffer.update(sha, 8, content.length - 8);
+        assertThat(Arrays.equals(sha.digest(), MessageDigest.getInstance("SHA-256").digest(content)), is(true));
+    }
+
+    /**
+     * Known XXH64 values, with a seed of zero, from the reference implementation.
+     */
+    @Test
+    public void testHash64() throws Exception {
+        assertThat(createBuffer("a").hash64(), is(0xD24EC4F1A98C6E5BL));
+        assertThat(createBuffer("abc").hash64(), is(0x44BC2CF5AD770999L));
+
+        // long enough to go through the 32 byte stripes as well as all the tails
+        final byte[] content = new byte[100];
+        for (int i = 0; i < content.length; ++i) {
+            content[i] = (byte) (i * 7);
+        }
+        final Buffer buffer = createBuffer(content);
+        for (int length = 0; length < 80; ++length) {
+            assertThat(buffer.slice(3, 3 + length).hash64(), is(Buffers.wrap(Arrays.copyOfRange(content, 3, 3 + length)).hash64()));
+        }
+        assertThat(buffer.hash64(1) == buffer.hash64(), is(false));
+    }
+
+    /**
+     * Bytes are compared as unsigned values and a prefix is smaller than the buffer it is a prefix of.
+     */
+    @Test
+    public void testCompareTo() throws Exception {
+        final Buffer abc = createBuffer("abc");
+        assertThat(abc.compareTo(Buffers.wrap("abc")), is(0));
+        assertThat(abc.compareTo(Buffers.wrap("abd")) < 0, is(true));
+        assertThat(abc.compareTo(Buffers.wrap("ab")) > 0, is(true));
+        assertThat(abc.compareTo(Buffers.wrap("abcd")) < 0, is(true));
+        assertThat(Buffers.wrap("abd").compareTo(abc) > 0, is(true));
+
+        final Buffer high = createBuffer(new byte[]{(byte) 0x80});
+        assertThat(high.compareTo(Buffers.wrap((byte) 0x7F)) > 0, is(true));
+        assertThat(createBuffer("xxabcxx").slice(2, 5).compareTo(abc), is(0));
+
+        assertThat(abc.mismatch(Buffers.wrap("abc")), is(-1));
+        assertThat(abc.mismatch(Buffers.wrap("axc")), is(1));
+        assertThat(abc.mismatch(Buffers.wrap("ab")), is(2));
+    }
+
+    @Test
+    public void testLines() throws Exception {
+        final Buffer buffer = createBuffer("v=0\r\no=- 0 0 IN IP4 127.0.0.1\n\r\ns=-\r\n");
+        final List<Buffer> lines = buffer.lines().collect(Collectors.toList());
+        assertThat(lines, is(Arrays.asList(Buffers.wrap("v=0"), Buffers.wrap("o=- 0 0 IN IP4 127.0.0.1"),
+                EmptyBuffer.EMPTY, Buffers.wrap("s=-"))));
+
+        assertThat(createBuffer("no line ending").lines().count(), is(1L));
+        assertThat(createBuffer("\n").lines().count(), is(1L));
+    }
+
+    /**
+     * Make sure that we get the exact same lines, in the same order, when
+     * the buffer is split up between many threads.
+     */
+    @Test
+    public void testLinesInParallel() throws Exception {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; ++i) {
+            sb.append("line number ").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        final Buffer buffer = createBuffer(sb.toString());
+        final List<Buffer> sequential = buffer.lines().collect(Collectors.toList());
+        final List<Buffer> parallel = buffer.lines().parallel().collect(Collectors.toList());
+        assertThat(sequential.size(), is(20000));
+        assertThat(sequential.get(12345), is(Buffers.wrap("line number 12345")));
+        assertThat(parallel, is(sequential));
+        assertThat(buffer.split((byte) '\n').parallel().count(), is(20001L));
+    }
+
+    private void ensureSplit(final String s, final char delimiter, final String... expected) {
+        final Buffer buffer = createBuffer(s);
+        final List<String> tokens = buffer.split((byte) delimiter).map(Buffer::toString).collect(Collectors.toList());
+        assertThat(tokens, is(Arrays.asList(expected)));
+    }
+
     @Test
     public void testCountOccurances() {
         final Buffer buffer = createBuffer("127.0.0.1");
@@ -294,6 +294,59 @@ public abstract class AbstractReadWritableBufferTest extends AbstractReadableBuf
         }
     }
 
+    @Test
+    public void testFreeze() throws Exception {
+        final ReadWriteBuffer buffer = createWritableBuffer(100);
+        buffer.write("hello world");
+        assertThat(buffer.readBytes(6).toString(), is("hello "));
+
+        final ReadableBuffer frozen = buffer.freeze();
+        assertThat(frozen.getReaderIndex(), is(6));
+        assertThat(frozen.capacity(), is(11));
+        assertThat(frozen.readUntilWhiteSpace().toString(), is("world"));
+        assertThat(frozen.slice(0, 5).toString(), is("hello"));
+
+        // the frozen buffer shares the array and nothing can change it through the old buffer
+        ensureDoesntWork(buffer, b -> b.setByte(0, (byte) 'a'));
+        ensureDoesntWork(buffer, b -> b.setInt(0, 5));
+        ensureDoesntWork(buffer, b -> b.setUnsignedInt(0, 5));
+        ensureDoesntWork(buffer, b -> b.setThreeOctetInt(0, 5));
+        ensureDoesntWork(buffer, b -> b.write("asdf"));
+        ensureDoesntWork(buffer, b -> b.readByte());
+        assertThat(frozen.slice(0, 5).toString(), is("hello"));
+
+        final ReadWriteBuffer nothingRead = createWritableBuffer(10);
+        nothingRead.write("abc");
+        assertThat(nothingRead.freeze().getReaderIndex(), is(0));
+    }
+
+    @Test
+    public void testClone() throws Exception {
+        final ReadWriteBuffer buffer = createWritableBuffer(20);
+        buffer.write("hello world");
+        buffer.readBytes(6);
+
+        final ReadWriteBuffer clone = (ReadWriteBuffer) buffer.clone();
+        assertThat(clone.capacity(), is(20));
+        assertThat(clone.getReaderIndex(), is(6));
+        assertThat(clone.getWriterIndex(), is(11));
+        assertThat(clone.toString(), is("world"));
+
+        // the two are completely independent of each other
+        clone.write("!!");
+        clone.setByte(0, (byte) 'j');
+        buffer.write("??");
+        assertThat(clone.readBytes(7).toString(), is("world!!"));
+        assertThat(buffer.readBytes(7).toString(), is("world??"));
+        assertThat(clone.getByte(0), is((byte) 'j'));
+        assertThat(buffer.getByte(0), is((byte) 'h'));
+
+        final WritableBuffer writable = buffer.toWritableBuffer();
+        writable.write("abc");
+        assertThat(writable.getWriterIndex(), is(16));
+        assertThat(buffer.getWriterIndex(), is(13));
+    }
+
     @Test
     public void testThreeOctetInt() {
         ensureWriteThreeOctetInt(0);
@@ -27,6 +27,19 @@ public abstract class AbstractReadableBufferTest extends AbstractBufferTest {
         return (ReadableBuffer)createBuffer(bytes);
     }
 
+    /**
+     * The stream and byte buffer views start at the reader index but reading from
+     * them doesn't move it.
+     */
+    @Test
+    public void testAsInputStreamFromReaderIndex() throws Exception {
+        final ReadableBuffer buffer = createReadableBuffer("hello world");
+        buffer.readBytes(6);
+        assertThat(buffer.asByteBuffer().remaining(), is(5));
+        assertThat(new String(buffer.asInputStream().readAllBytes()), is("world"));
+        assertThat(buffer.getReaderIndex(), is(6));
+    }
+
     @Test
     public void testReadUntilWhiteSpace() throws Exception {
         ensureReadUntilWhiteSpace("hello world", "hello", "world");
@@ -0,0 +1,47 @@
+package io.snice.buffer;
+
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * Encoding and decoding throughput of {@link Base64Codec}, writing straight into a {@link WritableBuffer},
+ * compared to {@link java.util.Base64} on the content of the buffer, which is what you'd otherwise do.
+ * Run by hand.
+ */
+public final class Base64CodecBenchmark {
+
+    public static void main(final String... args) {
+        for (final int size : new int[]{64, 1024, 64 * 1024}) {
+            run(size);
+        }
+    }
+
+    private static void run(final int size) {
+        final byte[] bytes = new byte[size];
+        new Random(1234).nextBytes(bytes);
+        final Buffer src = Buffer.of(bytes);
+        final Base64Codec codec = Base64Codec.standard();
+        final Buffer encoded = codec.encode(src);
+        final WritableBuffer encodeDst = WritableBuffer.of(codec.encodedLength(size));
+        final WritableBuffer decodeDst = WritableBuffer.of(size);
+        final int iterations = Math.max(1000, 200_000_000 / size);
+
+        report(size, BenchmarkRunner.run("Base64Codec.encode, " + size + " bytes", iterations, () -> {
+            encodeDst.rewindWriterIndex();
+            return codec.encode(src, encodeDst);
+        }));
+        report(size, BenchmarkRunner.run("java.util.Base64 encode(getContent()), " + size + " bytes", iterations,
+                () -> Base64.getEncoder().encode(src.getContent()).length));
+
+        report(size, BenchmarkRunner.run("Base64Codec.decode, " + size + " bytes", iterations, () -> {
+            decodeDst.rewindWriterIndex();
+            return codec.decode(encoded, decodeDst);
+        }));
+        report(size, BenchmarkRunner.run("java.util.Base64 decode(getContent()), " + size + " bytes", iterations,
+                () -> Base64.getDecoder().decode(encoded.getContent()).length));
+    }
+
+    private static void report(final int size, final double nanos) {
+        System.out.printf("%60s %12.1f MB/s%n", "", size / nanos * 1000);
+    }
+}
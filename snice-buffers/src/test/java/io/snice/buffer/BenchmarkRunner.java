@@ -0,0 +1,104 @@
+package io.snice.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.LongSupplier;
+
+/**
+ * A tiny harness for the hand-run benchmarks in this package (the <code>*Benchmark</code> classes with a
+ * <code>main</code>), which are not unit tests and are not run by the build. It's nowhere near as
+ * rigorous as JMH, every case is simply run a number of times and the best round is reported, but it is
+ * good enough to compare two approaches on the same machine. The result of every call is consumed so the
+ * JIT can't remove the work.
+ */
+final class BenchmarkRunner {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 5;
+
+    private static volatile long sink;
+
+    private BenchmarkRunner() {
+        // only static methods
+    }
+
+    /**
+     * Run the body the given number of times per round and print the best time per call.
+     */
+    static double run(final String name, final int iterations, final LongSupplier body) {
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            measure(iterations, body);
+        }
+
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; ++i) {
+            best = Math.min(best, measure(iterations, body));
+        }
+        System.out.printf("%-60s %12.2f ns/op%n", name, best);
+        return best;
+    }
+
+    /**
+     * Run the body the given number of times on every one of the threads, all starting at the same time,
+     * and print the best total throughput.
+     */
+    static double runThreads(final String name, final int threads, final int iterations, final LongSupplier body)
+            throws InterruptedException {
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            measureThreads(threads, iterations, body);
+        }
+
+        double best = 0;
+        for (int i = 0; i < ROUNDS; ++i) {
+            best = Math.max(best, measureThreads(threads, iterations, body));
+        }
+        System.out.printf("%-60s %12.0f ops/s%n", name + " (" + threads + " threads)", best);
+        return best;
+    }
+
+    private static double measure(final int iterations, final LongSupplier body) {
+        long sum = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; ++i) {
+            sum += body.getAsLong();
+        }
+        final long elapsed = System.nanoTime() - start;
+        sink += sum;
+        return (double) elapsed / iterations;
+    }
+
+    private static double measureThreads(final int threads, final int iterations, final LongSupplier body)
+            throws InterruptedException {
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch go = new CountDownLatch(1);
+        final List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; ++t) {
+            final Thread worker = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long sum = 0;
+                for (int i = 0; i < iterations; ++i) {
+                    sum += body.getAsLong();
+                }
+                sink += sum;
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        ready.await();
+        final long start = System.nanoTime();
+        go.countDown();
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+        final long elapsed = System.nanoTime() - start;
+        return (double) threads * iterations * 1_000_000_000L / elapsed;
+    }
+}
@@ -0,0 +1,95 @@
+package io.snice.buffer;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class BitReaderTest {
+
+    /**
+     * The first octet of a GTPv1-U header: version (3 bits), protocol type (1),
+     * spare (1), E (1), S (1) and PN (1) followed by the message type.
+     */
+    @Test
+    public void testGtpFlags() {
+        final BitReader reader = BitReader.of(Buffer.of((byte) 0b0011_0010, (byte) 0xFF));
+        assertThat(reader.readBits(3), is(1L));
+        assertThat(reader.readBit(), is(true));
+        assertThat(reader.readBit(), is(false));
+        assertThat(reader.readBit(), is(false));
+        assertThat(reader.readBit(), is(true));
+        assertThat(reader.readBit(), is(false));
+        assertThat(reader.readBits(8), is(255L));
+        assertThat(reader.getReadableBits(), is(0L));
+    }
+
+    /**
+     * Make sure we agree with {@link Buffer#getBit(int, int)} on which bit is which.
+     */
+    @Test
+    public void testBitOrder() {
+        final Buffer buffer = Buffer.of((byte) 0b1010_0110, (byte) 0b0101_1001);
+        final BitReader reader = BitReader.of(buffer);
+        for (int i = 0; i < 16; ++i) {
+            assertThat(reader.readBit(), is(buffer.getBit(i / 8, 7 - (i % 8))));
+        }
+    }
+
+    @Test
+    public void testStraddleWord() {
+        final byte[] bytes = new byte[12];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) (0x11 * (i + 1));
+        }
+        final Buffer buffer = Buffer.of(bytes);
+        final BitReader reader = BitReader.of(buffer);
+
+        assertThat(reader.getBits(0, 64), is(buffer.getLong(0)));
+        assertThat(reader.getBits(8, 64), is(buffer.getLong(1)));
+        assertThat(reader.getBits(4, 64), is((buffer.getLong(0) << 4) | ((bytes[8] & 0xFF) >>> 4)));
+        assertThat(reader.getBits(7, 60), is(reader.getBits(7, 64) >>> 4));
+
+        // near the end, where we can't load a full word. The last byte is 0xCC
+        assertThat(reader.getBits(88, 8), is(0xCCL));
+        assertThat(reader.getBits(90, 6), is(0b001100L));
+        assertThat(reader.getBits(84, 8), is(0xBCL));
+    }
+
+    @Test
+    public void testSigned() {
+        final BitReader reader = BitReader.of(Buffer.of((byte) 0b1110_0111, (byte) 0xFF));
+        assertThat(reader.readSignedBits(3), is(-1L));
+        assertThat(reader.readSignedBits(5), is(7L));
+        assertThat(reader.readSignedBits(8), is(-1L));
+    }
+
+    @Test
+    public void testSliceAndReadableBuffer() {
+        final Buffer buffer = Buffer.of((byte) 0x00, (byte) 0xAB, (byte) 0xCD, (byte) 0x00);
+        assertThat(BitReader.of(buffer.slice(1, 3)).readBits(16), is(0xABCDL));
+
+        final ReadableBuffer readable = buffer.toReadableBuffer();
+        readable.readByte();
+        final BitReader reader = BitReader.of(readable);
+        assertThat(reader.getBitPosition(), is(8L));
+        assertThat(reader.readBits(12), is(0xABCL));
+        reader.alignToByte();
+        assertThat(reader.getByteIndex(), is(3));
+        assertThat(readable.getReaderIndex(), is(1));
+    }
+
+    @Test
+    public void testOutOfBounds() {
+        final BitReader reader = BitReader.of(Buffer.of((byte) 0x01, (byte) 0x02));
+        reader.skipBits(10);
+        try {
+            reader.readBits(7);
+            fail("Expected to blow up on an IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // expected
+        }
+        assertThat(reader.readBits(6), is(2L));
+    }
+}
@@ -0,0 +1,93 @@
+package io.snice.buffer;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class BitWriterTest {
+
+    @Test
+    public void testGtpFlags() {
+        final WritableBuffer buffer = WritableBuffer.of(10);
+        final BitWriter writer = BitWriter.of(buffer);
+        writer.writeBits(1, 3);
+        writer.writeBit(true);
+        writer.writeBit(false);
+        writer.writeBit(false);
+        writer.writeBit(true);
+        writer.writeBit(false);
+        writer.writeBits(0xFF, 8);
+
+        final Buffer b = buffer.build();
+        assertThat(b.capacity(), is(2));
+        assertThat(b.getByte(0), is((byte) 0b0011_0010));
+        assertThat(b.getByte(1), is((byte) 0xFF));
+    }
+
+    /**
+     * A partially written byte is written right away, and then updated as
+     * we write more bits into it.
+     */
+    @Test
+    public void testPartialByte() {
+        final WritableBuffer buffer = WritableBuffer.of(10);
+        buffer.write((byte) 0x01);
+        final BitWriter writer = BitWriter.of(buffer);
+        assertThat(writer.getBitPosition(), is(8L));
+
+        writer.writeBits(0b101, 3);
+        assertThat(buffer.getWriterIndex(), is(2));
+        writer.writeBits(0b11, 2);
+        assertThat(buffer.getWriterIndex(), is(2));
+        writer.alignToByte();
+        writer.writeBits(0xABC, 12);
+        assertThat(writer.getBitPosition(), is(28L));
+
+        final Buffer b = buffer.build();
+        assertThat(b.getByte(1), is((byte) 0b1011_1000));
+        assertThat(b.getUnsignedShort(2), is(0xABC0));
+    }
+
+    @Test
+    public void testNoRoom() {
+        final WritableBuffer buffer = WritableBuffer.of(2);
+        final BitWriter writer = BitWriter.of(buffer);
+        writer.writeBits(0, 12);
+        try {
+            writer.writeBits(0, 5);
+            fail("Expected to blow up on an IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // expected
+        }
+        writer.writeBits(0xF, 4);
+        assertThat(buffer.build().getUnsignedShort(0), is(0x000F));
+    }
+
+    /**
+     * Write a bunch of random fields of random widths and make sure we
+     * get the same values back when reading them with the {@link BitReader}.
+     */
+    @Test
+    public void testRandomRoundTrip() {
+        final Random random = new Random(777);
+        final int fields = 2000;
+        final int[] widths = new int[fields];
+        final long[] values = new long[fields];
+        final WritableBuffer buffer = WritableBuffer.of(fields * 8);
+        final BitWriter writer = BitWriter.of(buffer);
+        for (int i = 0; i < fields; ++i) {
+            widths[i] = 1 + random.nextInt(64);
+            values[i] = widths[i] == 64 ? random.nextLong() : random.nextLong() & ((1L << widths[i]) - 1);
+            writer.writeBits(values[i] | (widths[i] == 64 ? 0 : -1L << widths[i]), widths[i]);
+        }
+
+        final BitReader reader = BitReader.of(buffer.build());
+        for (int i = 0; i < fields; ++i) {
+            assertThat(reader.readBits(widths[i]), is(values[i]));
+        }
+    }
+}
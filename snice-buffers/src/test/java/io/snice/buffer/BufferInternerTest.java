@@ -0,0 +1,151 @@
+package io.snice.buffer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BufferInternerTest {
+
+    @Test
+    public void testIntern() {
+        final BufferInterner interner = BufferInterner.create();
+        final Buffer a = interner.intern(Buffers.wrap("INVITE"));
+        final Buffer b = interner.intern(Buffers.wrap("INVITE sip:alice@example.com SIP/2.0"), 0, 6);
+        assertThat(a, sameInstance(b));
+        assertThat(a.toString(), is("INVITE"));
+        assertThat(interner.intern("INVITE"), sameInstance(a));
+
+        assertThat(interner.intern("invite"), not(sameInstance(a)));
+        assertThat(interner.intern(""), sameInstance(interner.intern(Buffers.wrap("abc"), 1, 0)));
+    }
+
+    /**
+     * The interned buffer must not be a view into the buffer we interned it from.
+     */
+    @Test
+    public void testInternIsCompact() {
+        final byte[] packet = "Via: SIP/2.0/UDP pc33.example.com".getBytes();
+        final Buffer interned = BufferInterner.create().intern(Buffer.of(packet), 5, 11);
+        packet[5] = 'X';
+        assertThat(interned.toString(), is("SIP/2.0/UDP"));
+        assertThat(interned.capacity(), is(11));
+    }
+
+    @Test
+    public void testReadableBuffer() {
+        final BufferInterner interner = BufferInterner.create();
+        final ReadableBuffer buffer = Buffers.wrap("Call-ID: abc").toReadableBuffer();
+        buffer.readBytes(9);
+        assertThat(interner.intern(buffer), sameInstance(interner.intern("abc")));
+        assertThat(buffer.getReaderIndex(), is(9));
+    }
+
+    @Test
+    public void testIgnoreCase() {
+        final BufferInterner interner = BufferInterner.withCapacity(64).withIgnoreCase(true).build();
+        final Buffer first = interner.intern("Call-ID");
+        assertThat(interner.intern("call-id"), sameInstance(first));
+        assertThat(interner.intern("CALL-ID"), sameInstance(first));
+        assertThat(first.toString(), is("Call-ID"));
+        assertThat(interner.intern("Call-IE"), not(sameInstance(first)));
+    }
+
+    @Test
+    public void testMaxLength() {
+        final BufferInterner interner = BufferInterner.withCapacity(64).withMaxLength(4).build();
+        assertThat(interner.intern("abcd"), sameInstance(interner.intern("abcd")));
+
+        final Buffer tooLong = interner.intern("abcde");
+        assertThat(tooLong.toString(), is("abcde"));
+        assertThat(interner.intern("abcde"), not(sameInstance(tooLong)));
+    }
+
+    /**
+     * The table is bounded so interning a lot more distinct values than the capacity
+     * is fine, it just means we will forget about some of them.
+     */
+    @Test
+    public void testBounded() {
+        final BufferInterner interner = BufferInterner.withCapacity(16).build();
+        assertThat(interner.capacity(), is(16));
+        for (int i = 0; i < 1000; ++i) {
+            assertThat(interner.intern("value-" + i).toString(), is("value-" + i));
+        }
+
+        final Buffer recent = interner.intern("value-999");
+        assertThat(interner.intern("value-999"), sameInstance(recent));
+
+        interner.clear();
+        assertThat(interner.intern("value-999"), not(sameInstance(recent)));
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrent() throws Exception {
+        final BufferInterner interner = BufferInterner.create();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 5000; ++i) {
+                    final String value = "header-" + (i % 100);
+                    assertThat(interner.intern(value).toString(), is(value));
+                }
+            }));
+        }
+
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // once everyone is done, everything should have settled on a single instance
+        for (int i = 0; i < 100; ++i) {
+            assertThat(interner.intern("header-" + i), sameInstance(interner.intern("header-" + i)));
+        }
+    }
+
+    /**
+     * A clear() racing with intern() may empty a slot in between a failed compare-and-set and
+     * the read of the entry that beat us to it.
+     */
+    @Test(timeout = 20000)
+    public void testConcurrentClear() throws Exception {
+        final BufferInterner interner = BufferInterner.withCapacity(16).build();
+        final AtomicBoolean done = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 3; ++t) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 200_000; ++i) {
+                    final String value = "v" + (i % 8);
+                    assertThat(interner.intern(value).toString(), is(value));
+                }
+            }));
+        }
+        final Future<?> clearer = executor.submit(() -> {
+            while (!done.get()) {
+                interner.clear();
+            }
+        });
+
+        try {
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            done.set(true);
+            clearer.get();
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.snice.buffer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolving SIP header names through a {@link BufferLookup} compared to what we'd otherwise do, which is
+ * to turn the token into a {@link String} and look it up in a {@link HashMap}. Run by hand.
+ */
+public final class BufferLookupBenchmark {
+
+    private static final String[] HEADERS = {
+            "Via", "From", "To", "Call-ID", "CSeq", "Contact", "Max-Forwards", "Route", "Record-Route",
+            "Content-Type", "Content-Length", "User-Agent", "Allow", "Supported", "Expires", "Authorization",
+            "WWW-Authenticate", "Proxy-Authorization", "Proxy-Authenticate", "Event", "Subscription-State",
+            "v", "f", "t", "i", "m", "c", "l", "k", "o"
+    };
+
+    private static final int ITERATIONS = 10_000_000;
+
+    public static void main(final String... args) {
+        final BufferLookup.Builder<Integer> builder = BufferLookup.builder();
+        final Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < HEADERS.length; ++i) {
+            builder.withEntry(HEADERS[i], i);
+            map.put(HEADERS[i], i);
+        }
+        final BufferLookup<Integer> lookup = builder.build();
+
+        // the headers as they would appear in a message, i.e. a range within a larger buffer
+        final StringBuilder message = new StringBuilder();
+        final int[] offsets = new int[HEADERS.length];
+        for (int i = 0; i < HEADERS.length; ++i) {
+            offsets[i] = message.length();
+            message.append(HEADERS[i]).append(": value\r\n");
+        }
+        final Buffer buffer = Buffers.wrap(message.toString());
+
+        final int[] next = new int[1];
+        BenchmarkRunner.run("BufferLookup.lookup(buffer, offset, length)", ITERATIONS, () -> {
+            final int i = next[0]++ % HEADERS.length;
+            return lookup.lookup(buffer, offsets[i], HEADERS[i].length());
+        });
+        BenchmarkRunner.run("slice().toString() + HashMap.get", ITERATIONS, () -> {
+            final int i = next[0]++ % HEADERS.length;
+            return map.get(buffer.slice(offsets[i], offsets[i] + HEADERS[i].length()).toString());
+        });
+        BenchmarkRunner.run("BufferLookup.lookup, unknown token", ITERATIONS,
+                () -> lookup.lookup(buffer, 3, 6) == null ? 0 : 1);
+        BenchmarkRunner.run("HashMap.get, unknown token", ITERATIONS,
+                () -> map.get(buffer.slice(3, 9).toString()) == null ? 0 : 1);
+    }
+}
@@ -0,0 +1,111 @@
+package io.snice.buffer;
+
+import io.snice.buffer.impl.DefaultBufferLookup;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BufferLookupTest {
+
+    private enum Method {
+        INVITE, ACK, BYE, CANCEL, REGISTER, OPTIONS, PRACK, SUBSCRIBE, NOTIFY, PUBLISH, INFO, REFER, MESSAGE, UPDATE
+    }
+
+    private enum Header {
+        CALL_ID, CONTACT, FROM, TO, VIA
+    }
+
+    @Test
+    public void testEnum() {
+        final BufferLookup<Method> lookup = BufferLookup.forEnum(Method.class).build();
+        assertThat(lookup.size(), is(Method.values().length));
+        for (final Method method : Method.values()) {
+            assertThat(lookup.lookup(Buffers.wrap(method.name())), is(method));
+        }
+
+        assertThat(lookup.lookup(Buffers.wrap("invite")), nullValue());
+        assertThat(lookup.lookup(Buffers.wrap("INVITES")), nullValue());
+        assertThat(lookup.lookup(Buffers.wrap("INVIT")), nullValue());
+        assertThat(lookup.lookup(Buffers.wrap("FOO")), nullValue());
+        assertThat(lookup.lookup(Buffers.wrap("A")), nullValue());
+    }
+
+    /**
+     * Resolve a token straight out of a larger buffer, including one that has been
+     * sliced and one that isn't backed by an array.
+     */
+    @Test
+    public void testLookupRange() {
+        final BufferLookup<Method> lookup = BufferLookup.forEnum(Method.class).build();
+        final Buffer line = Buffers.wrap("SIP/2.0 INVITE sip:bob@example.com SIP/2.0");
+        assertThat(lookup.lookup(line, 8, 6), is(Method.INVITE));
+        assertThat(lookup.lookup(line.slice(8, 20), 0, 6), is(Method.INVITE));
+        assertThat(lookup.lookup(line, 8, 5), nullValue());
+
+        final ReadableBuffer readable = line.toReadableBuffer();
+        readable.readBytes(8);
+        assertThat(lookup.lookup(readable.readBytes(6)), is(Method.INVITE));
+
+        final WritableBuffer writable = WritableBuffer.of(10);
+        writable.write("BYE");
+        assertThat(lookup.lookup(writable.build()), is(Method.BYE));
+    }
+
+    /**
+     * Headers in SIP are case insensitive and many of them have a compact form.
+     */
+    @Test
+    public void testIgnoreCaseAndCompactForm() {
+        final BufferLookup<Header> lookup = BufferLookup.<Header>builder()
+                .withIgnoreCase(true)
+                .withEntry("Call-ID", Header.CALL_ID).withEntry("i", Header.CALL_ID)
+                .withEntry("Contact", Header.CONTACT).withEntry("m", Header.CONTACT)
+                .withEntry("From", Header.FROM).withEntry("f", Header.FROM)
+                .withEntry("To", Header.TO).withEntry("t", Header.TO)
+                .withEntry("Via", Header.VIA).withEntry("v", Header.VIA)
+                .build();
+
+        assertThat(lookup.size(), is(10));
+        assertThat(lookup.lookup(Buffers.wrap("call-id")), is(Header.CALL_ID));
+        assertThat(lookup.lookup(Buffers.wrap("CALL-ID")), is(Header.CALL_ID));
+        assertThat(lookup.lookup(Buffers.wrap("I")), is(Header.CALL_ID));
+        assertThat(lookup.lookup(Buffers.wrap("vIa")), is(Header.VIA));
+        assertThat(lookup.lookup(Buffers.wrap("t")), is(Header.TO));
+        assertThat(lookup.lookup(Buffers.wrap("x")), nullValue());
+        assertThat(lookup.lookup(Buffers.wrap("Call_ID")), nullValue());
+    }
+
+    /**
+     * The hash is minimal, i.e. there is exactly one slot per key no matter how many keys there are,
+     * plus one displacement per four keys.
+     */
+    @Test
+    public void testManyKeys() {
+        for (final int count : new int[]{1, 2, 3, 200, 2000, 100_000}) {
+            final BufferLookup.Builder<Integer> builder = BufferLookup.builder();
+            for (int i = 0; i < count; ++i) {
+                builder.withEntry("key-" + i, i);
+            }
+            final BufferLookup<Integer> lookup = builder.build();
+            for (int i = 0; i < count; ++i) {
+                assertThat(lookup.lookup(Buffers.wrap("key-" + i)), is(i));
+            }
+            assertThat(lookup.lookup(Buffers.wrap("key-" + count)), nullValue());
+            assertThat(lookup.size(), is(count));
+            assertThat(((DefaultBufferLookup<Integer>) lookup).slots(), is(count));
+            assertThat(((DefaultBufferLookup<Integer>) lookup).buckets(), is((count + 3) / 4));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateKey() {
+        BufferLookup.<Integer>builder().withIgnoreCase(true).withEntry("Via", 1).withEntry("VIA", 2).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoKeys() {
+        BufferLookup.builder().build();
+    }
+}
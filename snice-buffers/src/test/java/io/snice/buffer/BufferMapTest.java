@@ -0,0 +1,156 @@
+package io.snice.buffer;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BufferMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        ensurePutGetRemove(BufferMap.create());
+        ensurePutGetRemove(BufferMap.concurrent());
+        ensurePutGetRemove(BufferMap.concurrent(1));
+    }
+
+    private static void ensurePutGetRemove(final BufferMap<String> map) {
+        assertThat(map.isEmpty(), is(true));
+        assertThat(map.put(Buffers.wrap("hello"), "one"), nullValue());
+        assertThat(map.put(Buffers.wrap("world"), "two"), nullValue());
+        assertThat(map.put(Buffers.wrap(""), "empty"), nullValue());
+        assertThat(map.size(), is(3));
+
+        assertThat(map.get(Buffers.wrap("hello")), is("one"));
+        assertThat(map.get(Buffers.wrap("world")), is("two"));
+        assertThat(map.get(Buffers.wrap("")), is("empty"));
+        assertThat(map.get(Buffers.wrap("hell")), nullValue());
+        assertThat(map.containsKey(Buffers.wrap("world")), is(true));
+
+        assertThat(map.put(Buffers.wrap("hello"), "three"), is("one"));
+        assertThat(map.size(), is(3));
+        assertThat(map.get(Buffers.wrap("hello")), is("three"));
+
+        assertThat(map.remove(Buffers.wrap("hello")), is("three"));
+        assertThat(map.remove(Buffers.wrap("hello")), nullValue());
+        assertThat(map.get(Buffers.wrap("hello")), nullValue());
+        assertThat(map.size(), is(2));
+
+        map.clear();
+        assertThat(map.isEmpty(), is(true));
+        assertThat(map.get(Buffers.wrap("world")), nullValue());
+    }
+
+    /**
+     * Look up a key from within a larger buffer without slicing it out first.
+     */
+    @Test
+    public void testGetRange() {
+        final BufferMap<String> map = BufferMap.create();
+        map.put(Buffers.wrap("a84b4c76e66710"), "call");
+
+        final Buffer msg = Buffers.wrap("INVITE\r\nCall-ID: a84b4c76e66710\r\n\r\n");
+        final int start = msg.indexOf((byte) ':') + 2;
+        assertThat(map.get(msg, start, 14), is("call"));
+        assertThat(map.get(msg, start, 13), nullValue());
+        assertThat(map.get(msg.slice(8, msg.capacity()), start - 8, 14), is("call"));
+
+        // the key must be a copy and not a view into the original buffer
+        final byte[] raw = "a84b4c76e66710".getBytes();
+        final BufferMap<String> other = BufferMap.create();
+        other.put(Buffer.of(raw), "call");
+        raw[0] = 'b';
+        assertThat(other.get(Buffers.wrap("a84b4c76e66710")), is("call"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetRangeOutOfBounds() {
+        BufferMap.create().get(Buffers.wrap("hello"), 3, 3);
+    }
+
+    /**
+     * For a readable buffer, only the readable bytes are part of the key.
+     */
+    @Test
+    public void testReadableBufferKey() {
+        final BufferMap<String> map = BufferMap.create();
+        map.put(Buffers.wrap("world"), "world");
+
+        final ReadableBuffer key = Buffers.wrap("hello world").toReadableBuffer();
+        key.readBytes(6);
+        assertThat(map.get(key), is("world"));
+        assertThat(key.getReaderIndex(), is(6));
+    }
+
+    /**
+     * Insert and remove enough keys to have the table grow and have a lot of entries
+     * shifted back on removal and make sure we agree with a regular {@link HashMap}.
+     */
+    @Test
+    public void testGrowAndRemoveMany() {
+        final BufferMap<Integer> map = BufferMap.create(4);
+        final Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 5000; ++i) {
+            map.put(Buffers.wrap("key-" + i), i);
+            expected.put("key-" + i, i);
+        }
+
+        for (int i = 0; i < 5000; i += 3) {
+            assertThat(map.remove(Buffers.wrap("key-" + i)), is(i));
+            expected.remove("key-" + i);
+        }
+
+        assertThat(map.size(), is(expected.size()));
+        for (int i = 0; i < 5000; ++i) {
+            assertThat(map.get(Buffers.wrap("key-" + i)), is(expected.get("key-" + i)));
+        }
+
+        final Map<String, Integer> visited = new HashMap<>();
+        map.forEach((k, v) -> visited.put(k.toString(), v));
+        assertThat(visited, is(expected));
+    }
+
+    @Test
+    public void testComputeIfAbsent() {
+        final BufferMap<String> map = BufferMap.concurrent();
+        assertThat(map.computeIfAbsent(Buffers.wrap("abc"), Buffer::toString), is("abc"));
+        assertThat(map.computeIfAbsent(Buffers.wrap("abc"), b -> "nope"), is("abc"));
+        assertThat(map.computeIfAbsent(Buffers.wrap("def"), b -> null), nullValue());
+        assertThat(map.size(), is(1));
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrent() throws Exception {
+        final BufferMap<Integer> map = BufferMap.concurrent(8);
+        final int threads = 4;
+        final int perThread = 2000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; ++t) {
+            final int base = t * perThread;
+            executor.execute(() -> {
+                for (int i = base; i < base + perThread; ++i) {
+                    map.put(Buffers.wrap("key-" + i), i);
+                    map.get(Buffers.wrap("key-" + (i / 2)));
+                }
+                latch.countDown();
+            });
+        }
+
+        latch.await(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertThat(map.size(), is(threads * perThread));
+        for (int i = 0; i < threads * perThread; ++i) {
+            assertThat(map.get(Buffers.wrap("key-" + i)), is(i));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.snice.buffer;
+
+import io.snice.buffer.BufferMetrics.Category;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Checks that every category is counted at its actual call site within the library. The metrics
+ * can only be turned on when the JVM starts, so this test is excluded from the regular test run and
+ * instead runs in a separate surefire execution with <code>-Dio.snice.buffer.metrics=true</code>
+ * (see the pom).
+ */
+public class BufferMetricsInstrumentationTest {
+
+    private ReadWriteBuffer readWrite;
+    private Buffer hello;
+
+    @Before
+    public void setUp() {
+        assertThat("This test must run with -D" + BufferMetrics.ENABLED_PROPERTY + "=true",
+                BufferMetrics.isEnabled(), is(true));
+        readWrite = ReadWriteBuffer.of(100);
+        readWrite.write("hello");
+        hello = Buffers.wrap("hello");
+    }
+
+    @Test
+    public void testNewBuffer() {
+        assertAllocated(Category.NEW_BUFFER, 100, () -> WritableBuffer.of(100));
+        assertAllocated(Category.NEW_BUFFER, 50, () -> ReadWriteBuffer.of(50));
+    }
+
+    @Test
+    public void testToBuffer() {
+        assertCopied(Category.TO_BUFFER, 5, () -> readWrite.toBuffer());
+    }
+
+    @Test
+    public void testToReadableBuffer() {
+        assertCopied(Category.TO_READABLE_BUFFER, 5, () -> readWrite.toReadableBuffer());
+    }
+
+    @Test
+    public void testToWritableBuffer() {
+        assertCopied(Category.TO_WRITABLE_BUFFER, 5, () -> hello.toWritableBuffer());
+    }
+
+    @Test
+    public void testGetContent() {
+        assertCopied(Category.GET_CONTENT, 5, () -> hello.getContent());
+        assertCopied(Category.GET_CONTENT, 5, () -> readWrite.getContent());
+    }
+
+    @Test
+    public void testClone() {
+        final WritableBuffer writable = WritableBuffer.of(20);
+        assertCopied(Category.CLONE, 20, writable::clone);
+        assertCopied(Category.CLONE, 100, () -> readWrite.clone());
+    }
+
+    @Test
+    public void testWrap() {
+        final Buffer world = Buffers.wrap("world");
+        assertCopied(Category.WRAP, 10, () -> Buffers.wrap(hello, world));
+    }
+
+    @Test
+    public void testEquals() {
+        assertCopied(Category.EQUALS, 5, () -> assertThat(hello.equals(readWrite), is(true)));
+    }
+
+    /**
+     * Encoding and decoding a buffer only allocates the output, it never copies the input.
+     */
+    @Test
+    public void testBase64DoesNotCopy() {
+        assertAllocated(Category.NEW_BUFFER, 8, () -> Base64Codec.standard().encode(readWrite));
+
+        final ReadWriteBuffer encoded = ReadWriteBuffer.of(100);
+        encoded.write("aGVsbG8=");
+        assertAllocated(Category.NEW_BUFFER, 9, () -> Base64Codec.standard().decode(encoded));
+    }
+
+    /**
+     * The copy sources point to this class, i.e., the first frame outside of the library.
+     */
+    @Test
+    public void testCopySource() {
+        final BufferMetrics metrics = BufferMetrics.get();
+        metrics.reset();
+        for (int i = 0; i < 1000; ++i) {
+            hello.getContent();
+        }
+        // the pom sets the sample rate to one so every copy is sampled
+        final List<BufferMetrics.CopySource> sources = metrics.getTopCopySources(10);
+        assertThat(sources.size(), is(1));
+        assertThat(sources.get(0).getCategory(), is(Category.GET_CONTENT));
+        assertThat(sources.get(0).getSamples(), is(1000L));
+        assertThat(sources.get(0).getCallSite().getClassName(), is(BufferMetricsInstrumentationTest.class.getName()));
+    }
+
+    private static void assertCopied(final Category category, final int bytes, final Runnable operation) {
+        final long[] before = snapshot();
+        operation.run();
+        final long[] after = snapshot();
+        for (final Category c : Category.values()) {
+            final int i = c.ordinal() * 4;
+            final int expected = c == category ? 1 : 0;
+            assertThat(c + " allocations", after[i] - before[i], is((long) expected));
+            assertThat(c + " allocated bytes", after[i + 1] - before[i + 1], is((long) expected * bytes));
+            assertThat(c + " copies", after[i + 2] - before[i + 2], is((long) expected));
+            assertThat(c + " copied bytes", after[i + 3] - before[i + 3], is((long) expected * bytes));
+        }
+    }
+
+    private static void assertAllocated(final Category category, final int bytes, final Runnable operation) {
+        final long[] before = snapshot();
+        operation.run();
+        final long[] after = snapshot();
+        for (final Category c : Category.values()) {
+            final int i = c.ordinal() * 4;
+            final int expected = c == category ? 1 : 0;
+            assertThat(c + " allocations", after[i] - before[i], is((long) expected));
+            assertThat(c + " allocated bytes", after[i + 1] - before[i + 1], is((long) expected * bytes));
+            assertThat(c + " copies", after[i + 2] - before[i + 2], is(0L));
+        }
+    }
+
+    private static long[] snapshot() {
+        final BufferMetrics metrics = BufferMetrics.get();
+        final long[] counters = new long[Category.values().length * 4];
+        for (final Category c : Category.values()) {
+            counters[c.ordinal() * 4] = metrics.getAllocations(c);
+            counters[c.ordinal() * 4 + 1] = metrics.getAllocatedBytes(c);
+            counters[c.ordinal() * 4 + 2] = metrics.getCopies(c);
+            counters[c.ordinal() * 4 + 3] = metrics.getCopiedBytes(c);
+        }
+        return counters;
+    }
+}
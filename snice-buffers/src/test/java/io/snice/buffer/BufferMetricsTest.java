@@ -0,0 +1,152 @@
+package io.snice.buffer;
+
+import io.snice.buffer.BufferMetrics.Category;
+import io.snice.buffer.impl.DefaultBufferMetrics;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BufferMetricsTest {
+
+    /**
+     * The metrics are off unless the JVM is started with the system property, in which case
+     * nothing is ever counted.
+     */
+    @Test
+    public void testDisabledByDefault() {
+        assertThat(BufferMetrics.isEnabled(), is(Boolean.getBoolean(BufferMetrics.ENABLED_PROPERTY)));
+        if (BufferMetrics.isEnabled()) {
+            return;
+        }
+
+        final ReadWriteBuffer buffer = ReadWriteBuffer.of(10);
+        buffer.write("hello");
+        buffer.toBuffer();
+        buffer.getContent();
+        Buffers.wrap(Buffers.wrap("a"), Buffers.wrap("b"));
+        for (final Category category : Category.values()) {
+            assertThat(BufferMetrics.get().getAllocations(category), is(0L));
+            assertThat(BufferMetrics.get().getCopies(category), is(0L));
+        }
+    }
+
+    @Test
+    public void testCounters() {
+        final DefaultBufferMetrics metrics = DefaultBufferMetrics.of(1);
+        metrics.allocate(Category.NEW_BUFFER, 100);
+        metrics.copy(Category.GET_CONTENT, 10);
+        metrics.copy(Category.GET_CONTENT, 20);
+
+        assertThat(metrics.getAllocations(Category.NEW_BUFFER), is(1L));
+        assertThat(metrics.getAllocatedBytes(Category.NEW_BUFFER), is(100L));
+        assertThat(metrics.getCopies(Category.NEW_BUFFER), is(0L));
+
+        // a copy is always into a new array so it is an allocation too
+        assertThat(metrics.getAllocations(Category.GET_CONTENT), is(2L));
+        assertThat(metrics.getAllocatedBytes(Category.GET_CONTENT), is(30L));
+        assertThat(metrics.getCopies(Category.GET_CONTENT), is(2L));
+        assertThat(metrics.getCopiedBytes(Category.GET_CONTENT), is(30L));
+        assertThat(metrics.getCopies(Category.WRAP), is(0L));
+
+        metrics.reset();
+        assertThat(metrics.getCopies(Category.GET_CONTENT), is(0L));
+        assertThat(metrics.getAllocatedBytes(Category.NEW_BUFFER), is(0L));
+        assertThat(metrics.getTopCopySources(10).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testListener() {
+        final DefaultBufferMetrics metrics = DefaultBufferMetrics.of(1);
+        final AtomicLong allocated = new AtomicLong();
+        final AtomicLong copied = new AtomicLong();
+        final BufferMetrics.Listener listener = new BufferMetrics.Listener() {
+            @Override
+            public void onAllocation(final Category category, final int bytes) {
+                allocated.addAndGet(bytes);
+            }
+
+            @Override
+            public void onCopy(final Category category, final int bytes) {
+                copied.addAndGet(bytes);
+            }
+        };
+
+        metrics.addListener(listener);
+        metrics.allocate(Category.NEW_BUFFER, 5);
+        metrics.copy(Category.WRAP, 7);
+        assertThat(allocated.get(), is(12L));
+        assertThat(copied.get(), is(7L));
+
+        metrics.removeListener(listener);
+        metrics.copy(Category.WRAP, 7);
+        assertThat(copied.get(), is(7L));
+    }
+
+    /**
+     * The copy sources are the first frame outside of the buffer library, which for this test
+     * is the test itself.
+     */
+    @Test
+    public void testTopCopySources() {
+        final DefaultBufferMetrics metrics = DefaultBufferMetrics.of(1);
+        for (int i = 0; i < 3; ++i) {
+            copyOften(metrics);
+        }
+        copyRarely(metrics);
+
+        final List<BufferMetrics.CopySource> sources = metrics.getTopCopySources(10);
+        assertThat(sources.size(), is(2));
+        assertThat(sources.get(0).getCallSite().getMethodName(), is("copyOften"));
+        assertThat(sources.get(0).getCategory(), is(Category.TO_BUFFER));
+        assertThat(sources.get(0).getSamples(), is(3L));
+        assertThat(sources.get(1).getCallSite().getMethodName(), is("copyRarely"));
+        assertThat(sources.get(1).getCallSite().getClassName(), is(BufferMetricsTest.class.getName()));
+
+        assertThat(metrics.getTopCopySources(1).size(), is(1));
+    }
+
+    private static void copyOften(final DefaultBufferMetrics metrics) {
+        metrics.copy(Category.TO_BUFFER, 1);
+    }
+
+    private static void copyRarely(final DefaultBufferMetrics metrics) {
+        metrics.copy(Category.EQUALS, 1);
+    }
+
+    /**
+     * A bad sample rate property must not fail the initialization of the metrics, which would take
+     * every instrumented code path down with it.
+     */
+    @Test
+    public void testBadSampleRateProperty() {
+        final String original = System.getProperty(BufferMetrics.SAMPLE_RATE_PROPERTY);
+        try {
+            System.setProperty(BufferMetrics.SAMPLE_RATE_PROPERTY, "0");
+            assertThat(DefaultBufferMetrics.fromSystemProperties().getSampleRate(), is(1));
+
+            System.setProperty(BufferMetrics.SAMPLE_RATE_PROPERTY, "-7");
+            assertThat(DefaultBufferMetrics.fromSystemProperties().getSampleRate(), is(1));
+
+            System.setProperty(BufferMetrics.SAMPLE_RATE_PROPERTY, "often");
+            assertThat(DefaultBufferMetrics.fromSystemProperties().getSampleRate(), is(100));
+
+            System.setProperty(BufferMetrics.SAMPLE_RATE_PROPERTY, "10");
+            assertThat(DefaultBufferMetrics.fromSystemProperties().getSampleRate(), is(10));
+        } finally {
+            if (original == null) {
+                System.clearProperty(BufferMetrics.SAMPLE_RATE_PROPERTY);
+            } else {
+                System.setProperty(BufferMetrics.SAMPLE_RATE_PROPERTY, original);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadSampleRate() {
+        DefaultBufferMetrics.of(0);
+    }
+}
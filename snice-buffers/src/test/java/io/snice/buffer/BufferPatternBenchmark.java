@@ -0,0 +1,59 @@
+package io.snice.buffer;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compares {@link BufferPattern}, which picks Horspool for medium and Two-Way for long patterns, with a
+ * naive search, i.e. for every position compare the pattern until the first mismatch. Run by hand.
+ */
+public final class BufferPatternBenchmark {
+
+    private static final int HAYSTACK_SIZE = 64 * 1024;
+
+    public static void main(final String... args) {
+        final Random random = new Random(1234);
+
+        // text-like content where the first byte of the pattern is common
+        final byte[] text = new byte[HAYSTACK_SIZE];
+        for (int i = 0; i < text.length; ++i) {
+            text[i] = (byte) ('a' + random.nextInt(8));
+        }
+        for (final int length : new int[]{4, 16, 64, 256, 1024}) {
+            final byte[] pattern = Arrays.copyOfRange(text, 10, 10 + length);
+            pattern[length - 1] = 'z'; // never matches
+            compare("random, pattern " + length + " bytes", text, pattern);
+        }
+
+        // the worst case for a naive search, every position matches all but the last byte
+        final byte[] repetitive = new byte[HAYSTACK_SIZE];
+        Arrays.fill(repetitive, (byte) 'a');
+        for (final int length : new int[]{16, 256, 1024}) {
+            final byte[] pattern = new byte[length];
+            Arrays.fill(pattern, (byte) 'a');
+            pattern[length - 1] = 'b';
+            compare("repetitive, pattern " + length + " bytes", repetitive, pattern);
+        }
+    }
+
+    private static void compare(final String name, final byte[] haystack, final byte[] pattern) {
+        final Buffer buffer = Buffer.of(haystack);
+        final BufferPattern compiled = BufferPattern.of(Buffer.of(pattern));
+        final int iterations = 200_000_000 / haystack.length / Math.max(1, pattern.length / 16);
+        BenchmarkRunner.run(name + " - naive", iterations, () -> naiveIndexOf(haystack, pattern));
+        BenchmarkRunner.run(name + " - BufferPattern", iterations, () -> compiled.indexOf(buffer));
+    }
+
+    private static int naiveIndexOf(final byte[] haystack, final byte[] pattern) {
+        outer:
+        for (int i = 0; i <= haystack.length - pattern.length; ++i) {
+            for (int j = 0; j < pattern.length; ++j) {
+                if (haystack[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
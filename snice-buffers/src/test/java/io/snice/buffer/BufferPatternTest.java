@@ -0,0 +1,122 @@
+package io.snice.buffer;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BufferPatternTest {
+
+    private final Random random = new Random(1234);
+
+    @Test
+    public void testShortPattern() {
+        ensureFound("hello world", "o", 4, 7);
+        ensureFound("hello world", "wo", 6, 6);
+        ensureFound("hello world", "hello world", 0, 0);
+        ensureFound("hello world", "d", 10, 10);
+        ensureFound("hello world", "x", -1, -1);
+    }
+
+    @Test
+    public void testHorspoolPattern() {
+        ensureFound("Content-Type: multipart/mixed;boundary=unique-boundary-1 unique-boundary-1",
+                "unique-boundary-1", 39, 57);
+        ensureFound("aaaaaaaaaaaaaaaaaaaab", "aaaaab", 15, 15);
+        ensureFound("aaaaaaaaaaaaaaaaaaaaa", "aaaaab", -1, -1);
+    }
+
+    @Test
+    public void testTwoWayPattern() {
+        final String pattern = "ab".repeat(200) + "c";
+        final String haystack = "ab".repeat(1000) + "c" + "ab".repeat(300) + "c";
+        ensureFound(haystack, pattern, haystack.indexOf(pattern), haystack.lastIndexOf(pattern));
+        ensureFound("ab".repeat(1000), pattern, -1, -1);
+    }
+
+    /**
+     * Compare all the different algorithms (which are chosen based on the length of the pattern)
+     * against {@link String#indexOf(String)} for random input using a small alphabet, which gives
+     * us plenty of partial matches and periodic patterns.
+     */
+    @Test
+    public void testRandomAgainstString() {
+        final int[] lengths = {1, 2, 3, 4, 5, 8, 17, 64, 255, 256, 257, 300, 600};
+        for (final int length : lengths) {
+            for (int i = 0; i < 20; ++i) {
+                final String pattern = randomString(length, 2);
+                final String haystack = randomString(2000, 2)
+                        + pattern + randomString(random.nextInt(1000), 2)
+                        + pattern + randomString(random.nextInt(100), 2);
+                ensureFound(haystack, pattern, haystack.indexOf(pattern), haystack.lastIndexOf(pattern));
+
+                final int from = random.nextInt(haystack.length());
+                final Buffer buffer = Buffers.wrap(haystack);
+                assertThat(buffer.indexOf(from, Buffers.wrap(pattern)), is(haystack.indexOf(pattern, from)));
+            }
+        }
+    }
+
+    @Test
+    public void testSearchWithinRange() {
+        final BufferPattern pattern = BufferPattern.of("abc");
+        final Buffer buffer = Buffers.wrap("abc abc abc");
+        assertThat(pattern.indexOf(buffer, 1, buffer.capacity()), is(4));
+        assertThat(pattern.indexOf(buffer, 1, 6), is(-1));
+        assertThat(pattern.indexOf(buffer, 1, 7), is(4));
+        assertThat(pattern.lastIndexOf(buffer, 0, 10), is(4));
+        assertThat(pattern.indexOf(buffer, -10, 100), is(0));
+        assertThat(pattern.indexOf(buffer, 100, 200), is(-1));
+    }
+
+    @Test
+    public void testReadableBuffer() {
+        final ReadableBuffer buffer = Buffers.wrap("abc abc abc").toReadableBuffer();
+        buffer.readBytes(2);
+
+        // the index is still based on the underlying buffer, just as
+        // it is for e.g. indexOf(byte)
+        assertThat(buffer.indexOf(Buffers.wrap("abc")), is(4));
+        assertThat(buffer.lastIndexOf(Buffers.wrap("abc")), is(8));
+        assertThat(buffer.indexOf(0, Buffers.wrap("abc")), is(0));
+    }
+
+    @Test
+    public void testReadWriteBufferOnlySearchesWrittenBytes() {
+        final ReadWriteBuffer buffer = ReadWriteBuffer.of(100);
+        buffer.write("hello world");
+        assertThat(buffer.indexOf(Buffers.wrap("world")), is(6));
+        assertThat(buffer.contains(Buffers.wrap("world!")), is(false));
+        assertThat(buffer.lastIndexOf(Buffers.wrap("o")), is(7));
+    }
+
+    @Test
+    public void testGetPattern() {
+        final BufferPattern pattern = BufferPattern.of(Buffers.wrap("hello"));
+        assertThat(pattern.getPattern(), is(Buffers.wrap("hello")));
+        assertThat(pattern.length(), is(5));
+    }
+
+    private void ensureFound(final String haystack, final String pattern, final int first, final int last) {
+        final Buffer buffer = Buffers.wrap(haystack);
+        final BufferPattern compiled = BufferPattern.of(pattern);
+        assertThat(buffer.indexOf(compiled), is(first));
+        assertThat(buffer.lastIndexOf(compiled), is(last));
+        assertThat(buffer.contains(compiled), is(first != -1));
+
+        // and on a slice with some garbage around it
+        final Buffer padded = Buffers.wrap("xxx" + haystack + "yyy").slice(3, 3 + haystack.length());
+        assertThat(padded.indexOf(compiled), is(first));
+        assertThat(padded.lastIndexOf(compiled), is(last));
+    }
+
+    private String randomString(final int length, final int alphabet) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; ++i) {
+            sb.append((char) ('a' + random.nextInt(alphabet)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package io.snice.buffer;
+
+import io.snice.protocol.TransactionId;
+import io.snice.protocol.TransactionIdGenerator;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BufferTransactionIdTest {
+
+    @Test
+    public void testOf() {
+        final Buffer via = Buffers.wrap("SIP/2.0/UDP 10.0.0.1;branch=z9hG4bK776asdhds");
+        final int index = via.indexOf((byte) '=') + 1;
+        final TransactionId id = BufferTransactionId.of(via.slice(index, via.capacity()));
+        assertThat(id, is(BufferTransactionId.of(Buffers.wrap("z9hG4bK776asdhds"))));
+        assertThat(id.hashCode(), is(BufferTransactionId.of(Buffers.wrap("z9hG4bK776asdhds")).hashCode()));
+        assertThat(id, not(BufferTransactionId.of(Buffers.wrap("z9hG4bK776asdhdt"))));
+        assertThat(BufferTransactionId.of(Buffers.wrapAsHex("cafe")).toString(), is("CAFE"));
+
+        final ReadableBuffer readable = Buffers.wrap("xxabc").toReadableBuffer();
+        readable.readBytes(2);
+        assertThat(BufferTransactionId.of(readable), is(BufferTransactionId.of(Buffers.wrap("abc"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmpty() {
+        BufferTransactionId.of(Buffers.wrap(""));
+    }
+
+    @Test
+    public void testGenerator() {
+        final TransactionIdGenerator generator = BufferTransactionId.generator(8);
+        final Set<TransactionId> ids = new HashSet<>();
+        for (int i = 0; i < 1000; ++i) {
+            final BufferTransactionId id = (BufferTransactionId) generator.generate();
+            assertThat(id.getBuffer().capacity(), is(8));
+            assertThat(ids.add(id), is(true));
+        }
+    }
+}
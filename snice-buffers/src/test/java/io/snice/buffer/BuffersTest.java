@@ -4,6 +4,7 @@ import org.hamcrest.CoreMatchers;
 import org.hamcrest.MatcherAssert;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -94,4 +95,57 @@ public class BuffersTest {
         assertThat(b.getLong(64), is(uuid.getLeastSignificantBits()));
     }
 
-}
\ No newline at end of file
+
+    /**
+     * A small slice of a large buffer should be copied when compacted but
+     * not if it covers most of the underlying array.
+     */
+    @Test
+    public void testDetach() {
+        final Buffer packet = Buffers.wrap(new byte[1000]);
+        final Buffer tag = packet.slice(100, 120);
+        assertThat(tag.getRetainedBytes(), is(1000));
+
+        final Buffer compacted = tag.compact();
+        assertThat(compacted, is(tag));
+        assertThat(compacted.getRetainedBytes(), is(20));
+        assertThat(compacted.compact() == compacted, is(true));
+
+        final Buffer large = packet.slice(0, 600);
+        assertThat(large.compact() == large, is(true));
+        assertThat(Buffers.detach(large, 1.0).getRetainedBytes(), is(600));
+        assertThat(Buffers.detach(tag, 100).getRetainedBytes(), is(1000));
+
+        final ReadableBuffer readable = Buffers.wrap("hello world").toReadableBuffer();
+        readable.readBytes(6);
+        assertThat(readable.getRetainedBytes(), is(11));
+        assertThat(Buffers.detach(readable, 1.0).toString(), is("world"));
+        assertThat(Buffers.detach(readable, 1.0).getRetainedBytes(), is(5));
+
+        assertThat(packet.slice(10, 10).compact().isEmpty(), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDetachBadRatio() {
+        Buffers.detach(Buffers.wrap("hello"), 0.5);
+    }
+
+    @Test
+    public void testRetentionReport() {
+        final Buffer packet = Buffers.wrap(new byte[1000]);
+        final Buffer other = Buffers.wrap(new byte[100]);
+        final ReadableBuffer readable = packet.slice(50, 60).toReadableBuffer();
+        readable.readBytes(4);
+
+        final RetentionReport report = RetentionReport.of(List.of(packet.slice(0, 10), packet.slice(20, 40), readable, other));
+        assertThat(report.getBuffers(), is(4));
+        assertThat(report.getArrays(), is(2));
+        assertThat(report.getVisibleBytes(), is(10L + 20 + 6 + 100));
+        assertThat(report.getRetainedBytes(), is(1100L));
+        assertThat(report.getWastedBytes(), is(1100L - 136));
+
+        final RetentionReport compacted = RetentionReport.of(List.of(packet.slice(0, 10).compact(), other));
+        assertThat(compacted.getRetainedBytes(), is(110L));
+        assertThat(compacted.getRatio(), is(1.0));
+    }
+}
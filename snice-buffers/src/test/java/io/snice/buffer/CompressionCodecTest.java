@@ -0,0 +1,210 @@
+package io.snice.buffer;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CompressionCodecTest {
+
+    private static final List<CompressionCodec> CODECS = Arrays.asList(
+            CompressionCodec.deflate(),
+            CompressionCodec.gzip(),
+            CompressionCodec.lz(),
+            CompressionCodec.deflate(1).withChunkSize(64),
+            CompressionCodec.gzip(9).withChunkSize(100),
+            CompressionCodec.lz().withChunkSize(64));
+
+    @Test
+    public void testRoundTrip() {
+        for (final CompressionCodec codec : CODECS) {
+            ensureRoundTrip(codec, new byte[0]);
+            ensureRoundTrip(codec, "a".getBytes());
+            ensureRoundTrip(codec, sipMessages(200));
+            ensureRoundTrip(codec, randomBytes(50000));
+            ensureRoundTrip(codec, new byte[100000]);
+        }
+    }
+
+    private static void ensureRoundTrip(final CompressionCodec codec, final byte[] data) {
+        final List<Buffer> compressed = codec.compress(Buffer.of(data));
+        for (final Buffer chunk : compressed) {
+            assertThat(chunk.capacity() <= codec.getChunkSize(), is(true));
+        }
+
+        final List<Buffer> decompressed = codec.decompress(Buffers.wrap(compressed));
+        for (final Buffer chunk : decompressed) {
+            assertThat(chunk.capacity() <= codec.getChunkSize(), is(true));
+        }
+        assertThat(codec.toString(), Buffers.wrap(decompressed).getContent(), is(data));
+    }
+
+    /**
+     * The lz blocks are compressed independently so tiny chunks won't compress well at all,
+     * which is why we only check the default chunk size.
+     */
+    @Test
+    public void testCompresses() {
+        final byte[] data = sipMessages(200);
+        for (final CompressionCodec codec : CODECS.subList(0, 3)) {
+            assertThat(codec.toString(), size(codec.compress(Buffer.of(data))) < data.length / 4, is(true));
+        }
+    }
+
+    /**
+     * Only the visible bytes are compressed, which for a readable buffer are the readable ones.
+     */
+    @Test
+    public void testWindow() {
+        for (final CompressionCodec codec : CODECS) {
+            final Buffer buffer = Buffers.wrap("xxxxhello world, hello world, hello worldyyyy");
+            final Buffer slice = buffer.slice(4, buffer.capacity() - 4);
+            assertThat(decompress(codec, codec.compress(slice)), is("hello world, hello world, hello world"));
+
+            final ReadableBuffer readable = buffer.toReadableBuffer();
+            readable.readBytes(4);
+            assertThat(decompress(codec, codec.compress(readable)), is("hello world, hello world, hello worldyyyy"));
+            assertThat(readable.getReaderIndex(), is(4));
+
+            final List<Buffer> chunks = new ArrayList<>();
+            try (final CompressionCodec.Encoder encoder = codec.newEncoder(chunks::add)) {
+                encoder.write(buffer, 4, 5);
+                encoder.write(buffer, 9, 6);
+                encoder.finish();
+            }
+            assertThat(decompress(codec, chunks), is("hello world"));
+        }
+    }
+
+    /**
+     * Push a lot of data through the streaming encoder and decoder, one small buffer at a time, and
+     * feed the compressed chunks back one byte at a time to make sure that we can deal with headers,
+     * trailers and blocks being split up anywhere.
+     */
+    @Test
+    public void testStreaming() {
+        final byte[] data = sipMessages(100);
+        for (final CompressionCodec codec : CODECS) {
+            final List<Buffer> compressed = new ArrayList<>();
+            try (final CompressionCodec.Encoder encoder = codec.newEncoder(compressed::add)) {
+                for (int i = 0; i < data.length; i += 37) {
+                    encoder.write(Buffer.of(data, i, Math.min(37, data.length - i)));
+                }
+                encoder.finish();
+            }
+
+            final byte[] all = Buffers.wrap(compressed).getContent();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (final CompressionCodec.Decoder decoder = codec.newDecoder(b -> out.write(b.getContent(), 0, b.capacity()))) {
+                for (final byte b : all) {
+                    decoder.write(Buffer.of(b));
+                }
+                decoder.finish();
+            }
+            assertThat(codec.toString(), out.toByteArray(), is(data));
+        }
+    }
+
+    @Test
+    public void testInteroperability() throws Exception {
+        final byte[] data = sipMessages(50);
+
+        final byte[] gzipped = Buffers.wrap(CompressionCodec.gzip().compress(Buffer.of(data))).getContent();
+        try (final GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(in.readAllBytes(), is(data));
+        }
+
+        final byte[] deflated = Buffers.wrap(CompressionCodec.deflate().compress(Buffer.of(data))).getContent();
+        try (final InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(deflated))) {
+            assertThat(in.readAllBytes(), is(data));
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        assertThat(Buffers.wrap(CompressionCodec.gzip().decompress(Buffer.of(out.toByteArray()))).getContent(), is(data));
+
+        // a gzip header with a file name and a comment
+        final byte[] header = Buffers.wrapAsHex("1f8b081800000000000368656c6c6f2e74787400636f6d6d656e7400").getContent();
+        final byte[] body = Arrays.copyOfRange(out.toByteArray(), 10, out.size());
+        final Buffer named = Buffers.wrap(Buffer.of(header), Buffer.of(body));
+        assertThat(Buffers.wrap(CompressionCodec.gzip().decompress(named)).getContent(), is(data));
+    }
+
+    @Test
+    public void testCorrupt() {
+        final byte[] data = sipMessages(10);
+        for (final CompressionCodec codec : CODECS) {
+            final byte[] compressed = Buffers.wrap(codec.compress(Buffer.of(data))).getContent();
+
+            ensureCorrupt(codec, Arrays.copyOf(compressed, compressed.length - 1));
+            ensureCorrupt(codec, Arrays.copyOf(compressed, compressed.length + 1));
+
+            final byte[] flipped = compressed.clone();
+            flipped[flipped.length / 2] ^= 0x5A;
+            flipped[flipped.length / 2 + 1] ^= 0x5A;
+            ensureCorrupt(codec, flipped);
+        }
+    }
+
+    private static void ensureCorrupt(final CompressionCodec codec, final byte[] compressed) {
+        try {
+            final List<Buffer> result = codec.decompress(Buffer.of(compressed));
+            fail("Expected a BufferException from " + codec + " but got " + size(result) + " bytes");
+        } catch (final BufferException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWriteAfterFinish() {
+        final CompressionCodec.Encoder encoder = CompressionCodec.gzip().newEncoder(b -> { });
+        encoder.finish();
+        encoder.write(Buffers.wrap("hello"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadChunkSize() {
+        CompressionCodec.lz().withChunkSize(10);
+    }
+
+    private static String decompress(final CompressionCodec codec, final List<Buffer> chunks) {
+        return Buffers.wrap(codec.decompress(Buffers.wrap(chunks))).toString();
+    }
+
+    private static int size(final List<Buffer> chunks) {
+        return chunks.stream().mapToInt(Buffer::capacity).sum();
+    }
+
+    private static byte[] sipMessages(final int count) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; ++i) {
+            sb.append("INVITE sip:bob@example.com SIP/2.0\r\n");
+            sb.append("Via: SIP/2.0/UDP pc33.example.com;branch=z9hG4bK776asdhds").append(i).append("\r\n");
+            sb.append("From: Alice <sip:alice@example.com>;tag=1928301774\r\n");
+            sb.append("To: Bob <sip:bob@example.com>\r\n");
+            sb.append("Call-ID: a84b4c76e66710@pc33.example.com\r\n");
+            sb.append("CSeq: ").append(i).append(" INVITE\r\n");
+            sb.append("Content-Length: 0\r\n\r\n");
+        }
+        return sb.toString().getBytes();
+    }
+
+    private static byte[] randomBytes(final int count) {
+        final byte[] bytes = new byte[count];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,160 @@
+package io.snice.buffer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MultiPatternMatcherTest {
+
+    private final Random random = new Random(4321);
+
+    @Test
+    public void testClassicExample() {
+        final MultiPatternMatcher matcher = MultiPatternMatcher.withPatterns("he", "she", "his", "hers").build();
+        final List<String> matches = collect(matcher, Buffers.wrap("ushers"));
+        assertThat(matches.toString(), is("[1:1-4, 0:2-4, 3:2-6]"));
+    }
+
+    @Test
+    public void testIgnoreCase() {
+        final MultiPatternMatcher matcher = MultiPatternMatcher.withPatterns("Via", "CONTENT-length")
+                .withIgnoreCase(true)
+                .build();
+        final Buffer buffer = Buffers.wrap("content-LENGTH: 0\r\nvIa: hello\r\n");
+        assertThat(collect(matcher, buffer).toString(), is("[1:0-14, 0:19-22]"));
+
+        final MultiPatternMatcher exact = MultiPatternMatcher.withPatterns("Via", "CONTENT-length").build();
+        assertThat(exact.matchesAny(buffer), is(false));
+        assertThat(exact.matchesAny(Buffers.wrap("hello Via")), is(true));
+    }
+
+    @Test
+    public void testDuplicateAndOverlappingPatterns() {
+        final MultiPatternMatcher matcher = MultiPatternMatcher.withPatterns("aa", "a", "aa").build();
+        assertThat(collect(matcher, Buffers.wrap("aaa")).toString(),
+                is("[1:0-1, 2:0-2, 0:0-2, 1:1-2, 2:1-3, 0:1-3, 1:2-3]"));
+    }
+
+    @Test
+    public void testStopScanning() {
+        final MultiPatternMatcher matcher = MultiPatternMatcher.withPatterns("a").build();
+        final int[] first = new int[1];
+        final int count = matcher.scan(Buffers.wrap("xxaxa"), (id, start, end) -> {
+            first[0] = start;
+            return false;
+        });
+        assertThat(count, is(1));
+        assertThat(first[0], is(2));
+    }
+
+    @Test
+    public void testScanRangeAndSlices() {
+        final MultiPatternMatcher matcher = MultiPatternMatcher.withPatterns("abc", "bc").build();
+        final Buffer buffer = Buffers.wrap("xxabcxxabcxx").slice(2, 10);
+
+        // slice is "abcxxabc"
+        assertThat(collect(matcher, buffer).toString(), is("[0:0-3, 1:1-3, 0:5-8, 1:6-8]"));
+
+        // matches have to be fully within the range
+        final List<String> matches = new ArrayList<>();
+        matcher.scan(buffer, 1, 7, (id, start, end) -> matches.add(id + ":" + start + "-" + end));
+        assertThat(matches.toString(), is("[1:1-3]"));
+    }
+
+    @Test
+    public void testReadableAndEmptyBuffers() {
+        final MultiPatternMatcher matcher = MultiPatternMatcher.withPatterns("abc").build();
+        final ReadableBuffer readable = Buffers.wrap("abcabc").toReadableBuffer();
+        readable.readByte();
+        assertThat(collect(matcher, readable).toString(), is("[0:0-3, 0:3-6]"));
+
+        final List<String> matches = new ArrayList<>();
+        matcher.scan(readable, readable.getReaderIndex(), readable.capacity(),
+                (id, start, end) -> matches.add(id + ":" + start + "-" + end));
+        assertThat(matches.toString(), is("[0:3-6]"));
+
+        assertThat(matcher.matchesAny(Buffers.wrap(new byte[0])), is(false));
+    }
+
+    @Test
+    public void testGetPattern() {
+        final MultiPatternMatcher matcher = MultiPatternMatcher.withPatterns(Buffers.wrap("hello"), Buffers.wrap("world")).build();
+        assertThat(matcher.size(), is(2));
+        assertThat(matcher.getPattern(1), is(Buffers.wrap("world")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoPatterns() {
+        MultiPatternMatcher.withPatterns(new String[0]).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyPattern() {
+        MultiPatternMatcher.withPatterns("a", "");
+    }
+
+    /**
+     * Compare against a naive search using a small alphabet, which gives us
+     * lots of overlapping matches and deep failure chains.
+     */
+    @Test
+    public void testRandomAgainstNaive() {
+        for (int round = 0; round < 50; ++round) {
+            final String[] patterns = new String[1 + random.nextInt(10)];
+            for (int i = 0; i < patterns.length; ++i) {
+                patterns[i] = randomString(1 + random.nextInt(6));
+            }
+            final String haystack = randomString(500);
+            final MultiPatternMatcher matcher = MultiPatternMatcher.withPatterns(patterns).build();
+
+            final List<String> expected = new ArrayList<>();
+            for (int end = 1; end <= haystack.length(); ++end) {
+                final List<String> atEnd = new ArrayList<>();
+                for (int id = 0; id < patterns.length; ++id) {
+                    final int start = end - patterns[id].length();
+                    if (start >= 0 && haystack.startsWith(patterns[id], start)) {
+                        atEnd.add(id + ":" + start + "-" + end);
+                    }
+                }
+                atEnd.sort(null);
+                expected.addAll(atEnd);
+            }
+
+            final List<String> actual = new ArrayList<>();
+            final List<String> atEnd = new ArrayList<>();
+            final int[] currentEnd = {-1};
+            matcher.scan(Buffers.wrap(haystack), (id, start, end) -> {
+                if (end != currentEnd[0]) {
+                    atEnd.sort(null);
+                    actual.addAll(atEnd);
+                    atEnd.clear();
+                    currentEnd[0] = end;
+                }
+                return atEnd.add(id + ":" + start + "-" + end);
+            });
+            atEnd.sort(null);
+            actual.addAll(atEnd);
+
+            assertThat(actual, is(expected));
+        }
+    }
+
+    private static List<String> collect(final MultiPatternMatcher matcher, final Buffer buffer) {
+        final List<String> matches = new ArrayList<>();
+        matcher.scan(buffer, (id, start, end) -> matches.add(id + ":" + start + "-" + end));
+        return matches;
+    }
+
+    private String randomString(final int length) {
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; ++i) {
+            sb.append((char) ('a' + random.nextInt(3)));
+        }
+        return sb.toString();
+    }
+}
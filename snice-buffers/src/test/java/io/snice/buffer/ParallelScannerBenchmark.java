@@ -0,0 +1,56 @@
+package io.snice.buffer;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Adler32;
+
+/**
+ * How the {@link ParallelScanner} scales from a single thread up to all the cores of the machine,
+ * compared to the sequential operations on the {@link Buffer} itself. Run by hand.
+ */
+public final class ParallelScannerBenchmark {
+
+    private static final int SIZE = 64 * 1024 * 1024;
+    private static final int ITERATIONS = 10;
+
+    public static void main(final String... args) {
+        final byte[] bytes = new byte[SIZE];
+        final Random random = new Random(1234);
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) (random.nextInt(80) == 0 ? '\n' : 'a' + random.nextInt(26));
+        }
+        final Buffer buffer = Buffer.of(bytes);
+
+        BenchmarkRunner.run("sequential Buffer.countOccurences", ITERATIONS,
+                () -> buffer.countOccurences(0, SIZE, (byte) '\n'));
+        BenchmarkRunner.run("sequential Buffer.hashCode", ITERATIONS, () -> Buffer.of(bytes).hashCode());
+        BenchmarkRunner.run("sequential Adler32", ITERATIONS, () -> {
+            final Adler32 adler = new Adler32();
+            adler.update(bytes);
+            return adler.getValue();
+        });
+
+        final int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            run(threads, buffer);
+        }
+        if (Integer.bitCount(cores) != 1) {
+            run(cores, buffer);
+        }
+    }
+
+    private static void run(final int threads, final Buffer buffer) {
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            final ParallelScanner scanner = ParallelScanner.withPool(pool).build();
+            final String suffix = " (" + threads + " threads)";
+            BenchmarkRunner.run("countOccurences" + suffix, ITERATIONS, () -> scanner.countOccurences(buffer, (byte) '\n'));
+            BenchmarkRunner.run("indexOf, no match" + suffix, ITERATIONS, () -> scanner.indexOf(buffer, (byte) 'Z'));
+            BenchmarkRunner.run("countLines" + suffix, ITERATIONS, () -> scanner.countLines(buffer));
+            BenchmarkRunner.run("hash" + suffix, ITERATIONS, () -> scanner.hash(buffer));
+            BenchmarkRunner.run("adler32" + suffix, ITERATIONS, () -> scanner.adler32(buffer));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
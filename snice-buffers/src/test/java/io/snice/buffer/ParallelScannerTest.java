@@ -0,0 +1,104 @@
+package io.snice.buffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Adler32;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ParallelScannerTest {
+
+    private ForkJoinPool pool;
+    private ParallelScanner scanner;
+    private byte[] content;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        scanner = ParallelScanner.withPool(pool).withThreshold(1024).build();
+
+        // plenty of LFs and the occasional '!'
+        final Random random = new Random(1122);
+        content = new byte[1024 * 1024];
+        for (int i = 0; i < content.length; ++i) {
+            content[i] = (byte) ('a' + random.nextInt(26));
+            if (random.nextInt(80) == 0) {
+                content[i] = '\n';
+            }
+        }
+        content[700000] = '!';
+        content[900000] = '!';
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testCountOccurences() {
+        ensureSameAsSequential(Buffers.wrap(content));
+        ensureSameAsSequential(Buffers.wrap(content).slice(12345, 987654));
+        ensureSameAsSequential(Buffers.wrap("hello world\n"));
+
+        final Buffer empty = Buffers.wrap(new byte[0]);
+        assertThat(scanner.countOccurences(empty, (byte) '\n'), is(0));
+        assertThat(scanner.adler32(empty), is(1L));
+    }
+
+    @Test
+    public void testIndexOf() {
+        final Buffer buffer = Buffers.wrap(content);
+        assertThat(scanner.indexOf(buffer, (byte) '!'), is(700000));
+        assertThat(scanner.indexOf(buffer.slice(700001, buffer.capacity()), (byte) '!'), is(900000 - 700001));
+        assertThat(scanner.indexOf(buffer, (byte) '#'), is(-1));
+        assertThat(scanner.indexOf(buffer, content[0]), is(0));
+    }
+
+    @Test
+    public void testCountLines() {
+        final Buffer buffer = Buffers.wrap(content);
+        assertThat((long) scanner.countLines(buffer), is(buffer.lines().count()));
+        assertThat(scanner.countLines(Buffers.wrap("a\nb")), is(2));
+        assertThat(scanner.countLines(Buffers.wrap("a\nb\n")), is(2));
+        assertThat(scanner.countLines(Buffers.wrap("\n")), is(1));
+    }
+
+    /**
+     * Readable buffers aren't backed by an array so they'll be processed on the calling
+     * thread but the result must be the same.
+     */
+    @Test
+    public void testNonArrayBuffer() {
+        final ReadableBuffer readable = Buffers.wrap(content).toReadableBuffer();
+        assertThat(scanner.countOccurences(readable, (byte) '\n'), is(scanner.countOccurences(Buffers.wrap(content), (byte) '\n')));
+        assertThat(scanner.hash(readable), is(Buffers.wrap(content).hashCode()));
+        assertThat(scanner.indexOf(readable, (byte) '!'), is(700000));
+    }
+
+    @Test
+    public void testCommonPool() {
+        final Buffer buffer = Buffers.wrap(content);
+        assertThat(ParallelScanner.commonPool().hash(buffer), is(buffer.hashCode()));
+    }
+
+    private void ensureSameAsSequential(final Buffer buffer) {
+        int count = 0;
+        for (int i = 0; i < buffer.capacity(); ++i) {
+            if (buffer.getByte(i) == '\n') {
+                ++count;
+            }
+        }
+        assertThat(scanner.countOccurences(buffer, (byte) '\n'), is(count));
+        assertThat(scanner.hash(buffer), is(buffer.hashCode()));
+
+        final Adler32 adler = new Adler32();
+        adler.update(buffer.getContent());
+        assertThat(scanner.adler32(buffer), is(adler.getValue()));
+    }
+}
@@ -0,0 +1,78 @@
+package io.snice.buffer;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * The heap used per entry by a {@link RadixTree} with a million E.164-like prefixes, with a
+ * {@link HashMap} keyed by the prefix (as a new {@link String}) as a reference, along with the cost of
+ * a longest prefix match.
+ * The memory is measured as the difference in used heap before and after building the structure, so run
+ * it by hand on an otherwise idle JVM, preferably with a fixed heap (e.g. -Xms2g -Xmx2g).
+ */
+public final class RadixTreeBenchmark {
+
+    private static final int PREFIXES = 1_000_000;
+
+    public static void main(final String... args) throws InterruptedException {
+        final Set<String> unique = new HashSet<>();
+        final Random random = new Random(1234);
+        while (unique.size() < PREFIXES) {
+            final StringBuilder sb = new StringBuilder("46");
+            final int length = 6 + random.nextInt(7);
+            while (sb.length() < length) {
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            unique.add(sb.toString());
+        }
+        final String[] prefixes = unique.toArray(new String[0]);
+        unique.clear();
+        final Buffer[] keys = new Buffer[prefixes.length];
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = Buffers.wrap(prefixes[i]);
+        }
+
+        final Integer value = 17;
+        long before = usedHeap();
+        RadixTree<Integer> tree = RadixTree.empty();
+        for (final Buffer key : keys) {
+            tree = tree.with(key, value);
+        }
+        long after = usedHeap();
+        System.out.printf("RadixTree: %d prefixes, %.1f bytes/prefix%n", tree.size(), (double) (after - before) / tree.size());
+
+        before = usedHeap();
+        final Map<String, Integer> map = new HashMap<>();
+        for (final String prefix : prefixes) {
+            map.put(new String(prefix.toCharArray()), value);
+        }
+        after = usedHeap();
+        System.out.printf("HashMap<String, V>: %d prefixes, %.1f bytes/prefix%n", map.size(), (double) (after - before) / map.size());
+
+        final Buffer[] numbers = new Buffer[1024];
+        for (int i = 0; i < numbers.length; ++i) {
+            numbers[i] = Buffers.wrap(prefixes[random.nextInt(prefixes.length)] + "1234567");
+        }
+        final RadixTree<Integer> routes = tree;
+        final int[] next = new int[1];
+        BenchmarkRunner.run("RadixTree.longestPrefixMatch", 10_000_000, () -> {
+            final Integer match = routes.longestPrefixMatch(numbers[next[0]++ & 1023]);
+            return match == null ? 0 : match;
+        });
+
+        // keep everything reachable until we are done measuring
+        System.out.println("(" + (tree.size() + map.size() + keys.length) + ")");
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; ++i) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,169 @@
+package io.snice.buffer;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RadixTreeTest {
+
+    private static RadixTree<String> routes() {
+        return RadixTree.<String>empty()
+                .with("46", "sweden")
+                .with("4670", "sweden-mobile")
+                .with("467012", "operator-a")
+                .with("1", "nanp")
+                .with("1650", "california");
+    }
+
+    @Test
+    public void testLongestPrefixMatch() {
+        final RadixTree<String> tree = routes();
+        assertThat(tree.size(), is(5));
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("46701234567")), is("operator-a"));
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("46709234567")), is("sweden-mobile"));
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("4680000")), is("sweden"));
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("467")), is("sweden"));
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("16505551234")), is("california"));
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("12125551234")), is("nanp"));
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("4")), nullValue());
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("33123")), nullValue());
+
+        final Buffer msg = Buffers.wrap("tel:+46701234567;phone-context=x");
+        assertThat(tree.longestPrefixMatch(msg, 5, 11), is("operator-a"));
+        assertThat(tree.longestPrefixMatch(msg, 5, 4), is("sweden-mobile"));
+
+        final ReadableBuffer readable = msg.toReadableBuffer();
+        readable.readBytes(5);
+        assertThat(tree.longestPrefixMatch(readable), is("operator-a"));
+    }
+
+    @Test
+    public void testGetExact() {
+        final RadixTree<String> tree = routes();
+        assertThat(tree.get(Buffers.wrap("4670")), is("sweden-mobile"));
+        assertThat(tree.get(Buffers.wrap("467")), nullValue());
+        assertThat(tree.get(Buffers.wrap("46701")), nullValue());
+        assertThat(tree.get(Buffers.wrap("4670123")), nullValue());
+    }
+
+    /**
+     * String prefixes are UTF-8, no matter the default charset of the JVM, so that they match the same
+     * text in a buffer.
+     */
+    @Test
+    public void testNonAsciiPrefix() {
+        final RadixTree<String> tree = RadixTree.<String>empty().with("räk", "shrimp");
+        assertThat(tree.longestPrefixMatch(Buffer.of("räksmörgås".getBytes(StandardCharsets.UTF_8))), is("shrimp"));
+        assertThat(tree.get(Buffers.wrap("räk")), is("shrimp"));
+        assertThat(tree.without("räk").isEmpty(), is(true));
+    }
+
+    @Test
+    public void testDefaultRoute() {
+        final RadixTree<String> tree = routes().with("", "default");
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("33123")), is("default"));
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("4670")), is("sweden-mobile"));
+        assertThat(tree.without("").longestPrefixMatch(Buffers.wrap("33123")), nullValue());
+        assertThat(tree.without("").size(), is(5));
+    }
+
+    @Test
+    public void testTbcd() {
+        final RadixTree<String> tree = routes();
+        assertThat(tree.longestPrefixMatchTbcd(Buffers.wrapAsTbcd("46701234567")), is("operator-a"));
+        assertThat(tree.longestPrefixMatchTbcd(Buffers.wrapAsTbcd("4670")), is("sweden-mobile"));
+        assertThat(tree.longestPrefixMatchTbcd(Buffers.wrapAsTbcd("467")), is("sweden"));
+        assertThat(tree.longestPrefixMatchTbcd(Buffers.wrapAsTbcd("46701")), is("sweden-mobile"));
+        assertThat(tree.longestPrefixMatchTbcd(Buffers.wrapAsTbcd("16505551234")), is("california"));
+        assertThat(tree.longestPrefixMatchTbcd(Buffers.wrapAsTbcd("3312")), nullValue());
+
+        final RadixTree<String> imsi = RadixTree.<String>empty().with("24001", "operator-b");
+        assertThat(imsi.longestPrefixMatchTbcd(Buffers.wrapAsTbcd("240011234567890")), is("operator-b"));
+    }
+
+    /**
+     * Every modification is a new snapshot, the old one is never affected.
+     */
+    @Test
+    public void testSnapshots() {
+        final RadixTree<String> original = routes();
+        final RadixTree<String> updated = original.with("4670", "replaced").without("1650").with("467013", "operator-c");
+
+        assertThat(original.longestPrefixMatch(Buffers.wrap("46709")), is("sweden-mobile"));
+        assertThat(original.longestPrefixMatch(Buffers.wrap("16505")), is("california"));
+        assertThat(original.longestPrefixMatch(Buffers.wrap("4670131")), is("sweden-mobile"));
+        assertThat(original.size(), is(5));
+
+        assertThat(updated.longestPrefixMatch(Buffers.wrap("46709")), is("replaced"));
+        assertThat(updated.longestPrefixMatch(Buffers.wrap("16505")), is("nanp"));
+        assertThat(updated.longestPrefixMatch(Buffers.wrap("4670131")), is("operator-c"));
+        assertThat(updated.size(), is(5));
+
+        assertThat(original.without("999"), sameInstance(original));
+    }
+
+    @Test
+    public void testRemove() {
+        RadixTree<String> tree = routes();
+        tree = tree.without("4670");
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("46709")), is("sweden"));
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("4670129")), is("operator-a"));
+        tree = tree.without("46").without("467012").without("1").without("1650");
+        assertThat(tree.isEmpty(), is(true));
+        assertThat(tree.longestPrefixMatch(Buffers.wrap("46709")), nullValue());
+    }
+
+    /**
+     * Compare against a brute force search over a random set of prefixes, removing some of them along the way.
+     */
+    @Test
+    public void testRandom() {
+        final Random random = new Random(42);
+        final Map<String, Integer> prefixes = new HashMap<>();
+        RadixTree<Integer> tree = RadixTree.empty();
+        for (int i = 0; i < 2000; ++i) {
+            final String prefix = randomDigits(random, 1 + random.nextInt(8));
+            prefixes.put(prefix, i);
+            tree = tree.with(prefix, i);
+        }
+
+        final List<String> keys = new ArrayList<>(prefixes.keySet());
+        for (int i = 0; i < keys.size(); i += 4) {
+            prefixes.remove(keys.get(i));
+            tree = tree.without(keys.get(i));
+        }
+        assertThat(tree.size(), is(prefixes.size()));
+
+        for (int i = 0; i < 2000; ++i) {
+            final String number = randomDigits(random, 10);
+            Integer expected = null;
+            for (int length = number.length(); length > 0 && expected == null; --length) {
+                expected = prefixes.get(number.substring(0, length));
+            }
+            assertThat(tree.longestPrefixMatch(Buffers.wrap(number)), is(expected));
+            assertThat(tree.longestPrefixMatchTbcd(Buffers.wrapAsTbcd(number)), is(expected));
+        }
+
+        final Map<String, Integer> visited = new HashMap<>();
+        tree.forEach((prefix, value) -> visited.put(prefix.toString(), value));
+        assertThat(visited, is(prefixes));
+    }
+
+    private static String randomDigits(final Random random, final int count) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; ++i) {
+            sb.append((char) ('0' + random.nextInt(4)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,33 @@
+package io.snice.buffer;
+
+import java.security.SecureRandom;
+
+/**
+ * Generating small secure random buffers, such as branch ids and tags, from many threads at once
+ * through {@link SecureRandomGenerator#shared()} compared to a single static {@link SecureRandom}, which
+ * is what {@link Buffers#secureRandom(int)} used to do (in the same way as {@link java.util.UUID}).
+ * Run by hand and note that the results depend a lot on the default {@link SecureRandom} algorithm of
+ * the platform.
+ */
+public final class SecureRandomGeneratorBenchmark {
+
+    private static final SecureRandom HOLDER = new SecureRandom();
+
+    private static final int ITERATIONS = 200_000;
+
+    public static void main(final String... args) throws InterruptedException {
+        final SecureRandomGenerator generator = SecureRandomGenerator.shared();
+        final int cores = Runtime.getRuntime().availableProcessors();
+        for (final int size : new int[]{16, 256}) {
+            for (int threads = 1; threads <= Math.max(4, cores); threads *= 2) {
+                BenchmarkRunner.runThreads("static SecureRandom, " + size + " bytes", threads, ITERATIONS, () -> {
+                    final byte[] bytes = new byte[size];
+                    HOLDER.nextBytes(bytes);
+                    return Buffers.wrap(bytes).capacity();
+                });
+                BenchmarkRunner.runThreads("SecureRandomGenerator.shared(), " + size + " bytes", threads, ITERATIONS,
+                        () -> generator.nextBuffer(size).capacity());
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package io.snice.buffer;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SecureRandomGeneratorTest {
+
+    @Test
+    public void testNextBuffer() {
+        final SecureRandomGenerator generator = SecureRandomGenerator.shared();
+        final Set<Buffer> seen = new HashSet<>();
+        for (int i = 0; i < 1000; ++i) {
+            final Buffer buffer = generator.nextBuffer(16);
+            assertThat(buffer.capacity(), is(16));
+            assertThat(seen.add(buffer), is(true));
+        }
+
+        // larger than the reservoir so should go straight to the secure random
+        assertThat(generator.nextBuffer(4 * SecureRandomGenerator.DEFAULT_RESERVOIR_SIZE).capacity(),
+                is(4 * SecureRandomGenerator.DEFAULT_RESERVOIR_SIZE));
+        assertThat(Buffers.secureUuid().capacity(), is(16));
+        assertThat(Buffers.secureUuid(), not(Buffers.secureUuid()));
+    }
+
+    /**
+     * Only the given range is filled, no matter if it is carved out of the reservoir
+     * or generated directly.
+     */
+    @Test
+    public void testNextBytesRange() {
+        final SecureRandomGenerator generator = SecureRandomGenerator.builder().withReservoirSize(64).build();
+        for (final int length : new int[]{8, 40}) {
+            final byte[] bytes = new byte[length + 20];
+            generator.nextBytes(bytes, 10, length);
+            for (int i = 0; i < 10; ++i) {
+                assertThat(bytes[i], is((byte) 0));
+                assertThat(bytes[bytes.length - 1 - i], is((byte) 0));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNextBytesOutOfBounds() {
+        SecureRandomGenerator.shared().nextBytes(new byte[10], 5, 6);
+    }
+
+    @Test
+    public void testReseed() {
+        final AtomicInteger created = new AtomicInteger();
+        final SecureRandomGenerator generator = SecureRandomGenerator.builder()
+                .withReservoirSize(100)
+                .withReseedInterval(1000)
+                .withSecureRandom(() -> {
+                    created.incrementAndGet();
+                    return new SecureRandom();
+                })
+                .build();
+
+        // 100 bytes per refill of the reservoir so the first instance is replaced after 10 refills
+        for (int i = 0; i < 100; ++i) {
+            generator.nextBytes(new byte[10]);
+        }
+        assertThat(created.get(), is(1));
+
+        generator.nextBytes(new byte[10]);
+        assertThat(created.get(), is(2));
+    }
+
+    /**
+     * A generator that is no longer used must not be kept reachable by the threads that used it.
+     */
+    @Test(timeout = 10000)
+    public void testDroppedGeneratorIsNotRetained() throws Exception {
+        final WeakReference<SecureRandomGenerator> ref = useAndDrop();
+        for (int i = 0; i < 50 && ref.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(ref.get(), nullValue());
+    }
+
+    private static WeakReference<SecureRandomGenerator> useAndDrop() {
+        final SecureRandomGenerator generator = SecureRandomGenerator.builder().build();
+        generator.nextBytes(new byte[10]);
+        return new WeakReference<>(generator);
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrent() throws Exception {
+        final SecureRandomGenerator generator = SecureRandomGenerator.builder().withReservoirSize(256).build();
+        final Set<Buffer> seen = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 2000; ++i) {
+                    assertThat(seen.add(generator.nextBuffer(12)), is(true));
+                }
+            }));
+        }
+
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertThat(seen.size(), is(8000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadReseedInterval() {
+        SecureRandomGenerator.builder().withReseedInterval(0);
+    }
+}
@@ -0,0 +1,110 @@
+package io.snice.buffer;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SortedBufferSetTest {
+
+    private static List<String> toStrings(final SortedBufferSet set) {
+        return set.stream().map(Buffer::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testSortedAndUnique() {
+        final SortedBufferSet set = SortedBufferSet.of(Buffers.wrap("banana"), Buffers.wrap("apple"),
+                Buffers.wrap("cherry"), Buffers.wrap("apple"), Buffers.wrap("app"), Buffers.wrap(""));
+        assertThat(set.size(), is(5));
+        assertThat(toStrings(set), is(List.of("", "app", "apple", "banana", "cherry")));
+        assertThat(set.get(3).toString(), is("banana"));
+
+        final List<String> iterated = new ArrayList<>();
+        set.forEach(b -> iterated.add(b.toString()));
+        assertThat(iterated, is(toStrings(set)));
+    }
+
+    /**
+     * Bytes are unsigned so 0xFF sorts after 0x01, which it wouldn't if we compared them as signed bytes.
+     */
+    @Test
+    public void testUnsignedOrder() {
+        final SortedBufferSet set = SortedBufferSet.of(Buffers.wrap((byte) 0xFF), Buffers.wrap((byte) 0x01),
+                Buffers.wrap((byte) 0x80, (byte) 0x00), Buffers.wrap((byte) 0x7F));
+        assertThat(set.get(0).getByte(0), is((byte) 0x01));
+        assertThat(set.get(1).getByte(0), is((byte) 0x7F));
+        assertThat(set.get(2).getByte(0), is((byte) 0x80));
+        assertThat(set.get(3).getByte(0), is((byte) 0xFF));
+    }
+
+    @Test
+    public void testIndexOf() {
+        final SortedBufferSet set = SortedBufferSet.of(Buffers.wrap("b"), Buffers.wrap("d"), Buffers.wrap("f"));
+        assertThat(set.indexOf(Buffers.wrap("d")), is(1));
+        assertThat(set.indexOf(Buffers.wrap("a")), is(-1));
+        assertThat(set.indexOf(Buffers.wrap("c")), is(-2));
+        assertThat(set.indexOf(Buffers.wrap("g")), is(-4));
+        assertThat(set.contains(Buffers.wrap("f")), is(true));
+        assertThat(set.contains(Buffers.wrap("ff")), is(false));
+
+        assertThat(set.ceilingIndex(Buffers.wrap("c")), is(1));
+        assertThat(set.floorIndex(Buffers.wrap("c")), is(0));
+        assertThat(set.floorIndex(Buffers.wrap("a")), is(-1));
+        assertThat(set.ceilingIndex(Buffers.wrap("g")), is(3));
+
+        final Buffer msg = Buffers.wrap("id=d;x");
+        assertThat(set.indexOf(msg, 3, 1), is(1));
+
+        final ReadableBuffer readable = msg.toReadableBuffer();
+        readable.readBytes(3);
+        assertThat(set.indexOf(readable.readBytes(1)), is(1));
+    }
+
+    @Test
+    public void testRange() {
+        final SortedBufferSet set = SortedBufferSet.of(Buffers.wrap("a1"), Buffers.wrap("a2"), Buffers.wrap("b1"),
+                Buffers.wrap("b2"), Buffers.wrap("b3"), Buffers.wrap("c1"));
+        assertThat(toStrings(set.range(Buffers.wrap("b"), Buffers.wrap("c"))), is(List.of("b1", "b2", "b3")));
+        assertThat(toStrings(set.range(Buffers.wrap("a2"), Buffers.wrap("b2"))), is(List.of("a2", "b1")));
+        assertThat(toStrings(set.range(null, Buffers.wrap("b"))), is(List.of("a1", "a2")));
+        assertThat(toStrings(set.range(Buffers.wrap("b3"), null)), is(List.of("b3", "c1")));
+        assertThat(set.range(Buffers.wrap("x"), Buffers.wrap("a")).isEmpty(), is(true));
+
+        final SortedBufferSet bs = set.withPrefix(Buffers.wrap("b"));
+        assertThat(toStrings(bs), is(List.of("b1", "b2", "b3")));
+        assertThat(bs.indexOf(Buffers.wrap("b2")), is(1));
+        assertThat(bs.indexOf(Buffers.wrap("a2")), is(-1));
+        assertThat(toStrings(bs.withPrefix(Buffers.wrap("b3"))), is(List.of("b3")));
+        assertThat(set.withPrefix(Buffers.wrap("d")).isEmpty(), is(true));
+        assertThat(set.withPrefix(Buffers.wrap("")).size(), is(6));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        SortedBufferSet.of(Buffers.wrap("a"), Buffers.wrap("b")).subSet(1, 2).get(1);
+    }
+
+    @Test
+    public void testRandom() {
+        final Random random = new Random(7);
+        final List<Buffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            final byte[] bytes = new byte[random.nextInt(6)];
+            random.nextBytes(bytes);
+            buffers.add(Buffers.wrap(bytes));
+        }
+
+        final SortedBufferSet set = SortedBufferSet.of(buffers);
+        for (int i = 1; i < set.size(); ++i) {
+            assertThat(set.get(i - 1).compareTo(set.get(i)) < 0, is(true));
+        }
+        for (final Buffer buffer : buffers) {
+            assertThat(set.get(set.indexOf(buffer)), is(buffer));
+        }
+    }
+}
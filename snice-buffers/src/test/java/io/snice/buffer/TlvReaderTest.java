@@ -0,0 +1,171 @@
+package io.snice.buffer;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class TlvReaderTest {
+
+    /**
+     * Session-Id, a grouped Vendor-Specific-Application-Id with a Vendor-Id in it and
+     * then a vendor specific AVP (with the V-bit set).
+     */
+    private static Buffer diameterAvps() {
+        final WritableBuffer buffer = WritableBuffer.of(200);
+
+        int start = buffer.getWriterIndex();
+        buffer.write(263);
+        buffer.write((byte) 0x40);
+        LengthField length = buffer.reserveLength(3, start);
+        buffer.write("hello;123");
+        length.commitAndPad();
+
+        start = buffer.getWriterIndex();
+        buffer.write(260);
+        buffer.write((byte) 0x40);
+        final LengthField grouped = buffer.reserveLength(3, start);
+        start = buffer.getWriterIndex();
+        buffer.write(266);
+        buffer.write((byte) 0x40);
+        length = buffer.reserveLength(3, start);
+        buffer.write(10415);
+        length.commitAndPad();
+        grouped.commitAndPad();
+
+        start = buffer.getWriterIndex();
+        buffer.write(1032);
+        buffer.write((byte) 0xC0);
+        length = buffer.reserveLength(3, start);
+        buffer.write(10415);
+        buffer.write((byte) 0x01);
+        length.commitAndPad();
+
+        return buffer.build();
+    }
+
+    @Test
+    public void testDiameter() {
+        final TlvReader reader = TlvReader.of(TlvLayout.diameter(), diameterAvps());
+
+        assertThat(reader.next(), is(true));
+        assertThat(reader.getType(), is(263L));
+        assertThat(reader.getFlags(), is(0x40L));
+        assertThat(reader.hasOptionalField(), is(false));
+        assertThat(reader.getValue().toString(), is("hello;123"));
+
+        assertThat(reader.next(), is(true));
+        assertThat(reader.getType(), is(260L));
+        assertThat(reader.getValueLength(), is(12));
+        final TlvReader nested = reader.nested();
+        assertThat(nested.next(), is(true));
+        assertThat(nested.getType(), is(266L));
+        assertThat(nested.getValue().getInt(0), is(10415));
+        assertThat(nested.next(), is(false));
+
+        assertThat(reader.next(), is(true));
+        assertThat(reader.getType(), is(1032L));
+        assertThat(reader.hasOptionalField(), is(true));
+        assertThat(reader.getOptionalField(), is(10415L));
+        assertThat(reader.getValueLength(), is(1));
+        assertThat(reader.getValue().getByte(0), is((byte) 0x01));
+
+        assertThat(reader.next(), is(false));
+
+        reader.reset();
+        assertThat(reader.next(1032), is(true));
+        assertThat(reader.getElementIndex(), is(40));
+        assertThat(reader.next(263), is(false));
+    }
+
+    @Test
+    public void testGtpv2() {
+        // IMSI (type 1) with instance 0 and a Recovery (type 3) with instance 1
+        final Buffer ies = Buffer.of(
+                (byte) 0x01, (byte) 0x00, (byte) 0x03, (byte) 0x00, (byte) 0x21, (byte) 0x43, (byte) 0xF5,
+                (byte) 0x03, (byte) 0x00, (byte) 0x01, (byte) 0x01, (byte) 0x07);
+
+        final TlvReader reader = TlvReader.of(TlvLayout.gtpv2(), ies);
+        assertThat(reader.next(), is(true));
+        assertThat(reader.getType(), is(1L));
+        assertThat(reader.getValue().toTBCD(), is("12345"));
+
+        assertThat(reader.next(), is(true));
+        assertThat(reader.getType(), is(3L));
+        assertThat(reader.getFlags(), is(1L));
+        assertThat(reader.getValueIndex(), is(11));
+        assertThat(reader.next(), is(false));
+    }
+
+    @Test
+    public void testBer() {
+        final byte[] bytes = new byte[9 + 3 + 128];
+        final byte[] header = {0x30, 0x07, 0x02, 0x01, 0x05, (byte) 0x9F, 0x1F, 0x01, (byte) 0xAA, 0x04, (byte) 0x81, (byte) 0x80};
+        System.arraycopy(header, 0, bytes, 0, header.length);
+
+        final TlvReader reader = TlvReader.of(TlvLayout.ber(), Buffer.of(bytes));
+        assertThat(reader.next(), is(true));
+        assertThat(reader.getType(), is(0x30L));
+
+        final TlvReader sequence = reader.nested();
+        assertThat(sequence.next(), is(true));
+        assertThat(sequence.getType(), is(0x02L));
+        assertThat(sequence.getValue().getByte(0), is((byte) 5));
+        assertThat(sequence.next(), is(true));
+        assertThat(sequence.getType(), is(0x9F1FL));
+        assertThat(sequence.getValueLength(), is(1));
+        assertThat(sequence.next(), is(false));
+
+        assertThat(reader.next(), is(true));
+        assertThat(reader.getType(), is(0x04L));
+        assertThat(reader.getValueLength(), is(128));
+        assertThat(reader.next(), is(false));
+    }
+
+    /**
+     * The reader index of a readable buffer is where we start but
+     * reading the elements doesn't move it.
+     */
+    @Test
+    public void testReadableBuffer() {
+        final ReadableBuffer buffer = diameterAvps().toReadableBuffer();
+        buffer.readBytes(20);
+        final TlvReader reader = TlvReader.of(TlvLayout.diameter(), buffer);
+        assertThat(reader.next(), is(true));
+        assertThat(reader.getType(), is(260L));
+        assertThat(reader.getElementIndex(), is(20));
+        assertThat(buffer.getReaderIndex(), is(20));
+    }
+
+    @Test
+    public void testTruncated() {
+        final Buffer avps = diameterAvps();
+        final TlvReader reader = TlvReader.of(TlvLayout.diameter(), avps.slice(30));
+        assertThat(reader.next(), is(true));
+        try {
+            reader.next();
+            fail("Expected to blow up on a " + BufferOutOfBoundsException.class.getName());
+        } catch (final BufferOutOfBoundsException e) {
+            assertThat(e.getIndex(), is(20));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNotPositioned() {
+        TlvReader.of(TlvLayout.gtpv2(), Buffer.of((byte) 0x01)).getType();
+    }
+
+    @Test
+    public void testCustomLayout() {
+        final TlvLayout layout = TlvLayout.withTypeWidth(2)
+                .withLengthWidth(1)
+                .withLengthSemantics(TlvLayout.LengthSemantics.ELEMENT)
+                .build();
+        final TlvReader reader = TlvReader.of(layout, Buffer.of((byte) 0x00, (byte) 0x07, (byte) 0x05, (byte) 0x0A, (byte) 0x0B));
+        assertThat(reader.next(), is(true));
+        assertThat(reader.getType(), is(7L));
+        assertThat(reader.getValueLength(), is(2));
+        assertThat(reader.next(), is(false));
+    }
+}
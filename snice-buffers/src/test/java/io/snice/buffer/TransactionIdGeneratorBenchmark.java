@@ -0,0 +1,28 @@
+package io.snice.buffer;
+
+import io.snice.protocol.TransactionIdGenerator;
+
+/**
+ * Transaction ids per second, across an increasing number of threads, for each of the
+ * {@link TransactionIdGenerator}s. It lives here rather than in snice-commons since it includes the
+ * {@link BufferTransactionId} generator. Run by hand.
+ */
+public final class TransactionIdGeneratorBenchmark {
+
+    private static final int ITERATIONS = 500_000;
+
+    public static void main(final String... args) throws InterruptedException {
+        final int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(4, cores); threads *= 2) {
+            run("uuid()", TransactionIdGenerator.uuid(), threads);
+            run("timeOrdered()", TransactionIdGenerator.timeOrdered(), threads);
+            run("counter(7)", TransactionIdGenerator.counter(7), threads);
+            run("BufferTransactionId.generator(16)", BufferTransactionId.generator(16), threads);
+        }
+    }
+
+    private static void run(final String name, final TransactionIdGenerator generator, final int threads)
+            throws InterruptedException {
+        BenchmarkRunner.runThreads(name, threads, ITERATIONS, () -> generator.generate().hashCode());
+    }
+}
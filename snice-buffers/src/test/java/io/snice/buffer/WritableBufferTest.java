@@ -2,6 +2,10 @@ package io.snice.buffer;
 
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.function.Consumer;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -333,6 +337,146 @@ public class WritableBufferTest {
         assertThat(buffer.readLong(), is(-1L));
     }
 
+    /**
+     * Encode a grouped Diameter AVP where the inner AVP needs padding, which then
+     * is part of the length of the outer AVP.
+     */
+    @Test
+    public void testReserveLengthNested() throws Exception {
+        final WritableBuffer buffer = WritableBuffer.of(100);
+        buffer.write(260); // Vendor-Specific-Application-Id
+        buffer.write((byte) 0x40);
+        final LengthField outer = buffer.reserveLength(3, 0);
+
+        final int start = buffer.getWriterIndex();
+        buffer.write(266); // Vendor-Id
+        buffer.write((byte) 0x40);
+        final LengthField inner = buffer.reserveLength(3, start);
+        buffer.write("abcde");
+
+        assertThat(inner.commitAndPad(), is(13));
+        assertThat(outer.commitAndPad(), is(24));
+
+        final Buffer avp = buffer.build();
+        assertThat(avp.capacity(), is(24));
+        assertThat(avp.getIntFromThreeOctets(5), is(24));
+        assertThat(avp.getIntFromThreeOctets(13), is(13));
+        assertThat(avp.getByte(21), is((byte) 0));
+    }
+
+    /**
+     * The length of a GTPv1 header counts everything after the mandatory 8 bytes, i.e., it starts
+     * after the TEID that follows the length field.
+     */
+    @Test
+    public void testReserveLengthGtpv1Header() throws Exception {
+        final WritableBuffer buffer = WritableBuffer.of(100);
+        buffer.write((byte) 0x30); // version 1, PT 1
+        buffer.write((byte) 0xFF); // T-PDU
+        final LengthField length = buffer.reserveLength(2, buffer.getWriterIndex() + 6);
+        buffer.write(0x12345678); // TEID
+        buffer.write("payload");
+        assertThat(length.commit(), is(7));
+
+        final Buffer gtp = buffer.build();
+        assertThat(gtp.getUnsignedShort(2), is(7));
+        assertThat(gtp.getInt(4), is(0x12345678));
+        assertThat(gtp.capacity(), is(8 + 7));
+        assertThat(gtp.slice(8, 15).toString(), is("payload"));
+    }
+
+    /**
+     * The length of a GTPv2 IE doesn't include the type, length nor the spare/instance
+     * octet that follows the length field.
+     */
+    @Test
+    public void testReserveLengthGtpv2Ie() throws Exception {
+        final WritableBuffer buffer = WritableBuffer.of(100);
+        buffer.write((byte) 1); // IMSI
+        final LengthField length = buffer.reserveLength(2, buffer.getWriterIndex() + 3);
+        buffer.write((byte) 0); // spare/instance
+        buffer.write(new byte[]{0x21, 0x43, 0x65, (byte) 0xF7});
+        assertThat(length.commit(), is(4));
+
+        final Buffer ie = buffer.build();
+        assertThat(ie.capacity(), is(8));
+        assertThat(ie.getUnsignedShort(1), is(4));
+        assertThat(ie.getByte(3), is((byte) 0));
+        assertThat(ie.getByte(7), is((byte) 0xF7));
+    }
+
+    /**
+     * Committing before the writer index has reached the start index is a bug in the encoder.
+     */
+    @Test
+    public void testReserveLengthCommitBeforeStart() throws Exception {
+        final WritableBuffer buffer = WritableBuffer.of(100);
+        final LengthField length = buffer.reserveLength(2, 10);
+        buffer.write("abc");
+        ensureDoesntWork(buffer, b -> length.commit());
+        assertThat(length.isCommitted(), is(false));
+    }
+
+    @Test
+    public void testReserveLengthWidths() throws Exception {
+        final WritableBuffer buffer = WritableBuffer.of(100);
+        final LengthField one = buffer.reserveLength(1);
+        buffer.write("hello");
+        one.commit();
+
+        final LengthField two = buffer.reserveLength(2);
+        buffer.write("hi");
+        two.commit();
+
+        final LengthField four = buffer.reserveLength(4);
+        buffer.write("hey");
+        four.commit();
+
+        final ReadableBuffer b = buffer.build().toReadableBuffer();
+        assertThat(b.readUnsignedByte(), is((short) 5));
+        assertThat(b.readBytes(5).toString(), is("hello"));
+        assertThat(b.readUnsignedShort(), is(2));
+        assertThat(b.readBytes(2).toString(), is("hi"));
+        assertThat(b.readUnsignedInt(), is(3L));
+        assertThat(b.readBytes(3).toString(), is("hey"));
+    }
+
+    @Test
+    public void testReserveLengthOnReadWriteBuffer() throws Exception {
+        final ReadWriteBuffer buffer = ReadWriteBuffer.of(100);
+        buffer.write((byte) 1);
+        final LengthField length = buffer.reserveLength(2);
+        buffer.write("hello");
+        assertThat(length.commit(), is(5));
+        assertThat(buffer.getUnsignedShort(1), is(5));
+    }
+
+    @Test
+    public void testReserveLengthErrors() throws Exception {
+        final WritableBuffer buffer = WritableBuffer.of(400);
+        final LengthField length = buffer.reserveLength(1);
+        buffer.write(new byte[300]);
+        ensureDoesntWork(buffer, b -> length.commit());
+
+        final LengthField other = buffer.reserveLength(2);
+        other.commit();
+        ensureDoesntWork(buffer, b -> other.commit());
+
+        try {
+            buffer.reserveLength(5);
+            fail("Expected to blow up on an IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            WritableBuffer.of(2).reserveLength(3);
+            fail("Expected to blow up on an IndexOutOfBoundsException");
+        } catch (final IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
     /**
      * Helper method to ensure that if the operation is performed, we blow up on an {@link IllegalStateException}
      *
@@ -346,4 +490,42 @@ public class WritableBufferTest {
         }
     }
 
+
+    @Test
+    public void testAsOutputStream() throws Exception {
+        final WritableBuffer buffer = WritableBuffer.of(10);
+        buffer.write((byte) 'a');
+        final OutputStream out = buffer.asOutputStream();
+        out.write('b');
+        out.write("cdefgh".getBytes(), 1, 3);
+        assertThat(buffer.getWriterIndex(), is(5));
+
+        try {
+            out.write(new byte[6]);
+            fail("Expected to blow up on an IOException");
+        } catch (final IOException e) {
+            // expected
+        }
+        assertThat(buffer.build().toString(), is("abdef"));
+    }
+
+    @Test
+    public void testAsWritableByteChannel() throws Exception {
+        final WritableBuffer buffer = WritableBuffer.of(10);
+        final WritableByteChannel channel = buffer.asWritableByteChannel();
+        assertThat(channel.write(ByteBuffer.wrap("hello".getBytes())), is(5));
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(8);
+        direct.put("world!!!".getBytes()).flip();
+        assertThat(channel.write(direct), is(5));
+        assertThat(direct.remaining(), is(3));
+
+        try {
+            channel.write(direct);
+            fail("Expected to blow up on an IOException");
+        } catch (final IOException e) {
+            // expected
+        }
+        assertThat(buffer.build().toString(), is("helloworld"));
+    }
 }
@@ -0,0 +1,90 @@
+package io.snice.protocol;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A 128 bit {@link TransactionId} made up of a node id and a sequence number.
+ *
+ * @see TransactionIdGenerator#counter(long)
+ */
+public final class CounterTransactionId implements TransactionId {
+
+    private final long nodeId;
+    private final long sequence;
+
+    public static CounterTransactionId of(final long nodeId, final long sequence) {
+        return new CounterTransactionId(nodeId, sequence);
+    }
+
+    private CounterTransactionId(final long nodeId, final long sequence) {
+        this.nodeId = nodeId;
+        this.sequence = sequence;
+    }
+
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return hex(nodeId) + "-" + hex(sequence);
+    }
+
+    private static String hex(final long value) {
+        final String hex = Long.toHexString(value);
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final CounterTransactionId that = (CounterTransactionId) o;
+        return nodeId == that.nodeId && sequence == that.sequence;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(nodeId * 31 + sequence);
+    }
+
+    /**
+     * Every stripe is its own counter and the stripe number makes up the lowest bits of the
+     * sequence, so two stripes can never produce the same sequence. The counters are spread out
+     * in the array so that no two of them share a cache line.
+     */
+    static final class Generator implements TransactionIdGenerator {
+
+        private static final int PADDING = 16;
+
+        private final long nodeId;
+        private final AtomicLongArray counters;
+        private final int mask;
+        private final int bits;
+
+        Generator(final long nodeId) {
+            this.nodeId = nodeId;
+            final int cpus = Runtime.getRuntime().availableProcessors();
+            final int stripes = Math.min(64, cpus <= 1 ? 1 : Integer.highestOneBit(cpus - 1) << 1);
+            mask = stripes - 1;
+            bits = Integer.numberOfTrailingZeros(stripes);
+            counters = new AtomicLongArray(stripes * PADDING);
+        }
+
+        @Override
+        public TransactionId generate() {
+            final int stripe = (int) Thread.currentThread().getId() & mask;
+            final long count = counters.getAndIncrement(stripe * PADDING);
+            return new CounterTransactionId(nodeId, count << bits | stripe);
+        }
+
+        @Override
+        public String toString() {
+            return "CounterTransactionIdGenerator[nodeId=" + nodeId + ", stripes=" + (mask + 1) + "]";
+        }
+    }
+}
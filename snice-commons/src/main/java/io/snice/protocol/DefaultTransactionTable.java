@@ -0,0 +1,244 @@
+package io.snice.protocol;
+
+import io.snice.time.Clock;
+import io.snice.time.TimingWheel;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * Every stripe has a map from {@link TransactionId} to the outstanding transaction, and the timeouts
+ * are kept in a {@link TimingWheel}, which is shared by all stripes. A transaction that completes is
+ * removed from its map and its timer is cancelled, both in constant time, and since a cancelled timer lets
+ * go of its task, nothing keeps the request nor the response reachable after that.
+ */
+final class DefaultTransactionTable<O> implements TransactionTable<O> {
+
+    private final Duration defaultTimeout;
+    private final Stripe<O>[] stripes;
+    private final int mask;
+    private final TimingWheel wheel;
+
+    @SuppressWarnings("unchecked")
+    static <O> TransactionTable<O> of(final Duration defaultTimeout, final int noOfStripes, final Clock clock,
+                                      final ScheduledExecutorService scheduler, final Duration tick) {
+        final int count = noOfStripes <= 1 ? 1 : Integer.highestOneBit(noOfStripes - 1) << 1;
+        final Stripe<O>[] stripes = new Stripe[count];
+        for (int i = 0; i < count; ++i) {
+            stripes[i] = new Stripe<>();
+        }
+
+        final TimingWheel.Builder wheel = TimingWheel.builder()
+                .withClock(clock)
+                .withTick(tick != null ? tick : TimingWheel.DEFAULT_TICK);
+        if (scheduler != null) {
+            wheel.withScheduler(scheduler);
+        }
+        return new DefaultTransactionTable<>(defaultTimeout, stripes, wheel.build());
+    }
+
+    private DefaultTransactionTable(final Duration defaultTimeout, final Stripe<O>[] stripes, final TimingWheel wheel) {
+        this.defaultTimeout = defaultTimeout;
+        this.stripes = stripes;
+        this.mask = stripes.length - 1;
+        this.wheel = wheel;
+    }
+
+    private Stripe<O> stripe(final TransactionId id) {
+        final int h = id.hashCode();
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    @Override
+    public CompletableFuture<Response<O, ?>> register(final Request<O, ?> request, final Duration timeout,
+                                                      final Consumer<Response<O, ?>> onProvisional) {
+        assertNotNull(request, "The request cannot be null");
+        assertNotNull(timeout, "The timeout cannot be null");
+        assertArgument(!timeout.isNegative() && !timeout.isZero(), "The timeout must be greater than zero");
+
+        final TransactionId id = request.getTransactionId();
+        final Entry<O> entry = new Entry<>(request, onProvisional);
+        final Stripe<O> stripe = stripe(id);
+        stripe.lock.lock();
+        try {
+            final Entry<O> existing = stripe.transactions.putIfAbsent(id, entry);
+            assertArgument(existing == null, "There already is an outstanding transaction with id " + id);
+
+            // scheduled while holding the lock so that the timer is in place before anyone
+            // can find, and complete, the transaction.
+            entry.timer = wheel.schedule(() -> timeout(stripe, entry), timeout);
+        } finally {
+            stripe.lock.unlock();
+        }
+        return entry.future;
+    }
+
+    private void timeout(final Stripe<O> stripe, final Entry<O> entry) {
+        final TransactionId id = entry.request.getTransactionId();
+        final boolean removed;
+        stripe.lock.lock();
+        try {
+            // it may have completed just as the timer fired
+            removed = stripe.transactions.remove(id, entry);
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (removed) {
+            entry.future.completeExceptionally(new TimeoutException("Transaction " + id + " timed out"));
+        }
+    }
+
+    /**
+     * Remove the transaction, if it is still outstanding, and cancel its timer.
+     */
+    private Entry<O> remove(final TransactionId id) {
+        final Stripe<O> stripe = stripe(id);
+        final Entry<O> entry;
+        stripe.lock.lock();
+        try {
+            entry = stripe.transactions.remove(id);
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (entry != null) {
+            entry.timer.cancel();
+        }
+        return entry;
+    }
+
+    @Override
+    public boolean process(final Response<O, ?> response) {
+        assertNotNull(response, "The response cannot be null");
+        final TransactionId id = response.getTransactionId();
+        if (response.isFinal()) {
+            final Entry<O> entry = remove(id);
+            if (entry == null) {
+                return false;
+            }
+            entry.future.complete(response);
+            return true;
+        }
+
+        final Stripe<O> stripe = stripe(id);
+        final Entry<O> entry;
+        stripe.lock.lock();
+        try {
+            entry = stripe.transactions.get(id);
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (entry == null) {
+            return false;
+        }
+        if (entry.onProvisional != null) {
+            entry.onProvisional.accept(response);
+        }
+        return true;
+    }
+
+    @Override
+    public Optional<Request<O, ?>> get(final TransactionId id) {
+        assertNotNull(id, "The transaction id cannot be null");
+        final Stripe<O> stripe = stripe(id);
+        stripe.lock.lock();
+        try {
+            final Entry<O> entry = stripe.transactions.get(id);
+            return entry == null ? Optional.empty() : Optional.of(entry.request);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean cancel(final TransactionId id) {
+        assertNotNull(id, "The transaction id cannot be null");
+        final Entry<O> entry = remove(id);
+        if (entry == null) {
+            return false;
+        }
+        entry.future.cancel(false);
+        return true;
+    }
+
+    @Override
+    public int expire() {
+        return wheel.advance();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (final Stripe<O> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.transactions.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Duration getDefaultTimeout() {
+        return defaultTimeout;
+    }
+
+    @Override
+    public void close() {
+        wheel.close();
+
+        final List<Entry<O>> outstanding = new ArrayList<>();
+        for (final Stripe<O> stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                outstanding.addAll(stripe.transactions.values());
+                stripe.transactions.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        outstanding.forEach(entry -> entry.future.cancel(false));
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionTable[stripes=" + stripes.length + ", defaultTimeout=" + defaultTimeout + "]";
+    }
+
+    private static final class Stripe<O> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<TransactionId, Entry<O>> transactions = new HashMap<>();
+    }
+
+    private static final class Entry<O> {
+        private final Request<O, ?> request;
+        private final Consumer<Response<O, ?>> onProvisional;
+        private final CompletableFuture<Response<O, ?>> future = new CompletableFuture<>();
+
+        /**
+         * Guarded by the lock of the stripe.
+         */
+        private TimingWheel.Timeout timer;
+
+        private Entry(final Request<O, ?> request, final Consumer<Response<O, ?>> onProvisional) {
+            this.request = request;
+            this.onProvisional = onProvisional;
+        }
+    }
+}
@@ -1,9 +1,29 @@
 package io.snice.protocol;
 
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
 public interface TransactionId {
 
+    /**
+     * Generate a new {@link TransactionId} using the default generator, which is
+     * {@link TransactionIdGenerator#uuid()} unless changed through {@link #setDefaultGenerator(TransactionIdGenerator)}.
+     */
     static TransactionId generateDefault() {
-        return UuidTransactionId.generate();
+        return TransactionIdGenerators.defaultGenerator.generate();
+    }
+
+    /**
+     * Change the generator used by {@link #generateDefault()}, and as such, by all requests that
+     * aren't given an explicit {@link TransactionId}. This is a JVM wide setting so do it once,
+     * when your application starts.
+     */
+    static void setDefaultGenerator(final TransactionIdGenerator generator) {
+        assertNotNull(generator, "The transaction id generator cannot be null");
+        TransactionIdGenerators.defaultGenerator = generator;
+    }
+
+    static TransactionIdGenerator getDefaultGenerator() {
+        return TransactionIdGenerators.defaultGenerator;
     }
 
 }
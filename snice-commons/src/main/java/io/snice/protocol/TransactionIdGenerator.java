@@ -0,0 +1,49 @@
+package io.snice.protocol;
+
+import io.snice.time.Clock;
+import io.snice.time.SystemClock;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * A strategy for generating {@link TransactionId}s. All generators are thread safe.
+ */
+@FunctionalInterface
+public interface TransactionIdGenerator {
+
+    TransactionId generate();
+
+    /**
+     * Random (version 4) UUIDs through {@link java.util.UUID#randomUUID()}, which are unguessable
+     * but draw from a single, shared {@link java.security.SecureRandom}.
+     */
+    static TransactionIdGenerator uuid() {
+        return UuidTransactionId::generate;
+    }
+
+    /**
+     * Time ordered (version 7) UUIDs, i.e. the milliseconds since the epoch followed by 74 random bits.
+     * The random bits come from a {@link java.util.concurrent.ThreadLocalRandom} so there is no contention,
+     * but also, the ids are not unguessable.
+     */
+    static TransactionIdGenerator timeOrdered() {
+        return timeOrdered(new SystemClock());
+    }
+
+    static TransactionIdGenerator timeOrdered(final Clock clock) {
+        assertNotNull(clock, "The clock cannot be null");
+        return () -> UuidTransactionId.generateTimeOrdered(clock.getCurrentTimeMillis());
+    }
+
+    /**
+     * 128 bit ids made up of the given node id and a 64 bit sequence number, which is the cheapest
+     * way of generating unique ids. Uniqueness across processes is up to you, through the node id,
+     * and even within the process, the ids are only unique per generator so create one and share it.
+     *
+     * The sequence is striped across a number of counters so that threads don't contend on
+     * a single one, which means that ids are unique but not in order.
+     */
+    static TransactionIdGenerator counter(final long nodeId) {
+        return new CounterTransactionId.Generator(nodeId);
+    }
+}
@@ -0,0 +1,14 @@
+package io.snice.protocol;
+
+/**
+ * Home of the default {@link TransactionIdGenerator}, since an interface can't
+ * have mutable static state.
+ */
+final class TransactionIdGenerators {
+
+    static volatile TransactionIdGenerator defaultGenerator = TransactionIdGenerator.uuid();
+
+    private TransactionIdGenerators() {
+        // left empty intentionally
+    }
+}
@@ -0,0 +1,154 @@
+package io.snice.protocol;
+
+import io.snice.time.Clock;
+import io.snice.time.SystemClock;
+import io.snice.time.TimingWheel;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * Keeps track of outstanding {@link Request}s and matches incoming {@link Response}s to them by their
+ * {@link TransactionId}. The final response completes the future you got when registering the request,
+ * while provisional responses are handed to an (optional) callback. If no final response arrives before
+ * the request times out, the future is completed exceptionally with a {@link TimeoutException}.
+ * </p>
+ *
+ * <p>
+ * The table is split up into a number of stripes, each one with its own lock and map of transactions,
+ * so that many threads can register requests and process responses without contending with each other.
+ * The timeouts are kept in a {@link TimingWheel}, so that scheduling and cancelling them is constant time
+ * and a completed transaction is let go of straight away. Callbacks and futures are always completed
+ * outside of any lock.
+ * </p>
+ *
+ * <p>
+ * Transactions are expired by calling {@link #expire()}, which is done for you on a fixed schedule if
+ * you give the table a {@link ScheduledExecutorService}. Timeouts are measured with the monotonic time of
+ * the {@link Clock} ({@link Clock#getNanoTime()}) and have the resolution of one tick, so a request may stay
+ * around for up to one tick, plus however long it takes until the next expiry, past its timeout.
+ * </p>
+ */
+public interface TransactionTable<O> extends AutoCloseable {
+
+    int DEFAULT_STRIPES = 64;
+
+    static <O> Builder<O> withDefaultTimeout(final Duration timeout) {
+        assertNotNull(timeout, "The timeout cannot be null");
+        assertArgument(!timeout.isNegative() && !timeout.isZero(), "The timeout must be greater than zero");
+        return new Builder<>(timeout);
+    }
+
+    /**
+     * Register the request using the default timeout.
+     *
+     * @return a future that is completed with the final response.
+     * @throws IllegalArgumentException in case there already is an outstanding transaction with the
+     *                                  same {@link TransactionId}.
+     */
+    default CompletableFuture<Response<O, ?>> register(final Request<O, ?> request) throws IllegalArgumentException {
+        return register(request, getDefaultTimeout(), null);
+    }
+
+    /**
+     * @param onProvisional called with every provisional response, on the thread calling {@link #process(Response)}.
+     *                      May be null.
+     */
+    CompletableFuture<Response<O, ?>> register(Request<O, ?> request, Duration timeout,
+                                               Consumer<Response<O, ?>> onProvisional) throws IllegalArgumentException;
+
+    /**
+     * Match the response to its request.
+     *
+     * @return true if there was an outstanding transaction for the response, false otherwise, which e.g.
+     * is the case for a re-transmitted final response or one that arrives after the request timed out.
+     */
+    boolean process(Response<O, ?> response);
+
+    Optional<Request<O, ?>> get(TransactionId id);
+
+    /**
+     * Remove the transaction and cancel its future.
+     *
+     * @return true if the transaction was outstanding.
+     */
+    boolean cancel(TransactionId id);
+
+    /**
+     * Time out all transactions whose timeout has passed.
+     *
+     * @return the number of timeouts that fired, which are the transactions that timed out apart from
+     * any that completed at the very same time.
+     */
+    int expire();
+
+    /**
+     * The number of outstanding transactions.
+     */
+    int size();
+
+    Duration getDefaultTimeout();
+
+    /**
+     * Stop the scheduled expiry, if any, and cancel all outstanding transactions.
+     */
+    @Override
+    void close();
+
+    class Builder<O> {
+
+        private final Duration timeout;
+        private int stripes = DEFAULT_STRIPES;
+        private Clock clock = new SystemClock();
+        private ScheduledExecutorService scheduler;
+        private Duration tick;
+
+        private Builder(final Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        /**
+         * The number of stripes, which will be rounded up to the closest power of two.
+         */
+        public Builder<O> withStripes(final int stripes) {
+            assertArgument(stripes >= 1 && stripes <= 1 << 16, "The number of stripes must be between 1 - 65536");
+            this.stripes = stripes;
+            return this;
+        }
+
+        /**
+         * The clock to measure the timeouts with, which is only ever asked for its monotonic time.
+         */
+        public Builder<O> withClock(final Clock clock) {
+            assertNotNull(clock, "The clock cannot be null");
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Have the table call {@link #expire()} on the given scheduler every tick, which must be at least
+         * one millisecond. Without a scheduler, the tick is {@link TimingWheel#DEFAULT_TICK}. The table
+         * does not own the scheduler, so it won't shut it down when closed.
+         */
+        public Builder<O> withScheduler(final ScheduledExecutorService scheduler, final Duration tick) {
+            assertNotNull(scheduler, "The scheduler cannot be null");
+            assertNotNull(tick, "The tick cannot be null");
+            assertArgument(tick.toMillis() >= 1, "The tick must be at least one millisecond");
+            this.scheduler = scheduler;
+            this.tick = tick;
+            return this;
+        }
+
+        public TransactionTable<O> build() {
+            return DefaultTransactionTable.of(timeout, stripes, clock, scheduler, tick);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package io.snice.protocol;
 
-import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.snice.preconditions.PreConditions.assertNotNull;
 
 public class UuidTransactionId implements TransactionId {
 
@@ -11,10 +13,30 @@ public class UuidTransactionId implements TransactionId {
         return new UuidTransactionId(UUID.randomUUID());
     }
 
+    public static TransactionId of(final UUID uuid) {
+        assertNotNull(uuid, "The UUID cannot be null");
+        return new UuidTransactionId(uuid);
+    }
+
+    /**
+     * Generate a version 7 UUID (RFC 9562) for the given time, which is 48 bits of milliseconds since
+     * the epoch, the version, 12 random bits, the variant and another 62 random bits.
+     */
+    static TransactionId generateTimeOrdered(final long millis) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long msb = (millis & 0xFFFFFFFFFFFFL) << 16 | 0x7000L | (random.nextInt() & 0x0FFF);
+        final long lsb = random.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UuidTransactionId(new UUID(msb, lsb));
+    }
+
     private UuidTransactionId(final UUID uuid) {
         this.uuid = uuid;
     }
 
+    public UUID getUuid() {
+        return uuid;
+    }
+
     @Override
     public String toString() {
         return uuid.toString();
@@ -25,11 +47,11 @@ public class UuidTransactionId implements TransactionId {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         final UuidTransactionId that = (UuidTransactionId) o;
-        return Objects.equals(uuid, that.uuid);
+        return uuid.equals(that.uuid);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(uuid);
+        return uuid.hashCode();
     }
 }
@@ -0,0 +1,106 @@
+package io.snice.time;
+
+import io.snice.util.concurrent.SniceThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * A {@link Clock} that is updated by a single background thread once every "resolution", so that reading
+ * the time is nothing more than reading a volatile field. Use it where you need a timestamp a lot more
+ * often than you need it to be exact, such as when stamping every message or transaction.
+ *
+ * Both the wall clock and the monotonic time lag behind the real thing by up to one resolution (or
+ * more, if the ticker thread doesn't get scheduled in time). The wall clock may go backwards if the
+ * system time is adjusted, just like {@link SystemClock}.
+ */
+public final class CachedClock implements Clock, AutoCloseable {
+
+    public static final Duration DEFAULT_RESOLUTION = Duration.ofMillis(1);
+
+    private static final ThreadFactory THREAD_FACTORY = SniceThreadFactory.withNamePrefix("snice-cached-clock-")
+            .withDaemon(true)
+            .build();
+
+    private final long resolution;
+    private final Thread ticker;
+
+    private volatile boolean running = true;
+    private volatile long currentTimeMillis;
+    private volatile long nanoTime;
+
+    public static CachedClock of() {
+        return of(DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * Create a new clock and start its ticker thread, which is a daemon thread that keeps running until
+     * the clock is closed.
+     *
+     * @param resolution how often the time is updated.
+     */
+    public static CachedClock of(final Duration resolution) {
+        return of(resolution, THREAD_FACTORY);
+    }
+
+    /**
+     * Same as {@link #of(Duration)} but the ticker thread is created by the given {@link ThreadFactory}.
+     */
+    public static CachedClock of(final Duration resolution, final ThreadFactory threadFactory) {
+        assertNotNull(resolution, "The resolution cannot be null");
+        assertArgument(resolution.toNanos() >= 1000, "The resolution must be at least one microsecond");
+        assertNotNull(threadFactory, "The thread factory cannot be null");
+        return new CachedClock(resolution.toNanos(), threadFactory);
+    }
+
+    private CachedClock(final long resolution, final ThreadFactory threadFactory) {
+        this.resolution = resolution;
+        update();
+        ticker = threadFactory.newThread(this::tick);
+        ticker.start();
+    }
+
+    private void update() {
+        currentTimeMillis = System.currentTimeMillis();
+        nanoTime = System.nanoTime();
+    }
+
+    private void tick() {
+        while (running) {
+            LockSupport.parkNanos(this, resolution);
+            update();
+        }
+    }
+
+    @Override
+    public long getCurrentTimeMillis() {
+        return currentTimeMillis;
+    }
+
+    @Override
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    public Duration getResolution() {
+        return Duration.ofNanos(resolution);
+    }
+
+    /**
+     * Stop the ticker thread. The clock will keep returning the last time it saw.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    @Override
+    public String toString() {
+        return "CachedClock[resolution=" + getResolution() + "]";
+    }
+}
@@ -17,4 +17,15 @@ public interface Clock {
      */
     long getCurrentTimeMillis();
 
+    /**
+     * Get the current value of a monotonic time source, in nanoseconds. The value has no relation
+     * to the wall clock and is only meaningful when compared with another value from the same clock,
+     * i.e. for measuring elapsed time, but unlike {@link #getCurrentTimeMillis()} it never goes backwards.
+     *
+     * @return
+     */
+    default long getNanoTime() {
+        return System.nanoTime();
+    }
+
 }
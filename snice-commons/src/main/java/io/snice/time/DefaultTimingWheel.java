@@ -0,0 +1,382 @@
+package io.snice.time;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * The wheel is made up of a number of levels with {@code 2^bits} slots each, where a slot on level
+ * {@code L} covers {@code 2^(bits * L)} ticks. A timer goes onto the lowest level on which it is in the
+ * same "lap" as the current tick and whenever the current tick reaches the start of a slot on a higher
+ * level, all timers in that slot are cascaded down onto the lower levels. Every slot is an intrusive
+ * doubly linked list so a cancelled timer can be unlinked in constant time.
+ * </p>
+ *
+ * <p>
+ * Only the thread in {@link #advance()} ever touches the slots. New and cancelled timers are handed
+ * over through lock-free queues, which are drained at the start of every advance. The expired timers are
+ * collected while holding the monitor but dispatched after letting go of it, so a slow task, or one that
+ * waits for another thread that advances the wheel, doesn't hold up expiry.
+ * </p>
+ */
+final class DefaultTimingWheel implements TimingWheel {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final Clock clock;
+
+    /**
+     * The length of a tick in nanoseconds.
+     */
+    private final long tick;
+
+    /**
+     * The monotonic time of the clock when the wheel was created, which is tick zero.
+     */
+    private final long origin;
+    private final int bits;
+    private final int mask;
+    private final Entry[][] levels;
+    private final Executor executor;
+    private final ScheduledFuture<?> ticker;
+
+    private final Queue<Entry> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> cancelled = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder pendingTimers = new LongAdder();
+    private final LongAdder expiredTimers = new LongAdder();
+    private final LongAdder cancelledTimers = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * The next tick to process. Guarded by this.
+     */
+    private long currentTick;
+
+    /**
+     * The number of timers currently linked into a slot. Guarded by this.
+     */
+    private long linked;
+
+    static TimingWheel of(final Clock clock, final Duration tick, final int wheelSize, final Executor executor,
+                          final ScheduledExecutorService scheduler) {
+        assertNotNull(clock, "The clock cannot be null");
+        assertNotNull(tick, "The tick cannot be null");
+        assertArgument(tick.toMillis() >= 1, "The tick must be at least one millisecond");
+        assertNotNull(executor, "The executor cannot be null");
+        final int size = wheelSize <= 2 ? 2 : Integer.highestOneBit(wheelSize - 1) << 1;
+        return new DefaultTimingWheel(clock, tick.toNanos(), Integer.numberOfTrailingZeros(size), executor, scheduler);
+    }
+
+    private DefaultTimingWheel(final Clock clock, final long tick, final int bits, final Executor executor,
+                               final ScheduledExecutorService scheduler) {
+        this.clock = clock;
+        this.tick = tick;
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.executor = executor;
+
+        // enough levels to cover every positive tick
+        levels = new Entry[62 / bits + 1][1 << bits];
+        origin = clock.getNanoTime();
+
+        if (scheduler != null) {
+            ticker = scheduler.scheduleAtFixedRate(this::tick, tick, tick, TimeUnit.NANOSECONDS);
+        } else {
+            ticker = null;
+        }
+    }
+
+    @Override
+    public Timeout schedule(final Runnable task, final Duration delay) throws IllegalStateException {
+        assertNotNull(task, "The task cannot be null");
+        assertNotNull(delay, "The delay cannot be null");
+        if (closed) {
+            throw new IllegalStateException("The timing wheel has been closed");
+        }
+
+        final long deadline = clock.getNanoTime() + Math.max(0, delay.toNanos());
+        final Entry entry = new Entry(task, deadline);
+        pendingTimers.increment();
+        scheduled.add(entry);
+        return entry;
+    }
+
+    @Override
+    public int advance() {
+        final List<Entry> expired = expire();
+        if (!expired.isEmpty()) {
+            executor.execute(() -> run(expired));
+        }
+        return expired.size();
+    }
+
+    /**
+     * The scheduled advance. A periodic task that throws is never run again, so whatever goes wrong, e.g.
+     * the executor rejecting the batch or the clock failing, is reported instead of stopping the wheel.
+     */
+    private void tick() {
+        try {
+            advance();
+        } catch (final RuntimeException e) {
+            uncaught(e);
+        }
+    }
+
+    /**
+     * Move the wheel forward to the current time and collect the timers that are due.
+     */
+    private synchronized List<Entry> expire() {
+        final long now = clock.getNanoTime() - origin;
+        drainCancelled();
+
+        // nothing to tick through so jump straight to the current time
+        if (linked == 0) {
+            currentTick = Math.max(currentTick, now / tick);
+        }
+        drainScheduled();
+
+        final List<Entry> expired = new ArrayList<>();
+        while (currentTick * tick <= now) {
+            cascade();
+            final int slot = (int) (currentTick & mask);
+            Entry entry = levels[0][slot];
+            levels[0][slot] = null;
+            while (entry != null) {
+                final Entry next = entry.next;
+                entry.unlink();
+                --linked;
+                if (entry.state.compareAndSet(PENDING, EXPIRED)) {
+                    expired.add(entry);
+                }
+                entry = next;
+            }
+            ++currentTick;
+        }
+
+        if (!expired.isEmpty()) {
+            pendingTimers.add(-expired.size());
+            expiredTimers.add(expired.size());
+        }
+        return expired;
+    }
+
+    /**
+     * Move every timer in the slots that start at the current tick down onto the lower levels, starting
+     * from the top since a timer may be cascaded into a slot that is itself about to be cascaded.
+     */
+    private void cascade() {
+        for (int level = levels.length - 1; level >= 1; --level) {
+            final int shift = bits * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                continue;
+            }
+
+            final int slot = (int) ((currentTick >>> shift) & mask);
+            Entry entry = levels[level][slot];
+            levels[level][slot] = null;
+            while (entry != null) {
+                final Entry next = entry.next;
+                entry.unlink();
+                --linked;
+                link(entry);
+                entry = next;
+            }
+        }
+    }
+
+    private static void run(final List<Entry> expired) {
+        for (final Entry entry : expired) {
+            try {
+                entry.task.run();
+            } catch (final RuntimeException e) {
+                uncaught(e);
+            }
+        }
+    }
+
+    private static void uncaught(final RuntimeException e) {
+        final Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+
+    private void drainScheduled() {
+        Entry entry;
+        while ((entry = scheduled.poll()) != null) {
+            if (entry.state.get() == PENDING) {
+                link(entry);
+            }
+        }
+    }
+
+    private void drainCancelled() {
+        Entry entry;
+        while ((entry = cancelled.poll()) != null) {
+            if (entry.level >= 0) {
+                if (levels[entry.level][entry.slot] == entry) {
+                    levels[entry.level][entry.slot] = entry.next;
+                }
+                entry.unlink();
+                --linked;
+            }
+        }
+    }
+
+    /**
+     * Put the entry onto the lowest level where it is in the same lap as the current tick, i.e. where
+     * the deadline and the current tick only differ in the bits covered by that level.
+     */
+    private void link(final Entry entry) {
+        final long deadlineTick = Math.max(currentTick, (entry.deadline - origin + tick - 1) / tick);
+        final long diff = deadlineTick ^ currentTick;
+        final int level = diff == 0 ? 0 : (63 - Long.numberOfLeadingZeros(diff)) / bits;
+        final int slot = (int) ((deadlineTick >>> (bits * level)) & mask);
+
+        final Entry head = levels[level][slot];
+        entry.level = level;
+        entry.slot = slot;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        levels[level][slot] = entry;
+        ++linked;
+    }
+
+    @Override
+    public long getPendingTimers() {
+        return pendingTimers.sum();
+    }
+
+    @Override
+    public long getExpiredTimers() {
+        return expiredTimers.sum();
+    }
+
+    @Override
+    public long getCancelledTimers() {
+        return cancelledTimers.sum();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (ticker != null) {
+            ticker.cancel(false);
+        }
+
+        drainCancelled();
+        drainScheduled();
+        for (final Entry[] slots : levels) {
+            for (int i = 0; i < slots.length; ++i) {
+                Entry entry = slots[i];
+                slots[i] = null;
+                while (entry != null) {
+                    final Entry next = entry.next;
+                    entry.unlink();
+                    entry.cancel();
+                    entry = next;
+                }
+            }
+        }
+        cancelled.clear();
+        linked = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TimingWheel[tick=" + Duration.ofNanos(tick) + ", wheelSize=" + (mask + 1) + ", levels=" + levels.length
+                + ", pending=" + getPendingTimers() + "]";
+    }
+
+    private final class Entry implements Timeout {
+        private Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        // only accessed by the thread advancing the wheel
+        private int level = -1;
+        private int slot;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(final Runnable task, final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Unlink from the neighbours. The caller is responsible for updating the head of the slot.
+         */
+        private void unlink() {
+            if (prev != null) {
+                prev.next = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+            prev = null;
+            next = null;
+            level = -1;
+        }
+
+        @Override
+        public Runnable getTask() {
+            return task;
+        }
+
+        @Override
+        public long getDeadline() {
+            return deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            // the entry may stay linked into its slot until the next advance, but there is no reason
+            // for it to keep the task, and whatever that task references, reachable until then
+            task = null;
+            pendingTimers.decrement();
+            cancelledTimers.increment();
+            if (!closed) {
+                cancelled.add(this);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        @Override
+        public String toString() {
+            return "Timeout[deadline=" + deadline + ", state=" + state.get() + "]";
+        }
+    }
+}
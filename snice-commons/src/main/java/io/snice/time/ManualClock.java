@@ -0,0 +1,79 @@
+package io.snice.time;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * A {@link Clock} that only moves when you tell it to, which is what you want in unit tests of
+ * anything that deals with timeouts.
+ *
+ * Advancing the clock moves both the wall clock and the monotonic time forward by the same amount,
+ * whereas setting the wall clock, which may move it backwards just like an adjustment of the system time
+ * would, leaves the monotonic time alone. The wall clock keeps track of nanoseconds internally, so a number
+ * of sub-millisecond advances add up on the wall clock just as they do on the monotonic time.
+ */
+public final class ManualClock implements Clock {
+
+    /**
+     * The wall clock, in nanoseconds since the epoch.
+     */
+    private final AtomicLong currentTimeNanos;
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    /**
+     * Create a new clock that starts out at the current system time.
+     */
+    public static ManualClock of() {
+        return of(System.currentTimeMillis());
+    }
+
+    public static ManualClock of(final long currentTimeMillis) {
+        return new ManualClock(currentTimeMillis);
+    }
+
+    private ManualClock(final long currentTimeMillis) {
+        this.currentTimeNanos = new AtomicLong(Math.multiplyExact(currentTimeMillis, 1_000_000L));
+    }
+
+    @Override
+    public long getCurrentTimeMillis() {
+        return Math.floorDiv(currentTimeNanos.get(), 1_000_000L);
+    }
+
+    @Override
+    public long getNanoTime() {
+        return nanoTime.get();
+    }
+
+    /**
+     * Move the clock forward.
+     *
+     * @return the new wall clock time.
+     */
+    public long advance(final Duration duration) {
+        assertNotNull(duration, "The duration cannot be null");
+        assertArgument(!duration.isNegative(), "The clock can only be advanced forward");
+        final long nanos = duration.toNanos();
+        nanoTime.addAndGet(nanos);
+        return Math.floorDiv(currentTimeNanos.addAndGet(nanos), 1_000_000L);
+    }
+
+    public long advanceMillis(final long millis) {
+        return advance(Duration.ofMillis(millis));
+    }
+
+    /**
+     * Set the wall clock, without affecting the monotonic time.
+     */
+    public void setCurrentTimeMillis(final long currentTimeMillis) {
+        currentTimeNanos.set(Math.multiplyExact(currentTimeMillis, 1_000_000L));
+    }
+
+    @Override
+    public String toString() {
+        return "ManualClock[currentTimeMillis=" + getCurrentTimeMillis() + ", nanoTime=" + getNanoTime() + "]";
+    }
+}
@@ -0,0 +1,164 @@
+package io.snice.time;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static io.snice.preconditions.PreConditions.assertArgument;
+import static io.snice.preconditions.PreConditions.assertNotNull;
+
+/**
+ * <p>
+ * A hierarchical hashed timing wheel for when you have a lot of short lived timers, such as
+ * re-transmissions and transaction timeouts, which are typically cancelled long before they fire.
+ * Scheduling and cancelling a timer is O(1) and does not take any locks.
+ * </p>
+ *
+ * <p>
+ * The wheel moves forward one tick at a time and only when {@link #advance()} is called, at which point
+ * it reads the monotonic time ({@link Clock#getNanoTime()}) off of its {@link Clock} and fires all timers
+ * that are due. Since the wall clock isn't used, adjustments of the system time neither stop the wheel
+ * nor fire timers early. This is done for you on
+ * a fixed schedule if you give the wheel a {@link ScheduledExecutorService}, but you can just as well drive
+ * it yourself, which, together with a {@link ManualClock}, makes for deterministic unit tests.
+ * </p>
+ *
+ * <p>
+ * A timer never fires early but it may fire up to one tick, plus however long it takes until the
+ * next call to {@link #advance()}, late.
+ * </p>
+ */
+public interface TimingWheel extends AutoCloseable {
+
+    Duration DEFAULT_TICK = Duration.ofMillis(10);
+
+    int DEFAULT_WHEEL_SIZE = 512;
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Schedule the task to run once the delay has passed.
+     *
+     * @throws IllegalStateException in case the wheel has been closed.
+     */
+    Timeout schedule(Runnable task, Duration delay) throws IllegalStateException;
+
+    /**
+     * Move the wheel forward to the current time of the {@link Clock} and dispatch all timers
+     * that are due, in one batch, onto the executor. The batch is dispatched outside of any lock,
+     * so the tasks are free to advance the wheel, or wait for another thread that does.
+     *
+     * @return the number of timers that expired.
+     */
+    int advance();
+
+    /**
+     * The number of timers that have been scheduled but have neither expired nor been cancelled.
+     */
+    long getPendingTimers();
+
+    /**
+     * The total number of timers that have expired, i.e. that have been handed off to the executor.
+     */
+    long getExpiredTimers();
+
+    /**
+     * The total number of timers that have been cancelled.
+     */
+    long getCancelledTimers();
+
+    /**
+     * Stop the scheduled ticking, if any, and cancel all pending timers. The wheel does not own the
+     * executor nor the scheduler so neither of them will be shut down.
+     */
+    @Override
+    void close();
+
+    interface Timeout {
+
+        /**
+         * The task to run, or null once the timer has been cancelled, so that a cancelled timer
+         * doesn't keep the task reachable.
+         */
+        Runnable getTask();
+
+        /**
+         * The monotonic time, as given by {@link Clock#getNanoTime()} of the wheel, at which the timer is due.
+         */
+        long getDeadline();
+
+        /**
+         * @return true if the timer was cancelled by this call, false if it already had expired
+         * or been cancelled.
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+
+        boolean isExpired();
+    }
+
+    class Builder {
+
+        private Clock clock = new SystemClock();
+        private Duration tick = DEFAULT_TICK;
+        private int wheelSize = DEFAULT_WHEEL_SIZE;
+        private Executor executor = Runnable::run;
+        private ScheduledExecutorService scheduler;
+
+        private Builder() {
+            // use TimingWheel.builder()
+        }
+
+        public Builder withClock(final Clock clock) {
+            assertNotNull(clock, "The clock cannot be null");
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * The resolution of the wheel, which must be at least one millisecond.
+         */
+        public Builder withTick(final Duration tick) {
+            assertNotNull(tick, "The tick cannot be null");
+            assertArgument(tick.toMillis() >= 1, "The tick must be at least one millisecond");
+            this.tick = tick;
+            return this;
+        }
+
+        /**
+         * The number of slots on every level of the wheel, which will be rounded up to the closest
+         * power of two. Timers that are due within this many ticks go straight onto the innermost level.
+         */
+        public Builder withWheelSize(final int wheelSize) {
+            assertArgument(wheelSize >= 2 && wheelSize <= 1 << 16, "The wheel size must be between 2 - 65536");
+            this.wheelSize = wheelSize;
+            return this;
+        }
+
+        /**
+         * Where the expired timers are run. By default they are run by the thread calling
+         * {@link #advance()}, which is fine as long as they are quick.
+         */
+        public Builder withExecutor(final Executor executor) {
+            assertNotNull(executor, "The executor cannot be null");
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Have the wheel call {@link #advance()} on the given scheduler once every tick.
+         */
+        public Builder withScheduler(final ScheduledExecutorService scheduler) {
+            assertNotNull(scheduler, "The scheduler cannot be null");
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public TimingWheel build() {
+            return DefaultTimingWheel.of(clock, tick, wheelSize, executor, scheduler);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.snice.protocol;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TransactionIdGeneratorTest {
+
+    @After
+    public void tearDown() {
+        TransactionId.setDefaultGenerator(TransactionIdGenerator.uuid());
+    }
+
+    @Test
+    public void testDefaultGenerator() {
+        assertThat(TransactionId.generateDefault(), instanceOf(UuidTransactionId.class));
+
+        final TransactionIdGenerator counter = TransactionIdGenerator.counter(7);
+        TransactionId.setDefaultGenerator(counter);
+        assertThat(TransactionId.getDefaultGenerator(), sameInstance(counter));
+        assertThat(TransactionId.generateDefault(), instanceOf(CounterTransactionId.class));
+        assertThat(RequestSupport.create("alice").getTransactionId(), instanceOf(CounterTransactionId.class));
+    }
+
+    @Test
+    public void testTimeOrdered() {
+        final long now = 1700000000123L;
+        final UuidTransactionId id = (UuidTransactionId) TransactionIdGenerator.timeOrdered(() -> now).generate();
+        final UUID uuid = id.getUuid();
+        assertThat(uuid.version(), is(7));
+        assertThat(uuid.variant(), is(2));
+        assertThat(uuid.getMostSignificantBits() >>> 16, is(now));
+
+        // ids generated later sort after ids generated earlier
+        final UuidTransactionId later = (UuidTransactionId) TransactionIdGenerator.timeOrdered(() -> now + 1).generate();
+        assertThat(later.toString().compareTo(id.toString()) > 0, is(true));
+        assertThat(later.getUuid().compareTo(uuid) > 0, is(true));
+    }
+
+    @Test
+    public void testCounter() {
+        final TransactionIdGenerator generator = TransactionIdGenerator.counter(0xCAFEL);
+        final CounterTransactionId id = (CounterTransactionId) generator.generate();
+        assertThat(id.getNodeId(), is(0xCAFEL));
+        assertThat(id.toString().startsWith("000000000000cafe-"), is(true));
+        assertThat(id, is(CounterTransactionId.of(id.getNodeId(), id.getSequence())));
+        assertThat(id.hashCode(), is(CounterTransactionId.of(id.getNodeId(), id.getSequence()).hashCode()));
+        assertThat(generator.generate(), not(id));
+        assertThat(CounterTransactionId.of(1, 2), not(CounterTransactionId.of(2, 1)));
+    }
+
+    /**
+     * Every generator must produce unique ids even when hammered by many threads.
+     */
+    @Test(timeout = 20000)
+    public void testUniqueAcrossThreads() throws Exception {
+        ensureUnique(TransactionIdGenerator.uuid());
+        ensureUnique(TransactionIdGenerator.timeOrdered());
+        ensureUnique(TransactionIdGenerator.counter(1));
+    }
+
+    private static void ensureUnique(final TransactionIdGenerator generator) throws Exception {
+        final int threads = 8;
+        final int perThread = 5000;
+        final Set<TransactionId> ids = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; ++t) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; ++i) {
+                    ids.add(generator.generate());
+                }
+            }));
+        }
+
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertThat(ids.size(), is(threads * perThread));
+    }
+
+    @Test
+    public void testUuidEquality() {
+        final UUID uuid = UUID.randomUUID();
+        assertThat(UuidTransactionId.of(uuid), is(UuidTransactionId.of(uuid)));
+        assertThat(UuidTransactionId.of(uuid).hashCode(), is(uuid.hashCode()));
+        assertThat(UuidTransactionId.of(uuid).toString(), is(uuid.toString()));
+    }
+}
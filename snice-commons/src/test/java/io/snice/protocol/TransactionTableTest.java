@@ -0,0 +1,261 @@
+package io.snice.protocol;
+
+import io.snice.time.ManualClock;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TransactionTableTest {
+
+    private final ManualClock clock = ManualClock.of(1000);
+
+    private TransactionTable<String> table;
+
+    @Before
+    public void setUp() {
+        table = TransactionTable.<String>withDefaultTimeout(Duration.ofSeconds(32))
+                .withStripes(4)
+                .withClock(clock)
+                .build();
+    }
+
+    @Test
+    public void testFinalResponse() throws Exception {
+        final Request<String, Object> request = RequestSupport.create("alice");
+        final CompletableFuture<Response<String, ?>> future = table.register(request);
+        assertThat(table.size(), is(1));
+        assertThat(table.get(request.getTransactionId()).get(), is(request));
+
+        final Response<String, Object> response = request.createResponse();
+        assertThat(table.process(response), is(true));
+        assertThat(future.get(), is(response));
+        assertThat(table.size(), is(0));
+        assertThat(table.get(request.getTransactionId()).isPresent(), is(false));
+
+        // e.g. a re-transmission of the final response
+        assertThat(table.process(response), is(false));
+    }
+
+    @Test
+    public void testProvisionalResponses() {
+        final Request<String, Object> request = RequestSupport.create("alice");
+        final List<Response<String, ?>> provisionals = new ArrayList<>();
+        final CompletableFuture<Response<String, ?>> future = table.register(request, Duration.ofSeconds(1), provisionals::add);
+
+        assertThat(table.process(request.buildResponse().isFinal(false).build()), is(true));
+        assertThat(table.process(request.buildResponse().isFinal(false).build()), is(true));
+        assertThat(provisionals.size(), is(2));
+        assertThat(future.isDone(), is(false));
+
+        // no callback for provisional responses is fine too
+        final Request<String, Object> other = RequestSupport.create("bob");
+        table.register(other);
+        assertThat(table.process(other.buildResponse().isFinal(false).build()), is(true));
+        assertThat(table.size(), is(2));
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        final Request<String, Object> shortLived = RequestSupport.create("alice");
+        final Request<String, Object> longLived = RequestSupport.create("bob");
+        final Request<String, Object> answered = RequestSupport.create("carol");
+        final CompletableFuture<Response<String, ?>> shortFuture = table.register(shortLived, Duration.ofMillis(100), null);
+        final CompletableFuture<Response<String, ?>> longFuture = table.register(longLived);
+        table.register(answered, Duration.ofMillis(100), null);
+        table.process(answered.createResponse());
+
+        clock.advanceMillis(99);
+        assertThat(table.expire(), is(0));
+
+        clock.advanceMillis(1);
+        assertThat(table.expire(), is(1));
+        assertThat(table.size(), is(1));
+        assertTimedOut(shortFuture);
+        assertThat(longFuture.isDone(), is(false));
+
+        // a late response is simply not matched
+        assertThat(table.process(shortLived.createResponse()), is(false));
+
+        clock.advance(Duration.ofSeconds(32));
+        assertThat(table.expire(), is(1));
+        assertTimedOut(longFuture);
+        assertThat(table.size(), is(0));
+    }
+
+    /**
+     * If a transaction completes and a new one with the same id is registered, the deadline
+     * of the old one must not expire the new one.
+     */
+    @Test
+    public void testReuseTransactionId() {
+        final Request<String, Object> request = RequestSupport.create("alice");
+        table.register(request, Duration.ofMillis(10), null);
+        table.process(request.createResponse());
+
+        final CompletableFuture<Response<String, ?>> future = table.register(request, Duration.ofMillis(100), null);
+        clock.advanceMillis(10);
+        assertThat(table.expire(), is(0));
+        assertThat(future.isDone(), is(false));
+    }
+
+    /**
+     * Once a transaction completes, or is cancelled, the table must not keep the request, nor the
+     * response, reachable until its timeout would have fired.
+     */
+    @Test(timeout = 10000)
+    public void testCompletedTransactionsAreNotRetained() throws Exception {
+        final List<WeakReference<Object>> refs = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            refs.addAll(registerAndComplete(i % 2 == 0));
+        }
+        assertThat(table.size(), is(0));
+
+        for (int i = 0; i < 50 && refs.stream().anyMatch(ref -> ref.get() != null); ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        for (final WeakReference<Object> ref : refs) {
+            assertThat(ref.get(), nullValue());
+        }
+    }
+
+    private List<WeakReference<Object>> registerAndComplete(final boolean respond) {
+        final Request<String, Object> request = RequestSupport.create("alice");
+        table.register(request);
+        if (!respond) {
+            table.cancel(request.getTransactionId());
+            return List.of(new WeakReference<>(request));
+        }
+
+        final Response<String, Object> response = request.createResponse();
+        table.process(response);
+        return List.of(new WeakReference<>(request), new WeakReference<>(response));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegisterTwice() {
+        final Request<String, Object> request = RequestSupport.create("alice");
+        table.register(request);
+        table.register(request);
+    }
+
+    @Test
+    public void testCancelAndClose() {
+        final Request<String, Object> a = RequestSupport.create("alice");
+        final Request<String, Object> b = RequestSupport.create("bob");
+        final CompletableFuture<Response<String, ?>> futureA = table.register(a);
+        final CompletableFuture<Response<String, ?>> futureB = table.register(b);
+
+        assertThat(table.cancel(a.getTransactionId()), is(true));
+        assertThat(table.cancel(a.getTransactionId()), is(false));
+        assertThat(futureA.isCancelled(), is(true));
+
+        table.close();
+        assertThat(futureB.isCancelled(), is(true));
+        assertThat(table.size(), is(0));
+    }
+
+    /**
+     * The timeout of a transaction, and whatever has been chained onto its future, must not run while
+     * holding on to any lock, or another thread expiring the table would block behind it.
+     */
+    @Test(timeout = 10000)
+    public void testExpireFromTimeoutCallback() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CompletableFuture<Integer> expiredByOther = new CompletableFuture<>();
+            final CompletableFuture<Response<String, ?>> first = table.register(RequestSupport.create("alice"), Duration.ofMillis(100), null);
+            final CompletableFuture<Response<String, ?>> second = table.register(RequestSupport.create("bob"), Duration.ofMillis(200), null);
+            first.whenComplete((response, error) -> {
+                clock.advanceMillis(100);
+                final Future<Integer> expired = executor.submit(table::expire);
+                try {
+                    expiredByOther.complete(expired.get(2, TimeUnit.SECONDS));
+                } catch (final Exception e) {
+                    expiredByOther.completeExceptionally(e);
+                }
+            });
+
+            clock.advanceMillis(100);
+            assertThat(table.expire(), is(1));
+            assertThat(expiredByOther.get(), is(1));
+            assertTimedOut(first);
+            assertTimedOut(second);
+            assertThat(table.size(), is(0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testScheduledExpiry() throws Exception {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try (TransactionTable<String> table = TransactionTable.<String>withDefaultTimeout(Duration.ofMillis(20))
+                .withScheduler(scheduler, Duration.ofMillis(5))
+                .build()) {
+            final CompletableFuture<Response<String, ?>> future = table.register(RequestSupport.create("alice"));
+            try {
+                future.get(2, TimeUnit.SECONDS);
+            } catch (final ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(TimeoutException.class));
+            }
+            assertThat(table.size(), is(0));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrent() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 5000; ++i) {
+                    final Request<String, Object> request = RequestSupport.create("alice");
+                    final CompletableFuture<Response<String, ?>> future = table.register(request);
+                    final Response<String, Object> response = request.createResponse();
+                    assertThat(table.process(response), is(true));
+                    assertThat(future.getNow(null), is(response));
+                }
+            }));
+        }
+
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertThat(table.size(), is(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadTimeout() {
+        TransactionTable.withDefaultTimeout(Duration.ZERO);
+    }
+
+    private static void assertTimedOut(final CompletableFuture<?> future) throws InterruptedException {
+        assertThat(future.isCompletedExceptionally(), is(true));
+        try {
+            future.get();
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(TimeoutException.class));
+        }
+    }
+}
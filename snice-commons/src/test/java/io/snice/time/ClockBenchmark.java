@@ -0,0 +1,54 @@
+package io.snice.time;
+
+import java.time.Duration;
+import java.util.function.ToLongFunction;
+
+/**
+ * Rough per-call cost of the various clocks compared to calling the system directly. This is not
+ * a unit test, it's meant to be run by hand (e.g. from your IDE) and the numbers will vary a lot
+ * between machines, operating systems and clock sources.
+ */
+public final class ClockBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 5;
+    private static final int ITERATIONS = 10_000_000;
+
+    private static long sink;
+
+    public static void main(final String... args) {
+        final Clock system = new SystemClock();
+        try (CachedClock cached = CachedClock.of(Duration.ofMillis(1))) {
+            run("System.currentTimeMillis()", clock -> System.currentTimeMillis(), null);
+            run("System.nanoTime()", clock -> System.nanoTime(), null);
+            run("SystemClock.getCurrentTimeMillis()", Clock::getCurrentTimeMillis, system);
+            run("CachedClock.getCurrentTimeMillis()", Clock::getCurrentTimeMillis, cached);
+            run("CachedClock.getNanoTime()", Clock::getNanoTime, cached);
+            run("ManualClock.getCurrentTimeMillis()", Clock::getCurrentTimeMillis, ManualClock.of());
+        }
+        System.out.println("(sink " + sink + ")");
+    }
+
+    private static void run(final String name, final ToLongFunction<Clock> call, final Clock clock) {
+        for (int i = 0; i < WARMUP_ROUNDS; ++i) {
+            measure(call, clock);
+        }
+
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; ++i) {
+            best = Math.min(best, measure(call, clock));
+        }
+        System.out.printf("%-40s %8.2f ns/call%n", name, best);
+    }
+
+    private static double measure(final ToLongFunction<Clock> call, final Clock clock) {
+        long sum = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; ++i) {
+            sum += call.applyAsLong(clock);
+        }
+        final long elapsed = System.nanoTime() - start;
+        sink += sum;
+        return (double) elapsed / ITERATIONS;
+    }
+}
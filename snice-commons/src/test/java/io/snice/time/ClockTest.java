@@ -0,0 +1,100 @@
+package io.snice.time;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ClockTest {
+
+    @Test
+    public void testManualClock() {
+        final ManualClock clock = ManualClock.of(1000);
+        assertThat(clock.getCurrentTimeMillis(), is(1000L));
+        assertThat(clock.getNanoTime(), is(0L));
+
+        assertThat(clock.advance(Duration.ofMillis(15)), is(1015L));
+        assertThat(clock.advanceMillis(5), is(1020L));
+        assertThat(clock.getNanoTime(), is(20_000_000L));
+
+        // moving the wall clock backwards doesn't affect the monotonic time
+        clock.setCurrentTimeMillis(500);
+        assertThat(clock.getCurrentTimeMillis(), is(500L));
+        assertThat(clock.getNanoTime(), is(20_000_000L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testManualClockBackwards() {
+        ManualClock.of(1000).advance(Duration.ofMillis(-1));
+    }
+
+    /**
+     * Sub-millisecond advances must add up on the wall clock just as they do on the monotonic time.
+     */
+    @Test
+    public void testManualClockSubMillisecondAdvance() {
+        final ManualClock clock = ManualClock.of(1000);
+        for (int i = 0; i < 10; ++i) {
+            clock.advance(Duration.ofNanos(500_000));
+        }
+        assertThat(clock.getNanoTime(), is(5_000_000L));
+        assertThat(clock.getCurrentTimeMillis(), is(1005L));
+
+        assertThat(clock.advance(Duration.ofNanos(999_999)), is(1005L));
+        assertThat(clock.advance(Duration.ofNanos(1)), is(1006L));
+
+        clock.setCurrentTimeMillis(2000);
+        assertThat(clock.getCurrentTimeMillis(), is(2000L));
+        assertThat(clock.getNanoTime(), is(6_000_000L));
+    }
+
+    @Test
+    public void testCachedClockThreadName() throws Exception {
+        try (CachedClock clock = CachedClock.of(Duration.ofMillis(1))) {
+            final boolean found = Thread.getAllStackTraces().keySet().stream()
+                    .anyMatch(t -> t.getName().startsWith("snice-cached-clock-") && t.isDaemon());
+            assertThat(found, is(true));
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testCachedClock() throws Exception {
+        try (CachedClock clock = CachedClock.of(Duration.ofMillis(1))) {
+            final long start = clock.getNanoTime();
+            final long wallClock = clock.getCurrentTimeMillis();
+            assertThat(Math.abs(wallClock - System.currentTimeMillis()) < 1000, is(true));
+
+            while (clock.getNanoTime() == start) {
+                Thread.sleep(1);
+            }
+            assertThat(clock.getNanoTime() > start, is(true));
+        }
+    }
+
+    /**
+     * Once closed the clock stops ticking.
+     */
+    @Test(timeout = 5000)
+    public void testCachedClockClose() throws Exception {
+        final CachedClock clock = CachedClock.of(Duration.ofMillis(1));
+        clock.close();
+        Thread.sleep(20);
+        final long nanoTime = clock.getNanoTime();
+        Thread.sleep(20);
+        assertThat(clock.getNanoTime(), is(nanoTime));
+    }
+
+    @Test
+    public void testSystemClock() {
+        final Clock clock = new SystemClock();
+        final long nanoTime = clock.getNanoTime();
+        assertThat(clock.getNanoTime() >= nanoTime, is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadResolution() {
+        CachedClock.of(Duration.ofNanos(10));
+    }
+}
@@ -0,0 +1,277 @@
+package io.snice.time;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TimingWheelTest {
+
+    private final ManualClock clock = ManualClock.of(1000);
+
+    private TimingWheel wheel(final int wheelSize) {
+        return TimingWheel.builder()
+                .withClock(clock)
+                .withTick(Duration.ofMillis(10))
+                .withWheelSize(wheelSize)
+                .build();
+    }
+
+    /**
+     * The time since the clock was created, in milliseconds, according to the monotonic time.
+     */
+    private long now() {
+        return clock.getNanoTime() / 1_000_000;
+    }
+
+    @Test
+    public void testNeverFiresEarly() {
+        final TimingWheel wheel = wheel(8);
+        final AtomicInteger fired = new AtomicInteger();
+        final TimingWheel.Timeout timeout = wheel.schedule(fired::incrementAndGet, Duration.ofMillis(25));
+        assertThat(timeout.getDeadline(), is(25_000_000L));
+
+        clock.advanceMillis(24);
+        assertThat(wheel.advance(), is(0));
+        assertThat(fired.get(), is(0));
+
+        // the deadline is rounded up to the next tick
+        clock.advanceMillis(5);
+        assertThat(wheel.advance(), is(0));
+        clock.advanceMillis(1);
+        assertThat(wheel.advance(), is(1));
+        assertThat(fired.get(), is(1));
+        assertThat(timeout.isExpired(), is(true));
+        assertThat(timeout.cancel(), is(false));
+
+        clock.advanceMillis(1000);
+        assertThat(wheel.advance(), is(0));
+        assertThat(fired.get(), is(1));
+    }
+
+    /**
+     * With a small wheel most timers end up on the higher levels and have to be cascaded down,
+     * possibly several times, before they fire. Every timer must fire on the first advance past
+     * its deadline, rounded up to the tick.
+     */
+    @Test
+    public void testCascade() {
+        final TimingWheel wheel = wheel(4);
+        final Random random = new Random(1234);
+        final List<long[]> timers = new ArrayList<>();
+        for (int i = 0; i < 2000; ++i) {
+            final long[] timer = new long[]{random.nextInt(200_000), -1};
+            timers.add(timer);
+            wheel.schedule(() -> timer[1] = now(), Duration.ofMillis(timer[0]));
+        }
+        assertThat(wheel.getPendingTimers(), is(2000L));
+
+        long previous = now();
+        while (wheel.getPendingTimers() > 0) {
+            clock.advanceMillis(1 + random.nextInt(300));
+            wheel.advance();
+            for (final long[] timer : timers) {
+                final long due = (timer[0] + 9) / 10 * 10;
+                if (due <= now() && due > previous) {
+                    assertThat(timer[1], is(now()));
+                } else if (due > now()) {
+                    assertThat(timer[1], is(-1L));
+                }
+            }
+            previous = now();
+        }
+        assertThat(wheel.getExpiredTimers(), is(2000L));
+    }
+
+    @Test
+    public void testCancel() {
+        final TimingWheel wheel = wheel(4);
+        final AtomicInteger fired = new AtomicInteger();
+        final TimingWheel.Timeout beforeAdvance = wheel.schedule(fired::incrementAndGet, Duration.ofMillis(100));
+        final TimingWheel.Timeout near = wheel.schedule(fired::incrementAndGet, Duration.ofMillis(20));
+        final TimingWheel.Timeout far = wheel.schedule(fired::incrementAndGet, Duration.ofSeconds(10));
+        wheel.schedule(fired::incrementAndGet, Duration.ofMillis(20));
+
+        assertThat(beforeAdvance.cancel(), is(true));
+        assertThat(beforeAdvance.cancel(), is(false));
+        wheel.advance();
+
+        assertThat(near.cancel(), is(true));
+        assertThat(far.cancel(), is(true));
+        assertThat(far.isCancelled(), is(true));
+        assertThat(far.getTask(), nullValue());
+        assertThat(wheel.getPendingTimers(), is(1L));
+        assertThat(wheel.getCancelledTimers(), is(3L));
+
+        clock.advanceMillis(60_000);
+        assertThat(wheel.advance(), is(1));
+        assertThat(fired.get(), is(1));
+        assertThat(wheel.getPendingTimers(), is(0L));
+    }
+
+    /**
+     * All timers that expire in the same advance are handed to the executor in one go.
+     */
+    @Test
+    public void testBatchedDispatch() {
+        final List<Runnable> batches = new ArrayList<>();
+        final TimingWheel wheel = TimingWheel.builder()
+                .withClock(clock)
+                .withExecutor(batches::add)
+                .build();
+        final AtomicInteger fired = new AtomicInteger();
+        for (int i = 0; i < 100; ++i) {
+            wheel.schedule(fired::incrementAndGet, Duration.ofMillis(i));
+        }
+
+        clock.advanceMillis(1000);
+        assertThat(wheel.advance(), is(100));
+        assertThat(batches.size(), is(1));
+        assertThat(fired.get(), is(0));
+
+        batches.get(0).run();
+        assertThat(fired.get(), is(100));
+    }
+
+    @Test
+    public void testFailingTaskDoesNotStopTheBatch() {
+        final TimingWheel wheel = wheel(8);
+        final AtomicInteger fired = new AtomicInteger();
+        final Thread thread = Thread.currentThread();
+        final Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        final AtomicInteger errors = new AtomicInteger();
+        thread.setUncaughtExceptionHandler((t, e) -> errors.incrementAndGet());
+        try {
+            wheel.schedule(() -> {
+                throw new IllegalStateException("boom");
+            }, Duration.ofMillis(10));
+            wheel.schedule(fired::incrementAndGet, Duration.ofMillis(10));
+            clock.advanceMillis(10);
+            assertThat(wheel.advance(), is(2));
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+        assertThat(errors.get(), is(1));
+        assertThat(fired.get(), is(1));
+    }
+
+    /**
+     * The wheel runs off of the monotonic time so the wall clock being stepped, in either direction,
+     * doesn't matter.
+     */
+    @Test
+    public void testWallClockAdjustments() {
+        final TimingWheel wheel = wheel(8);
+        final AtomicInteger fired = new AtomicInteger();
+        wheel.schedule(fired::incrementAndGet, Duration.ofMillis(100));
+        wheel.schedule(fired::incrementAndGet, Duration.ofMillis(200));
+
+        clock.setCurrentTimeMillis(clock.getCurrentTimeMillis() + 3_600_000);
+        assertThat(wheel.advance(), is(0));
+
+        clock.advanceMillis(100);
+        clock.setCurrentTimeMillis(0);
+        assertThat(wheel.advance(), is(1));
+        clock.advanceMillis(100);
+        assertThat(wheel.advance(), is(1));
+        assertThat(fired.get(), is(2));
+    }
+
+    /**
+     * A scheduled advance that blows up, here because the executor rejects the batch, must not stop
+     * the wheel from ticking.
+     */
+    @Test(timeout = 10000)
+    public void testScheduledAdvanceSurvivesFailures() throws Exception {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setUncaughtExceptionHandler((t, e) -> { });
+            return thread;
+        });
+        final AtomicInteger rejected = new AtomicInteger();
+        final CountDownLatch fired = new CountDownLatch(1);
+        try (TimingWheel wheel = TimingWheel.builder()
+                .withTick(Duration.ofMillis(1))
+                .withExecutor(task -> {
+                    if (rejected.getAndIncrement() == 0) {
+                        throw new RejectedExecutionException("busy");
+                    }
+                    task.run();
+                })
+                .withScheduler(scheduler)
+                .build()) {
+            wheel.schedule(() -> { }, Duration.ofMillis(1));
+            while (rejected.get() == 0) {
+                Thread.sleep(1);
+            }
+
+            wheel.schedule(fired::countDown, Duration.ofMillis(1));
+            assertThat(fired.await(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testScheduleAfterClose() {
+        final TimingWheel wheel = wheel(8);
+        final TimingWheel.Timeout timeout = wheel.schedule(() -> { }, Duration.ofSeconds(1));
+        wheel.close();
+        assertThat(timeout.isCancelled(), is(true));
+        assertThat(wheel.getPendingTimers(), is(0L));
+        wheel.schedule(() -> { }, Duration.ofSeconds(1));
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrent() throws Exception {
+        final TimingWheel wheel = wheel(64);
+        final AtomicInteger fired = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; ++i) {
+                    final TimingWheel.Timeout timeout = wheel.schedule(fired::incrementAndGet, Duration.ofMillis(i));
+                    if (i % 2 == 0) {
+                        timeout.cancel();
+                    }
+                    if (i % 100 == 0) {
+                        wheel.advance();
+                    }
+                }
+            }));
+        }
+
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        clock.advanceMillis(20_000);
+        wheel.advance();
+        assertThat(fired.get(), is(20_000));
+        assertThat(wheel.getExpiredTimers(), is(20_000L));
+        assertThat(wheel.getCancelledTimers(), is(20_000L));
+        assertThat(wheel.getPendingTimers(), is(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadTick() {
+        TimingWheel.builder().withTick(Duration.ofNanos(10));
+    }
+}